@@ -0,0 +1,129 @@
+package aprende.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import aprende.conexion.Conexion;
+import aprende.model.Nomina;
+import aprende.model.ValidadorDni;
+
+/**
+ * Utilidades para preparar la base de datos embebida (H2 en memoria) sobre la que
+ * se ejecutan los benchmarks de la capa de acceso a datos.
+ */
+final class BaseDatosBenchmark {
+
+    private BaseDatosBenchmark() {
+    }
+
+    /**
+     * Configura {@link Conexion} para que use la base de datos embebida
+     * ({@code nominas.db.tipo=h2}) en memoria, con compatibilidad MySQL, y crea el pool,
+     * que aplica al esquema las migraciones de la aplicación ({@code db/migracion}).
+     * Debe llamarse antes del primer acceso a {@link Conexion} dentro del proceso del
+     * benchmark.
+     *
+     * @param nombre El nombre de la base de datos en memoria.
+     */
+    static void configurar(String nombre) {
+        configurar(nombre, "");
+    }
+
+    /**
+     * Igual que {@link #configurar(String)}, con opciones adicionales de H2 en la URL.
+     *
+     * @param nombre      El nombre de la base de datos en memoria.
+     * @param opcionesUrl Opciones que se añaden a la URL, cada una precedida de {@code ;}.
+     */
+    static void configurar(String nombre, String opcionesUrl) {
+        System.setProperty("nominas.db.tipo", "h2");
+        System.setProperty("nominas.db.h2.url", "jdbc:h2:mem:" + nombre
+                + ";DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE" + opcionesUrl);
+        Conexion.inicializar();
+    }
+
+    /**
+     * Vacía las tablas y las rellena con el número de empleados indicado, con su nómina
+     * y el resumen materializado.
+     *
+     * @param filas El número de empleados a insertar.
+     * @throws SQLException Si ocurre un error al insertar los datos.
+     */
+    static void poblar(int filas) throws SQLException {
+        Nomina nomina = Nomina.getInstance();
+        try (Connection connection = Conexion.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("DELETE FROM cambios_categorias");
+                statement.executeUpdate("DELETE FROM resumen_nominas");
+                statement.executeUpdate("DELETE FROM nominas");
+                statement.executeUpdate("DELETE FROM empleados");
+            }
+            try (PreparedStatement empleados = connection.prepareStatement(
+                    "INSERT INTO empleados (nombre, dni, sexo, categoria, anyos) VALUES(?,?,?,?,?)");
+                    PreparedStatement nominas = connection.prepareStatement(
+                            "INSERT INTO nominas(empleado_dni, sueldo) VALUES(?,?)")) {
+                for (int i = 0; i < filas; i++) {
+                    String dni = dni(i);
+                    int categoria = categoria(i);
+                    int anyos = anyos(i);
+                    empleados.setString(1, "Empleado " + i);
+                    empleados.setString(2, dni);
+                    empleados.setString(3, i % 2 == 0 ? "M" : "F");
+                    empleados.setInt(4, categoria);
+                    empleados.setInt(5, anyos);
+                    empleados.addBatch();
+                    nominas.setString(1, dni);
+                    nominas.setInt(2, nomina.sueldo(categoria, anyos));
+                    nominas.addBatch();
+
+                    if (i % 1000 == 999) {
+                        empleados.executeBatch();
+                        nominas.executeBatch();
+                    }
+                }
+                empleados.executeBatch();
+                nominas.executeBatch();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO resumen_nominas"
+                        + " (categoria, sexo, tramo_antiguedad, empleados, sueldo_total)"
+                        + " SELECT e.categoria, e.sexo, FLOOR(e.anyos / 5), COUNT(*), SUM(n.sueldo)"
+                        + " FROM empleados e JOIN nominas n ON n.empleado_dni = e.dni"
+                        + " GROUP BY e.categoria, e.sexo, FLOOR(e.anyos / 5)");
+            }
+            connection.commit();
+        }
+    }
+
+    /**
+     * Genera un DNI válido (con su letra de control) a partir de un número.
+     *
+     * @param numero Un número entre 0 y 99999999.
+     * @return El DNI correspondiente.
+     */
+    static String dni(int numero) {
+        StringBuilder dni = new StringBuilder(9);
+        String digitos = Integer.toString(numero);
+        for (int i = digitos.length(); i < 8; i++) {
+            dni.append('0');
+        }
+        return dni.append(digitos).append(ValidadorDni.letraControl(numero)).toString();
+    }
+
+    /**
+     * Categoría de prueba (de 1 a 10) para el empleado número {@code i}.
+     */
+    static int categoria(int i) {
+        return 1 + (i * 7) % 10;
+    }
+
+    /**
+     * Antigüedad de prueba (de 0 a 39 años) para el empleado número {@code i}.
+     */
+    static int anyos(int i) {
+        return (i * 13) % 40;
+    }
+}
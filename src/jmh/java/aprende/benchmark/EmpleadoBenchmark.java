@@ -0,0 +1,67 @@
+package aprende.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import aprende.model.Empleado;
+
+/**
+ * Mide la construcción de {@link Empleado} a través de sus setters con validación,
+ * incluida la validación del DNI.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EmpleadoBenchmark {
+
+    private static final int EMPLEADOS = 1024;
+
+    private String[] nombres;
+    private String[] dnis;
+
+    @Setup
+    public void preparar() {
+        nombres = new String[EMPLEADOS];
+        dnis = new String[EMPLEADOS];
+        for (int i = 0; i < EMPLEADOS; i++) {
+            nombres[i] = "Empleado " + i;
+            dnis[i] = BaseDatosBenchmark.dni(i);
+        }
+    }
+
+    /** Construcción completa con el constructor de cinco parámetros. */
+    @Benchmark
+    @OperationsPerInvocation(EMPLEADOS)
+    public void constructorConValidacion(Blackhole bh) {
+        for (int i = 0; i < EMPLEADOS; i++) {
+            bh.consume(new Empleado(nombres[i], dnis[i], (i & 1) == 0 ? 'M' : 'F',
+                    BaseDatosBenchmark.categoria(i), BaseDatosBenchmark.anyos(i)));
+        }
+    }
+
+    /** Solo la validación y asignación del DNI. */
+    @Benchmark
+    @OperationsPerInvocation(EMPLEADOS)
+    public void setDni(Blackhole bh) {
+        Empleado empleado = new Empleado();
+        for (int i = 0; i < EMPLEADOS; i++) {
+            empleado.setDni(dnis[i]);
+        }
+        bh.consume(empleado);
+    }
+}
@@ -0,0 +1,91 @@
+package aprende.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aprende.dao.EmpleadoDAO;
+import aprende.model.Empleado;
+import aprende.model.FiltroEmpleados;
+
+/**
+ * Mide las lecturas de {@link EmpleadoDAO} (consulta y conversión de filas en
+ * objetos {@link Empleado}) contra una base de datos H2 en memoria.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmpleadoDAOBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int filas;
+
+    private EmpleadoDAO dao;
+
+    @Setup
+    public void preparar() throws SQLException, IOException {
+        BaseDatosBenchmark.configurar("dao");
+        BaseDatosBenchmark.poblar(filas);
+        dao = new EmpleadoDAO();
+    }
+
+    /** Lectura y conversión de toda la tabla de empleados. */
+    @Benchmark
+    public List<Empleado> obtenerTodosLosEmpleados() throws SQLException {
+        return dao.obtenerTodosLosEmpleados();
+    }
+
+    /** Lectura de la primera página de 50 empleados. */
+    @Benchmark
+    public List<Empleado> obtenerPrimeraPagina() throws SQLException {
+        return dao.obtenerEmpleadosPaginados(null, 50);
+    }
+
+    /** Búsqueda por categoría (una décima parte de la tabla). */
+    @Benchmark
+    public List<Empleado> buscarPorCategoria() throws SQLException {
+        return dao.buscarEmpleadosPorAtributo("categoria", "3");
+    }
+
+    /** Búsqueda por prefijo del nombre ("Empleado 12", unas decenas de filas). */
+    @Benchmark
+    public List<Empleado> buscarPorPrefijoNombre() throws SQLException {
+        FiltroEmpleados filtro = new FiltroEmpleados();
+        filtro.setPrefijoNombre("Empleado 12");
+        return dao.buscarEmpleados(filtro);
+    }
+
+    /** Búsqueda combinada: rango de categorías, rango de años y sexo. */
+    @Benchmark
+    public List<Empleado> buscarPorRangos() throws SQLException {
+        FiltroEmpleados filtro = new FiltroEmpleados();
+        filtro.setCategoriaMinima(3);
+        filtro.setCategoriaMaxima(4);
+        filtro.setAnyosMinimos(10);
+        filtro.setAnyosMaximos(14);
+        filtro.setSexo('F');
+        return dao.buscarEmpleados(filtro);
+    }
+
+    /** Consulta del sueldo de un empleado por DNI. */
+    @Benchmark
+    public Double obtenerNominaPorDni() throws SQLException {
+        return dao.obtenerNominaPorDni(BaseDatosBenchmark.dni(filas / 2));
+    }
+}
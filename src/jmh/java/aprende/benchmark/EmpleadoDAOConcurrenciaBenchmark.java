@@ -0,0 +1,149 @@
+package aprende.benchmark;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import aprende.conexion.Conexion;
+import aprende.dao.EmpleadoDAO;
+import aprende.model.Empleado;
+import aprende.model.Nomina;
+
+/**
+ * Prueba de estrés de {@link EmpleadoDAO} compartido entre muchos hilos, como lo
+ * comparte el controlador entre los hilos del servidor.
+ *
+ * <p>
+ * Cada invocación da de alta un empleado, comprueba su nómina, lo edita, vuelve a
+ * comprobar la nómina, lista una página y lo elimina. Cada hilo trabaja con sus
+ * propios DNI, así que cualquier resultado inesperado indica que dos llamadas se
+ * han mezclado. Al terminar cada iteración se comprueba que no queda ninguna
+ * conexión prestada del pool, y al terminar la prueba que las tablas tienen las
+ * mismas filas que la carga inicial: cada ciclo elimina lo que da de alta. Si algo
+ * falla, el benchmark termina con error y, en el perfil {@code benchmark}
+ * ({@code -foe true}), también el build.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(64)
+public class EmpleadoDAOConcurrenciaBenchmark {
+
+    /** DAO y base de datos compartidos por todos los hilos. */
+    @State(Scope.Benchmark)
+    public static class Compartido {
+        private static final int FILAS = 1000;
+
+        final EmpleadoDAO dao = new EmpleadoDAO();
+        final AtomicInteger siguienteHilo = new AtomicInteger();
+
+        @Setup
+        public void preparar() throws SQLException, IOException {
+            // Con más hilos que conexiones se espera al pool: se amplía la espera para medir fugas, no colas
+            System.setProperty("nominas.db.pool.maxEsperaMillis", "60000");
+            BaseDatosBenchmark.configurar("concurrencia");
+            BaseDatosBenchmark.poblar(FILAS);
+        }
+
+        @TearDown(Level.Iteration)
+        public void comprobarFugas() throws InterruptedException {
+            // Se deja un margen para que terminen las llamadas en curso de todos los hilos
+            for (int intento = 0; intento < 50 && Conexion.getMetricas().getActivas() > 0; intento++) {
+                Thread.sleep(100);
+            }
+            int activas = Conexion.getMetricas().getActivas();
+            if (activas > 0) {
+                throw new IllegalStateException("Quedan " + activas + " conexiones sin devolver al pool.");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void comprobarFilas() throws SQLException {
+            try (Connection connection = Conexion.getConnection(); Statement statement = connection.createStatement()) {
+                for (String tabla : new String[] { "empleados", "nominas" }) {
+                    try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + tabla)) {
+                        resultSet.next();
+                        long filas = resultSet.getLong(1);
+                        if (filas != FILAS) {
+                            throw new IllegalStateException("La tabla " + tabla + " tiene " + filas
+                                    + " filas y se esperaban " + FILAS + ": se han perdido escrituras.");
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** Rango de DNI propio de cada hilo. */
+    @State(Scope.Thread)
+    public static class Hilo {
+        int base;
+        int siguiente;
+
+        @Setup
+        public void preparar(Compartido compartido) {
+            // Los DNI de la carga inicial empiezan en 0; cada hilo usa su propio millón
+            base = (compartido.siguienteHilo.getAndIncrement() + 1) * 1_000_000;
+        }
+
+        String siguienteDni() {
+            siguiente = (siguiente + 1) % 1_000_000;
+            return BaseDatosBenchmark.dni(base + siguiente);
+        }
+    }
+
+    @Benchmark
+    public void cicloCompleto(Compartido compartido, Hilo hilo, Blackhole bh) throws SQLException {
+        EmpleadoDAO dao = compartido.dao;
+        String dni = hilo.siguienteDni();
+        Empleado empleado = new Empleado("Estrés " + dni, dni, 'F', 2, 1);
+
+        comprobar(dao.guardarEmpleado(empleado), "no se ha guardado el empleado " + dni);
+        comprobarNomina(dao, empleado);
+
+        empleado.setAnyos(7);
+        empleado.setCategoria(5);
+        String mensaje = dao.editar(empleado, dni);
+        comprobar(mensaje.startsWith("Éxito"), "no se ha editado el empleado " + dni + ": " + mensaje);
+        comprobarNomina(dao, empleado);
+
+        bh.consume(dao.obtenerEmpleadosPaginados(null, 20));
+
+        comprobar(dao.eliminar(dni), "no se ha eliminado el empleado " + dni);
+        comprobar(dao.buscarEmpleadosPorAtributo("dni", dni).isEmpty(), "el empleado " + dni + " sigue existiendo");
+    }
+
+    private static void comprobarNomina(EmpleadoDAO dao, Empleado empleado) throws SQLException {
+        double esperado = Nomina.getInstance().sueldo(empleado);
+        double leido = dao.obtenerNominaPorDni(empleado.getDni());
+        comprobar(leido == esperado, "nómina de " + empleado.getDni() + " = " + leido + ", se esperaba " + esperado);
+    }
+
+    private static void comprobar(boolean condicion, String error) {
+        if (!condicion) {
+            throw new IllegalStateException("Interferencia entre hilos: " + error);
+        }
+    }
+}
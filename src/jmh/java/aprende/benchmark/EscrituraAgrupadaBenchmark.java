@@ -0,0 +1,105 @@
+package aprende.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aprende.dao.EmpleadoDAO;
+import aprende.model.Empleado;
+import aprende.model.EscrituraAgrupada;
+
+/**
+ * Compara las ediciones concurrentes con una transacción por edición
+ * ({@code modo=individual}) y con el canal de {@link EscrituraAgrupada}
+ * ({@code modo=agrupado}), que las aplica por lotes con un solo commit.
+ *
+ * <p>
+ * Cada hilo edita sus propios empleados, como en una actualización masiva de
+ * antigüedad. La base de datos es H2 en memoria, donde confirmar una transacción no
+ * escribe en disco: con MySQL, cada commit ahorrado es además una escritura del log
+ * de transacciones.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(32)
+public class EscrituraAgrupadaBenchmark {
+
+    private static final int EMPLEADOS_POR_HILO = 100;
+
+    /** DAO, canal y base de datos compartidos por todos los hilos. */
+    @State(Scope.Benchmark)
+    public static class Compartido {
+        @Param({ "individual", "agrupado" })
+        public String modo;
+
+        final EmpleadoDAO dao = new EmpleadoDAO();
+        final AtomicInteger siguienteHilo = new AtomicInteger();
+        EscrituraAgrupada escritura;
+
+        @Setup
+        public void preparar() throws SQLException, IOException {
+            System.setProperty("nominas.db.pool.maxEsperaMillis", "60000");
+            BaseDatosBenchmark.configurar("agrupada");
+            BaseDatosBenchmark.poblar(64 * EMPLEADOS_POR_HILO);
+            if ("agrupado".equals(modo)) {
+                escritura = new EscrituraAgrupada(dao, 10000, 500, 1000);
+            }
+        }
+
+        @TearDown
+        public void cerrar() {
+            if (escritura != null) {
+                escritura.cerrar();
+            }
+        }
+    }
+
+    /** Empleados de cada hilo. */
+    @State(Scope.Thread)
+    public static class Hilo {
+        int primero;
+        int siguiente;
+
+        @Setup
+        public void preparar(Compartido compartido) {
+            primero = compartido.siguienteHilo.getAndIncrement() * EMPLEADOS_POR_HILO;
+        }
+    }
+
+    /** Edición de la antigüedad de un empleado, esperando a que esté confirmada. */
+    @Benchmark
+    public String editar(Compartido compartido, Hilo hilo) throws SQLException, ExecutionException,
+            InterruptedException {
+        int i = hilo.primero + hilo.siguiente++ % EMPLEADOS_POR_HILO;
+        String dni = BaseDatosBenchmark.dni(i);
+        Empleado empleado = new Empleado("Empleado " + i, dni, i % 2 == 0 ? 'M' : 'F',
+                BaseDatosBenchmark.categoria(i), (hilo.siguiente / EMPLEADOS_POR_HILO) % 40);
+
+        String mensaje = compartido.escritura == null ? compartido.dao.editar(empleado, dni)
+                : compartido.escritura.editar(empleado, dni).get();
+        if (!mensaje.startsWith("Éxito")) {
+            throw new IllegalStateException("Edición fallida de " + dni + ": " + mensaje);
+        }
+        return mensaje;
+    }
+}
@@ -0,0 +1,192 @@
+package aprende.benchmark;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aprende.conexion.Conexion;
+import aprende.dao.EmpleadoDAO;
+import aprende.model.Empleado;
+import aprende.model.Nomina;
+
+/**
+ * Compara el rendimiento de las escrituras de {@link EmpleadoDAO} con el camino de
+ * escritura anterior, que comprobaba el DNI con una consulta antes de insertar o
+ * actualizar.
+ *
+ * <p>
+ * Con {@code implementacion=anterior} se usa una copia de aquel código; con
+ * {@code implementacion=actual}, el DAO, que confía en la clave primaria y guarda la
+ * nómina en la misma transacción sin consultas previas. La base de datos es H2 en
+ * memoria, donde un viaje de ida y vuelta cuesta muy poco: con MySQL en red, cada
+ * consulta ahorrada vale además la latencia de la red.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EscrituraEmpleadosBenchmark {
+
+    private static final int FILAS = 10000;
+
+    @Param({ "anterior", "actual" })
+    public String implementacion;
+
+    private EmpleadoDAO dao;
+    private int siguienteAlta;
+    private int siguienteEdicion;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException, IOException {
+        BaseDatosBenchmark.configurar("escritura");
+        dao = new EmpleadoDAO();
+    }
+
+    @Setup(Level.Iteration)
+    public void repoblar() throws SQLException {
+        // Las altas de la iteración anterior se descartan para que la tabla no crezca
+        BaseDatosBenchmark.poblar(FILAS);
+        siguienteAlta = FILAS;
+        siguienteEdicion = 0;
+    }
+
+    /** Alta de un empleado nuevo con su nómina. */
+    @Benchmark
+    public boolean guardarEmpleado() throws SQLException {
+        int i = siguienteAlta++;
+        Empleado empleado = new Empleado("Nuevo " + i, BaseDatosBenchmark.dni(i), 'F',
+                BaseDatosBenchmark.categoria(i), BaseDatosBenchmark.anyos(i));
+        return esAnterior() ? guardarAnterior(empleado) : dao.guardarEmpleado(empleado);
+    }
+
+    /** Alta rechazada porque el DNI ya existe. */
+    @Benchmark
+    public boolean guardarEmpleadoDuplicado() throws SQLException {
+        int i = siguienteEdicion++ % FILAS;
+        Empleado empleado = new Empleado("Duplicado " + i, BaseDatosBenchmark.dni(i), 'M', 1, 0);
+        return esAnterior() ? guardarAnterior(empleado) : dao.guardarEmpleado(empleado);
+    }
+
+    /** Edición de un empleado existente (cambia la categoría y, por tanto, el sueldo). */
+    @Benchmark
+    public String editar() throws SQLException {
+        int i = siguienteEdicion++ % FILAS;
+        String dni = BaseDatosBenchmark.dni(i);
+        Empleado empleado = new Empleado("Empleado " + i, dni, i % 2 == 0 ? 'M' : 'F',
+                1 + (BaseDatosBenchmark.categoria(i) % 10), BaseDatosBenchmark.anyos(i));
+        return esAnterior() ? editarAnterior(empleado, dni) : dao.editar(empleado, dni);
+    }
+
+    private boolean esAnterior() {
+        return "anterior".equals(implementacion);
+    }
+
+    // Copia del alta anterior: COUNT(*) por DNI y dos INSERT, con los mismos mensajes
+    private static boolean guardarAnterior(Empleado empleado) throws SQLException {
+        boolean estadoOperacion = false;
+        try (Connection connection = Conexion.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                int count;
+                try (PreparedStatement statement = connection
+                        .prepareStatement("SELECT COUNT(*) FROM empleados WHERE dni = ?")) {
+                    statement.setString(1, empleado.getDni());
+                    try (ResultSet rs = statement.executeQuery()) {
+                        rs.next();
+                        count = rs.getInt(1);
+                    }
+                }
+                if (count > 0) {
+                    System.out.println("El empleado con DNI '" + empleado.getDni() + "' ya existe.");
+                } else {
+                    try (PreparedStatement statement = connection.prepareStatement(
+                            "INSERT INTO empleados (nombre, dni, sexo, categoria, anyos) VALUES(?,?,?,?,?)")) {
+                        asignarEmpleado(statement, empleado);
+                        estadoOperacion = statement.executeUpdate() > 0;
+                    }
+                    try (PreparedStatement statement = connection
+                            .prepareStatement("INSERT INTO nominas(empleado_dni, sueldo) VALUES(?,?)")) {
+                        statement.setString(1, empleado.getDni());
+                        statement.setInt(2, Nomina.getInstance().sueldo(empleado));
+                        estadoOperacion = statement.executeUpdate() > 0 && estadoOperacion;
+                    }
+                    if (estadoOperacion) {
+                        System.out.println("Nómina insertada correctamente.");
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                estadoOperacion = false;
+            }
+        }
+        return estadoOperacion;
+    }
+
+    // Copia de la edición anterior: comprobación del DNI y dos UPDATE
+    private static String editarAnterior(Empleado empleado, String dniOriginal) throws SQLException {
+        String mensaje;
+        try (Connection connection = Conexion.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (PreparedStatement statement = connection
+                        .prepareStatement("SELECT COUNT(*) FROM empleados WHERE dni = ? AND dni != ?")) {
+                    statement.setString(1, empleado.getDni());
+                    statement.setString(2, dniOriginal);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        if (rs.next() && rs.getInt(1) > 0) {
+                            throw new SQLException("Error: El DNI ya está en uso por otro empleado.");
+                        }
+                    }
+                }
+                boolean estadoOperacion;
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "UPDATE empleados SET nombre=?, dni=?, sexo=?, categoria=?, anyos=? WHERE dni=?")) {
+                    asignarEmpleado(statement, empleado);
+                    statement.setString(6, dniOriginal);
+                    estadoOperacion = statement.executeUpdate() > 0;
+                }
+                try (PreparedStatement statement = connection
+                        .prepareStatement("UPDATE nominas SET sueldo=? WHERE empleado_dni=?")) {
+                    statement.setInt(1, Nomina.getInstance().sueldo(empleado));
+                    statement.setString(2, empleado.getDni());
+                    estadoOperacion = statement.executeUpdate() > 0 && estadoOperacion;
+                }
+                mensaje = estadoOperacion ? "Éxito: Empleado actualizado correctamente."
+                        : "Error: No se pudo actualizar la información del empleado.";
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                mensaje = e.getMessage();
+            }
+        }
+        return mensaje;
+    }
+
+    private static void asignarEmpleado(PreparedStatement statement, Empleado empleado) throws SQLException {
+        statement.setString(1, empleado.getNombre());
+        statement.setString(2, empleado.getDni());
+        statement.setString(3, String.valueOf(empleado.getSexo()));
+        statement.setInt(4, empleado.getCategoria());
+        statement.setInt(5, empleado.getAnyos());
+    }
+}
@@ -0,0 +1,45 @@
+package aprende.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aprende.metricas.Histograma;
+
+/**
+ * Mide el coste de registrar una latencia en un {@link Histograma} compartido, con
+ * uno y con varios hilos. Con {@code -prof gc} se comprueba que el registro no
+ * reserva memoria ({@code gc.alloc.rate.norm} = 0 B/op).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HistogramaBenchmark {
+
+    private final Histograma histograma = new Histograma();
+
+    /** Un hilo: reloj más registro, como en cada llamada medida. */
+    @Benchmark
+    public void registrarDesde() {
+        histograma.registrarDesde(System.nanoTime() - 1_500_000);
+    }
+
+    /** Ocho hilos registrando a la vez en el mismo histograma. */
+    @Benchmark
+    @Threads(8)
+    public void registrarDesdeConcurrente() {
+        histograma.registrarDesde(System.nanoTime() - 1_500_000);
+    }
+}
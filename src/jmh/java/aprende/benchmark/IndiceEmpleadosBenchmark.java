@@ -0,0 +1,98 @@
+package aprende.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aprende.dao.EmpleadoDAO;
+import aprende.model.Empleado;
+import aprende.model.FiltroEmpleados;
+import aprende.model.IndiceEmpleados;
+
+/**
+ * Compara las búsquedas resueltas en el índice en memoria ({@link IndiceEmpleados})
+ * con las mismas búsquedas en la base de datos H2 en memoria a través de
+ * {@link EmpleadoDAO}. Los filtros son los de la pantalla de búsqueda, con su
+ * límite de resultados.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndiceEmpleadosBenchmark {
+
+    // Límite de resultados de la pantalla de búsqueda
+    private static final int LIMITE = 1000;
+
+    @Param({ "10000", "100000" })
+    public int filas;
+
+    @Param({ "indice", "baseDatos" })
+    public String origen;
+
+    private EmpleadoDAO dao;
+    private IndiceEmpleados indice;
+
+    @Setup
+    public void preparar() throws SQLException, IOException {
+        BaseDatosBenchmark.configurar("indice");
+        BaseDatosBenchmark.poblar(filas);
+        dao = new EmpleadoDAO();
+        indice = IndiceEmpleados.getInstance();
+        indice.cargar(dao);
+    }
+
+    /** Búsqueda por prefijo del nombre ("Empleado 12", unas decenas de filas). */
+    @Benchmark
+    public List<Empleado> buscarPorPrefijoNombre() throws SQLException {
+        FiltroEmpleados filtro = filtro();
+        filtro.setPrefijoNombre("Empleado 12");
+        return buscar(filtro);
+    }
+
+    /** Búsqueda por categoría exacta (una décima parte de la tabla, hasta el límite). */
+    @Benchmark
+    public List<Empleado> buscarPorCategoria() throws SQLException {
+        FiltroEmpleados filtro = filtro();
+        filtro.setCategoriaMinima(3);
+        filtro.setCategoriaMaxima(3);
+        return buscar(filtro);
+    }
+
+    /** Búsqueda combinada: rango de categorías, rango de años y sexo. */
+    @Benchmark
+    public List<Empleado> buscarPorRangos() throws SQLException {
+        FiltroEmpleados filtro = filtro();
+        filtro.setCategoriaMinima(3);
+        filtro.setCategoriaMaxima(4);
+        filtro.setAnyosMinimos(10);
+        filtro.setAnyosMaximos(14);
+        filtro.setSexo('F');
+        return buscar(filtro);
+    }
+
+    private static FiltroEmpleados filtro() {
+        FiltroEmpleados filtro = new FiltroEmpleados();
+        filtro.setLimite(LIMITE);
+        return filtro;
+    }
+
+    private List<Empleado> buscar(FiltroEmpleados filtro) throws SQLException {
+        return "indice".equals(origen) ? indice.buscar(filtro) : dao.buscarEmpleados(filtro);
+    }
+}
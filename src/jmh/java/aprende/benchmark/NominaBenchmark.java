@@ -0,0 +1,81 @@
+package aprende.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import aprende.model.Empleado;
+import aprende.model.Nomina;
+
+/**
+ * Mide el cálculo del sueldo en {@link Nomina}: empleado a empleado, en bloque
+ * sobre arrays de categorías y antigüedades, y con las reglas de una fecha pasada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NominaBenchmark {
+
+    private static final int EMPLEADOS = 1024;
+
+    private final Nomina nomina = Nomina.getInstance();
+    private Empleado[] empleados;
+    private int[] categorias;
+    private int[] anyos;
+    private int[] sueldos;
+    private final LocalDate fechaPasada = LocalDate.of(2015, 6, 30);
+
+    @Setup
+    public void preparar() {
+        empleados = new Empleado[EMPLEADOS];
+        categorias = new int[EMPLEADOS];
+        anyos = new int[EMPLEADOS];
+        sueldos = new int[EMPLEADOS];
+        for (int i = 0; i < EMPLEADOS; i++) {
+            categorias[i] = BaseDatosBenchmark.categoria(i);
+            anyos[i] = BaseDatosBenchmark.anyos(i);
+            empleados[i] = new Empleado("Empleado " + i, BaseDatosBenchmark.dni(i), 'M', categorias[i], anyos[i]);
+        }
+    }
+
+    /** Sueldo de cada empleado llamando a {@link Nomina#sueldo(Empleado)} uno a uno. */
+    @Benchmark
+    @OperationsPerInvocation(EMPLEADOS)
+    public void sueldoPorEmpleado(Blackhole bh) {
+        for (Empleado empleado : empleados) {
+            bh.consume(nomina.sueldo(empleado));
+        }
+    }
+
+    /** Sueldo de todos los empleados con una única llamada al cálculo en bloque. */
+    @Benchmark
+    @OperationsPerInvocation(EMPLEADOS)
+    public int[] sueldosEnBloque() {
+        nomina.sueldos(categorias, anyos, sueldos);
+        return sueldos;
+    }
+
+    /** Sueldo de cada empleado con las reglas vigentes en una fecha pasada. */
+    @Benchmark
+    @OperationsPerInvocation(EMPLEADOS)
+    public void sueldoEnFecha(Blackhole bh) {
+        for (int i = 0; i < EMPLEADOS; i++) {
+            bh.consume(nomina.sueldo(categorias[i], anyos[i], fechaPasada));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package aprende.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aprende.dao.NominaMensualDAO;
+import aprende.model.NominaMensual;
+import aprende.model.ResultadoNominaMensual;
+
+/**
+ * Mide una ejecución completa de la nómina mensual ({@link NominaMensual}) con
+ * distinto número de particiones procesadas a la vez. Cada invocación calcula un mes
+ * nuevo, así que no continúa ninguna ejecución anterior.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NominaMensualBenchmark {
+
+    private static final int FILAS = 200000;
+
+    @Param({ "1", "4" })
+    public int paralelismo;
+
+    private NominaMensual nominaMensual;
+    private YearMonth mes;
+
+    @Setup
+    public void preparar() throws SQLException, IOException {
+        BaseDatosBenchmark.configurar("nominaMensual");
+        BaseDatosBenchmark.poblar(FILAS);
+        nominaMensual = new NominaMensual(new NominaMensualDAO(), 16, paralelismo, 1000);
+        mes = YearMonth.of(2000, 1);
+    }
+
+    /** Recibos de todos los empleados de un mes. */
+    @Benchmark
+    public ResultadoNominaMensual ejecutar() throws SQLException {
+        mes = mes.plusMonths(1);
+        ResultadoNominaMensual resultado = nominaMensual.ejecutar(mes);
+        if (resultado.getRecibos() != FILAS) {
+            throw new IllegalStateException("Recibos incompletos: " + resultado);
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,90 @@
+package aprende.benchmark;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aprende.conexion.Conexion;
+import aprende.dao.EmpleadoDAO;
+import aprende.model.ResultadoRecalculo;
+
+/**
+ * Compara el recálculo completo de nóminas ({@code recalcularNominas}) con el
+ * incremental ({@code recalcularNominasCambiadas}), que solo procesa los empleados
+ * de las categorías anotadas en el registro de cambios de reglas, con distinto número
+ * de categorías cambiadas (de las diez que hay, con el mismo número de empleados).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecalculoIncrementalBenchmark {
+
+    private static final int FILAS = 1000000;
+    private static final int CATEGORIAS = 10;
+
+    @Param({ "1", "3" })
+    public int categorias;
+
+    private EmpleadoDAO dao;
+
+    @Setup
+    public void preparar() throws SQLException, IOException {
+        BaseDatosBenchmark.configurar("recalculoIncremental");
+        BaseDatosBenchmark.poblar(FILAS);
+        dao = new EmpleadoDAO();
+    }
+
+    /** Deja en el registro el número de categorías cambiadas indicado. */
+    @Setup(Level.Iteration)
+    public void anotarCambios() throws SQLException {
+        try (Connection connection = Conexion.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement();
+                    PreparedStatement insert = connection
+                            .prepareStatement("INSERT INTO cambios_categorias (categoria) VALUES(?)")) {
+                statement.executeUpdate("DELETE FROM cambios_categorias");
+                for (int categoria = 1; categoria <= categorias; categoria++) {
+                    insert.setInt(1, categoria);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    /** Recálculo de todas las nóminas. */
+    @Benchmark
+    public ResultadoRecalculo completo() throws SQLException {
+        return dao.recalcularNominas(1000, 10000);
+    }
+
+    /** Recálculo de las nóminas de los empleados de las categorías cambiadas. */
+    @Benchmark
+    public ResultadoRecalculo incremental() throws SQLException {
+        ResultadoRecalculo resultado = dao.recalcularNominasCambiadas(1000);
+        if (resultado.getFilasLeidas() != (long) FILAS / CATEGORIAS * categorias) {
+            throw new IllegalStateException("Empleados sin recalcular: " + resultado);
+        }
+        return resultado;
+    }
+}
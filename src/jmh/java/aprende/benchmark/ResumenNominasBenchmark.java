@@ -0,0 +1,90 @@
+package aprende.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aprende.dao.EmpleadoDAO;
+import aprende.model.Empleado;
+import aprende.model.GrupoNomina;
+
+/**
+ * Compara los totales de nóminas por grupo calculados con {@code GROUP BY} sobre las
+ * tablas de empleados y nóminas ({@code consulta}) con los leídos del resumen
+ * materializado ({@code materializado}), y lo que cuesta mantener el resumen en cada
+ * edición.
+ *
+ * <p>
+ * Antes de cada resumen se edita un empleado (fuera de la medida): H2 reutiliza el
+ * resultado de una consulta repetida si las tablas no han cambiado, y un panel de
+ * informes se consulta mientras la aplicación sigue escribiendo.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResumenNominasBenchmark {
+
+    private static final int FILAS = 1000000;
+
+    @Param({ "consulta", "materializado" })
+    public String modo;
+
+    private EmpleadoDAO dao;
+    private int siguienteEdicion;
+
+    @Setup
+    public void preparar() throws SQLException, IOException {
+        BaseDatosBenchmark.configurar("resumenNominas");
+        BaseDatosBenchmark.poblar(FILAS);
+        dao = new EmpleadoDAO("materializado".equals(modo));
+    }
+
+    /** Edita un empleado antes de cada invocación de los resúmenes. */
+    @State(Scope.Benchmark)
+    public static class TablasModificadas {
+        @Setup(Level.Invocation)
+        public void modificar(ResumenNominasBenchmark benchmark) throws SQLException {
+            benchmark.editar();
+        }
+    }
+
+    /** Totales por categoría. */
+    @Benchmark
+    public List<GrupoNomina> resumirPorCategoria(TablasModificadas tablas) throws SQLException {
+        return dao.resumirNominas(GrupoNomina.POR_CATEGORIA);
+    }
+
+    /** Totales por tramo de antigüedad. */
+    @Benchmark
+    public List<GrupoNomina> resumirPorAntiguedad(TablasModificadas tablas) throws SQLException {
+        return dao.resumirNominas(GrupoNomina.POR_ANTIGUEDAD);
+    }
+
+    /** Edición de la categoría y la antigüedad de un empleado, que lo cambia de grupo. */
+    @Benchmark
+    public String editar() throws SQLException {
+        int i = siguienteEdicion = (siguienteEdicion + 7919) % FILAS;
+        String dni = BaseDatosBenchmark.dni(i);
+        Empleado empleado = new Empleado("Empleado " + i, dni, i % 2 == 0 ? 'M' : 'F',
+                BaseDatosBenchmark.categoria(i + 1), (BaseDatosBenchmark.anyos(i) + 5) % 40);
+        return dao.editar(empleado, dni);
+    }
+}
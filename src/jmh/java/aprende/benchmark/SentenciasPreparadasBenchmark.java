@@ -0,0 +1,99 @@
+package aprende.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aprende.dao.EmpleadoDAO;
+import aprende.model.Empleado;
+
+/**
+ * Mide lo que cuesta preparar las sentencias en cada llamada del DAO según la caché
+ * de sentencias preparadas que haya:
+ * <ul>
+ * <li>{@code ninguna}: cada {@code prepareStatement} vuelve a analizar el SQL (H2 con
+ * {@code QUERY_CACHE_SIZE=0}).</li>
+ * <li>{@code driver}: la base de datos reutiliza la sentencia ya analizada con el mismo
+ * texto (la caché de consultas de H2, el equivalente de {@code cachePrepStmts} y
+ * {@code useServerPrepStmts} en MySQL).</li>
+ * <li>{@code pool}: el pool devuelve la misma sentencia abierta
+ * ({@code nominas.db.pool.cachearSentencias}), sin la caché de H2.</li>
+ * </ul>
+ *
+ * <p>
+ * La comprobación de DNI existentes usa listas {@code IN} de 1 a 16 DNI, que el
+ * catálogo de sentencias redondea a cinco textos distintos; sin el redondeo serían
+ * dieciséis y no cabrían en la caché de ocho consultas de H2.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SentenciasPreparadasBenchmark {
+
+    private static final int FILAS = 10000;
+
+    @Param({ "ninguna", "driver", "pool" })
+    public String cache;
+
+    private EmpleadoDAO dao;
+    private int siguienteLectura;
+    private int siguienteEdicion;
+    private int siguienteComprobacion;
+
+    @Setup
+    public void preparar() throws SQLException, IOException {
+        // Cada valor del parámetro se ejecuta en su propio proceso, con su propio pool
+        System.setProperty("nominas.db.pool.cachearSentencias", String.valueOf("pool".equals(cache)));
+        BaseDatosBenchmark.configurar("sentenciasPreparadas", "driver".equals(cache) ? "" : ";QUERY_CACHE_SIZE=0");
+        BaseDatosBenchmark.poblar(FILAS);
+        dao = new EmpleadoDAO();
+    }
+
+    /** Consulta del sueldo de un empleado: una sentencia por llamada. */
+    @Benchmark
+    public Double obtenerNominaPorDni() throws SQLException {
+        siguienteLectura = (siguienteLectura + 7919) % FILAS;
+        return dao.obtenerNominaPorDni(BaseDatosBenchmark.dni(siguienteLectura));
+    }
+
+    /** Edición de un empleado: dos sentencias (empleado y nómina) y un commit. */
+    @Benchmark
+    public String editar() throws SQLException {
+        int i = siguienteEdicion = (siguienteEdicion + 7919) % FILAS;
+        String dni = BaseDatosBenchmark.dni(i);
+        Empleado empleado = new Empleado("Empleado " + i, dni, i % 2 == 0 ? 'M' : 'F',
+                BaseDatosBenchmark.categoria(i), (BaseDatosBenchmark.anyos(i) + 1) % 40);
+        return dao.editar(empleado, dni);
+    }
+
+    /** Comprobación de entre 1 y 16 DNI con una lista IN. */
+    @Benchmark
+    public Set<String> obtenerDnisExistentes() throws SQLException {
+        int tamano = siguienteComprobacion % 16 + 1;
+        List<String> dnis = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            dnis.add(BaseDatosBenchmark.dni((siguienteComprobacion * 31 + i * 7919) % FILAS));
+        }
+        siguienteComprobacion++;
+        return dao.obtenerDnisExistentes(dnis);
+    }
+}
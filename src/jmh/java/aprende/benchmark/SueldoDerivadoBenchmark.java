@@ -0,0 +1,107 @@
+package aprende.benchmark;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aprende.conexion.Conexion;
+import aprende.dao.EmpleadoDAO;
+import aprende.dao.EmpleadoDAOSueldoDerivado;
+import aprende.model.Empleado;
+
+/**
+ * Compara el coste de lectura y escritura de los dos modos de guardar los sueldos
+ * ({@code nominas.dao.sueldo}): {@code copia}, con el sueldo calculado en Java y
+ * guardado en la tabla {@code nominas}, y {@code derivado}, con el sueldo calculado
+ * al leer a partir de las reglas de {@code reglas_sueldo}.
+ *
+ * <p>
+ * {@code cambiarSueldoBase} mide lo que cuesta aplicar un cambio de sueldo base: en
+ * el modo copia hay que recalcular toda la tabla de nóminas; en el derivado basta
+ * con actualizar una fila de {@code reglas_sueldo}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SueldoDerivadoBenchmark {
+
+    @Param({ "1000000" })
+    public int filas;
+
+    @Param({ "copia", "derivado" })
+    public String modo;
+
+    private EmpleadoDAO dao;
+    private int siguienteLectura;
+    private int siguienteEdicion;
+    private int siguienteAlta;
+    private int sueldoBase;
+
+    @Setup
+    public void preparar() throws SQLException, IOException {
+        BaseDatosBenchmark.configurar("sueldo");
+        BaseDatosBenchmark.poblar(filas);
+        // En el modo derivado la tabla nominas se puebla igualmente, pero no se lee
+        dao = "derivado".equals(modo) ? new EmpleadoDAOSueldoDerivado() : new EmpleadoDAO();
+        siguienteAlta = filas;
+        sueldoBase = 50000;
+    }
+
+    /** Consulta del sueldo de un empleado por DNI. */
+    @Benchmark
+    public Double obtenerNominaPorDni() throws SQLException {
+        siguienteLectura = (siguienteLectura + 7919) % filas;
+        return dao.obtenerNominaPorDni(BaseDatosBenchmark.dni(siguienteLectura));
+    }
+
+    /** Edición de la antigüedad de un empleado. */
+    @Benchmark
+    public String editar() throws SQLException {
+        int i = siguienteEdicion = (siguienteEdicion + 7919) % filas;
+        String dni = BaseDatosBenchmark.dni(i);
+        Empleado empleado = new Empleado("Empleado " + i, dni, i % 2 == 0 ? 'M' : 'F',
+                BaseDatosBenchmark.categoria(i), (BaseDatosBenchmark.anyos(i) + 1) % 40);
+        return dao.editar(empleado, dni);
+    }
+
+    /** Alta de un empleado nuevo y su baja, para que la tabla no crezca. */
+    @Benchmark
+    public boolean guardarYEliminar() throws SQLException {
+        int i = siguienteAlta;
+        String dni = BaseDatosBenchmark.dni(i);
+        Empleado empleado = new Empleado("Nuevo " + i, dni, 'F', BaseDatosBenchmark.categoria(i),
+                BaseDatosBenchmark.anyos(i));
+        return dao.guardarEmpleado(empleado) && dao.eliminar(dni);
+    }
+
+    /** Aplicación de un cambio en el sueldo base de una categoría. */
+    @Benchmark
+    public long cambiarSueldoBase() throws SQLException {
+        sueldoBase = sueldoBase == 50000 ? 50001 : 50000;
+        try (Connection connection = Conexion.getConnection();
+                PreparedStatement statement = connection
+                        .prepareStatement("UPDATE reglas_sueldo SET sueldo_base = ? WHERE categoria = 1")) {
+            statement.setInt(1, sueldoBase);
+            statement.executeUpdate();
+        }
+        return dao.recalcularNominas(1000, 10000).getFilasActualizadas();
+    }
+}
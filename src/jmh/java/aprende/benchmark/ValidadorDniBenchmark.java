@@ -0,0 +1,100 @@
+package aprende.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import aprende.model.Empleado;
+import aprende.model.ValidadorDni;
+
+/**
+ * Compara la validación del DNI sobre un millón de filas: la expresión regular que
+ * usaba {@code Empleado.setDni} ({@code String.matches}, que compila el patrón en
+ * cada llamada), el mismo patrón precompilado y {@link ValidadorDni}. Incluye la
+ * conversión completa de un millón de filas en objetos {@link Empleado}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidadorDniBenchmark {
+
+    private static final int FILAS = 1_000_000;
+    private static final Pattern PATRON_DNI = Pattern.compile("[0-9]{8}[A-Z]");
+
+    private String[] dnis;
+    private String[] nombres;
+
+    @Setup
+    public void preparar() {
+        dnis = new String[FILAS];
+        nombres = new String[FILAS];
+        for (int i = 0; i < FILAS; i++) {
+            dnis[i] = BaseDatosBenchmark.dni(i * 97);
+            nombres[i] = "Empleado " + i;
+        }
+    }
+
+    /** Validación anterior: {@code dni.matches(...)} compila el patrón en cada fila. */
+    @Benchmark
+    public int stringMatches() {
+        int validos = 0;
+        for (String dni : dnis) {
+            if (dni.matches("[0-9]{8}[A-Z]")) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    /** La misma expresión regular, compilada una sola vez. */
+    @Benchmark
+    public int patronPrecompilado() {
+        int validos = 0;
+        for (String dni : dnis) {
+            if (PATRON_DNI.matcher(dni).matches()) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    /** {@link ValidadorDni}, que además comprueba la letra de control. */
+    @Benchmark
+    public int validadorDni() {
+        int validos = 0;
+        for (String dni : dnis) {
+            if (ValidadorDni.esValido(dni)) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    /** Conversión de un millón de filas en empleados con los setters con validación. */
+    @Benchmark
+    public void mapeoDeFilas(Blackhole bh) {
+        for (int i = 0; i < FILAS; i++) {
+            Empleado empleado = new Empleado();
+            empleado.setNombre(nombres[i]);
+            empleado.setDni(dnis[i]);
+            empleado.setSexo((i & 1) == 0 ? 'M' : 'F');
+            empleado.setCategoria(BaseDatosBenchmark.categoria(i));
+            empleado.setAnyos(BaseDatosBenchmark.anyos(i));
+            bh.consume(empleado);
+        }
+    }
+}
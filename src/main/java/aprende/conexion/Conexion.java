@@ -1,59 +1,266 @@
 package aprende.conexion;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.sql.DataSource;
 
 import org.apache.commons.dbcp2.BasicDataSource;
 
+import aprende.config.Configuracion;
+import aprende.metricas.Histograma;
+import aprende.metricas.RegistroMetricas;
+
 /**
  * La clase Conexion proporciona un método para obtener una conexión a la base de datos
  * utilizando un pool de conexiones administrado por Apache DBCP.
  * Esta implementación asegura que las conexiones se gestionen de manera eficiente,
  * evitando la sobrecarga de crear y destruir conexiones repetidamente.
+ *
+ * La configuración del pool (tamaños, validación, caché de sentencias y tiempos de
+ * espera) y las propiedades del driver se leen de {@link Configuracion} con las claves
+ * {@code nominas.db.*}. El pool
+ * se crea al arrancar la aplicación web (ver {@link InicializadorPool}) y registra
+ * métricas de uso que pueden consultarse con {@link #getMetricas()}; el tiempo de espera
+ * de cada préstamo se registra además en la métrica {@code nominas_pool_espera_segundos}.
+ *
+ * Con {@code nominas.db.tipo=h2} el pool se conecta a una base de datos H2 embebida en el
+ * proceso ({@code nominas.db.h2.*}), en memoria por defecto, y al crearlo se aplican las
+ * migraciones de {@code db/migracion} (ver {@link MigracionesEsquema}).
  */
 public class Conexion {
-    private static BasicDataSource dataSource = null;
+    /** Base de datos MySQL, en el servidor de {@code nominas.db.url}. */
+    public static final String TIPO_MYSQL = "mysql";
+    /** Base de datos H2 embebida en el proceso, con el mismo esquema. */
+    public static final String TIPO_H2 = "h2";
+
+    // Con MySQL, un fetch size de Integer.MIN_VALUE hace que el driver entregue las filas una a una
+    private static final int FETCH_SIZE_STREAMING_MYSQL = Integer.MIN_VALUE;
+    // H2 solo admite un fetch size positivo: las filas se entregan en bloques
+    private static final int FETCH_SIZE_STREAMING_H2 = 1000;
+
+    private static volatile BasicDataSource dataSource = null;
+
+    // Métricas de préstamo de conexiones
+    private static final LongAdder prestamos = new LongAdder();
+    private static final LongAdder fallos = new LongAdder();
+    private static final LongAdder esperaTotalNanos = new LongAdder();
+    private static final AtomicLong esperaMaximaNanos = new AtomicLong();
+    private static final Histograma histogramaEspera = RegistroMetricas.getInstance().histograma(
+            "nominas_pool_espera_segundos", "Tiempo de espera para obtener una conexión del pool.");
 
     /**
      * Obtiene el DataSource que se utilizará para las conexiones a la base de datos.
-     * 
-     * Si el DataSource no ha sido inicializado, se crea uno nuevo y se configura
-     * con los parámetros necesarios para conectarse a la base de datos MySQL.
-     * 
+     *
+     * Si el DataSource no ha sido inicializado, se crea uno nuevo de forma segura
+     * aunque lleguen varias peticiones a la vez: solo se construye un pool.
+     *
      * @return Un objeto DataSource configurado para la conexión a la base de datos.
      */
     private static DataSource getDataSource() {
-        if (dataSource == null) {
-            dataSource = new BasicDataSource();
+        BasicDataSource actual = dataSource;
+        if (actual == null) {
+            synchronized (Conexion.class) {
+                actual = dataSource;
+                if (actual == null) {
+                    actual = crearDataSource(Configuracion.getInstance());
+                    dataSource = actual;
+                }
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * Crea el pool de conexiones si aún no existe. Se llama al arrancar la aplicación
+     * web para que la primera petición no pague el coste de crear las conexiones.
+     */
+    public static void inicializar() {
+        getDataSource();
+    }
+
+    /**
+     * Cierra el pool de conexiones y todas sus conexiones. Se llama al detener la
+     * aplicación web.
+     *
+     * @throws SQLException Si ocurre un error al cerrar el pool.
+     */
+    public static void cerrar() throws SQLException {
+        synchronized (Conexion.class) {
+            if (dataSource != null) {
+                dataSource.close();
+                dataSource = null;
+            }
+        }
+    }
+
+    /**
+     * Obtiene el tipo de base de datos configurado en {@code nominas.db.tipo}.
+     *
+     * @param config La configuración de la aplicación.
+     * @return {@link #TIPO_MYSQL} (por defecto) o {@link #TIPO_H2}.
+     * @throws IllegalArgumentException Si el tipo no está admitido.
+     */
+    public static String getTipo(Configuracion config) {
+        String tipo = config.getString("nominas.db.tipo", TIPO_MYSQL);
+        if (!TIPO_MYSQL.equals(tipo) && !TIPO_H2.equals(tipo)) {
+            throw new IllegalArgumentException("Tipo de base de datos desconocido en nominas.db.tipo: " + tipo);
+        }
+        return tipo;
+    }
+
+    /**
+     * Obtiene el fetch size de las consultas que recorren toda una tabla sin cargarla en
+     * memoria: el de {@code nominas.db.fetchSizeStreaming} si se indica (distinto de 0) o,
+     * si no, el que activa el streaming en el tipo de base de datos configurado.
+     *
+     * @param config La configuración de la aplicación.
+     * @return {@code Integer.MIN_VALUE} con MySQL, un número de filas positivo con H2.
+     */
+    public static int getFetchSizeStreaming(Configuracion config) {
+        int configurado = config.getInt("nominas.db.fetchSizeStreaming", 0);
+        if (configurado != 0) {
+            return configurado;
+        }
+        return TIPO_H2.equals(getTipo(config)) ? FETCH_SIZE_STREAMING_H2 : FETCH_SIZE_STREAMING_MYSQL;
+    }
+
+    /**
+     * Crea y configura el pool de conexiones a partir de la configuración de la aplicación.
+     *
+     * @param config La configuración de la aplicación.
+     * @return El pool configurado.
+     */
+    private static BasicDataSource crearDataSource(Configuracion config) {
+        BasicDataSource nuevo = new BasicDataSource();
+        boolean embebida = TIPO_H2.equals(getTipo(config));
+        if (embebida) {
+            nuevo.setDriverClassName("org.h2.Driver");
+            nuevo.setUsername(config.getString("nominas.db.h2.usuario", "sa"));
+            nuevo.setPassword(config.getString("nominas.db.h2.password", ""));
+            nuevo.setUrl(config.getString("nominas.db.h2.url",
+                    "jdbc:h2:mem:nominas;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE"));
+        } else {
             // Configuración del controlador JDBC
-            dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
+            nuevo.setDriverClassName(config.getString("nominas.db.driver", "com.mysql.cj.jdbc.Driver"));
             // Configuración de las credenciales de la base de datos
-            dataSource.setUsername("root");
-            dataSource.setPassword("2222");
+            nuevo.setUsername(config.getString("nominas.db.usuario", "root"));
+            nuevo.setPassword(config.getString("nominas.db.password", ""));
             // URL de la base de datos con opciones de conexión
-            dataSource.setUrl("jdbc:mysql://localhost:3306/laboral?useTimezone=true&serverTimezone=UTC");
-            // Tamaños del pool de conexiones
-            dataSource.setInitialSize(20);   // Número inicial de conexiones en el pool
-            dataSource.setMaxIdle(15);       // Máximo número de conexiones inactivas
-            dataSource.setMaxTotal(20);      // Máximo total de conexiones en el pool
-            dataSource.setMaxWaitMillis(5000); // Tiempo máximo de espera para una conexión
+            nuevo.setUrl(config.getString("nominas.db.url", null));
+            // Propiedades del driver (nombre=valor separados por ';'), como la caché de sentencias
+            // preparadas de MySQL: cachePrepStmts, useServerPrepStmts, prepStmtCacheSize...
+            String propiedadesDriver = config.getString("nominas.db.propiedadesDriver", "");
+            if (!propiedadesDriver.isEmpty()) {
+                nuevo.setConnectionProperties(propiedadesDriver);
+            }
+        }
+
+        // Tamaños del pool de conexiones
+        nuevo.setInitialSize(config.getInt("nominas.db.pool.inicial", 20));
+        nuevo.setMaxTotal(config.getInt("nominas.db.pool.maxTotal", 20));
+        nuevo.setMaxIdle(config.getInt("nominas.db.pool.maxIdle", 15));
+        nuevo.setMinIdle(config.getInt("nominas.db.pool.minIdle", 0));
+        nuevo.setMaxWaitMillis(config.getLong("nominas.db.pool.maxEsperaMillis", 5000));
+
+        // Validación de las conexiones
+        String consultaValidacion = config.getString("nominas.db.pool.consultaValidacion", null);
+        if (consultaValidacion != null && !consultaValidacion.isEmpty()) {
+            nuevo.setValidationQuery(consultaValidacion);
+            // H2 aplica el tiempo máximo de la validación a todas las sentencias posteriores de la
+            // sesión, que se cortarían a los pocos segundos
+            nuevo.setValidationQueryTimeout(
+                    embebida ? 0 : config.getInt("nominas.db.pool.timeoutValidacionSegundos", 2));
+        }
+        nuevo.setTestOnBorrow(config.getBoolean("nominas.db.pool.validarAlPrestar", true));
+        nuevo.setTestWhileIdle(config.getBoolean("nominas.db.pool.validarInactivas", false));
+        nuevo.setTimeBetweenEvictionRunsMillis(config.getLong("nominas.db.pool.intervaloRevisionMillis", -1));
+        nuevo.setMinEvictableIdleTimeMillis(config.getLong("nominas.db.pool.minTiempoInactivaMillis", 1800000));
+
+        // Caché de sentencias preparadas por conexión
+        nuevo.setPoolPreparedStatements(config.getBoolean("nominas.db.pool.cachearSentencias", true));
+        nuevo.setMaxOpenPreparedStatements(config.getInt("nominas.db.pool.maxSentenciasAbiertas", 100));
+
+        if (embebida && config.getBoolean("nominas.db.h2.crearEsquema", true)) {
+            crearEsquema(nuevo);
+        }
+        return nuevo;
+    }
+
+    // Aplica las migraciones pendientes a la base de datos embebida antes de publicar el pool
+    private static void crearEsquema(BasicDataSource nuevo) {
+        try (Connection connection = nuevo.getConnection()) {
+            MigracionesEsquema.aplicar(connection);
+        } catch (SQLException | IOException e) {
+            try {
+                nuevo.close();
+            } catch (SQLException ignorada) {
+                e.addSuppressed(ignorada);
+            }
+            throw new IllegalStateException("No se pudo crear el esquema de la base de datos embebida", e);
         }
-        return dataSource;
     }
 
     /**
      * Obtiene una conexión a la base de datos.
-     * 
+     *
      * Este método utiliza el DataSource configurado para obtener una conexión
      * que puede ser utilizada para realizar operaciones en la base de datos.
-     * 
+     * Registra el tiempo de espera y si la conexión se ha obtenido o no.
+     *
      * @return Una conexión a la base de datos.
      * @throws SQLException Si ocurre un error al obtener la conexión, lo que puede deberse
      *                      a problemas de red, credenciales incorrectas o configuración de la base de datos.
      */
     public static Connection getConnection() throws SQLException {
-        return getDataSource().getConnection();
+        DataSource ds = getDataSource();
+        long inicio = System.nanoTime();
+        try {
+            Connection connection = ds.getConnection();
+            prestamos.increment();
+            return connection;
+        } catch (SQLException e) {
+            fallos.increment();
+            throw e;
+        } finally {
+            registrarEspera(System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Obtiene el número máximo de conexiones configurado para el pool.
+     *
+     * @return El tamaño máximo del pool.
+     */
+    public static int getMaxTotal() {
+        return ((BasicDataSource) getDataSource()).getMaxTotal();
+    }
+
+    /**
+     * Obtiene una instantánea de las métricas del pool: conexiones activas e inactivas,
+     * préstamos, fallos y tiempos de espera.
+     *
+     * @return Las métricas actuales del pool.
+     */
+    public static MetricasPool getMetricas() {
+        BasicDataSource ds = dataSource;
+        int activas = ds != null ? ds.getNumActive() : 0;
+        int inactivas = ds != null ? ds.getNumIdle() : 0;
+        int maxTotal = ds != null ? ds.getMaxTotal() : 0;
+        return new MetricasPool(activas, inactivas, maxTotal, prestamos.sum(), fallos.sum(), esperaTotalNanos.sum(),
+                esperaMaximaNanos.get());
+    }
+
+    // Acumula el tiempo de espera y actualiza el máximo sin bloqueos
+    private static void registrarEspera(long nanos) {
+        esperaTotalNanos.add(nanos);
+        histogramaEspera.registrar(nanos);
+        long maximo = esperaMaximaNanos.get();
+        while (nanos > maximo && !esperaMaximaNanos.compareAndSet(maximo, nanos)) {
+            maximo = esperaMaximaNanos.get();
+        }
     }
 }
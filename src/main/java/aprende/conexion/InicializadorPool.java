@@ -0,0 +1,41 @@
+package aprende.conexion;
+
+import java.sql.SQLException;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Crea el pool de conexiones al arrancar la aplicación web y lo cierra al detenerla,
+ * de forma que las primeras peticiones no tengan que esperar a que se creen las
+ * conexiones y no queden conexiones abiertas tras un redespliegue.
+ */
+@WebListener
+public class InicializadorPool implements ServletContextListener {
+
+    /**
+     * Inicializa el pool de conexiones al arrancar la aplicación.
+     *
+     * @param sce El evento de arranque del contexto.
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        Conexion.inicializar();
+        sce.getServletContext().log("Pool de conexiones inicializado: " + Conexion.getMetricas());
+    }
+
+    /**
+     * Cierra el pool de conexiones al detener la aplicación.
+     *
+     * @param sce El evento de destrucción del contexto.
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        try {
+            Conexion.cerrar();
+        } catch (SQLException e) {
+            sce.getServletContext().log("Error al cerrar el pool de conexiones", e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package aprende.conexion;
+
+/**
+ * Instantánea de las métricas del pool de conexiones: conexiones activas e
+ * inactivas, préstamos, fallos al obtener una conexión y tiempos de espera.
+ */
+public class MetricasPool {
+    private final int activas;
+    private final int inactivas;
+    private final int maxTotal;
+    private final long prestamos;
+    private final long fallos;
+    private final long esperaTotalNanos;
+    private final long esperaMaximaNanos;
+
+    /**
+     * Constructor que inicializa la instantánea con los valores del pool.
+     *
+     * @param activas           Conexiones prestadas en este momento.
+     * @param inactivas         Conexiones disponibles en el pool.
+     * @param maxTotal          Número máximo de conexiones del pool.
+     * @param prestamos         Número total de conexiones obtenidas.
+     * @param fallos            Número de intentos fallidos de obtener una conexión.
+     * @param esperaTotalNanos  Tiempo total de espera para obtener conexiones.
+     * @param esperaMaximaNanos Mayor tiempo de espera registrado.
+     */
+    public MetricasPool(int activas, int inactivas, int maxTotal, long prestamos, long fallos,
+            long esperaTotalNanos, long esperaMaximaNanos) {
+        this.activas = activas;
+        this.inactivas = inactivas;
+        this.maxTotal = maxTotal;
+        this.prestamos = prestamos;
+        this.fallos = fallos;
+        this.esperaTotalNanos = esperaTotalNanos;
+        this.esperaMaximaNanos = esperaMaximaNanos;
+    }
+
+    /**
+     * @return Las conexiones prestadas en este momento.
+     */
+    public int getActivas() {
+        return activas;
+    }
+
+    /**
+     * @return Las conexiones disponibles en el pool.
+     */
+    public int getInactivas() {
+        return inactivas;
+    }
+
+    /**
+     * @return El número máximo de conexiones del pool.
+     */
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    /**
+     * @return El número total de conexiones obtenidas del pool.
+     */
+    public long getPrestamos() {
+        return prestamos;
+    }
+
+    /**
+     * @return El número de intentos fallidos de obtener una conexión.
+     */
+    public long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * @return El tiempo medio de espera para obtener una conexión, en milisegundos.
+     */
+    public double getEsperaMediaMillis() {
+        long intentos = prestamos + fallos;
+        return intentos == 0 ? 0 : esperaTotalNanos / 1_000_000.0 / intentos;
+    }
+
+    /**
+     * @return El mayor tiempo de espera registrado, en milisegundos.
+     */
+    public double getEsperaMaximaMillis() {
+        return esperaMaximaNanos / 1_000_000.0;
+    }
+
+    /**
+     * Retorna una representación en cadena de las métricas.
+     *
+     * @return Una cadena con las métricas del pool.
+     */
+    @Override
+    public String toString() {
+        return "MetricasPool [activas=" + activas + ", inactivas=" + inactivas + ", maxTotal=" + maxTotal
+                + ", prestamos=" + prestamos + ", fallos=" + fallos + ", esperaMediaMillis="
+                + getEsperaMediaMillis() + ", esperaMaximaMillis=" + getEsperaMaximaMillis() + "]";
+    }
+}
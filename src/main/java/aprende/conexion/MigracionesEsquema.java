@@ -0,0 +1,93 @@
+package aprende.conexion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Crea o actualiza el esquema de la base de datos embebida con los scripts de
+ * {@code db/migracion}, los mismos que se aplican a MySQL.
+ *
+ * Cada script aplicado se anota en la tabla {@code migraciones_aplicadas}, de modo
+ * que una base de datos en fichero solo recibe los scripts nuevos al volver a
+ * arrancar. Los scripts se dividen en sentencias por {@code ;}, así que no pueden
+ * contener ese carácter en los comentarios ni en los literales.
+ */
+final class MigracionesEsquema {
+
+    // Scripts del esquema, en orden de versión; cada migración nueva se añade al final
+    private static final String[] MIGRACIONES = { "V1__esquema_inicial.sql", "V2__indices_busqueda.sql",
+            "V3__sueldos_categoria.sql", "V4__reglas_sueldo_versionadas.sql", "V5__nomina_mensual.sql",
+            "V6__cambios_categorias.sql", "V7__resumen_nominas.sql" };
+    private static final String DIRECTORIO = "/db/migracion/";
+
+    private static final String SQL_CREAR_REGISTRO = "CREATE TABLE IF NOT EXISTS migraciones_aplicadas"
+            + " (script VARCHAR(100) NOT NULL PRIMARY KEY, fecha TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+    private static final String SQL_APLICADAS = "SELECT script FROM migraciones_aplicadas";
+    private static final String SQL_ANOTAR = "INSERT INTO migraciones_aplicadas (script) VALUES(?)";
+
+    // Clase de utilidad: no se instancia
+    private MigracionesEsquema() {
+    }
+
+    /**
+     * Aplica los scripts que aún no se han aplicado a la base de datos de la conexión.
+     *
+     * @param connection Una conexión a la base de datos embebida.
+     * @return El número de scripts aplicados.
+     * @throws SQLException Si falla alguna sentencia.
+     * @throws IOException  Si no se puede leer algún script.
+     */
+    static int aplicar(Connection connection) throws SQLException, IOException {
+        Set<String> aplicadas = new HashSet<>();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(SQL_CREAR_REGISTRO);
+            try (ResultSet resultSet = statement.executeQuery(SQL_APLICADAS)) {
+                while (resultSet.next()) {
+                    aplicadas.add(resultSet.getString(1));
+                }
+            }
+        }
+
+        int nuevas = 0;
+        for (String migracion : MIGRACIONES) {
+            if (aplicadas.contains(migracion)) {
+                continue;
+            }
+            ejecutarScript(connection, leerScript(migracion));
+            try (PreparedStatement statement = connection.prepareStatement(SQL_ANOTAR)) {
+                statement.setString(1, migracion);
+                statement.executeUpdate();
+            }
+            nuevas++;
+        }
+        return nuevas;
+    }
+
+    private static String leerScript(String migracion) throws IOException {
+        try (InputStream in = MigracionesEsquema.class.getResourceAsStream(DIRECTORIO + migracion)) {
+            if (in == null) {
+                throw new IOException("No se encuentra el script " + DIRECTORIO + migracion);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void ejecutarScript(Connection connection, String script) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sentencia : script.split(";")) {
+                String sql = sentencia.replaceAll("(?m)^--.*$", "").trim();
+                if (!sql.isEmpty()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+}
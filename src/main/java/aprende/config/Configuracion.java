@@ -0,0 +1,162 @@
+package aprende.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Configuración externa de la aplicación.
+ *
+ * <p>
+ * Cada propiedad (por ejemplo {@code nominas.db.url}) se busca, de mayor a menor
+ * prioridad, en:
+ * </p>
+ * <ol>
+ * <li>Las propiedades de sistema de la JVM ({@code -Dnominas.db.url=...}).</li>
+ * <li>Las variables de entorno, con el nombre en mayúsculas y los puntos
+ * sustituidos por guiones bajos ({@code NOMINAS_DB_URL}).</li>
+ * <li>El fichero indicado en la propiedad de sistema o variable de entorno
+ * {@code nominas.config} / {@code NOMINAS_CONFIG}.</li>
+ * <li>El fichero {@code nominas.properties} del classpath, con los valores por defecto.</li>
+ * </ol>
+ */
+public class Configuracion {
+
+    /** Fichero de configuración por defecto, incluido en el classpath de la aplicación. */
+    public static final String FICHERO_POR_DEFECTO = "nominas.properties";
+
+    // Instancia única de la clase (Singleton)
+    private static volatile Configuracion instance;
+
+    private final Properties propiedades;
+
+    /**
+     * Constructor que crea una configuración a partir de las propiedades indicadas,
+     * que actúan como valores por defecto.
+     *
+     * @param propiedades Las propiedades leídas de los ficheros de configuración.
+     */
+    public Configuracion(Properties propiedades) {
+        this.propiedades = propiedades;
+    }
+
+    /**
+     * Método estático para obtener la configuración de la aplicación, que se carga
+     * la primera vez que se solicita.
+     *
+     * @return La configuración de la aplicación.
+     */
+    public static Configuracion getInstance() {
+        if (instance == null) {
+            synchronized (Configuracion.class) {
+                if (instance == null) {
+                    instance = new Configuracion(cargarFicheros());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Obtiene el valor de una propiedad.
+     *
+     * @param clave La clave de la propiedad.
+     * @param valorPorDefecto El valor que se devuelve si la propiedad no está definida.
+     * @return El valor de la propiedad o el valor por defecto.
+     */
+    public String getString(String clave, String valorPorDefecto) {
+        String valor = System.getProperty(clave);
+        if (valor == null) {
+            valor = System.getenv(nombreVariableEntorno(clave));
+        }
+        if (valor == null) {
+            valor = propiedades.getProperty(clave);
+        }
+        return valor != null ? valor.trim() : valorPorDefecto;
+    }
+
+    /**
+     * Obtiene el valor entero de una propiedad.
+     *
+     * @param clave La clave de la propiedad.
+     * @param valorPorDefecto El valor que se devuelve si la propiedad no está definida.
+     * @return El valor de la propiedad o el valor por defecto.
+     * @throws IllegalArgumentException Si el valor no es un número entero.
+     */
+    public int getInt(String clave, int valorPorDefecto) {
+        return (int) getLong(clave, valorPorDefecto);
+    }
+
+    /**
+     * Obtiene el valor entero largo de una propiedad.
+     *
+     * @param clave La clave de la propiedad.
+     * @param valorPorDefecto El valor que se devuelve si la propiedad no está definida.
+     * @return El valor de la propiedad o el valor por defecto.
+     * @throws IllegalArgumentException Si el valor no es un número entero.
+     */
+    public long getLong(String clave, long valorPorDefecto) {
+        String valor = getString(clave, null);
+        if (valor == null || valor.isEmpty()) {
+            return valorPorDefecto;
+        }
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("La propiedad " + clave + " debe ser un número entero: " + valor);
+        }
+    }
+
+    /**
+     * Obtiene el valor booleano de una propiedad ({@code true} o {@code false}).
+     *
+     * @param clave La clave de la propiedad.
+     * @param valorPorDefecto El valor que se devuelve si la propiedad no está definida.
+     * @return El valor de la propiedad o el valor por defecto.
+     */
+    public boolean getBoolean(String clave, boolean valorPorDefecto) {
+        String valor = getString(clave, null);
+        if (valor == null || valor.isEmpty()) {
+            return valorPorDefecto;
+        }
+        return Boolean.parseBoolean(valor);
+    }
+
+    // nominas.db.url -> NOMINAS_DB_URL
+    private static String nombreVariableEntorno(String clave) {
+        return clave.toUpperCase().replace('.', '_');
+    }
+
+    // Carga el fichero del classpath y, encima, el fichero externo si se ha indicado
+    private static Properties cargarFicheros() {
+        Properties propiedades = new Properties();
+        try (InputStream in = Configuracion.class.getClassLoader().getResourceAsStream(FICHERO_POR_DEFECTO)) {
+            if (in != null) {
+                try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                    propiedades.load(reader);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer " + FICHERO_POR_DEFECTO, e);
+        }
+
+        String externo = System.getProperty("nominas.config", System.getenv("NOMINAS_CONFIG"));
+        if (externo != null && !externo.trim().isEmpty()) {
+            Path ruta = Paths.get(externo.trim());
+            try (Reader reader = Files.newBufferedReader(ruta, StandardCharsets.UTF_8)) {
+                Properties externas = new Properties();
+                externas.load(reader);
+                propiedades.putAll(externas);
+            } catch (IOException e) {
+                throw new IllegalStateException("No se pudo leer el fichero de configuración " + ruta, e);
+            }
+        }
+        return propiedades;
+    }
+}
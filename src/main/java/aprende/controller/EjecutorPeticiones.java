@@ -0,0 +1,344 @@
+package aprende.controller;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import aprende.config.Configuracion;
+import aprende.conexion.Conexion;
+
+/**
+ * Ejecuta las peticiones de un servlet en modo asíncrono: el hilo del contenedor
+ * se libera en cuanto empieza la petición y el trabajo (las llamadas a la base de
+ * datos) se hace en un ejecutor propio.
+ *
+ * <p>
+ * Con Java 21 o posterior el ejecutor crea un hilo virtual por petición; con
+ * versiones anteriores se usa un pool fijo de hilos. En ambos casos el número de
+ * peticiones en curso está limitado por un semáforo, con tantos permisos como
+ * conexiones tiene el pool de {@link Conexion} salvo que se configure otro valor.
+ * Si no queda ningún permiso, la petición se rechaza en el acto con un 503 en lugar
+ * de quedar en cola.
+ * </p>
+ *
+ * <p>
+ * La respuesta de cada petición asíncrona la escribe quien llegue antes: la tarea
+ * (al despachar una vista, escribir la respuesta o enviar un error) o el oyente del
+ * tiempo máximo, que responde con un 503 y completa la petición aunque la tarea siga
+ * en marcha. Un indicador compartido decide quién ha llegado antes, de modo que la
+ * tarea nunca toca una respuesta que el contenedor ya ha completado.
+ * </p>
+ *
+ * <p>
+ * Propiedades de configuración:
+ * </p>
+ * <ul>
+ * <li>{@code nominas.async.activo}: activa el modo asíncrono (por defecto {@code false}).</li>
+ * <li>{@code nominas.async.maxConcurrentes}: peticiones en curso como máximo (0 para
+ * usar el tamaño del pool de conexiones).</li>
+ * <li>{@code nominas.async.timeoutMillis}: tiempo máximo de cada petición.</li>
+ * </ul>
+ */
+class EjecutorPeticiones {
+
+    /**
+     * Trabajo de una petición, que se ejecuta en el ejecutor asíncrono.
+     */
+    interface Tarea {
+        void ejecutar() throws ServletException, IOException;
+    }
+
+    // Petición asíncrona que está ejecutando el hilo actual, si la hay
+    private static final ThreadLocal<PeticionAsincrona> PETICION_ACTUAL = new ThreadLocal<>();
+
+    private final ServletContext contexto;
+    private final ExecutorService ejecutor;
+    private final boolean hilosVirtuales;
+    private final int maxConcurrentes;
+    private final long timeoutMillis;
+    private final Semaphore permisos;
+    private final LongAdder rechazadas = new LongAdder();
+
+    /**
+     * Constructor que crea el ejecutor con la configuración de la aplicación.
+     *
+     * @param contexto El contexto de la aplicación web, para registrar los errores.
+     * @param config   La configuración de la aplicación.
+     */
+    EjecutorPeticiones(ServletContext contexto, Configuracion config) {
+        this.contexto = contexto;
+        if (!config.getBoolean("nominas.async.activo", false)) {
+            this.ejecutor = null;
+            this.hilosVirtuales = false;
+            this.maxConcurrentes = 0;
+            this.timeoutMillis = 0;
+            this.permisos = null;
+            return;
+        }
+
+        int configurado = config.getInt("nominas.async.maxConcurrentes", 0);
+        this.maxConcurrentes = configurado > 0 ? configurado : Conexion.getMaxTotal();
+        this.timeoutMillis = config.getLong("nominas.async.timeoutMillis", 30000);
+        this.permisos = new Semaphore(maxConcurrentes);
+
+        ExecutorService virtual = crearEjecutorVirtual();
+        this.hilosVirtuales = virtual != null;
+        this.ejecutor = virtual != null ? virtual : crearEjecutorPlataforma(maxConcurrentes);
+    }
+
+    /**
+     * Indica si el modo asíncrono está activado.
+     *
+     * @return {@code true} si las peticiones se ejecutan en el ejecutor asíncrono.
+     */
+    boolean estaActivo() {
+        return ejecutor != null;
+    }
+
+    /**
+     * Ejecuta la tarea de una petición en modo asíncrono o la rechaza con un 503 si
+     * ya hay el máximo de peticiones en curso.
+     *
+     * <p>
+     * La tarea debe mostrar las vistas con {@link #despachar(String)} y reservar la
+     * respuesta con {@link #reservarRespuesta()} antes de escribirla directamente; si
+     * termina sin despachar ninguna vista, la petición se completa al terminar la tarea.
+     * </p>
+     *
+     * @param request  La solicitud HTTP.
+     * @param response La respuesta HTTP.
+     * @param tarea    El trabajo de la petición.
+     * @throws IOException Si ocurre un error al enviar el rechazo.
+     */
+    void ejecutar(HttpServletRequest request, HttpServletResponse response, Tarea tarea) throws IOException {
+        if (!permisos.tryAcquire()) {
+            rechazar(response);
+            return;
+        }
+
+        AsyncContext async = request.startAsync(request, response);
+        PeticionAsincrona peticion = new PeticionAsincrona(async);
+        async.setTimeout(timeoutMillis);
+        async.addListener(new OyenteTimeout(peticion));
+        String consulta = request.getQueryString();
+        try {
+            ejecutor.execute(() -> {
+                PETICION_ACTUAL.set(peticion);
+                try {
+                    tarea.ejecutar();
+                } catch (Exception e) {
+                    contexto.log("Error en la petición asíncrona " + consulta, e);
+                    if (peticion.reservar()) {
+                        enviarError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                                "Error en la operación: " + e.getMessage());
+                    }
+                } finally {
+                    PETICION_ACTUAL.remove();
+                    permisos.release();
+                    // Si la tarea no ha despachado ninguna vista ni ha caducado, se da por terminada la petición
+                    if (!peticion.despachada && peticion.reservar()) {
+                        async.complete();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permisos.release();
+            rechazar(response);
+            async.complete();
+        }
+    }
+
+    /**
+     * Muestra una vista de la petición asíncrona que está ejecutando el hilo actual.
+     * Si la petición ya ha caducado, no hace nada: el contenedor ya ha enviado el 503 y
+     * la ha completado, así que la respuesta no debe tocarse.
+     *
+     * @param vista La ruta de la vista.
+     * @return {@code true} si el hilo actual ejecuta una petición asíncrona (tanto si se
+     *         ha despachado la vista como si había caducado), {@code false} si la petición
+     *         es síncrona y hay que reenviarla a la vista.
+     */
+    boolean despachar(String vista) {
+        PeticionAsincrona peticion = PETICION_ACTUAL.get();
+        if (peticion == null) {
+            return false;
+        }
+        if (peticion.reservar()) {
+            peticion.despachada = true;
+            peticion.async.dispatch(vista);
+        }
+        return true;
+    }
+
+    /**
+     * Reserva la respuesta para que la tarea del hilo actual la escriba directamente
+     * (un error o un contenido que no es una vista), de modo que el oyente del tiempo
+     * máximo ya no la toque.
+     *
+     * @return {@code true} si la respuesta puede escribirse: la petición es síncrona, o
+     *         es asíncrona y no ha caducado. {@code false} si el contenedor ya la ha completado.
+     */
+    boolean reservarRespuesta() {
+        PeticionAsincrona peticion = PETICION_ACTUAL.get();
+        return peticion == null || peticion.reservar();
+    }
+
+    /**
+     * Detiene el ejecutor, esperando unos segundos a que terminen las peticiones en curso.
+     */
+    void cerrar() {
+        if (ejecutor == null) {
+            return;
+        }
+        ejecutor.shutdown();
+        try {
+            if (!ejecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                ejecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ejecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return {@code true} si las peticiones se ejecutan en hilos virtuales.
+     */
+    boolean usaHilosVirtuales() {
+        return hilosVirtuales;
+    }
+
+    /**
+     * @return El número máximo de peticiones en curso.
+     */
+    int getMaxConcurrentes() {
+        return maxConcurrentes;
+    }
+
+    /**
+     * @return El número de peticiones que se están ejecutando.
+     */
+    int getEnCurso() {
+        return permisos == null ? 0 : maxConcurrentes - permisos.availablePermits();
+    }
+
+    /**
+     * @return El número de peticiones rechazadas con un 503 por falta de capacidad.
+     */
+    long getRechazadas() {
+        return rechazadas.sum();
+    }
+
+    private void rechazar(HttpServletResponse response) throws IOException {
+        rechazadas.increment();
+        response.setHeader("Retry-After", "1");
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                "El servidor está ocupado. Inténtelo de nuevo en unos segundos.");
+    }
+
+    private void enviarError(HttpServletResponse response, int estado, String mensaje) {
+        try {
+            if (!response.isCommitted()) {
+                response.sendError(estado, mensaje);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // La respuesta ya no puede modificarse (por ejemplo, la petición ha caducado)
+        }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() solo existe desde Java 21
+    private static ExecutorService crearEjecutorVirtual() {
+        try {
+            Method metodo = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) metodo.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo crear el ejecutor de hilos virtuales", e);
+        }
+    }
+
+    private static ExecutorService crearEjecutorPlataforma(int hilos) {
+        AtomicInteger contador = new AtomicInteger();
+        return Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "empleado-async-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Estado de una petición asíncrona: quién escribe su respuesta.
+     */
+    private static final class PeticionAsincrona {
+        final AsyncContext async;
+        // Se marca una sola vez, por la tarea o por el oyente del tiempo máximo
+        final AtomicBoolean terminada = new AtomicBoolean();
+        // Solo los usa el hilo de la tarea
+        boolean reservada;
+        boolean despachada;
+
+        PeticionAsincrona(AsyncContext async) {
+            this.async = async;
+        }
+
+        // Reserva la respuesta para la tarea; false si ya la ha completado el oyente del tiempo máximo
+        boolean reservar() {
+            if (!reservada) {
+                reservada = terminada.compareAndSet(false, true);
+            }
+            return reservada;
+        }
+    }
+
+    /**
+     * Responde con un 503 a las peticiones que superan el tiempo máximo, salvo que la
+     * tarea ya haya reservado la respuesta: en ese caso la completa la tarea (o la
+     * vista que ha despachado).
+     */
+    private class OyenteTimeout implements AsyncListener {
+        private final PeticionAsincrona peticion;
+
+        OyenteTimeout(PeticionAsincrona peticion) {
+            this.peticion = peticion;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            if (peticion.terminada.compareAndSet(false, true)) {
+                enviarError((HttpServletResponse) event.getSuppliedResponse(),
+                        HttpServletResponse.SC_SERVICE_UNAVAILABLE, "La operación ha superado el tiempo máximo de espera.");
+                event.getAsyncContext().complete();
+            }
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            peticion.terminada.set(true);
+            event.getAsyncContext().complete();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
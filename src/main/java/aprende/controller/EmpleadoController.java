@@ -1,27 +1,82 @@
 package aprende.controller;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.servlet.ServletException;
+import javax.servlet.annotation.MultipartConfig;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.Part;
 
+import aprende.config.Configuracion;
+import aprende.conexion.Conexion;
+import aprende.conexion.MetricasPool;
+import aprende.metricas.Histograma;
+import aprende.metricas.RegistroMetricas;
+import aprende.model.CacheNominas;
 import aprende.model.Empleado;
 import aprende.model.EmpleadoService;
+import aprende.model.FiltroEmpleados;
+import aprende.model.GrupoNomina;
+import aprende.model.IndiceEmpleados;
+import aprende.model.ProgresoNominaMensual;
+import aprende.model.ResultadoImportacion;
+import aprende.model.ResultadoRecalculo;
+import aprende.model.ValidadorDni;
 
 /**
  * Controlador que maneja las solicitudes HTTP relacionadas con los empleados.
  * Realiza las operaciones de listado, búsqueda, modificación, eliminación y cálculo de salarios de los empleados.
  * Este controlador se comunica con la capa de servicios (EmpleadoService) para llevar a cabo la lógica de negocio.
+ *
+ * Si está activado el modo asíncrono ({@code nominas.async.activo}), las opciones que
+ * acceden a la base de datos se ejecutan fuera del hilo del contenedor mediante
+ * {@link EjecutorPeticiones}, que limita las peticiones en curso al tamaño del pool de
+ * conexiones y responde 503 cuando no hay capacidad.
  */
-@WebServlet("/empleado")
+@WebServlet(value = "/empleado", asyncSupported = true)
+// Los ficheros subidos de más de 1 MB se guardan en disco temporal en lugar de en memoria
+@MultipartConfig(fileSizeThreshold = 1024 * 1024, maxFileSize = 200L * 1024 * 1024, maxRequestSize = 200L * 1024 * 1024)
 public class EmpleadoController extends HttpServlet {
     private static final long serialVersionUID = 1L;
+    private static final int TAMANO_PAGINA_POR_DEFECTO = 50;
+    private static final int TAMANO_PAGINA_MAXIMO = 500;
+    private static final int LIMITE_RESULTADOS_BUSQUEDA = 1000;
+    private static final String METRICA_LATENCIA = "nominas_peticion_segundos";
+    private static final String AYUDA_LATENCIA = "Duración de las peticiones al controlador de empleados por opción.";
+    private static final String MENSAJE_DNI_INVALIDO =
+            "El DNI debe tener 8 dígitos seguidos de su letra de control en mayúscula.";
+    private static final String MENSAJE_FORMATO_DNI = "El DNI debe tener 8 dígitos seguidos de una letra mayúscula.";
+    // Opciones GET que no acceden a la base de datos: se atienden siempre en el hilo del contenedor
+    private static final Set<String> OPCIONES_SIN_BASE_DATOS = new HashSet<>(
+            Arrays.asList("mostrar", "modificar", "importar", "estadoCache", "estadoPool", "estadoIndice"));
+    // Opciones de cada método HTTP, para las que se registra la latencia por separado
+    private static final List<String> OPCIONES_GET = Arrays.asList("listar", "salarios", "obtenerSalarios",
+            "mostrar", "modificar", "importar", "estadoCache", "estadoPool", "estadoIndice", "resumenNominas",
+            "estadoNominaMensual");
+    private static final List<String> OPCIONES_POST = Arrays.asList("obtenerSalarios", "buscarPorAtributo",
+            "guardar", "editar", "eliminar", "recalcularNominas", "nominaMensual", "importar");
+    // Valor de la etiqueta para las opciones desconocidas, que no deben crear series nuevas
+    private static final String OPCION_DESCONOCIDA = "desconocida";
     private EmpleadoService empleadoService;
+    private EjecutorPeticiones ejecutorPeticiones;
+    private final Map<String, Histograma> latenciasGet = crearLatencias("GET", OPCIONES_GET);
+    private final Map<String, Histograma> latenciasPost = crearLatencias("POST", OPCIONES_POST);
 
     /**
      * Constructor del controlador.
@@ -32,6 +87,31 @@ public class EmpleadoController extends HttpServlet {
         empleadoService = new EmpleadoService(); // Iniciar servicio
     }
 
+    /**
+     * Inicializa el servlet y, si está activado el modo asíncrono, el ejecutor de
+     * peticiones.
+     * 
+     * @throws ServletException Si ocurre un error al inicializar el servlet.
+     */
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        ejecutorPeticiones = new EjecutorPeticiones(getServletContext(), Configuracion.getInstance());
+        if (ejecutorPeticiones.estaActivo()) {
+            log("Modo asíncrono activado: " + ejecutorPeticiones.getMaxConcurrentes() + " peticiones concurrentes"
+                    + (ejecutorPeticiones.usaHilosVirtuales() ? " en hilos virtuales" : " en hilos de plataforma"));
+        }
+    }
+
+    /**
+     * Detiene el ejecutor de peticiones al destruir el servlet.
+     */
+    @Override
+    public void destroy() {
+        ejecutorPeticiones.cerrar();
+        super.destroy();
+    }
+
     /**
      * Maneja las solicitudes GET.
      * Dependiendo de la opción seleccionada, se llama a un método específico para realizar la operación.
@@ -45,6 +125,25 @@ public class EmpleadoController extends HttpServlet {
             throws ServletException, IOException {
         String opcion = request.getParameter("opcion");
 
+        if (ejecutorPeticiones.estaActivo() && !OPCIONES_SIN_BASE_DATOS.contains(opcion)) {
+            ejecutorPeticiones.ejecutar(request, response, () -> atenderGet(request, response, opcion));
+        } else {
+            atenderGet(request, response, opcion);
+        }
+    }
+
+    /**
+     * Atiende una solicitud GET según la opción indicada.
+     * 
+     * @param request La solicitud HTTP.
+     * @param response La respuesta HTTP.
+     * @param opcion La opción solicitada.
+     * @throws ServletException Si ocurre un error en la ejecución del servlet.
+     * @throws IOException Si ocurre un error en la entrada/salida de datos.
+     */
+    private void atenderGet(HttpServletRequest request, HttpServletResponse response, String opcion)
+            throws ServletException, IOException {
+        long inicio = System.nanoTime();
         try {
             // Según la opción solicitada, se ejecuta una acción específica.
             if ("listar".equals(opcion)) {
@@ -54,15 +153,29 @@ public class EmpleadoController extends HttpServlet {
             } else if ("obtenerSalarios".equals(opcion)) {
                 obtenerSalarioPorDni(request, response);
             } else if ("mostrar".equals(opcion)) {
-                request.getRequestDispatcher("/views/mostrar.jsp").forward(request, response);
+                mostrarVista(request, response, "/views/mostrar.jsp");
             } else if ("modificar".equals(opcion)) {
-                request.getRequestDispatcher("/views/modificar.jsp").forward(request, response);
+                mostrarVista(request, response, "/views/modificar.jsp");
+            } else if ("importar".equals(opcion)) {
+                mostrarVista(request, response, "/views/importar.jsp");
+            } else if ("estadoCache".equals(opcion)) {
+                mostrarEstadoCache(response);
+            } else if ("estadoPool".equals(opcion)) {
+                mostrarEstadoPool(response);
+            } else if ("estadoIndice".equals(opcion)) {
+                mostrarEstadoIndice(response);
+            } else if ("resumenNominas".equals(opcion)) {
+                mostrarResumenNominas(request, response);
+            } else if ("estadoNominaMensual".equals(opcion)) {
+                mostrarEstadoNominaMensual(request, response);
             }
         } catch (SQLException e) {
             e.printStackTrace();
             // En caso de error, se pasa el mensaje de error a la vista.
             request.setAttribute("error", "Error en la operación: " + e.getMessage());
-            request.getRequestDispatcher("/views/error.jsp").forward(request, response);
+            mostrarVista(request, response, "/views/error.jsp");
+        } finally {
+            latencia(latenciasGet, opcion).registrarDesde(inicio);
         }
     }
 
@@ -79,6 +192,25 @@ public class EmpleadoController extends HttpServlet {
             throws ServletException, IOException {
         String opcion = request.getParameter("opcion");
 
+        if (ejecutorPeticiones.estaActivo()) {
+            ejecutorPeticiones.ejecutar(request, response, () -> atenderPost(request, response, opcion));
+        } else {
+            atenderPost(request, response, opcion);
+        }
+    }
+
+    /**
+     * Atiende una solicitud POST según la opción indicada.
+     * 
+     * @param request La solicitud HTTP.
+     * @param response La respuesta HTTP.
+     * @param opcion La opción solicitada.
+     * @throws ServletException Si ocurre un error en la ejecución del servlet.
+     * @throws IOException Si ocurre un error en la entrada/salida de datos.
+     */
+    private void atenderPost(HttpServletRequest request, HttpServletResponse response, String opcion)
+            throws ServletException, IOException {
+        long inicio = System.nanoTime();
         try {
             // Según la opción solicitada, se ejecuta una acción específica.
             if ("obtenerSalarios".equals(opcion)) {
@@ -91,18 +223,29 @@ public class EmpleadoController extends HttpServlet {
                 editarEmpleado(request, response);
             } else if ("eliminar".equals(opcion)) {
                 eliminarEmpleado(request, response);
+            } else if ("recalcularNominas".equals(opcion)) {
+                recalcularNominas(request, response);
+            } else if ("nominaMensual".equals(opcion)) {
+                ejecutarNominaMensual(request, response);
+            } else if ("importar".equals(opcion)) {
+                importarEmpleados(request, response);
             }
         } catch (SQLException e) {
             e.printStackTrace();
             // En caso de error, se pasa el mensaje de error a la vista.
             request.setAttribute("error", "Error en la operación: " + e.getMessage());
-            request.getRequestDispatcher("/views/error.jsp").forward(request, response);
+            mostrarVista(request, response, "/views/error.jsp");
+        } finally {
+            latencia(latenciasPost, opcion).registrarDesde(inicio);
         }
     }
 
     /**
-     * Listar todos los empleados.
-     * Se obtiene la lista de empleados desde el servicio y se pasa a la vista correspondiente.
+     * Listar los empleados página a página.
+     * Se obtiene desde el servicio la página que empieza después del DNI indicado en el
+     * parámetro {@code desde} (o la primera si no se indica), con tantos empleados como
+     * indique {@code tamanoPagina}, y se pasa a la vista junto con el cursor de la
+     * página siguiente.
      * 
      * @param request La solicitud HTTP.
      * @param response La respuesta HTTP.
@@ -112,9 +255,26 @@ public class EmpleadoController extends HttpServlet {
      */
     private void listarEmpleados(HttpServletRequest request, HttpServletResponse response)
             throws SQLException, ServletException, IOException {
-        List<Empleado> lista = empleadoService.obtenerTodosLosEmpleados();
+        int tamanoPagina = parametroEntero(request, "tamanoPagina", TAMANO_PAGINA_POR_DEFECTO);
+        tamanoPagina = Math.max(1, Math.min(tamanoPagina, TAMANO_PAGINA_MAXIMO));
+        String desde = request.getParameter("desde");
+        if (desde != null && desde.trim().isEmpty()) {
+            desde = null;
+        }
+
+        // Se pide un empleado de más para saber si existe una página siguiente.
+        List<Empleado> lista = empleadoService.obtenerEmpleadosPaginados(desde, tamanoPagina + 1);
+        String siguienteDni = null;
+        if (lista.size() > tamanoPagina) {
+            lista = lista.subList(0, tamanoPagina);
+            siguienteDni = lista.get(tamanoPagina - 1).getDni();
+        }
+
         request.setAttribute("lista", lista); // Se pasa la lista de empleados a la vista
-        request.getRequestDispatcher("/views/listar.jsp").forward(request, response);
+        request.setAttribute("tamanoPagina", tamanoPagina);
+        request.setAttribute("desde", desde);
+        request.setAttribute("siguienteDni", siguienteDni);
+        mostrarVista(request, response, "/views/listar.jsp");
     }
 
     /**
@@ -127,7 +287,7 @@ public class EmpleadoController extends HttpServlet {
      */
     private void mostrarFormularioSalarios(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        request.getRequestDispatcher("/views/salario.jsp").forward(request, response);
+        mostrarVista(request, response, "/views/salario.jsp");
     }
 
     /**
@@ -144,6 +304,14 @@ public class EmpleadoController extends HttpServlet {
             throws SQLException, ServletException, IOException {
 
         String dni = request.getParameter("dni");
+        if (!ValidadorDni.tieneFormato(dni)) {
+            // Un DNI sin el formato correcto no puede existir: se evita la consulta a la base
+            // de datos. La letra de control no se comprueba, porque los empleados dados de
+            // alta antes de comprobarla pueden tenerla mal.
+            request.setAttribute("mensaje", "Error: " + MENSAJE_FORMATO_DNI);
+            mostrarVista(request, response, "/views/salario.jsp");
+            return;
+        }
         try {
             // Llamada al servicio para obtener el salario del empleado por su DNI
             Double salario = empleadoService.obtenerNominaPorDni(dni);
@@ -151,16 +319,155 @@ public class EmpleadoController extends HttpServlet {
             // Se pasa el salario y el DNI a la vista para su presentación.
             request.setAttribute("sueldo", salario);
             request.setAttribute("dni", dni);
-            request.getRequestDispatcher("/views/salario.jsp").forward(request, response);
+            mostrarVista(request, response, "/views/salario.jsp");
         } catch (SQLException e) {
             // En caso de error, se pasa el mensaje de error a la vista.
             request.setAttribute("mensaje", "Error: " + e.getMessage());
-            request.getRequestDispatcher("/views/salario.jsp").forward(request, response);
+            mostrarVista(request, response, "/views/salario.jsp");
+        }
+    }
+
+    /**
+     * Muestra en texto plano los contadores de la caché de nóminas
+     * (aciertos, fallos, expulsiones y entradas caducadas) para poder dimensionarla.
+     * 
+     * @param response La respuesta HTTP.
+     * @throws IOException Si ocurre un error en la entrada/salida de datos.
+     */
+    private void mostrarEstadoCache(HttpServletResponse response) throws IOException {
+        CacheNominas cache = empleadoService.getCacheNominas();
+        response.setContentType("text/plain;charset=UTF-8");
+        PrintWriter out = response.getWriter();
+        out.println("tamano=" + cache.getTamano());
+        out.println("capacidad=" + cache.getCapacidad());
+        out.println("aciertos=" + cache.getAciertos());
+        out.println("fallos=" + cache.getFallos());
+        out.println("expulsiones=" + cache.getExpulsiones());
+        out.println("caducadas=" + cache.getCaducadas());
+    }
+
+    /**
+     * Muestra en texto plano si el índice de empleados en memoria está cargado y
+     * cuántos empleados contiene.
+     * 
+     * @param response La respuesta HTTP.
+     * @throws IOException Si ocurre un error en la entrada/salida de datos.
+     */
+    private void mostrarEstadoIndice(HttpServletResponse response) throws IOException {
+        IndiceEmpleados indice = empleadoService.getIndiceEmpleados();
+        response.setContentType("text/plain;charset=UTF-8");
+        PrintWriter out = response.getWriter();
+        out.println("activado=" + IndiceEmpleados.estaActivado());
+        out.println("cargado=" + indice.estaCargado());
+        out.println("empleados=" + indice.getNumeroEmpleados());
+    }
+
+    /**
+     * Muestra en texto plano el progreso de la nómina mensual del mes indicado en el
+     * parámetro {@code mes} (AAAA-MM), o del mes actual si no se indica, a partir de los
+     * puntos de control de sus particiones.
+     * 
+     * @param request La solicitud HTTP.
+     * @param response La respuesta HTTP.
+     * @throws SQLException Si ocurre un error al consultar la base de datos.
+     * @throws IOException Si ocurre un error en la entrada/salida de datos.
+     */
+    private void mostrarEstadoNominaMensual(HttpServletRequest request, HttpServletResponse response)
+            throws SQLException, IOException {
+        YearMonth mes;
+        try {
+            mes = mesDesdeSolicitud(request);
+        } catch (DateTimeParseException e) {
+            if (ejecutorPeticiones.reservarRespuesta()) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "El mes debe tener el formato AAAA-MM.");
+            }
+            return;
+        }
+        ProgresoNominaMensual progreso = empleadoService.obtenerProgresoNominaMensual(mes);
+        if (!ejecutorPeticiones.reservarRespuesta()) {
+            return;
+        }
+        response.setContentType("text/plain;charset=UTF-8");
+        PrintWriter out = response.getWriter();
+        out.println("periodo=" + progreso.getPeriodo());
+        out.println("enCurso=" + progreso.isEnCurso());
+        out.println("completada=" + progreso.isCompletada());
+        out.println("particiones=" + progreso.getParticiones());
+        out.println("particionesCompletadas=" + progreso.getParticionesCompletadas());
+        out.println("recibos=" + progreso.getRecibos());
+        out.println("omitidos=" + progreso.getOmitidos());
+        if (progreso.getError() != null) {
+            out.println("error=" + progreso.getError());
+        }
+    }
+
+    /**
+     * Muestra en CSV el número de empleados, el sueldo total y el sueldo medio de cada
+     * grupo de la agrupación indicada en el parámetro {@code agrupacion}
+     * ({@code categoria}, por defecto, {@code sexo} o {@code antiguedad}).
+     * 
+     * @param request La solicitud HTTP.
+     * @param response La respuesta HTTP.
+     * @throws SQLException Si ocurre un error al consultar la base de datos.
+     * @throws IOException Si ocurre un error en la entrada/salida de datos.
+     */
+    private void mostrarResumenNominas(HttpServletRequest request, HttpServletResponse response)
+            throws SQLException, IOException {
+        String agrupacion = request.getParameter("agrupacion");
+        List<GrupoNomina> grupos;
+        try {
+            grupos = empleadoService.resumirNominas(
+                    agrupacion == null || agrupacion.isEmpty() ? GrupoNomina.POR_CATEGORIA : agrupacion);
+        } catch (IllegalArgumentException e) {
+            if (ejecutorPeticiones.reservarRespuesta()) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            }
+            return;
+        }
+
+        if (!ejecutorPeticiones.reservarRespuesta()) {
+            return;
+        }
+        response.setContentType("text/csv;charset=UTF-8");
+        PrintWriter out = response.getWriter();
+        out.println("grupo,empleados,sueldo_total,sueldo_medio");
+        for (GrupoNomina grupo : grupos) {
+            out.println(grupo.getGrupo() + "," + grupo.getEmpleados() + "," + grupo.getSueldoTotal() + ","
+                    + Math.round(grupo.getSueldoMedio()));
         }
     }
 
     /**
-     * Busca empleados por un atributo específico.
+     * Muestra en texto plano las métricas del pool de conexiones (conexiones activas
+     * e inactivas, préstamos, fallos y tiempos de espera) y del modo asíncrono
+     * (peticiones en curso y rechazadas) para poder ajustarlos.
+     * 
+     * @param response La respuesta HTTP.
+     * @throws IOException Si ocurre un error en la entrada/salida de datos.
+     */
+    private void mostrarEstadoPool(HttpServletResponse response) throws IOException {
+        MetricasPool metricas = Conexion.getMetricas();
+        response.setContentType("text/plain;charset=UTF-8");
+        PrintWriter out = response.getWriter();
+        out.println("activas=" + metricas.getActivas());
+        out.println("inactivas=" + metricas.getInactivas());
+        out.println("maxTotal=" + metricas.getMaxTotal());
+        out.println("prestamos=" + metricas.getPrestamos());
+        out.println("fallos=" + metricas.getFallos());
+        out.println("esperaMediaMillis=" + metricas.getEsperaMediaMillis());
+        out.println("esperaMaximaMillis=" + metricas.getEsperaMaximaMillis());
+        out.println("asyncActivo=" + ejecutorPeticiones.estaActivo());
+        out.println("asyncHilosVirtuales=" + ejecutorPeticiones.usaHilosVirtuales());
+        out.println("asyncMaxConcurrentes=" + ejecutorPeticiones.getMaxConcurrentes());
+        out.println("asyncEnCurso=" + ejecutorPeticiones.getEnCurso());
+        out.println("asyncRechazadas=" + ejecutorPeticiones.getRechazadas());
+    }
+
+    /**
+     * Busca empleados por un atributo específico y, opcionalmente, por los criterios
+     * de la búsqueda avanzada (prefijo del nombre, sexo y rangos de categoría y años),
+     * que se combinan con AND. Sin criterios se listan todos los empleados, hasta el
+     * límite de resultados de la búsqueda.
      * Se calcula el sueldo de cada empleado y se pasa la lista resultante a la vista.
      * 
      * @param request La solicitud HTTP.
@@ -171,19 +478,70 @@ public class EmpleadoController extends HttpServlet {
      */
     private void buscarEmpleadosPorAtributo(HttpServletRequest request, HttpServletResponse response)
             throws SQLException, ServletException, IOException {
-        String atributo = request.getParameter("atributo");
-        String valor = request.getParameter("valor");
-        List<Empleado> listaEmpleados = empleadoService.buscarEmpleadosPorAtributo(atributo, valor);
+        FiltroEmpleados filtro;
+        try {
+            filtro = filtroDesdeSolicitud(request);
+        } catch (IllegalArgumentException e) {
+            request.setAttribute("mensajeError", e.getMessage());
+            mostrarVista(request, response, "/views/mostrar.jsp");
+            return;
+        }
 
-        // Se calcula el sueldo de cada empleado en la lista y se agrega al atributo sueldoTotal.
-        for (Empleado empleado : listaEmpleados) {
-            int sueldo = empleadoService.calcularSueldo(empleado);
-            empleado.setSueldoTotal(sueldo);
+        // Se pide un resultado más para saber si se ha alcanzado el límite, que también
+        // acota la búsqueda sin criterios. Cada empleado llega con su sueldo en el
+        // atributo sueldoTotal.
+        filtro.setLimite(LIMITE_RESULTADOS_BUSQUEDA + 1);
+        List<Empleado> listaEmpleados = empleadoService.buscarEmpleadosConSueldo(filtro);
+        if (listaEmpleados.size() > LIMITE_RESULTADOS_BUSQUEDA) {
+            listaEmpleados = listaEmpleados.subList(0, LIMITE_RESULTADOS_BUSQUEDA);
+            request.setAttribute("mensajeError", "Se muestran solo los primeros " + LIMITE_RESULTADOS_BUSQUEDA
+                    + " resultados. Añada más criterios para acotar la búsqueda.");
         }
 
         // Se pasa la lista de empleados a la vista para su presentación.
         request.setAttribute("listaEmpleados", listaEmpleados);
-        request.getRequestDispatcher("/views/mostrar.jsp").forward(request, response);
+        mostrarVista(request, response, "/views/mostrar.jsp");
+    }
+
+    /**
+     * Construye el filtro de búsqueda a partir de los parámetros {@code atributo} y
+     * {@code valor} y de los parámetros de la búsqueda avanzada. Los parámetros vacíos
+     * se ignoran.
+     * 
+     * @param request La solicitud HTTP.
+     * @return El filtro de búsqueda.
+     * @throws IllegalArgumentException Si algún parámetro no es válido.
+     */
+    private FiltroEmpleados filtroDesdeSolicitud(HttpServletRequest request) {
+        String valor = request.getParameter("valor");
+        FiltroEmpleados filtro = valor == null || valor.trim().isEmpty() ? new FiltroEmpleados()
+                : FiltroEmpleados.desdeAtributo(request.getParameter("atributo"), valor);
+
+        String prefijoNombre = request.getParameter("prefijoNombre");
+        if (prefijoNombre != null && !prefijoNombre.trim().isEmpty()) {
+            filtro.setPrefijoNombre(prefijoNombre.trim());
+        }
+        String sexo = request.getParameter("sexoFiltro");
+        if (sexo != null && !sexo.isEmpty()) {
+            filtro.setSexo(sexo.charAt(0));
+        }
+        Integer categoriaMinima = parametroEnteroOpcional(request, "categoriaMinima", "La categoría mínima");
+        if (categoriaMinima != null) {
+            filtro.setCategoriaMinima(categoriaMinima);
+        }
+        Integer categoriaMaxima = parametroEnteroOpcional(request, "categoriaMaxima", "La categoría máxima");
+        if (categoriaMaxima != null) {
+            filtro.setCategoriaMaxima(categoriaMaxima);
+        }
+        Integer anyosMinimos = parametroEnteroOpcional(request, "anyosMinimos", "Los años mínimos");
+        if (anyosMinimos != null) {
+            filtro.setAnyosMinimos(anyosMinimos);
+        }
+        Integer anyosMaximos = parametroEnteroOpcional(request, "anyosMaximos", "Los años máximos");
+        if (anyosMaximos != null) {
+            filtro.setAnyosMaximos(anyosMaximos);
+        }
+        return filtro;
     }
 
     /**
@@ -198,6 +556,12 @@ public class EmpleadoController extends HttpServlet {
      */
     private void guardarEmpleado(HttpServletRequest request, HttpServletResponse response)
             throws SQLException, ServletException, IOException {
+        if (!ValidadorDni.esValido(request.getParameter("dni"))) {
+            request.setAttribute("mensajeError", MENSAJE_DNI_INVALIDO);
+            listarEmpleados(request, response);
+            return;
+        }
+
         Empleado empleado = new Empleado();
         empleado.setDni(request.getParameter("dni"));
         empleado.setNombre(request.getParameter("nombre"));
@@ -230,13 +594,26 @@ public class EmpleadoController extends HttpServlet {
     private void editarEmpleado(HttpServletRequest request, HttpServletResponse response)
             throws SQLException, ServletException, IOException {
         String dniOriginal = request.getParameter("dniOriginal");
+        String dni = request.getParameter("dni");
+        // La letra de control solo se exige si se cambia el DNI: el de un empleado
+        // existente puede tenerla mal y debe poder editarse igualmente.
+        boolean cambiaDni = dni == null || !dni.equals(dniOriginal);
+        if (cambiaDni ? !ValidadorDni.esValido(dni) : !ValidadorDni.tieneFormato(dni)) {
+            request.setAttribute("mensajeError", cambiaDni ? MENSAJE_DNI_INVALIDO : MENSAJE_FORMATO_DNI);
+            // El formulario se vuelve a mostrar con los datos enviados y el sueldo que
+            // les corresponde, manteniendo el DNI original para el siguiente intento.
+            try {
+                Empleado empleado = empleadoDesdeSolicitud(request, dniOriginal);
+                empleado.setSueldoTotal(empleadoService.calcularSueldo(empleado));
+                request.setAttribute("empleado", empleado);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                // Si el resto de datos tampoco es válido, el formulario se muestra sin sueldo
+            }
+            mostrarVista(request, response, "/views/modificar.jsp");
+            return;
+        }
 
-        Empleado empleado = new Empleado();
-        empleado.setDni(request.getParameter("dni"));
-        empleado.setNombre(request.getParameter("nombre"));
-        empleado.setSexo(request.getParameter("sexo").charAt(0));
-        empleado.setCategoria(Integer.parseInt(request.getParameter("categoria")));
-        empleado.setAnyos(Integer.parseInt(request.getParameter("anyos")));
+        Empleado empleado = empleadoDesdeSolicitud(request, dni);
 
         // Se calcula el nuevo sueldo del empleado.
         int sueldoActualizado = empleadoService.calcularSueldo(empleado);
@@ -247,7 +624,25 @@ public class EmpleadoController extends HttpServlet {
         request.setAttribute("mensajeExito", mensaje);
 
         request.setAttribute("empleado", empleado);
-        request.getRequestDispatcher("/views/modificar.jsp").forward(request, response);
+        mostrarVista(request, response, "/views/modificar.jsp");
+    }
+
+    /**
+     * Construye un empleado con los datos del formulario de edición y el DNI indicado.
+     *
+     * @param request La solicitud HTTP con los datos del empleado.
+     * @param dni     El DNI del empleado.
+     * @return El empleado con los datos del formulario.
+     * @throws IllegalArgumentException Si algún dato no es válido.
+     */
+    private static Empleado empleadoDesdeSolicitud(HttpServletRequest request, String dni) {
+        Empleado empleado = new Empleado();
+        empleado.setDni(dni);
+        empleado.setNombre(request.getParameter("nombre"));
+        empleado.setSexo(request.getParameter("sexo").charAt(0));
+        empleado.setCategoria(Integer.parseInt(request.getParameter("categoria")));
+        empleado.setAnyos(Integer.parseInt(request.getParameter("anyos")));
+        return empleado;
     }
 
     /**
@@ -273,4 +668,184 @@ public class EmpleadoController extends HttpServlet {
         // Se vuelve a listar los empleados después de la eliminación.
         listarEmpleados(request, response);
     }
+
+    /**
+     * Recalcula la nómina de todos los empleados o, con el parámetro
+     * {@code modo=cambios}, solo la de los empleados de las categorías cuyas reglas
+     * de sueldo han cambiado desde el último recálculo.
+     * El tamaño de lote y la ventana de commit pueden indicarse como parámetros;
+     * si no se indican, se usan los valores por defecto del servicio.
+     * 
+     * @param request La solicitud HTTP.
+     * @param response La respuesta HTTP.
+     * @throws SQLException Si ocurre un error durante el recálculo.
+     * @throws ServletException Si ocurre un error en la ejecución del servlet.
+     * @throws IOException Si ocurre un error en la entrada/salida de datos.
+     */
+    private void recalcularNominas(HttpServletRequest request, HttpServletResponse response)
+            throws SQLException, ServletException, IOException {
+        int tamanoLote = parametroEntero(request, "tamanoLote", EmpleadoService.TAMANO_LOTE_RECALCULO);
+        int ventanaCommit = parametroEntero(request, "ventanaCommit", EmpleadoService.VENTANA_COMMIT_RECALCULO);
+
+        ResultadoRecalculo resultado = "cambios".equals(request.getParameter("modo"))
+                ? empleadoService.recalcularNominasCambiadas(tamanoLote)
+                : empleadoService.recalcularNominas(tamanoLote, ventanaCommit);
+        request.setAttribute("mensajeExito", "Nóminas recalculadas: " + resultado.getFilasActualizadas()
+                + " de " + resultado.getFilasLeidas() + " empleados en " + resultado.getDuracionMillis()
+                + " ms (" + Math.round(resultado.getFilasPorSegundo()) + " filas/s).");
+
+        listarEmpleados(request, response);
+    }
+
+    /**
+     * Lanza en segundo plano la nómina mensual del mes indicado en el parámetro
+     * {@code mes} (AAAA-MM), o del mes actual si no se indica, y responde sin esperar a
+     * que termine. Si la nómina de ese mes se interrumpió, continúa donde se quedó. El
+     * progreso se consulta con la opción GET {@code estadoNominaMensual}.
+     * 
+     * @param request La solicitud HTTP.
+     * @param response La respuesta HTTP.
+     * @throws SQLException Si ocurre un error al listar los empleados.
+     * @throws ServletException Si ocurre un error en la ejecución del servlet.
+     * @throws IOException Si ocurre un error en la entrada/salida de datos.
+     */
+    private void ejecutarNominaMensual(HttpServletRequest request, HttpServletResponse response)
+            throws SQLException, ServletException, IOException {
+        try {
+            YearMonth mes = mesDesdeSolicitud(request);
+            empleadoService.iniciarNominaMensual(mes);
+            request.setAttribute("mensajeExito", "La nómina de " + mes + " se está ejecutando en segundo plano."
+                    + " Su progreso se consulta en empleado?opcion=estadoNominaMensual&mes=" + mes + ".");
+        } catch (DateTimeParseException e) {
+            request.setAttribute("mensajeError", "El mes debe tener el formato AAAA-MM.");
+        } catch (IllegalStateException e) {
+            request.setAttribute("mensajeError", e.getMessage());
+        }
+
+        listarEmpleados(request, response);
+    }
+
+    // Mes del parámetro mes (AAAA-MM), o el actual si no se indica
+    private static YearMonth mesDesdeSolicitud(HttpServletRequest request) {
+        String parametro = request.getParameter("mes");
+        return parametro == null || parametro.trim().isEmpty() ? YearMonth.now() : YearMonth.parse(parametro.trim());
+    }
+
+    /**
+     * Importa empleados desde un fichero CSV subido en el campo {@code archivo}.
+     * El fichero se procesa en streaming y el resultado, con el error de cada fila
+     * rechazada, se muestra en la vista de importación.
+     * 
+     * @param request La solicitud HTTP.
+     * @param response La respuesta HTTP.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     * @throws ServletException Si ocurre un error en la ejecución del servlet.
+     * @throws IOException Si ocurre un error en la entrada/salida de datos.
+     */
+    private void importarEmpleados(HttpServletRequest request, HttpServletResponse response)
+            throws SQLException, ServletException, IOException {
+        Part archivo = request.getPart("archivo");
+        if (archivo == null || archivo.getSize() == 0) {
+            request.setAttribute("mensajeError", "Debe seleccionar un fichero CSV.");
+            mostrarVista(request, response, "/views/importar.jsp");
+            return;
+        }
+        char separador = ";".equals(request.getParameter("separador")) ? ';' : ',';
+
+        ResultadoImportacion resultado;
+        try (Reader reader = new InputStreamReader(archivo.getInputStream(), StandardCharsets.UTF_8)) {
+            resultado = empleadoService.importarEmpleados(reader, separador);
+        } finally {
+            archivo.delete();
+        }
+
+        request.setAttribute("resultado", resultado);
+        request.setAttribute("mensajeExito", "Importación terminada: " + resultado.getFilasImportadas() + " de "
+                + resultado.getFilasLeidas() + " empleados importados.");
+        mostrarVista(request, response, "/views/importar.jsp");
+    }
+
+    /**
+     * Crea el histograma de latencia de cada opción del método HTTP indicado, más uno
+     * para las opciones desconocidas.
+     * 
+     * @param metodo El método HTTP.
+     * @param opciones Las opciones del método.
+     * @return Los histogramas por opción.
+     */
+    private static Map<String, Histograma> crearLatencias(String metodo, List<String> opciones) {
+        RegistroMetricas registro = RegistroMetricas.getInstance();
+        Map<String, Histograma> latencias = new HashMap<>();
+        for (String opcion : opciones) {
+            latencias.put(opcion,
+                    registro.histograma(METRICA_LATENCIA, AYUDA_LATENCIA, "metodo", metodo, "opcion", opcion));
+        }
+        latencias.put(OPCION_DESCONOCIDA,
+                registro.histograma(METRICA_LATENCIA, AYUDA_LATENCIA, "metodo", metodo, "opcion", OPCION_DESCONOCIDA));
+        return latencias;
+    }
+
+    // Histograma de la opción, sin crear series nuevas para opciones desconocidas
+    private static Histograma latencia(Map<String, Histograma> latencias, String opcion) {
+        Histograma histograma = opcion != null ? latencias.get(opcion) : null;
+        return histograma != null ? histograma : latencias.get(OPCION_DESCONOCIDA);
+    }
+
+    /**
+     * Muestra una vista JSP. En modo asíncrono la vista se despacha con el
+     * AsyncContext de la petición, que se completa al terminar la vista, salvo que la
+     * petición ya haya caducado; en modo síncrono se reenvía la petición.
+     * 
+     * @param request La solicitud HTTP.
+     * @param response La respuesta HTTP.
+     * @param vista La ruta de la vista.
+     * @throws ServletException Si ocurre un error en la ejecución de la vista.
+     * @throws IOException Si ocurre un error en la entrada/salida de datos.
+     */
+    private void mostrarVista(HttpServletRequest request, HttpServletResponse response, String vista)
+            throws ServletException, IOException {
+        // isAsyncStarted() no sirve: tras el timeout es false y el reenvío usaría una respuesta ya completada
+        if (!ejecutorPeticiones.despachar(vista)) {
+            request.getRequestDispatcher(vista).forward(request, response);
+        }
+    }
+
+    /**
+     * Lee un parámetro entero positivo de la solicitud, devolviendo un valor por defecto
+     * si no se ha indicado. Si el valor no es un número entero mayor que 0 también se
+     * devuelve el valor por defecto, y se avisa en el atributo {@code mensajeError}.
+     * 
+     * @param request La solicitud HTTP.
+     * @param nombre El nombre del parámetro.
+     * @param valorPorDefecto El valor que se devuelve si el parámetro no existe, está vacío
+     *                        o no es un número entero mayor que 0.
+     * @return El valor del parámetro o el valor por defecto.
+     */
+    private int parametroEntero(HttpServletRequest request, String nombre, int valorPorDefecto) {
+        String valor = request.getParameter(nombre);
+        if (valor == null || valor.trim().isEmpty()) {
+            return valorPorDefecto;
+        }
+        int numero;
+        try {
+            numero = Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            numero = 0;
+        }
+        if (numero <= 0) {
+            request.setAttribute("mensajeError", "El parámetro " + nombre
+                    + " debe ser un número entero mayor que 0; se ha usado " + valorPorDefecto + ".");
+            return valorPorDefecto;
+        }
+        return numero;
+    }
+
+    // Lee un parámetro entero opcional; devuelve null si no se ha indicado
+    private Integer parametroEnteroOpcional(HttpServletRequest request, String nombre, String descripcion) {
+        String valor = request.getParameter(nombre);
+        if (valor == null || valor.trim().isEmpty()) {
+            return null;
+        }
+        return FiltroEmpleados.parsearEntero(valor, descripcion);
+    }
 }
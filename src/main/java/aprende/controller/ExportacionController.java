@@ -0,0 +1,180 @@
+package aprende.controller;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import aprende.model.EmpleadoService;
+
+/**
+ * Controlador que exporta todos los empleados con su sueldo en formato CSV o JSON.
+ * Las filas se leen en streaming de la base de datos y se escriben directamente en
+ * la respuesta, sin construir ninguna lista intermedia, por lo que la memoria
+ * utilizada no depende del número de empleados.
+ */
+@WebServlet("/exportar")
+public class ExportacionController extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOG = Logger.getLogger(ExportacionController.class.getName());
+    // Tamaño del buffer de la respuesta: las filas se envían al cliente en bloques de este tamaño
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private EmpleadoService empleadoService;
+
+    /**
+     * Constructor del controlador.
+     * Se inicializa el servicio de empleados para manejar las operaciones.
+     */
+    public ExportacionController() {
+        super();
+        empleadoService = new EmpleadoService(); // Iniciar servicio
+    }
+
+    /**
+     * Maneja las solicitudes GET.
+     * El parámetro {@code formato} indica el formato de la exportación: {@code csv}
+     * (por defecto) o {@code json}.
+     *
+     * @param request La solicitud HTTP.
+     * @param response La respuesta HTTP.
+     * @throws ServletException Si ocurre un error en la ejecución del servlet.
+     * @throws IOException Si ocurre un error en la entrada/salida de datos.
+     */
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        boolean json = "json".equals(request.getParameter("formato"));
+
+        response.setBufferSize(TAMANO_BUFFER);
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType(json ? "application/json" : "text/csv");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"empleados." + (json ? "json" : "csv") + "\"");
+
+        try {
+            if (json) {
+                exportarJson(response.getWriter());
+            } else {
+                exportarCsv(response.getWriter());
+            }
+        } catch (SQLException e) {
+            LOG.log(Level.SEVERE, "Error en la exportación de empleados", e);
+            // Si ya se han enviado filas no se puede cambiar la respuesta: se corta la descarga.
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                        "Error en la exportación: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Escribe los empleados en formato CSV, con una fila de cabecera.
+     *
+     * @param out El destino de la exportación.
+     * @throws SQLException Si ocurre un error al consultar la base de datos.
+     * @throws IOException Si ocurre un error al escribir en la respuesta.
+     */
+    private void exportarCsv(Writer out) throws SQLException, IOException {
+        out.write("nombre,dni,sexo,categoria,anyos,sueldo\r\n");
+        empleadoService.exportarEmpleadosConNomina((nombre, dni, sexo, categoria, anyos, sueldo) -> {
+            escribirCampoCsv(out, nombre);
+            out.write(',');
+            out.write(dni);
+            out.write(',');
+            out.write(sexo);
+            out.write(',');
+            out.write(Integer.toString(categoria));
+            out.write(',');
+            out.write(Integer.toString(anyos));
+            out.write(',');
+            out.write(formatearSueldo(sueldo));
+            out.write("\r\n");
+        });
+        out.flush();
+    }
+
+    /**
+     * Escribe los empleados como un array JSON de objetos.
+     *
+     * @param out El destino de la exportación.
+     * @throws SQLException Si ocurre un error al consultar la base de datos.
+     * @throws IOException Si ocurre un error al escribir en la respuesta.
+     */
+    private void exportarJson(Writer out) throws SQLException, IOException {
+        boolean[] primera = { true };
+        out.write('[');
+        empleadoService.exportarEmpleadosConNomina((nombre, dni, sexo, categoria, anyos, sueldo) -> {
+            if (!primera[0]) {
+                out.write(',');
+            }
+            primera[0] = false;
+            out.write("\n{\"nombre\":");
+            escribirCadenaJson(out, nombre);
+            out.write(",\"dni\":");
+            escribirCadenaJson(out, dni);
+            out.write(",\"sexo\":\"");
+            out.write(sexo);
+            out.write("\",\"categoria\":");
+            out.write(Integer.toString(categoria));
+            out.write(",\"anyos\":");
+            out.write(Integer.toString(anyos));
+            out.write(",\"sueldo\":");
+            out.write(formatearSueldo(sueldo));
+            out.write('}');
+        });
+        out.write("\n]");
+        out.flush();
+    }
+
+    // Escribe un campo CSV, entre comillas solo si contiene el separador, comillas o saltos de línea
+    private static void escribirCampoCsv(Writer out, String valor) throws IOException {
+        boolean requiereComillas = false;
+        for (int i = 0; i < valor.length() && !requiereComillas; i++) {
+            char c = valor.charAt(i);
+            requiereComillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!requiereComillas) {
+            out.write(valor);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    // Escribe una cadena JSON escapando comillas, barras y caracteres de control
+    private static void escribirCadenaJson(Writer out, String valor) throws IOException {
+        out.write('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write(String.format("\\u%04x", (int) c));
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+
+    // Los sueldos son enteros: se evita el ".0" de Double.toString
+    private static String formatearSueldo(double sueldo) {
+        long entero = (long) sueldo;
+        return entero == sueldo ? Long.toString(entero) : Double.toString(sueldo);
+    }
+}
@@ -0,0 +1,35 @@
+package aprende.controller;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+import aprende.model.EscrituraAgrupada;
+
+/**
+ * Detiene el canal de escritura agrupada al parar la aplicación web, después de
+ * aplicar las ediciones pendientes. El canal se crea con la primera edición, así que
+ * al arrancar no hay nada que hacer.
+ */
+@WebListener
+public class InicializadorEscritura implements ServletContextListener {
+
+    /**
+     * No hace nada: el canal se crea al usarse por primera vez.
+     *
+     * @param sce El evento de arranque del contexto.
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+    }
+
+    /**
+     * Cierra el canal de escritura agrupada, si se ha llegado a crear.
+     *
+     * @param sce El evento de destrucción del contexto.
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        EscrituraAgrupada.cerrarInstancia();
+    }
+}
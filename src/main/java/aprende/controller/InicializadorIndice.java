@@ -0,0 +1,50 @@
+package aprende.controller;
+
+import java.sql.SQLException;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+import aprende.model.EmpleadoService;
+import aprende.model.IndiceEmpleados;
+
+/**
+ * Carga el índice de empleados en memoria al arrancar la aplicación web, si está
+ * activado con la propiedad {@code nominas.indice.activo}. La carga termina antes de
+ * que se atienda la primera petición, así que ninguna escritura queda fuera del
+ * índice. Si la carga falla, las búsquedas se siguen resolviendo en la base de datos.
+ */
+@WebListener
+public class InicializadorIndice implements ServletContextListener {
+
+    /**
+     * Carga el índice de empleados al arrancar la aplicación.
+     *
+     * @param sce El evento de arranque del contexto.
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        if (!IndiceEmpleados.estaActivado()) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        try {
+            int empleados = new EmpleadoService().cargarIndiceEmpleados();
+            sce.getServletContext().log("Índice de empleados cargado: " + empleados + " empleados en "
+                    + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+        } catch (SQLException e) {
+            sce.getServletContext().log("No se pudo cargar el índice de empleados", e);
+        }
+    }
+
+    /**
+     * Libera el índice de empleados al detener la aplicación.
+     *
+     * @param sce El evento de destrucción del contexto.
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        IndiceEmpleados.getInstance().descargar();
+    }
+}
@@ -0,0 +1,36 @@
+package aprende.controller;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+import aprende.model.NominaMensual;
+
+/**
+ * Detiene el hilo de la nómina mensual en segundo plano al parar la aplicación web.
+ * La ejecución que estuviera en curso conserva sus puntos de control y continúa donde
+ * se quedó la próxima vez que se lance. El hilo se crea con la primera ejecución, así
+ * que al arrancar no hay nada que hacer.
+ */
+@WebListener
+public class InicializadorNominaMensual implements ServletContextListener {
+
+    /**
+     * No hace nada: el hilo se crea al lanzar la primera nómina.
+     *
+     * @param sce El evento de arranque del contexto.
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+    }
+
+    /**
+     * Detiene el hilo de la nómina mensual, si se ha llegado a crear.
+     *
+     * @param sce El evento de destrucción del contexto.
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        NominaMensual.detenerInstancia();
+    }
+}
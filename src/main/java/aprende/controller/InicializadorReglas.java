@@ -0,0 +1,79 @@
+package aprende.controller;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+import aprende.model.EmpleadoService;
+import aprende.model.Nomina;
+import aprende.model.ReglasSueldo;
+import aprende.model.ResultadoRecalculo;
+
+/**
+ * Carga las reglas de sueldo de {@link Nomina} al arrancar la aplicación web, en lugar
+ * de hacerlo en la primera petición que calcula un sueldo, y detiene su recarga en
+ * segundo plano al pararla.
+ *
+ * Cada vez que una recarga cambia las reglas de alguna categoría se lanza en un hilo
+ * propio el recálculo incremental de nóminas
+ * ({@link EmpleadoService#recalcularNominasCambiadas()}), para que las nóminas
+ * guardadas no se queden con los sueldos anteriores. Como cada recálculo procesa todos
+ * los cambios anotados hasta ese momento, solo se deja en espera uno más mientras otro
+ * está en curso.
+ */
+@WebListener
+public class InicializadorReglas implements ServletContextListener {
+
+    private ThreadPoolExecutor recalculo;
+
+    /**
+     * Carga las reglas de sueldo, arranca su recarga programada y el recálculo de las
+     * nóminas tras cada cambio de reglas.
+     *
+     * @param sce El evento de arranque del contexto.
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        ServletContext contexto = sce.getServletContext();
+        Nomina nomina = Nomina.getInstance();
+        ReglasSueldo reglas = nomina.getReglas();
+        contexto.log("Reglas de sueldo cargadas: " + reglas.getReglas().size() + " reglas en "
+                + reglas.getNumeroVersiones() + " versiones");
+
+        recalculo = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1), tarea -> {
+            Thread hilo = new Thread(tarea, "nomina-recalculo");
+            hilo.setDaemon(true);
+            return hilo;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+        nomina.anadirOyenteCambios(categorias -> recalculo.execute(() -> recalcular(contexto)));
+    }
+
+    /**
+     * Detiene la recarga de las reglas de sueldo y el recálculo de las nóminas.
+     *
+     * @param sce El evento de destrucción del contexto.
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        Nomina.detenerInstancia();
+        if (recalculo != null) {
+            recalculo.shutdownNow();
+        }
+    }
+
+    private static void recalcular(ServletContext contexto) {
+        try {
+            ResultadoRecalculo resultado = new EmpleadoService().recalcularNominasCambiadas();
+            contexto.log("Nóminas recalculadas tras el cambio de reglas: " + resultado);
+        } catch (SQLException | RuntimeException e) {
+            // Los cambios siguen anotados: los recoge el siguiente recálculo
+            contexto.log("No se pudieron recalcular las nóminas tras el cambio de reglas", e);
+        }
+    }
+}
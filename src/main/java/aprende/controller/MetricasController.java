@@ -0,0 +1,89 @@
+package aprende.controller;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import aprende.conexion.Conexion;
+import aprende.conexion.MetricasPool;
+import aprende.metricas.RegistroMetricas;
+import aprende.model.CacheNominas;
+import aprende.model.EscrituraAgrupada;
+import aprende.model.Nomina;
+
+/**
+ * Publica las métricas de la aplicación en el formato de texto de Prometheus: los
+ * histogramas y contadores de {@link RegistroMetricas} (peticiones por opción,
+ * métodos del DAO y espera del pool) y el estado del pool de conexiones, de la
+ * caché de nóminas, de las reglas de sueldo y, si está activada, de la escritura
+ * agrupada.
+ */
+@WebServlet("/metrics")
+public class MetricasController extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Maneja las solicitudes GET escribiendo todas las métricas.
+     *
+     * @param request La solicitud HTTP.
+     * @param response La respuesta HTTP.
+     * @throws ServletException Si ocurre un error en la ejecución del servlet.
+     * @throws IOException Si ocurre un error en la entrada/salida de datos.
+     */
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        response.setContentType("text/plain; version=0.0.4; charset=utf-8");
+        PrintWriter out = response.getWriter();
+        RegistroMetricas.getInstance().escribirPrometheus(out);
+
+        MetricasPool pool = Conexion.getMetricas();
+        escribir(out, "nominas_pool_conexiones_activas", "gauge", "Conexiones del pool en uso.", pool.getActivas());
+        escribir(out, "nominas_pool_conexiones_inactivas", "gauge", "Conexiones del pool libres.",
+                pool.getInactivas());
+        escribir(out, "nominas_pool_conexiones_max", "gauge", "Tamaño máximo del pool.", pool.getMaxTotal());
+        escribir(out, "nominas_pool_prestamos_total", "counter", "Conexiones obtenidas del pool.",
+                pool.getPrestamos());
+        escribir(out, "nominas_pool_fallos_total", "counter", "Fallos al obtener una conexión del pool.",
+                pool.getFallos());
+
+        CacheNominas cache = CacheNominas.getInstance();
+        escribir(out, "nominas_cache_entradas", "gauge", "Sueldos guardados en la caché de nóminas.",
+                cache.getTamano());
+        escribir(out, "nominas_cache_aciertos_total", "counter", "Consultas resueltas por la caché de nóminas.",
+                cache.getAciertos());
+        escribir(out, "nominas_cache_fallos_total", "counter", "Consultas que no estaban en la caché de nóminas.",
+                cache.getFallos());
+
+        Nomina nomina = Nomina.getInstance();
+        escribir(out, "nominas_reglas_versiones", "gauge", "Versiones por fecha de las reglas de sueldo cargadas.",
+                nomina.getReglas().getNumeroVersiones());
+        escribir(out, "nominas_reglas_recargas_total", "counter", "Recargas correctas de las reglas de sueldo.",
+                nomina.getRecargas());
+        escribir(out, "nominas_reglas_recargas_fallidas_total", "counter",
+                "Recargas fallidas de las reglas de sueldo.", nomina.getRecargasFallidas());
+
+        if (EscrituraAgrupada.estaActivado()) {
+            EscrituraAgrupada escritura = EscrituraAgrupada.getInstance();
+            escribir(out, "nominas_escritura_pendientes", "gauge", "Ediciones en la cola de escritura agrupada.",
+                    escritura.getPendientes());
+            escribir(out, "nominas_escritura_lotes_total", "counter", "Lotes de ediciones confirmados.",
+                    escritura.getLotes());
+            escribir(out, "nominas_escritura_ediciones_total", "counter", "Ediciones aplicadas en lotes.",
+                    escritura.getEdiciones());
+            escribir(out, "nominas_escritura_rechazadas_total", "counter",
+                    "Ediciones rechazadas por tener la cola llena.", escritura.getRechazadas());
+        }
+        out.flush();
+    }
+
+    private static void escribir(PrintWriter out, String nombre, String tipo, String ayuda, long valor) {
+        out.print("# HELP " + nombre + " " + ayuda + "\n");
+        out.print("# TYPE " + nombre + " " + tipo + "\n");
+        out.print(nombre + " " + valor + "\n");
+    }
+}
@@ -0,0 +1,146 @@
+package aprende.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import aprende.model.FiltroEmpleados;
+
+/**
+ * Construye la consulta SQL de búsqueda de empleados a partir de un
+ * {@link FiltroEmpleados}.
+ *
+ * Los nombres de columna y los operadores son fijos; los valores del filtro solo
+ * llegan a la base de datos como parámetros de la sentencia preparada. Cada
+ * criterio se traduce a una condición que puede resolverse con los índices de la
+ * tabla (ver {@code db/migracion}): igualdad para el DNI y el sexo, rangos para la
+ * categoría y los años y {@code LIKE 'prefijo%'} para el nombre.
+ *
+ * Si se indica una tabla de nóminas, la consulta la une a los empleados y devuelve
+ * el sueldo como sexta columna ({@code NULL} para los empleados sin nómina).
+ */
+final class ConsultaEmpleados {
+	// Carácter de escape para los comodines del LIKE
+	private static final char ESCAPE = '!';
+
+	private final String sql;
+	private final List<Object> parametros;
+
+	/**
+	 * Construye la consulta para el filtro indicado.
+	 *
+	 * @param filtro El filtro de búsqueda.
+	 */
+	ConsultaEmpleados(FiltroEmpleados filtro) {
+		this(filtro, null);
+	}
+
+	/**
+	 * Construye la consulta para el filtro indicado, con el sueldo de cada empleado.
+	 *
+	 * @param filtro       El filtro de búsqueda.
+	 * @param tablaNominas La tabla (o vista) de la que se lee el sueldo, o {@code null}
+	 *                     para leer solo las columnas del empleado.
+	 */
+	ConsultaEmpleados(FiltroEmpleados filtro, String tablaNominas) {
+		List<String> condiciones = new ArrayList<>();
+		parametros = new ArrayList<>();
+		// Con la unión, las columnas del empleado se califican con su alias
+		String e = tablaNominas == null ? "" : "e.";
+
+		if (filtro.getPrefijoNombre() != null) {
+			condiciones.add(e + "nombre LIKE ? ESCAPE '" + ESCAPE + "'");
+			parametros.add(escaparLike(filtro.getPrefijoNombre()) + "%");
+		}
+		if (filtro.getDni() != null) {
+			condiciones.add(e + "dni = ?");
+			parametros.add(filtro.getDni());
+		}
+		if (filtro.getSexo() != null) {
+			condiciones.add(e + "sexo = ?");
+			parametros.add(String.valueOf(filtro.getSexo()));
+		}
+		anadirRango(condiciones, e + "categoria", filtro.getCategoriaMinima(), filtro.getCategoriaMaxima());
+		anadirRango(condiciones, e + "anyos", filtro.getAnyosMinimos(), filtro.getAnyosMaximos());
+
+		StringBuilder consulta = new StringBuilder("SELECT ");
+		if (tablaNominas == null) {
+			consulta.append(EmpleadoMapper.COLUMNAS).append(" FROM empleados");
+		} else {
+			consulta.append("e.nombre, e.dni, e.sexo, e.categoria, e.anyos, n.sueldo FROM empleados e LEFT JOIN ")
+					.append(tablaNominas).append(" n ON n.empleado_dni = e.dni");
+		}
+		for (int i = 0; i < condiciones.size(); i++) {
+			consulta.append(i == 0 ? " WHERE " : " AND ").append(condiciones.get(i));
+		}
+		consulta.append(" ORDER BY ").append(e).append("dni");
+		if (filtro.getLimite() > 0) {
+			consulta.append(" LIMIT ?");
+			parametros.add(filtro.getLimite());
+		}
+		sql = consulta.toString();
+	}
+
+	/**
+	 * @return La consulta SQL con marcadores de parámetro.
+	 */
+	String getSql() {
+		return sql;
+	}
+
+	/**
+	 * @return Los valores de los parámetros, en el orden de la consulta.
+	 */
+	List<Object> getParametros() {
+		return Collections.unmodifiableList(parametros);
+	}
+
+	/**
+	 * Asigna los valores del filtro a los parámetros de la sentencia.
+	 *
+	 * @param statement La sentencia preparada con {@link #getSql()}.
+	 * @throws SQLException Si ocurre un error al asignar los parámetros.
+	 */
+	void asignarParametros(PreparedStatement statement) throws SQLException {
+		for (int i = 0; i < parametros.size(); i++) {
+			Object valor = parametros.get(i);
+			if (valor instanceof Integer) {
+				statement.setInt(i + 1, (Integer) valor);
+			} else {
+				statement.setString(i + 1, (String) valor);
+			}
+		}
+	}
+
+	// Un rango con los dos extremos iguales se consulta como igualdad
+	private void anadirRango(List<String> condiciones, String columna, Integer minimo, Integer maximo) {
+		if (minimo != null && minimo.equals(maximo)) {
+			condiciones.add(columna + " = ?");
+			parametros.add(minimo);
+			return;
+		}
+		if (minimo != null) {
+			condiciones.add(columna + " >= ?");
+			parametros.add(minimo);
+		}
+		if (maximo != null) {
+			condiciones.add(columna + " <= ?");
+			parametros.add(maximo);
+		}
+	}
+
+	// Los comodines del prefijo se buscan literalmente
+	private static String escaparLike(String texto) {
+		StringBuilder escapado = new StringBuilder(texto.length() + 4);
+		for (int i = 0; i < texto.length(); i++) {
+			char c = texto.charAt(i);
+			if (c == '%' || c == '_' || c == ESCAPE) {
+				escapado.append(ESCAPE);
+			}
+			escapado.append(c);
+		}
+		return escapado.toString();
+	}
+}
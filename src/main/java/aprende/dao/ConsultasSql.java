@@ -0,0 +1,232 @@
+package aprende.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import aprende.model.GrupoNomina;
+
+/**
+ * Catálogo de las sentencias SQL de los DAO de empleados.
+ *
+ * Cada sentencia es un texto fijo que se construye una sola vez. La caché de
+ * sentencias preparadas del driver de MySQL ({@code cachePrepStmts}) y la del pool
+ * ({@code poolPreparedStatements}), configuradas en {@link aprende.conexion.Conexion},
+ * buscan por el texto exacto de la sentencia: si cada llamada prepara el mismo texto,
+ * se reutiliza la sentencia ya analizada por el servidor en lugar de volver a
+ * enviarla y analizarla.
+ *
+ * Las sentencias que leen sueldos dependen de la tabla de nóminas ({@code nominas} o
+ * la vista {@code nominas_derivadas}) y se obtienen de la instancia de esa tabla, con
+ * {@link #de(String)}. Las listas {@code IN} se redondean a la siguiente potencia de
+ * dos (repitiendo el último valor) para que haya pocos textos distintos en lugar de
+ * uno por cada número de DNI.
+ */
+final class ConsultasSql {
+	// Por encima de este tamaño las listas IN no se redondean: son lotes de importación
+	// poco frecuentes y el redondeo podría superar el límite de parámetros de MySQL. El texto
+	// de la lista más larga debe caber en prepStmtCacheSqlLimit (nominas.db.propiedadesDriver)
+	private static final int MAX_LISTA_IN_REDONDEADA = 1024;
+
+	static final String OBTENER_EMPLEADOS = "SELECT " + EmpleadoMapper.COLUMNAS + " FROM empleados";
+	static final String EMPLEADOS_PAGINADOS = "SELECT " + EmpleadoMapper.COLUMNAS
+			+ " FROM empleados WHERE dni > ? ORDER BY dni LIMIT ?";
+	static final String INSERTAR_EMPLEADO =
+			"INSERT INTO empleados (nombre, dni, sexo, categoria, anyos) VALUES(?,?,?,?,?)";
+	static final String ACTUALIZAR_EMPLEADO =
+			"UPDATE empleados SET nombre=?, dni=?, sexo=?, categoria=?, anyos=? WHERE dni=?";
+	static final String ELIMINAR_EMPLEADO = "DELETE FROM empleados WHERE dni=?";
+	static final String INSERTAR_NOMINA = "INSERT INTO nominas(empleado_dni, sueldo) VALUES(?,?)";
+	static final String ACTUALIZAR_NOMINA = "UPDATE nominas SET sueldo=? WHERE empleado_dni=?";
+	// Lectura en streaming del recálculo completo
+	static final String EMPLEADOS_RECALCULO = "SELECT dni, categoria, anyos FROM empleados";
+
+	// Sueldo derivado: solo se inserta el empleado si su categoría tiene sueldo
+	static final String INSERTAR_EMPLEADO_VALIDADO = "INSERT INTO empleados (nombre, dni, sexo, categoria, anyos)"
+			+ " SELECT ?,?,?,?,? FROM categorias_sueldo WHERE categoria = ?";
+	// Sueldo derivado: solo se actualiza el empleado si su nueva categoría tiene sueldo
+	static final String ACTUALIZAR_EMPLEADO_VALIDADO = ACTUALIZAR_EMPLEADO
+			+ " AND EXISTS (SELECT 1 FROM categorias_sueldo WHERE categoria = ?)";
+
+	// Registro de categorías con cambios de reglas, del recálculo incremental
+	static final String ULTIMO_CAMBIO = "SELECT MAX(id) FROM cambios_categorias";
+	static final String CATEGORIAS_PENDIENTES =
+			"SELECT DISTINCT categoria FROM cambios_categorias WHERE id <= ? ORDER BY categoria";
+	// Página de empleados de una categoría con su sueldo guardado, bloqueados para que
+	// ninguna edición los cambie durante el recálculo
+	static final String EMPLEADOS_CATEGORIA = "SELECT e.dni, e.anyos, e.sexo, n.sueldo"
+			+ " FROM empleados e LEFT JOIN nominas n ON n.empleado_dni = e.dni"
+			+ " WHERE e.categoria = ? AND e.dni > ? ORDER BY e.dni LIMIT ? FOR UPDATE";
+	static final String BORRAR_CAMBIOS_CATEGORIA = "DELETE FROM cambios_categorias WHERE categoria = ? AND id <= ?";
+	static final String BORRAR_CAMBIOS = "DELETE FROM cambios_categorias WHERE id <= ?";
+
+	// Resumen materializado
+	static final String SUMAR_RESUMEN = "INSERT INTO resumen_nominas"
+			+ " (categoria, sexo, tramo_antiguedad, empleados, sueldo_total) VALUES(?,?,?,?,?)"
+			+ " ON DUPLICATE KEY UPDATE empleados = empleados + VALUES(empleados),"
+			+ " sueldo_total = sueldo_total + VALUES(sueldo_total)";
+	static final String VACIAR_RESUMEN = "DELETE FROM resumen_nominas";
+	static final String RECONSTRUIR_RESUMEN = "INSERT INTO resumen_nominas"
+			+ " (categoria, sexo, tramo_antiguedad, empleados, sueldo_total)"
+			+ " SELECT e.categoria, e.sexo, FLOOR(e.anyos / " + GrupoNomina.TRAMO_ANTIGUEDAD + "), COUNT(*), SUM(n.sueldo)"
+			+ " FROM empleados e JOIN nominas n ON n.empleado_dni = e.dni"
+			+ " GROUP BY e.categoria, e.sexo, FLOOR(e.anyos / " + GrupoNomina.TRAMO_ANTIGUEDAD + ")";
+
+	// Prefijos de las consultas con una lista IN al final
+	private static final String PREFIJO_DNIS_EXISTENTES = "SELECT dni FROM empleados WHERE dni IN (";
+	private static final String PREFIJO_ACTUALES_RESUMEN = "SELECT e.categoria, e.sexo, e.anyos, n.sueldo"
+			+ " FROM empleados e JOIN nominas n ON n.empleado_dni = e.dni WHERE e.dni IN (";
+
+	private static final Map<String, String> RESUMENES_MATERIALIZADOS = new HashMap<>();
+	private static final Map<Integer, String> DNIS_EXISTENTES = new ConcurrentHashMap<>();
+	private static final Map<Integer, String> ACTUALES_RESUMEN = new ConcurrentHashMap<>();
+	private static final Map<String, ConsultasSql> POR_TABLA_NOMINAS = new ConcurrentHashMap<>();
+
+	static {
+		for (String agrupacion : new String[] { GrupoNomina.POR_CATEGORIA, GrupoNomina.POR_SEXO,
+				GrupoNomina.POR_ANTIGUEDAD }) {
+			String columna = GrupoNomina.POR_ANTIGUEDAD.equals(agrupacion) ? "tramo_antiguedad" : agrupacion;
+			RESUMENES_MATERIALIZADOS.put(agrupacion, "SELECT " + columna
+					+ ", SUM(empleados), SUM(sueldo_total) FROM resumen_nominas GROUP BY " + columna
+					+ " HAVING SUM(empleados) > 0 ORDER BY " + columna);
+		}
+	}
+
+	private final String nominaPorDni;
+	private final String empleadosConNomina;
+	private final Map<String, String> resumenes = new HashMap<>();
+
+	private ConsultasSql(String tablaNominas) {
+		nominaPorDni = "SELECT sueldo FROM " + tablaNominas + " WHERE empleado_dni = ?";
+		empleadosConNomina = "SELECT e.nombre, e.dni, e.sexo, e.categoria, e.anyos, n.sueldo"
+				+ " FROM empleados e JOIN " + tablaNominas + " n ON n.empleado_dni = e.dni";
+		for (String agrupacion : RESUMENES_MATERIALIZADOS.keySet()) {
+			String columna = GrupoNomina.POR_ANTIGUEDAD.equals(agrupacion)
+					? "FLOOR(e.anyos / " + GrupoNomina.TRAMO_ANTIGUEDAD + ")"
+					: "e." + agrupacion;
+			resumenes.put(agrupacion, "SELECT " + columna + ", COUNT(*), SUM(n.sueldo) FROM empleados e JOIN "
+					+ tablaNominas + " n ON n.empleado_dni = e.dni GROUP BY " + columna + " ORDER BY " + columna);
+		}
+	}
+
+	/**
+	 * Obtiene las sentencias que leen los sueldos de la tabla (o vista) indicada.
+	 *
+	 * @param tablaNominas La tabla de nóminas, con las columnas {@code empleado_dni} y {@code sueldo}.
+	 * @return Las sentencias de esa tabla, creadas la primera vez que se piden.
+	 */
+	static ConsultasSql de(String tablaNominas) {
+		return POR_TABLA_NOMINAS.computeIfAbsent(tablaNominas, ConsultasSql::new);
+	}
+
+	/**
+	 * @return La consulta del sueldo de un empleado por su DNI.
+	 */
+	String nominaPorDni() {
+		return nominaPorDni;
+	}
+
+	/**
+	 * @return La consulta de todos los empleados con su sueldo, para la exportación.
+	 */
+	String empleadosConNomina() {
+		return empleadosConNomina;
+	}
+
+	/**
+	 * Obtiene la consulta de los totales por grupo, con {@code GROUP BY} sobre los
+	 * empleados y esta tabla de nóminas.
+	 *
+	 * @param agrupacion Una agrupación ya validada con {@link GrupoNomina#validarAgrupacion(String)}.
+	 * @return La consulta de los totales.
+	 */
+	String resumenNominas(String agrupacion) {
+		return resumenes.get(agrupacion);
+	}
+
+	/**
+	 * Obtiene la consulta de los totales por grupo sobre {@code resumen_nominas}.
+	 *
+	 * @param agrupacion Una agrupación ya validada con {@link GrupoNomina#validarAgrupacion(String)}.
+	 * @return La consulta de los totales.
+	 */
+	static String resumenMaterializado(String agrupacion) {
+		return RESUMENES_MATERIALIZADOS.get(agrupacion);
+	}
+
+	/**
+	 * Obtiene la consulta de cuáles de unos DNI pertenecen ya a un empleado, con la
+	 * lista {@code IN} redondeada (ver {@link #asignarListaIn(PreparedStatement, Collection)}).
+	 *
+	 * @param dnis El número de DNI a comprobar, mayor que 0.
+	 * @return La consulta.
+	 */
+	static String dnisExistentes(int dnis) {
+		return conListaIn(DNIS_EXISTENTES, PREFIJO_DNIS_EXISTENTES, "", dnis);
+	}
+
+	/**
+	 * Obtiene la consulta que lee y bloquea la categoría, el sexo, la antigüedad y el
+	 * sueldo de unos empleados, para restarlos del resumen materializado, con la lista
+	 * {@code IN} redondeada.
+	 *
+	 * @param dnis El número de DNI, mayor que 0.
+	 * @return La consulta.
+	 */
+	static String actualesResumen(int dnis) {
+		return conListaIn(ACTUALES_RESUMEN, PREFIJO_ACTUALES_RESUMEN, " FOR UPDATE", dnis);
+	}
+
+	/**
+	 * Asigna los valores de una lista {@code IN} obtenida de este catálogo, desde el
+	 * primer parámetro. Los marcadores que sobran por el redondeo repiten el último
+	 * valor, que no cambia el resultado de la consulta.
+	 *
+	 * @param statement La sentencia preparada.
+	 * @param valores   Los valores de la lista, al menos uno.
+	 * @throws SQLException Si ocurre un error al asignar los parámetros.
+	 */
+	static void asignarListaIn(PreparedStatement statement, Collection<String> valores) throws SQLException {
+		int indice = 1;
+		String ultimo = null;
+		for (String valor : valores) {
+			statement.setString(indice++, valor);
+			ultimo = valor;
+		}
+		for (int marcadores = tamanoListaIn(valores.size()); indice <= marcadores; indice++) {
+			statement.setString(indice, ultimo);
+		}
+	}
+
+	// Número de marcadores de una lista IN con el número de valores indicado
+	private static int tamanoListaIn(int valores) {
+		if (valores > MAX_LISTA_IN_REDONDEADA) {
+			return valores;
+		}
+		int marcadores = 1;
+		while (marcadores < valores) {
+			marcadores <<= 1;
+		}
+		return marcadores;
+	}
+
+	private static String conListaIn(Map<Integer, String> cache, String prefijo, String sufijo, int valores) {
+		int marcadores = tamanoListaIn(valores);
+		if (marcadores > MAX_LISTA_IN_REDONDEADA) {
+			return construirListaIn(prefijo, sufijo, marcadores);
+		}
+		return cache.computeIfAbsent(marcadores, n -> construirListaIn(prefijo, sufijo, n));
+	}
+
+	private static String construirListaIn(String prefijo, String sufijo, int marcadores) {
+		StringBuilder sql = new StringBuilder(prefijo.length() + marcadores * 2 + sufijo.length());
+		sql.append(prefijo);
+		for (int i = 0; i < marcadores; i++) {
+			sql.append(i == 0 ? "?" : ",?");
+		}
+		return sql.append(')').append(sufijo).toString();
+	}
+}
@@ -0,0 +1,162 @@
+package aprende.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import aprende.conexion.Conexion;
+import aprende.model.GrupoNomina;
+
+/**
+ * Cambios pendientes en el resumen materializado de las nóminas ({@code resumen_nominas})
+ * de una transacción: cuántos empleados y cuánto sueldo entran o salen de cada fila
+ * (categoría, sexo y tramo de antigüedad).
+ *
+ * Los cambios se acumulan en memoria y {@link #aplicar(Connection)} los escribe con
+ * un solo lote de JDBC, sumándolos a las filas existentes. Las filas se escriben en el
+ * orden de la clave primaria, de modo que dos transacciones que tocan las mismas
+ * filas se esperan en lugar de bloquearse mutuamente.
+ *
+ * Mientras el resumen materializado está desactivado nadie mantiene la tabla, así que
+ * al activarlo se reconstruye una vez por proceso ({@link #reconstruirAlActivar()})
+ * antes de que ningún DAO la lea o le sume cambios.
+ */
+final class DeltasResumenNominas {
+	// Si este proceso ya ha reconstruido el resumen al activarlo
+	private static volatile boolean reconstruidoAlActivar;
+
+	// Clave (categoría, sexo, tramo) en el orden de la clave primaria -> {empleados, sueldo}
+	private final Map<Long, long[]> deltas = new TreeMap<>();
+
+	/**
+	 * Suma un empleado y su sueldo a su fila.
+	 */
+	void anadir(int categoria, char sexo, int anyos, int sueldo) {
+		sumar(categoria, sexo, anyos, 1, sueldo);
+	}
+
+	/**
+	 * Resta un empleado y su sueldo de su fila.
+	 */
+	void quitar(int categoria, char sexo, int anyos, int sueldo) {
+		sumar(categoria, sexo, anyos, -1, -sueldo);
+	}
+
+	/**
+	 * Suma a la fila de un empleado la diferencia entre su sueldo nuevo y el anterior.
+	 */
+	void cambiarSueldo(int categoria, char sexo, int anyos, int diferencia) {
+		if (diferencia != 0) {
+			sumar(categoria, sexo, anyos, 0, diferencia);
+		}
+	}
+
+	private void sumar(int categoria, char sexo, int anyos, int empleados, long sueldo) {
+		long clave = ((long) categoria << 32) | ((long) sexo << 16) | GrupoNomina.tramoAntiguedad(anyos);
+		long[] delta = deltas.computeIfAbsent(clave, k -> new long[2]);
+		delta[0] += empleados;
+		delta[1] += sueldo;
+	}
+
+	/**
+	 * Lee los datos actuales de los empleados indicados bloqueando sus filas hasta el
+	 * final de la transacción, y los resta del resumen. Los DNI sin empleado o sin
+	 * nómina no restan nada.
+	 *
+	 * @param connection La conexión de la transacción.
+	 * @param dnis       Los DNI de los empleados que se van a modificar o eliminar.
+	 * @throws SQLException Si ocurre un error al leer los empleados.
+	 */
+	void quitarActuales(Connection connection, Collection<String> dnis) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(ConsultasSql.actualesResumen(dnis.size()))) {
+			ConsultasSql.asignarListaIn(statement, dnis);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					quitar(resultSet.getInt(1), resultSet.getString(2).charAt(0), resultSet.getInt(3),
+							resultSet.getInt(4));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Escribe los cambios acumulados en {@code resumen_nominas}, dentro de la
+	 * transacción de la conexión, y los descarta.
+	 *
+	 * @param connection La conexión de la transacción.
+	 * @throws SQLException Si ocurre un error al escribir el resumen.
+	 */
+	void aplicar(Connection connection) throws SQLException {
+		boolean pendientes = false;
+		try (PreparedStatement statement = connection.prepareStatement(ConsultasSql.SUMAR_RESUMEN)) {
+			for (Map.Entry<Long, long[]> entrada : deltas.entrySet()) {
+				long clave = entrada.getKey();
+				long[] delta = entrada.getValue();
+				if (delta[0] == 0 && delta[1] == 0) {
+					continue;
+				}
+				statement.setInt(1, (int) (clave >>> 32));
+				statement.setString(2, String.valueOf((char) ((clave >>> 16) & 0xFFFF)));
+				statement.setInt(3, (int) (clave & 0xFFFF));
+				statement.setLong(4, delta[0]);
+				statement.setLong(5, delta[1]);
+				statement.addBatch();
+				pendientes = true;
+			}
+			if (pendientes) {
+				statement.executeBatch();
+			}
+		}
+		deltas.clear();
+	}
+
+	/**
+	 * Vuelve a calcular todo el resumen a partir de las tablas de empleados y nóminas,
+	 * dentro de la transacción de la conexión.
+	 *
+	 * @param connection La conexión de la transacción.
+	 * @throws SQLException Si ocurre un error al escribir el resumen.
+	 */
+	static void reconstruir(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.executeUpdate(ConsultasSql.VACIAR_RESUMEN);
+			statement.executeUpdate(ConsultasSql.RECONSTRUIR_RESUMEN);
+		}
+	}
+
+	/**
+	 * Reconstruye el resumen en su propia transacción la primera vez que se llama en
+	 * el proceso; las siguientes no hacen nada. Las escrituras que hubiera con el
+	 * resumen desactivado no lo mantuvieron, así que hasta ahora podría estar desfasado.
+	 *
+	 * @throws SQLException Si ocurre un error al reconstruir el resumen; la siguiente
+	 *                      llamada lo vuelve a intentar.
+	 */
+	static void reconstruirAlActivar() throws SQLException {
+		if (!reconstruidoAlActivar) {
+			reconstruirUnaVez();
+		}
+	}
+
+	private static synchronized void reconstruirUnaVez() throws SQLException {
+		if (reconstruidoAlActivar) {
+			return;
+		}
+		try (Connection connection = Conexion.getConnection()) {
+			connection.setAutoCommit(false);
+			try {
+				reconstruir(connection);
+				connection.commit();
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			}
+		}
+		reconstruidoAlActivar = true;
+	}
+}
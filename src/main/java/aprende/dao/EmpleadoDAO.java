@@ -1,20 +1,67 @@
 package aprende.dao;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import aprende.conexion.Conexion;
+import aprende.config.Configuracion;
+import aprende.model.EdicionEmpleado;
 import aprende.model.Empleado;
+import aprende.model.FiltroEmpleados;
+import aprende.model.GrupoNomina;
 import aprende.model.Nomina;
-
+import aprende.model.ResultadoRecalculo;
+
+/**
+ * Implementación de {@link EmpleadoDAOInterface} sobre la base de datos MySQL.
+ * 
+ * La clase no guarda estado entre llamadas: cada método obtiene su propia conexión
+ * del pool y la cierra (junto con sus sentencias y resultados) mediante
+ * try-with-resources. Por eso una misma instancia puede compartirse entre todos los
+ * hilos del servidor.
+ * 
+ * Con el resumen materializado activado, cada escritura actualiza también en su
+ * transacción las filas afectadas de {@code resumen_nominas} (ver
+ * {@link #resumirNominas(String)}).
+ */
 public class EmpleadoDAO implements EmpleadoDAOInterface {
-	private Connection connection;
-	private PreparedStatement statement;
-	private boolean estadoOperacion;
+	static final String MENSAJE_EDICION_CORRECTA = "Éxito: Empleado actualizado correctamente.";
+	private static final int ERROR_MYSQL_CLAVE_DUPLICADA = 1062;
+	private static final String ESTADO_CLAVE_DUPLICADA = "23505";
+
+	private final boolean resumenMaterializado;
+	// Fetch size de las consultas que recorren toda la tabla en streaming
+	private final int fetchSizeStreaming;
+
+	/**
+	 * Constructor del DAO sin resumen materializado: los resúmenes se calculan con
+	 * {@code GROUP BY} sobre las tablas de empleados y nóminas.
+	 */
+	public EmpleadoDAO() {
+		this(false);
+	}
+
+	/**
+	 * Constructor del DAO.
+	 * 
+	 * @param resumenMaterializado Si cada escritura mantiene la tabla {@code resumen_nominas}
+	 *                             y los resúmenes se leen de ella.
+	 */
+	public EmpleadoDAO(boolean resumenMaterializado) {
+		this.resumenMaterializado = resumenMaterializado;
+		this.fetchSizeStreaming = Conexion.getFetchSizeStreaming(Configuracion.getInstance());
+	}
 
 	/**
 	 * Obtiene todos los empleados de la base de datos.
@@ -23,49 +70,53 @@ public class EmpleadoDAO implements EmpleadoDAOInterface {
 	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
 	 */
 	public List<Empleado> obtenerTodosLosEmpleados() throws SQLException {
-		ResultSet resultSet = null;
 		List<Empleado> listaEmpleados = new ArrayList<>();
-		String sql = null;
-		estadoOperacion = false;
-		connection = obtenerConexion();
-
-		try {
-			// Definir la consulta SQL
-			sql = "SELECT * FROM empleados";
-			statement = connection.prepareStatement(sql);
-			resultSet = statement.executeQuery();
 
+		try (Connection connection = obtenerConexion();
+				PreparedStatement statement = connection.prepareStatement(ConsultasSql.OBTENER_EMPLEADOS);
+				ResultSet resultSet = statement.executeQuery()) {
 			// Procesar el resultado de la consulta
-			while (resultSet.next()) {
-				Empleado empleado = new Empleado();
-
-				// Asignar los valores del resultSet a los atributos del objeto Empleado
-				empleado.setNombre(resultSet.getString(1));
-				empleado.setDni(resultSet.getString(2));
-				empleado.setSexo(resultSet.getString(3).charAt(0));
-				empleado.setCategoria(resultSet.getInt(4));
-				empleado.setAnyos(resultSet.getInt(5));
-
-				// Añadir el empleado a la lista de empleados
-				listaEmpleados.add(empleado);
-			}
+			EmpleadoMapper.mapearTodos(resultSet, listaEmpleados);
 		} catch (SQLException e) {
 			e.printStackTrace();
-		} finally {
-			if (resultSet != null) {
-				resultSet.close();
-			}
-			if (statement != null) {
-				statement.close();
-			}
-			if (connection != null) {
-				connection.close();
-			}
 		}
 
 		return listaEmpleados; // Devolver la lista de empleados
 	}
 
+	/**
+	 * Obtiene una página de empleados ordenados por DNI.
+	 * 
+	 * La consulta busca directamente en el índice de la clave primaria a partir del
+	 * cursor ({@code dni > ?}) en lugar de usar {@code OFFSET}, por lo que el tiempo
+	 * de respuesta y la memoria utilizada son constantes sea cual sea la página.
+	 * 
+	 * @param dniDesde     El DNI del último empleado de la página anterior, o
+	 *                     {@code null} para obtener la primera página.
+	 * @param tamanoPagina El número máximo de empleados a devolver.
+	 * @return Una lista con los empleados de la página.
+	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
+	 */
+	public List<Empleado> obtenerEmpleadosPaginados(String dniDesde, int tamanoPagina) throws SQLException {
+		if (tamanoPagina <= 0) {
+			throw new IllegalArgumentException("El tamaño de página debe ser mayor que 0.");
+		}
+
+		List<Empleado> listaEmpleados = new ArrayList<>(tamanoPagina);
+
+		try (Connection connection = obtenerConexion();
+				PreparedStatement statement = connection.prepareStatement(ConsultasSql.EMPLEADOS_PAGINADOS)) {
+			statement.setString(1, dniDesde == null ? "" : dniDesde);
+			statement.setInt(2, tamanoPagina);
+
+			try (ResultSet resultSet = statement.executeQuery()) {
+				EmpleadoMapper.mapearTodos(resultSet, listaEmpleados);
+			}
+		}
+
+		return listaEmpleados;
+	}
+
 	/**
 	 * Obtiene el salario de un empleado según su DNI.
 	 * 
@@ -74,177 +125,262 @@ public class EmpleadoDAO implements EmpleadoDAOInterface {
 	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
 	 */
 	public Double obtenerNominaPorDni(String dni) throws SQLException {
-		ResultSet resultSet = null;
-		Double sueldo = null;
-		String sql = null;
-		Connection connection = obtenerConexion();
-
-		try {
-			// Consulta a la tabla nominas usando el DNI.
-			sql = "SELECT sueldo FROM nominas WHERE empleado_dni = ?";
-			PreparedStatement statement = connection.prepareStatement(sql);
+		// Consulta a la tabla nominas usando el DNI.
+		try (Connection connection = obtenerConexion();
+				PreparedStatement statement = connection.prepareStatement(consultas().nominaPorDni())) {
 			statement.setString(1, dni); // Se pasa el DNI como parámetro.
 
-			resultSet = statement.executeQuery();
-
-			// Si se encuentra un registro, se setea al sueldo el nuevo valor.
-			if (resultSet.next()) {
-				sueldo = resultSet.getDouble("sueldo");
-			} else {
-				throw new SQLException("Empleado con DNI " + dni + " no encontrado.");
-			}
-		} catch (SQLException e) {
-			e.printStackTrace();
-			throw e; // Lanza la excepción para que sea manejada por el llamador
-		} finally {
-			if (resultSet != null) {
-				try {
-					resultSet.close();
-				} catch (SQLException e) {
-					e.printStackTrace();
-				}
-			}
-			if (connection != null) {
-				try {
-					connection.close();
-				} catch (SQLException e) {
-					e.printStackTrace();
+			try (ResultSet resultSet = statement.executeQuery()) {
+				// Si se encuentra un registro, se devuelve el sueldo.
+				if (resultSet.next()) {
+					return resultSet.getDouble("sueldo");
 				}
 			}
 		}
 
-		return sueldo;
+		throw new SQLException("Empleado con DNI " + dni + " no encontrado.");
 	}
 
 	/**
 	 * Busca empleados por un atributo específico.
 	 * 
+	 * El atributo se traduce a un {@link FiltroEmpleados} (ver
+	 * {@link FiltroEmpleados#desdeAtributo(String, String)}); si está vacío se
+	 * devuelven todos los empleados.
+	 * 
 	 * @param atributo El nombre del atributo a buscar.
 	 * @param valor    El valor del atributo a buscar.
 	 * @return Una lista de empleados que coinciden con el criterio de búsqueda.
 	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
+	 * @throws IllegalArgumentException Si el atributo no está admitido o el valor no es válido.
 	 */
 	public List<Empleado> buscarEmpleadosPorAtributo(String atributo, String valor) throws SQLException {
-		ResultSet resultSet = null;
+		return buscarEmpleados(FiltroEmpleados.desdeAtributo(atributo, valor));
+	}
+
+	/**
+	 * Busca los empleados que cumplen todos los criterios del filtro, ordenados por DNI.
+	 * 
+	 * @param filtro Los criterios de búsqueda.
+	 * @return Una lista con los empleados encontrados.
+	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
+	 */
+	public List<Empleado> buscarEmpleados(FiltroEmpleados filtro) throws SQLException {
 		List<Empleado> listaEmpleados = new ArrayList<>();
+		ConsultaEmpleados consulta = new ConsultaEmpleados(filtro);
 
-		String sql = "SELECT * FROM empleados WHERE " + atributo + " = ?";
-		Connection connection = obtenerConexion();
-		if (atributo == "") {
-			listaEmpleados = obtenerTodosLosEmpleados();
-		}
-		try {
-			PreparedStatement statement = connection.prepareStatement(sql);
-			statement.setString(1, valor); // Se pasa el valor del atributo como parámetro.
-			resultSet = statement.executeQuery();
+		try (Connection connection = obtenerConexion();
+				PreparedStatement statement = connection.prepareStatement(consulta.getSql())) {
+			consulta.asignarParametros(statement);
 
-			// Procesar el resultado de la consulta
-			while (resultSet.next()) {
-				Empleado empleado = new Empleado();
-				// Asignar los valores del resultSet a los atributos del objeto Empleado
-				empleado.setNombre(resultSet.getString(1));
-				empleado.setDni(resultSet.getString(2));
-				empleado.setSexo(resultSet.getString(3).charAt(0));
-				empleado.setCategoria(resultSet.getInt(4));
-				empleado.setAnyos(resultSet.getInt(5));
-				// Añadir el empleado a la lista de empleados
-				listaEmpleados.add(empleado);
-			}
-		} catch (SQLException e) {
-			e.printStackTrace();
-		} finally {
-			if (resultSet != null) {
-				resultSet.close();
+			try (ResultSet resultSet = statement.executeQuery()) {
+				EmpleadoMapper.mapearTodos(resultSet, listaEmpleados);
 			}
-			if (statement != null) {
-				statement.close();
-			}
-			if (connection != null) {
-				connection.close();
+		}
+
+		return listaEmpleados;
+	}
+
+	/**
+	 * Busca los empleados que cumplen todos los criterios del filtro, ordenados por
+	 * DNI, con el sueldo de la tabla de nóminas de este DAO ({@link #getTablaNominas()}).
+	 * 
+	 * @param filtro Los criterios de búsqueda.
+	 * @return Una lista con los empleados encontrados y su sueldo, o
+	 *         {@link Nomina#SUELDO_INVALIDO} para los que no tienen nómina.
+	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
+	 */
+	public List<Empleado> buscarEmpleadosConSueldo(FiltroEmpleados filtro) throws SQLException {
+		List<Empleado> listaEmpleados = new ArrayList<>();
+		ConsultaEmpleados consulta = new ConsultaEmpleados(filtro, getTablaNominas());
+
+		try (Connection connection = obtenerConexion();
+				PreparedStatement statement = connection.prepareStatement(consulta.getSql())) {
+			consulta.asignarParametros(statement);
+
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					Empleado empleado = EmpleadoMapper.mapear(resultSet);
+					int sueldo = resultSet.getInt(6);
+					empleado.setSueldoTotal(resultSet.wasNull() ? Nomina.SUELDO_INVALIDO : sueldo);
+					listaEmpleados.add(empleado);
+				}
 			}
 		}
 
-		return listaEmpleados; // Devolver la lista de empleados
+		return listaEmpleados;
 	}
 
 	/**
 	 * Guarda un nuevo empleado en la base de datos.
 	 * 
+	 * No se comprueba antes si el DNI existe: la clave primaria de {@code empleados}
+	 * rechaza el duplicado, de modo que la operación son dos sentencias en una sola
+	 * transacción y no hay carrera entre la comprobación y la inserción.
+	 * 
 	 * @param empleado El empleado a guardar.
-	 * @return true si se guarda correctamente, false de lo contrario.
+	 * @return true si se guarda correctamente, false si el DNI ya existe o si falla la operación.
 	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
 	 */
 	public boolean guardarEmpleado(Empleado empleado) throws SQLException {
-		String sql = null;
-		String sqlNominas = null;
 		boolean estadoOperacion = false;
-		Connection connection = null;
-		PreparedStatement statement = null;
-		PreparedStatement verificarStmt = null;
-		ResultSet rs = null;
+		// Calcular el salario usando la instancia Singleton de Nomina
+		int sueldoTotal = Nomina.getInstance().sueldo(empleado);
 
-		try {
-			connection = obtenerConexion();
+		try (Connection connection = obtenerConexion()) {
 			connection.setAutoCommit(false);
 
-			// Verificar si el empleado ya existe basado en el DNI
-			String sqlVerificar = "SELECT COUNT(*) FROM empleados WHERE dni = ?";
-			verificarStmt = connection.prepareStatement(sqlVerificar);
-			verificarStmt.setString(1, empleado.getDni());
+			try {
+				try (PreparedStatement statement = connection.prepareStatement(ConsultasSql.INSERTAR_EMPLEADO)) {
+					asignarEmpleado(statement, empleado);
+					estadoOperacion = statement.executeUpdate() > 0;
+				}
 
-			rs = verificarStmt.executeQuery();
-			rs.next();
-			int count = rs.getInt(1); // Obtenemos el número de coincidencias por DNI
+				try (PreparedStatement statement = connection.prepareStatement(ConsultasSql.INSERTAR_NOMINA)) {
+					statement.setString(1, empleado.getDni());
+					statement.setInt(2, sueldoTotal);
+					estadoOperacion = statement.executeUpdate() > 0 && estadoOperacion;
+				}
+				DeltasResumenNominas resumen = deltasResumen(connection, List.of());
+				if (resumen != null) {
+					resumen.anadir(empleado.getCategoria(), empleado.getSexo(), empleado.getAnyos(), sueldoTotal);
+					resumen.aplicar(connection);
+				}
 
-			if (count > 0) {
-				System.out.println("El empleado con DNI '" + empleado.getDni() + "' ya existe.");
+				connection.commit();
+				if (estadoOperacion) {
+					System.out.println("Nómina insertada correctamente.");
+				}
+			} catch (SQLException e) {
+				connection.rollback();
 				estadoOperacion = false;
-			} else {
-				// Insertar el nuevo empleado
-				sql = "INSERT INTO empleados (nombre, dni, sexo, categoria, anyos) VALUES(?,?,?,?,?)";
-				statement = connection.prepareStatement(sql);
-				statement.setString(1, empleado.getNombre());
-				statement.setString(2, empleado.getDni());
-				statement.setString(3, String.valueOf(empleado.getSexo()).substring(0, 1));
-				statement.setInt(4, empleado.getCategoria());
-				statement.setInt(5, empleado.getAnyos());
+				if (esClaveDuplicada(e)) {
+					System.out.println("El empleado con DNI '" + empleado.getDni() + "' ya existe.");
+				} else {
+					e.printStackTrace();
+				}
+			}
+		}
 
-				estadoOperacion = statement.executeUpdate() > 0;
+		return estadoOperacion;
+	}
 
-				// Calcular el salario usando la instancia Singleton de Nomina
-				Nomina nomina = Nomina.getInstance(); // Obtener la instancia de Nomina
-				int sueldoTotal = nomina.sueldo(empleado); // Llamar al método de instancia
+	/**
+	 * Edita la información de un empleado existente.
+	 * 
+	 * Si el nuevo DNI ya pertenece a otro empleado, la clave primaria rechaza la
+	 * actualización; no se hace ninguna consulta previa. La nómina sigue al empleado
+	 * por el {@code ON UPDATE CASCADE} de la clave ajena, así que basta con
+	 * actualizar su sueldo: dos sentencias en una sola transacción.
+	 * 
+	 * @param empleado    El empleado con la información actualizada.
+	 * @param dniOriginal El DNI del empleado antes de la edición.
+	 * @return Un mensaje que empieza por "Éxito" si se actualiza correctamente, o el motivo del error.
+	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
+	 */
+	public String editar(Empleado empleado, String dniOriginal) throws SQLException {
+		String mensaje;
+		// Calcular el salario usando la instancia Singleton de Nomina
+		int sueldoTotal = Nomina.getInstance().sueldo(empleado);
 
-				// Actualizar la tabla de nóminas
-				sqlNominas = "INSERT INTO nominas(empleado_dni, sueldo) VALUES(?,?)";
-				statement = connection.prepareStatement(sqlNominas);
-				statement.setString(1, empleado.getDni());
-				statement.setInt(2, sueldoTotal);
-				estadoOperacion = statement.executeUpdate() > 0 && estadoOperacion;
+		try (Connection connection = obtenerConexion()) {
+			connection.setAutoCommit(false);
 
-				if (estadoOperacion) {
-					System.out.println("Nómina insertada correctamente.");
+			try {
+				DeltasResumenNominas resumen = deltasResumen(connection, List.of(dniOriginal));
+				boolean actualizado;
+				try (PreparedStatement statement = connection.prepareStatement(ConsultasSql.ACTUALIZAR_EMPLEADO)) {
+					asignarEmpleado(statement, empleado);
+					statement.setString(6, dniOriginal); // Usamos dniOriginal en el WHERE
+					actualizado = statement.executeUpdate() > 0;
 				}
-			}
 
-			connection.commit();
-		} catch (SQLException e) {
-			if (connection != null) {
+				if (actualizado) {
+					// La nómina ya lleva el DNI nuevo por el ON UPDATE CASCADE
+					try (PreparedStatement statement = connection.prepareStatement(ConsultasSql.ACTUALIZAR_NOMINA)) {
+						statement.setInt(1, sueldoTotal);
+						statement.setString(2, empleado.getDni());
+						actualizado = statement.executeUpdate() > 0;
+					}
+				}
+
+				if (actualizado) {
+					if (resumen != null) {
+						resumen.anadir(empleado.getCategoria(), empleado.getSexo(), empleado.getAnyos(), sueldoTotal);
+						resumen.aplicar(connection);
+					}
+					connection.commit();
+					mensaje = MENSAJE_EDICION_CORRECTA;
+				} else {
+					connection.rollback();
+					mensaje = "Error: No se pudo actualizar la información del empleado.";
+				}
+			} catch (SQLException e) {
 				connection.rollback();
+				if (esClaveDuplicada(e)) {
+					mensaje = "Error: El DNI ya está en uso por otro empleado.";
+				} else {
+					mensaje = e.getMessage();
+					e.printStackTrace();
+				}
 			}
-			e.printStackTrace();
-		} finally {
-			if (rs != null) {
-				rs.close();
-			}
-			if (verificarStmt != null) {
-				verificarStmt.close();
-			}
-			if (statement != null) {
-				statement.close();
-			}
-			if (connection != null) {
-				connection.close();
+		}
+
+		return mensaje;
+	}
+
+	// Violación de la clave primaria: error 1062 en MySQL, estado SQL 23505 en H2 (el del estándar)
+	static boolean esClaveDuplicada(SQLException e) {
+		return e instanceof SQLIntegrityConstraintViolationException
+				&& (e.getErrorCode() == ERROR_MYSQL_CLAVE_DUPLICADA || ESTADO_CLAVE_DUPLICADA.equals(e.getSQLState()));
+	}
+
+	// Columnas de empleados en el orden de INSERTAR_EMPLEADO y ACTUALIZAR_EMPLEADO
+	static void asignarEmpleado(PreparedStatement statement, Empleado empleado) throws SQLException {
+		statement.setString(1, empleado.getNombre());
+		statement.setString(2, empleado.getDni());
+		statement.setString(3, String.valueOf(empleado.getSexo()).substring(0, 1));
+		statement.setInt(4, empleado.getCategoria());
+		statement.setInt(5, empleado.getAnyos());
+	}
+
+	// Cambios del resumen para la transacción, empezando por restar los empleados que se van a
+	// modificar (bloqueados hasta el commit), o null si el resumen no está materializado
+	private DeltasResumenNominas deltasResumen(Connection connection, Collection<String> dnisModificados)
+			throws SQLException {
+		if (!resumenMaterializado) {
+			return null;
+		}
+		DeltasResumenNominas resumen = new DeltasResumenNominas();
+		if (!dnisModificados.isEmpty()) {
+			resumen.quitarActuales(connection, dnisModificados);
+		}
+		return resumen;
+	}
+
+	/**
+	 * Elimina un empleado de la base de datos. Su nómina se elimina en cascada.
+	 * 
+	 * @param dni El DNI del empleado a eliminar.
+	 * @return true si se elimina correctamente, false de lo contrario.
+	 * @throws SQLException Si ocurre un error al obtener la conexión.
+	 */
+	public boolean eliminar(String dni) throws SQLException {
+		boolean estadoOperacion = false;
+
+		try (Connection connection = obtenerConexion()) {
+			connection.setAutoCommit(false);
+			try (PreparedStatement statement = connection.prepareStatement(ConsultasSql.ELIMINAR_EMPLEADO)) {
+				DeltasResumenNominas resumen = deltasResumen(connection, List.of(dni));
+				statement.setString(1, dni);
+				estadoOperacion = statement.executeUpdate() > 0;
+				if (estadoOperacion && resumen != null) {
+					resumen.aplicar(connection);
+				}
+				connection.commit();
+			} catch (SQLException e) {
+				connection.rollback();
+				e.printStackTrace();
 			}
 		}
 
@@ -252,104 +388,506 @@ public class EmpleadoDAO implements EmpleadoDAOInterface {
 	}
 
 	/**
-	 * Edita la información de un empleado existente.
+	 * Recalcula la nómina de todos los empleados.
 	 * 
-	 * @param empleado El empleado con la información actualizada.
-	 * @return true si se actualiza correctamente, false de lo contrario.
-	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
+	 * Se utilizan dos conexiones del pool: una lee la tabla de empleados en modo
+	 * streaming (sin cargarla en memoria) y la otra escribe en la tabla de nóminas
+	 * con lotes JDBC, confirmando cada {@code ventanaCommit} filas. Si el proceso
+	 * falla, solo se deshace la ventana en curso; al ser idempotente, basta con
+	 * volver a lanzarlo. Con el resumen materializado, al terminar se reconstruye
+	 * {@code resumen_nominas} completo.
+	 * 
+	 * Los cambios de reglas anotados antes de empezar quedan aplicados, así que se
+	 * borran del registro en la última transacción; los anotados durante el recálculo
+	 * se conservan para el siguiente recálculo incremental.
+	 * 
+	 * @param tamanoLote    El número de filas que se envían en cada lote JDBC.
+	 * @param ventanaCommit El número de filas tras el que se confirma la transacción.
+	 * @return El resultado del recálculo con sus contadores y su rendimiento.
+	 * @throws SQLException Si ocurre un error al leer o actualizar la base de datos.
 	 */
-	public String editar(Empleado empleado, String dniOriginal) throws SQLException {
-		String sqlEmpleados = null;
-		String sqlNominas = null;
-		String mensaje = "";
-		boolean estadoOperacion = false;
-		connection = obtenerConexion();
+	public ResultadoRecalculo recalcularNominas(int tamanoLote, int ventanaCommit) throws SQLException {
+		if (tamanoLote <= 0 || ventanaCommit <= 0) {
+			throw new IllegalArgumentException("El tamaño de lote y la ventana de commit deben ser mayores que 0.");
+		}
+
+		Nomina nomina = Nomina.getInstance();
+
+		String[] dnis = new String[tamanoLote];
+		int[] categorias = new int[tamanoLote];
+		int[] anyos = new int[tamanoLote];
+		int[] sueldos = new int[tamanoLote];
+		int enLote = 0;
+		long leidas = 0;
+		long actualizadas = 0;
+		long omitidas = 0;
+		long pendientesCommit = 0;
+		long inicio = System.nanoTime();
+
+		try (Connection lectura = obtenerConexion();
+				Connection escritura = obtenerConexion()) {
+			long ultimoCambio = ultimoCambio(escritura);
+			escritura.setAutoCommit(false);
+
+			try (Statement consulta = lectura.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
+					PreparedStatement update = escritura.prepareStatement(ConsultasSql.ACTUALIZAR_NOMINA)) {
+				consulta.setFetchSize(fetchSizeStreaming);
+
+				try (ResultSet resultSet = consulta.executeQuery(ConsultasSql.EMPLEADOS_RECALCULO)) {
+					while (resultSet.next()) {
+						dnis[enLote] = resultSet.getString(1);
+						categorias[enLote] = resultSet.getInt(2);
+						anyos[enLote] = resultSet.getInt(3);
+						enLote++;
+						leidas++;
+
+						if (enLote == tamanoLote) {
+							int[] contadores = enviarLoteNominas(update, nomina, dnis, categorias, anyos, sueldos, enLote);
+							actualizadas += contadores[0];
+							omitidas += contadores[1];
+							pendientesCommit += enLote;
+							enLote = 0;
+
+							if (pendientesCommit >= ventanaCommit) {
+								escritura.commit();
+								pendientesCommit = 0;
+							}
+						}
+					}
+				}
+
+				if (enLote > 0) {
+					int[] contadores = enviarLoteNominas(update, nomina, dnis, categorias, anyos, sueldos, enLote);
+					actualizadas += contadores[0];
+					omitidas += contadores[1];
+				}
+				escritura.commit();
+
+				if (resumenMaterializado) {
+					DeltasResumenNominas.reconstruir(escritura);
+				}
+				try (PreparedStatement borrar = escritura.prepareStatement(ConsultasSql.BORRAR_CAMBIOS)) {
+					borrar.setLong(1, ultimoCambio);
+					borrar.executeUpdate();
+				}
+				escritura.commit();
+			} catch (SQLException e) {
+				escritura.rollback();
+				throw e;
+			}
+		}
+
+		return new ResultadoRecalculo(leidas, actualizadas, omitidas, System.nanoTime() - inicio);
+	}
+
+	/**
+	 * Recalcula la nómina de los empleados de las categorías anotadas en el registro de
+	 * cambios de reglas ({@code cambios_categorias}).
+	 * 
+	 * Cada escritura de este DAO ya guarda el sueldo calculado con las reglas vigentes,
+	 * así que las nóminas solo quedan desfasadas cuando cambian las reglas de alguna
+	 * categoría, y {@link Nomina} anota esas categorías al recargarlas. Solo se procesan
+	 * los cambios anotados antes de empezar, de modo que el proceso termina aunque
+	 * sigan llegando cambios.
+	 * 
+	 * Los empleados de cada categoría se leen por páginas en orden de DNI y quedan
+	 * bloqueados hasta que se confirma su página, así que una edición simultánea no
+	 * puede quedar sobrescrita con el sueldo anterior. La última página de cada
+	 * categoría borra sus cambios del registro en la misma transacción: si el proceso
+	 * falla, basta con volver a lanzarlo y solo se repiten las categorías pendientes.
+	 * 
+	 * @param tamanoLote El número de empleados de cada página (y de cada transacción).
+	 * @return El resultado del recálculo: las filas leídas son los empleados recalculados.
+	 * @throws SQLException Si ocurre un error al leer o actualizar la base de datos.
+	 */
+	public ResultadoRecalculo recalcularNominasCambiadas(int tamanoLote) throws SQLException {
+		if (tamanoLote <= 0) {
+			throw new IllegalArgumentException("El tamaño de lote debe ser mayor que 0.");
+		}
+
+		Nomina nomina = Nomina.getInstance();
+		String[] dnis = new String[tamanoLote];
+		int[] categorias = new int[tamanoLote];
+		int[] anyos = new int[tamanoLote];
+		int[] sueldos = new int[tamanoLote];
+		char[] sexos = new char[tamanoLote];
+		int[] anteriores = new int[tamanoLote];
+		long leidas = 0;
+		long actualizadas = 0;
+		long omitidas = 0;
+		long inicio = System.nanoTime();
+
+		try (Connection connection = obtenerConexion()) {
+			long ultimoCambio = ultimoCambio(connection);
+			List<Integer> pendientes = new ArrayList<>();
+			try (PreparedStatement statement = connection.prepareStatement(ConsultasSql.CATEGORIAS_PENDIENTES)) {
+				statement.setLong(1, ultimoCambio);
+				try (ResultSet resultSet = statement.executeQuery()) {
+					while (resultSet.next()) {
+						pendientes.add(resultSet.getInt(1));
+					}
+				}
+			}
 
-		try {
 			connection.setAutoCommit(false);
+			try (PreparedStatement consulta = connection.prepareStatement(ConsultasSql.EMPLEADOS_CATEGORIA);
+					PreparedStatement update = connection.prepareStatement(ConsultasSql.ACTUALIZAR_NOMINA);
+					PreparedStatement borrar = connection.prepareStatement(ConsultasSql.BORRAR_CAMBIOS_CATEGORIA)) {
+				for (int categoria : pendientes) {
+					Arrays.fill(categorias, categoria);
+					consulta.setInt(1, categoria);
+					consulta.setInt(3, tamanoLote);
+					String ultimoDni = "";
+					int empleados;
+					do {
+						empleados = 0;
+						consulta.setString(2, ultimoDni);
+						try (ResultSet resultSet = consulta.executeQuery()) {
+							while (resultSet.next()) {
+								dnis[empleados] = resultSet.getString(1);
+								anyos[empleados] = resultSet.getInt(2);
+								sexos[empleados] = resultSet.getString(3).charAt(0);
+								anteriores[empleados] = resultSet.getInt(4);
+								if (resultSet.wasNull()) {
+									anteriores[empleados] = Nomina.SUELDO_INVALIDO;
+								}
+								empleados++;
+							}
+						}
+
+						if (empleados > 0) {
+							ultimoDni = dnis[empleados - 1];
+							int[] contadores = enviarLoteNominas(update, nomina, dnis, categorias, anyos, sueldos, empleados);
+							actualizadas += contadores[0];
+							omitidas += contadores[1];
+							leidas += empleados;
+							if (resumenMaterializado) {
+								actualizarSueldosResumen(connection, categorias, sexos, anyos, anteriores, sueldos, empleados);
+							}
+						}
+						if (empleados < tamanoLote) {
+							borrar.setInt(1, categoria);
+							borrar.setLong(2, ultimoCambio);
+							borrar.executeUpdate();
+						}
+						connection.commit();
+					} while (empleados == tamanoLote);
+				}
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
+		}
 
-			// Verificar si ya existe otro empleado con el nuevo DNI
-			String sqlCheckDni = "SELECT COUNT(*) FROM empleados WHERE dni = ? AND dni != ?";
-			statement = connection.prepareStatement(sqlCheckDni);
-			statement.setString(1, empleado.getDni());
-			statement.setString(2, dniOriginal); // Usamos dniOriginal aquí para la comparación
-			ResultSet rs = statement.executeQuery();
-			if (rs.next() && rs.getInt(1) > 0) {
-				mensaje = "Error: El DNI ya está en uso por otro empleado.";
-				throw new SQLException(mensaje);
+		return new ResultadoRecalculo(leidas, actualizadas, omitidas, System.nanoTime() - inicio);
+	}
+
+	// Id del último cambio de reglas anotado, o 0 si el registro está vacío
+	private static long ultimoCambio(Connection connection) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(ConsultasSql.ULTIMO_CAMBIO);
+				ResultSet resultSet = statement.executeQuery()) {
+			resultSet.next();
+			return resultSet.getLong(1);
+		}
+	}
+
+	// Suma al resumen la diferencia entre el sueldo recalculado y el guardado de cada empleado
+	private static void actualizarSueldosResumen(Connection connection, int[] categorias, char[] sexos, int[] anyos,
+			int[] anteriores, int[] sueldos, int tamano) throws SQLException {
+		DeltasResumenNominas resumen = new DeltasResumenNominas();
+		for (int i = 0; i < tamano; i++) {
+			if (sueldos[i] != Nomina.SUELDO_INVALIDO && anteriores[i] != Nomina.SUELDO_INVALIDO) {
+				resumen.cambiarSueldo(categorias[i], sexos[i], anyos[i], sueldos[i] - anteriores[i]);
 			}
+		}
+		resumen.aplicar(connection);
+	}
 
-			// Actualizar la tabla de empleados
-			sqlEmpleados = "UPDATE empleados SET nombre=?, dni=?, sexo=?, categoria=?, anyos=? WHERE dni=?";
-			statement = connection.prepareStatement(sqlEmpleados);
-			statement.setString(1, empleado.getNombre());
-			statement.setString(2, empleado.getDni());
-			statement.setString(3, String.valueOf(empleado.getSexo()).substring(0, 1));
-			statement.setInt(4, empleado.getCategoria());
-			statement.setInt(5, empleado.getAnyos());
-			statement.setString(6, dniOriginal); // Usamos dniOriginal en el WHERE
-			estadoOperacion = statement.executeUpdate() > 0;
-
-			// Calcular el salario usando la instancia Singleton de Nomina
-			Nomina nomina = Nomina.getInstance(); // Obtener la instancia de Nomina
-			int sueldoTotal = nomina.sueldo(empleado); // Llamar al método de instancia
-
-			// Actualizar la tabla nominas
-			sqlNominas = "UPDATE nominas SET sueldo=? WHERE empleado_dni=?";
-			statement = connection.prepareStatement(sqlNominas);
-			statement.setInt(1, sueldoTotal);
-			statement.setString(2, empleado.getDni());
-			estadoOperacion = statement.executeUpdate() > 0 && estadoOperacion;
-
-			// Mensaje de éxito
-			if (estadoOperacion) {
-				mensaje = "Éxito: Empleado actualizado correctamente.";
-			} else {
-				mensaje = "Error: No se pudo actualizar la información del empleado.";
+	/**
+	 * Calcula el sueldo de un lote de empleados y lo envía como un único lote JDBC.
+	 * Los empleados con una categoría no válida se omiten en lugar de abortar el proceso.
+	 * 
+	 * @return Un array con el número de nóminas actualizadas y el de filas omitidas.
+	 */
+	private int[] enviarLoteNominas(PreparedStatement update, Nomina nomina, String[] dnis, int[] categorias,
+			int[] anyos, int[] sueldos, int tamano) throws SQLException {
+		int omitidas = nomina.sueldos(categorias, anyos, sueldos, tamano);
+		for (int i = 0; i < tamano; i++) {
+			if (sueldos[i] == Nomina.SUELDO_INVALIDO) {
+				continue;
 			}
+			update.setInt(1, sueldos[i]);
+			update.setString(2, dnis[i]);
+			update.addBatch();
+		}
 
-			connection.commit();
-		} catch (SQLException e) {
-			connection.rollback();
-			mensaje = e.getMessage();
-			e.printStackTrace();
-		} finally {
-			if (statement != null) {
-				statement.close();
+		int actualizadas = 0;
+		for (int filas : update.executeBatch()) {
+			if (filas > 0 || filas == Statement.SUCCESS_NO_INFO) {
+				actualizadas++;
 			}
-			if (connection != null) {
-				connection.close();
+		}
+		return new int[] { actualizadas, omitidas };
+	}
+
+	/**
+	 * Comprueba cuáles de los DNI indicados pertenecen ya a un empleado, con una
+	 * única consulta {@code IN} en lugar de una consulta por DNI.
+	 * 
+	 * @param dnis Los DNI a comprobar.
+	 * @return El subconjunto de DNI que ya existen en la base de datos.
+	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
+	 */
+	public Set<String> obtenerDnisExistentes(Collection<String> dnis) throws SQLException {
+		Set<String> existentes = new HashSet<>();
+		if (dnis.isEmpty()) {
+			return existentes;
+		}
+
+		try (Connection connection = obtenerConexion();
+				PreparedStatement statement = connection.prepareStatement(ConsultasSql.dnisExistentes(dnis.size()))) {
+			ConsultasSql.asignarListaIn(statement, dnis);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					existentes.add(resultSet.getString(1));
+				}
 			}
 		}
 
-		return mensaje;
+		return existentes;
 	}
 
-	public boolean eliminar(String dni) throws SQLException {
-		String sql = null;
-		estadoOperacion = false;
-		connection = obtenerConexion();
-		try {
+	/**
+	 * Guarda un bloque de empleados nuevos y sus nóminas en una única transacción.
+	 * 
+	 * Los sueldos se calculan en bloque con {@link Nomina} y ambas tablas se escriben
+	 * con un lote JDBC cada una. Si alguna inserción falla (por ejemplo, porque otro
+	 * proceso ha insertado el mismo DNI), se deshace el bloque completo.
+	 * 
+	 * @param empleados Los empleados a guardar.
+	 * @return El número de empleados guardados.
+	 * @throws SQLException Si ocurre un error al guardar el bloque.
+	 */
+	public int guardarEmpleadosEnLote(List<Empleado> empleados) throws SQLException {
+		int total = empleados.size();
+		if (total == 0) {
+			return 0;
+		}
+
+		int[] categorias = new int[total];
+		int[] anyos = new int[total];
+		int[] sueldos = new int[total];
+		for (int i = 0; i < total; i++) {
+			categorias[i] = empleados.get(i).getCategoria();
+			anyos[i] = empleados.get(i).getAnyos();
+		}
+		if (Nomina.getInstance().sueldos(categorias, anyos, sueldos) > 0) {
+			throw new IllegalArgumentException("El bloque contiene empleados con una categoría no válida.");
+		}
+
+		try (Connection connection = obtenerConexion()) {
 			connection.setAutoCommit(false);
-			sql = "DELETE FROM empleados WHERE dni=?";
-			statement = connection.prepareStatement(sql);
-			statement.setString(1, dni);
+			try (PreparedStatement insertEmpleados = connection.prepareStatement(ConsultasSql.INSERTAR_EMPLEADO);
+					PreparedStatement insertNominas = connection.prepareStatement(ConsultasSql.INSERTAR_NOMINA)) {
+				for (int i = 0; i < total; i++) {
+					Empleado empleado = empleados.get(i);
+					asignarEmpleado(insertEmpleados, empleado);
+					insertEmpleados.addBatch();
+
+					insertNominas.setString(1, empleado.getDni());
+					insertNominas.setInt(2, sueldos[i]);
+					insertNominas.addBatch();
+				}
+				insertEmpleados.executeBatch();
+				insertNominas.executeBatch();
+				DeltasResumenNominas resumen = deltasResumen(connection, List.of());
+				if (resumen != null) {
+					for (int i = 0; i < total; i++) {
+						Empleado empleado = empleados.get(i);
+						resumen.anadir(empleado.getCategoria(), empleado.getSexo(), empleado.getAnyos(), sueldos[i]);
+					}
+					resumen.aplicar(connection);
+				}
+				connection.commit();
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
+		}
 
-			estadoOperacion = statement.executeUpdate() > 0;
-			connection.commit();
-			statement.close();
-			connection.close();
+		return total;
+	}
 
-		} catch (SQLException e) {
-			connection.rollback();
-			e.printStackTrace();
+	/**
+	 * Aplica varias ediciones independientes con dos lotes de JDBC (empleados y
+	 * nóminas) y una única confirmación. Si alguna edición falla o no encuentra su
+	 * empleado, el lote se deshace y cada edición se aplica por separado con
+	 * {@link #editar(Empleado, String)} para obtener su propio resultado.
+	 * 
+	 * @param ediciones Las ediciones a aplicar, sin DNI repetidos entre ellas.
+	 * @return El mensaje de resultado de cada edición, en el mismo orden.
+	 * @throws SQLException Si ocurre un error al obtener la conexión.
+	 */
+	public List<String> editarEnLote(List<EdicionEmpleado> ediciones) throws SQLException {
+		int total = ediciones.size();
+		List<String> mensajes = new ArrayList<>(total);
+		if (total == 0) {
+			return mensajes;
 		}
 
-		return estadoOperacion;
+		Nomina nomina = Nomina.getInstance();
+		int[] sueldos = new int[total];
+		for (int i = 0; i < total; i++) {
+			sueldos[i] = nomina.sueldo(ediciones.get(i).getEmpleado());
+		}
+
+		boolean aplicado = false;
+		try (Connection connection = obtenerConexion()) {
+			connection.setAutoCommit(false);
+			try (PreparedStatement updateEmpleados = connection.prepareStatement(ConsultasSql.ACTUALIZAR_EMPLEADO);
+					PreparedStatement updateNominas = connection.prepareStatement(ConsultasSql.ACTUALIZAR_NOMINA)) {
+				DeltasResumenNominas resumen = deltasResumen(connection, dnisOriginales(ediciones));
+				for (int i = 0; i < total; i++) {
+					EdicionEmpleado edicion = ediciones.get(i);
+					asignarEmpleado(updateEmpleados, edicion.getEmpleado());
+					updateEmpleados.setString(6, edicion.getDniOriginal());
+					updateEmpleados.addBatch();
+
+					// Las ediciones son independientes, así que la nómina ya tendrá el DNI nuevo
+					updateNominas.setInt(1, sueldos[i]);
+					updateNominas.setString(2, edicion.getEmpleado().getDni());
+					updateNominas.addBatch();
+				}
+				aplicado = todasAplicadas(updateEmpleados.executeBatch())
+						&& todasAplicadas(updateNominas.executeBatch());
+				if (aplicado) {
+					if (resumen != null) {
+						for (int i = 0; i < total; i++) {
+							Empleado empleado = ediciones.get(i).getEmpleado();
+							resumen.anadir(empleado.getCategoria(), empleado.getSexo(), empleado.getAnyos(), sueldos[i]);
+						}
+						resumen.aplicar(connection);
+					}
+					connection.commit();
+				} else {
+					connection.rollback();
+				}
+			} catch (SQLException e) {
+				connection.rollback();
+			}
+		}
+
+		for (EdicionEmpleado edicion : ediciones) {
+			mensajes.add(aplicado ? MENSAJE_EDICION_CORRECTA : editar(edicion.getEmpleado(), edicion.getDniOriginal()));
+		}
+		return mensajes;
+	}
+
+	// DNI originales de un lote de ediciones
+	private static List<String> dnisOriginales(List<EdicionEmpleado> ediciones) {
+		List<String> dnis = new ArrayList<>(ediciones.size());
+		for (EdicionEmpleado edicion : ediciones) {
+			dnis.add(edicion.getDniOriginal());
+		}
+		return dnis;
+	}
+
+	// Cada sentencia del lote ha modificado alguna fila (o el driver no informa del número)
+	static boolean todasAplicadas(int[] resultados) {
+		for (int resultado : resultados) {
+			if (resultado == 0 || resultado == Statement.EXECUTE_FAILED) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Obtiene el número de empleados y la suma de sus sueldos por categoría, por sexo
+	 * o por tramo de antigüedad, ordenados por grupo.
+	 * 
+	 * La agregación se hace en la base de datos con {@code GROUP BY}: sobre las tablas
+	 * de empleados y nóminas o, con el resumen materializado, sobre las pocas filas
+	 * de {@code resumen_nominas}, de modo que el coste no depende del número de empleados.
+	 * La primera lectura del resumen materializado en el proceso lo reconstruye antes, por
+	 * si hubo escrituras con él desactivado.
+	 * 
+	 * @param agrupacion {@code categoria}, {@code sexo} o {@code antiguedad}.
+	 * @return Los grupos con al menos un empleado.
+	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
+	 * @throws IllegalArgumentException Si la agrupación no está admitida.
+	 */
+	public List<GrupoNomina> resumirNominas(String agrupacion) throws SQLException {
+		boolean porAntiguedad = GrupoNomina.POR_ANTIGUEDAD.equals(GrupoNomina.validarAgrupacion(agrupacion));
+		String sql = resumenMaterializado ? ConsultasSql.resumenMaterializado(agrupacion)
+				: consultas().resumenNominas(agrupacion);
+		if (resumenMaterializado) {
+			DeltasResumenNominas.reconstruirAlActivar();
+		}
+
+		List<GrupoNomina> grupos = new ArrayList<>();
+		try (Connection connection = obtenerConexion();
+				PreparedStatement statement = connection.prepareStatement(sql);
+				ResultSet resultSet = statement.executeQuery()) {
+			while (resultSet.next()) {
+				String grupo = porAntiguedad ? GrupoNomina.nombreTramo(resultSet.getInt(1)) : resultSet.getString(1);
+				grupos.add(new GrupoNomina(grupo, resultSet.getLong(2), resultSet.getLong(3)));
+			}
+		}
+		return grupos;
+	}
+
+	/**
+	 * Recorre todos los empleados con su nómina y entrega cada fila al procesador.
+	 * 
+	 * La consulta se ejecuta con un ResultSet de solo avance y solo lectura en modo
+	 * streaming, de modo que la memoria utilizada es constante sea cual sea el número
+	 * de filas.
+	 * 
+	 * @param procesador El procesador que recibe cada fila.
+	 * @return El número de filas procesadas.
+	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
+	 * @throws IOException  Si el procesador falla al escribir una fila.
+	 */
+	public long exportarEmpleadosConNomina(ProcesadorFilaNomina procesador) throws SQLException, IOException {
+		long filas = 0;
+
+		try (Connection connection = obtenerConexion();
+				Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+						ResultSet.CONCUR_READ_ONLY)) {
+			statement.setFetchSize(fetchSizeStreaming);
+
+			try (ResultSet resultSet = statement.executeQuery(consultas().empleadosConNomina())) {
+				while (resultSet.next()) {
+					procesador.procesar(resultSet.getString(1), resultSet.getString(2),
+							resultSet.getString(3).charAt(0), resultSet.getInt(4), resultSet.getInt(5),
+							resultSet.getDouble(6));
+					filas++;
+				}
+			}
+		}
+
+		return filas;
+	}
+
+	/**
+	 * Tabla (o vista) de la que se leen los sueldos, con las columnas
+	 * {@code empleado_dni} y {@code sueldo}.
+	 * 
+	 * @return El nombre de la tabla de nóminas.
+	 */
+	protected String getTablaNominas() {
+		return "nominas";
+	}
+
+	// Sentencias de la tabla de nóminas de este DAO
+	private ConsultasSql consultas() {
+		return ConsultasSql.de(getTablaNominas());
 	}
 
 	// obtener conexion pool
-	private Connection obtenerConexion() throws SQLException {
+	protected Connection obtenerConexion() throws SQLException {
 		return Conexion.getConnection();
 	}
 }
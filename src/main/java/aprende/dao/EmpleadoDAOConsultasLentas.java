@@ -0,0 +1,175 @@
+package aprende.dao;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import aprende.model.EdicionEmpleado;
+import aprende.model.Empleado;
+import aprende.model.FiltroEmpleados;
+import aprende.model.GrupoNomina;
+import aprende.model.ResultadoRecalculo;
+
+/**
+ * Decorador de {@link EmpleadoDAOInterface} que registra en el log
+ * ({@code java.util.logging}, nivel {@code WARNING}) las llamadas que tardan al
+ * menos un umbral, con el método y la duración.
+ *
+ * Para no llevar datos personales al log no se registran los valores que el DAO
+ * enlaza en sus sentencias: de las colecciones solo se registra el tamaño y de las
+ * búsquedas con filtro la SQL generada, sin sus parámetros. Las llamadas rápidas
+ * solo cuestan dos lecturas del reloj: el mensaje se construye únicamente cuando se
+ * supera el umbral.
+ */
+public class EmpleadoDAOConsultasLentas extends EmpleadoDAODecorador {
+	private static final Logger LOG = Logger.getLogger(EmpleadoDAOConsultasLentas.class.getName());
+
+	private final long umbralNanos;
+
+	/**
+	 * Constructor que envuelve el DAO indicado.
+	 *
+	 * @param dao          El DAO cuyas llamadas lentas se registran.
+	 * @param umbralMillis La duración mínima, en milisegundos, de las llamadas que se
+	 *                     registran.
+	 */
+	public EmpleadoDAOConsultasLentas(EmpleadoDAOInterface dao, long umbralMillis) {
+		super(dao);
+		if (umbralMillis < 0) {
+			throw new IllegalArgumentException("El umbral de las consultas lentas no puede ser negativo.");
+		}
+		this.umbralNanos = TimeUnit.MILLISECONDS.toNanos(umbralMillis);
+	}
+
+	/**
+	 * @return El umbral a partir del cual se registra una llamada, en milisegundos.
+	 */
+	public long getUmbralMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(umbralNanos);
+	}
+
+	private void registrar(String metodo, long duracion, Object... argumentos) {
+		if (duracion < umbralNanos || !LOG.isLoggable(Level.WARNING)) {
+			return;
+		}
+		StringBuilder mensaje = new StringBuilder("Llamada lenta al DAO: ").append(metodo).append('(');
+		for (int i = 0; i < argumentos.length; i++) {
+			if (i > 0) {
+				mensaje.append(", ");
+			}
+			mensaje.append(describir(argumentos[i]));
+		}
+		mensaje.append(") ").append(TimeUnit.NANOSECONDS.toMillis(duracion)).append(" ms");
+		LOG.warning(mensaje.toString());
+	}
+
+	private static Object describir(Object argumento) {
+		if (argumento instanceof FiltroEmpleados) {
+			return new ConsultaEmpleados((FiltroEmpleados) argumento).getSql();
+		}
+		if (argumento instanceof Collection) {
+			return ((Collection<?>) argumento).size() + " elementos";
+		}
+		return argumento;
+	}
+
+	@Override
+	public List<Empleado> obtenerTodosLosEmpleados() throws SQLException {
+		return cronometrar(() -> super.obtenerTodosLosEmpleados(),
+				duracion -> registrar("obtenerTodosLosEmpleados", duracion));
+	}
+
+	@Override
+	public List<Empleado> obtenerEmpleadosPaginados(String dniDesde, int tamanoPagina) throws SQLException {
+		return cronometrar(() -> super.obtenerEmpleadosPaginados(dniDesde, tamanoPagina),
+				duracion -> registrar("obtenerEmpleadosPaginados", duracion, tamanoPagina));
+	}
+
+	@Override
+	public Double obtenerNominaPorDni(String dni) throws SQLException {
+		return cronometrar(() -> super.obtenerNominaPorDni(dni),
+				duracion -> registrar("obtenerNominaPorDni", duracion));
+	}
+
+	@Override
+	public List<Empleado> buscarEmpleadosPorAtributo(String atributo, String valor) throws SQLException {
+		return cronometrar(() -> super.buscarEmpleadosPorAtributo(atributo, valor),
+				duracion -> registrar("buscarEmpleadosPorAtributo", duracion, atributo));
+	}
+
+	@Override
+	public List<Empleado> buscarEmpleados(FiltroEmpleados filtro) throws SQLException {
+		return cronometrar(() -> super.buscarEmpleados(filtro),
+				duracion -> registrar("buscarEmpleados", duracion, filtro));
+	}
+
+	@Override
+	public List<Empleado> buscarEmpleadosConSueldo(FiltroEmpleados filtro) throws SQLException {
+		return cronometrar(() -> super.buscarEmpleadosConSueldo(filtro),
+				duracion -> registrar("buscarEmpleadosConSueldo", duracion, filtro));
+	}
+
+	@Override
+	public boolean guardarEmpleado(Empleado empleado) throws SQLException {
+		return cronometrar(() -> super.guardarEmpleado(empleado),
+				duracion -> registrar("guardarEmpleado", duracion));
+	}
+
+	@Override
+	public String editar(Empleado empleado, String dniOriginal) throws SQLException {
+		return cronometrar(() -> super.editar(empleado, dniOriginal),
+				duracion -> registrar("editar", duracion));
+	}
+
+	@Override
+	public boolean eliminar(String dni) throws SQLException {
+		return cronometrar(() -> super.eliminar(dni), duracion -> registrar("eliminar", duracion));
+	}
+
+	@Override
+	public ResultadoRecalculo recalcularNominas(int tamanoLote, int ventanaCommit) throws SQLException {
+		return cronometrar(() -> super.recalcularNominas(tamanoLote, ventanaCommit),
+				duracion -> registrar("recalcularNominas", duracion, tamanoLote, ventanaCommit));
+	}
+
+	@Override
+	public ResultadoRecalculo recalcularNominasCambiadas(int tamanoLote) throws SQLException {
+		return cronometrar(() -> super.recalcularNominasCambiadas(tamanoLote),
+				duracion -> registrar("recalcularNominasCambiadas", duracion, tamanoLote));
+	}
+
+	@Override
+	public Set<String> obtenerDnisExistentes(Collection<String> dnis) throws SQLException {
+		return cronometrar(() -> super.obtenerDnisExistentes(dnis),
+				duracion -> registrar("obtenerDnisExistentes", duracion, dnis));
+	}
+
+	@Override
+	public int guardarEmpleadosEnLote(List<Empleado> empleados) throws SQLException {
+		return cronometrar(() -> super.guardarEmpleadosEnLote(empleados),
+				duracion -> registrar("guardarEmpleadosEnLote", duracion, empleados));
+	}
+
+	@Override
+	public List<String> editarEnLote(List<EdicionEmpleado> ediciones) throws SQLException {
+		return cronometrar(() -> super.editarEnLote(ediciones),
+				duracion -> registrar("editarEnLote", duracion, ediciones));
+	}
+
+	@Override
+	public long exportarEmpleadosConNomina(ProcesadorFilaNomina procesador) throws SQLException, IOException {
+		return cronometrar(() -> super.exportarEmpleadosConNomina(procesador),
+				duracion -> registrar("exportarEmpleadosConNomina", duracion));
+	}
+
+	@Override
+	public List<GrupoNomina> resumirNominas(String agrupacion) throws SQLException {
+		return cronometrar(() -> super.resumirNominas(agrupacion),
+				duracion -> registrar("resumirNominas", duracion, agrupacion));
+	}
+}
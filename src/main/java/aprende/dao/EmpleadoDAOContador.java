@@ -0,0 +1,170 @@
+package aprende.dao;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import aprende.metricas.RegistroMetricas;
+import aprende.model.EdicionEmpleado;
+import aprende.model.Empleado;
+import aprende.model.FiltroEmpleados;
+import aprende.model.GrupoNomina;
+import aprende.model.ResultadoRecalculo;
+
+/**
+ * Decorador de {@link EmpleadoDAOInterface} que cuenta las llamadas a cada método en
+ * la métrica {@code nominas_dao_llamadas_total} de {@link RegistroMetricas}, con la
+ * etiqueta {@code metodo}.
+ *
+ * Es más barato que {@link EmpleadoDAOCronometrado}, porque no lee el reloj: cada
+ * llamada solo incrementa un contador.
+ */
+public class EmpleadoDAOContador extends EmpleadoDAODecorador {
+	private static final String METRICA = "nominas_dao_llamadas_total";
+	private static final String AYUDA = "Llamadas a los métodos del DAO de empleados.";
+
+	private final LongAdder obtenerTodosLosEmpleados;
+	private final LongAdder obtenerEmpleadosPaginados;
+	private final LongAdder obtenerNominaPorDni;
+	private final LongAdder buscarEmpleadosPorAtributo;
+	private final LongAdder buscarEmpleados;
+	private final LongAdder buscarEmpleadosConSueldo;
+	private final LongAdder guardarEmpleado;
+	private final LongAdder editar;
+	private final LongAdder eliminar;
+	private final LongAdder recalcularNominas;
+	private final LongAdder recalcularNominasCambiadas;
+	private final LongAdder obtenerDnisExistentes;
+	private final LongAdder guardarEmpleadosEnLote;
+	private final LongAdder editarEnLote;
+	private final LongAdder exportarEmpleadosConNomina;
+	private final LongAdder resumirNominas;
+
+	/**
+	 * Constructor que envuelve el DAO indicado.
+	 *
+	 * @param dao El DAO cuyas llamadas se cuentan.
+	 */
+	public EmpleadoDAOContador(EmpleadoDAOInterface dao) {
+		super(dao);
+		this.obtenerTodosLosEmpleados = contador("obtenerTodosLosEmpleados");
+		this.obtenerEmpleadosPaginados = contador("obtenerEmpleadosPaginados");
+		this.obtenerNominaPorDni = contador("obtenerNominaPorDni");
+		this.buscarEmpleadosPorAtributo = contador("buscarEmpleadosPorAtributo");
+		this.buscarEmpleados = contador("buscarEmpleados");
+		this.buscarEmpleadosConSueldo = contador("buscarEmpleadosConSueldo");
+		this.guardarEmpleado = contador("guardarEmpleado");
+		this.editar = contador("editar");
+		this.eliminar = contador("eliminar");
+		this.recalcularNominas = contador("recalcularNominas");
+		this.recalcularNominasCambiadas = contador("recalcularNominasCambiadas");
+		this.obtenerDnisExistentes = contador("obtenerDnisExistentes");
+		this.guardarEmpleadosEnLote = contador("guardarEmpleadosEnLote");
+		this.editarEnLote = contador("editarEnLote");
+		this.exportarEmpleadosConNomina = contador("exportarEmpleadosConNomina");
+		this.resumirNominas = contador("resumirNominas");
+	}
+
+	private static LongAdder contador(String metodo) {
+		return RegistroMetricas.getInstance().contador(METRICA, AYUDA, "metodo", metodo);
+	}
+
+	@Override
+	public List<Empleado> obtenerTodosLosEmpleados() throws SQLException {
+		obtenerTodosLosEmpleados.increment();
+		return super.obtenerTodosLosEmpleados();
+	}
+
+	@Override
+	public List<Empleado> obtenerEmpleadosPaginados(String dniDesde, int tamanoPagina) throws SQLException {
+		obtenerEmpleadosPaginados.increment();
+		return super.obtenerEmpleadosPaginados(dniDesde, tamanoPagina);
+	}
+
+	@Override
+	public Double obtenerNominaPorDni(String dni) throws SQLException {
+		obtenerNominaPorDni.increment();
+		return super.obtenerNominaPorDni(dni);
+	}
+
+	@Override
+	public List<Empleado> buscarEmpleadosPorAtributo(String atributo, String valor) throws SQLException {
+		buscarEmpleadosPorAtributo.increment();
+		return super.buscarEmpleadosPorAtributo(atributo, valor);
+	}
+
+	@Override
+	public List<Empleado> buscarEmpleados(FiltroEmpleados filtro) throws SQLException {
+		buscarEmpleados.increment();
+		return super.buscarEmpleados(filtro);
+	}
+
+	@Override
+	public List<Empleado> buscarEmpleadosConSueldo(FiltroEmpleados filtro) throws SQLException {
+		buscarEmpleadosConSueldo.increment();
+		return super.buscarEmpleadosConSueldo(filtro);
+	}
+
+	@Override
+	public boolean guardarEmpleado(Empleado empleado) throws SQLException {
+		guardarEmpleado.increment();
+		return super.guardarEmpleado(empleado);
+	}
+
+	@Override
+	public String editar(Empleado empleado, String dniOriginal) throws SQLException {
+		editar.increment();
+		return super.editar(empleado, dniOriginal);
+	}
+
+	@Override
+	public boolean eliminar(String dni) throws SQLException {
+		eliminar.increment();
+		return super.eliminar(dni);
+	}
+
+	@Override
+	public ResultadoRecalculo recalcularNominas(int tamanoLote, int ventanaCommit) throws SQLException {
+		recalcularNominas.increment();
+		return super.recalcularNominas(tamanoLote, ventanaCommit);
+	}
+
+	@Override
+	public ResultadoRecalculo recalcularNominasCambiadas(int tamanoLote) throws SQLException {
+		recalcularNominasCambiadas.increment();
+		return super.recalcularNominasCambiadas(tamanoLote);
+	}
+
+	@Override
+	public Set<String> obtenerDnisExistentes(Collection<String> dnis) throws SQLException {
+		obtenerDnisExistentes.increment();
+		return super.obtenerDnisExistentes(dnis);
+	}
+
+	@Override
+	public int guardarEmpleadosEnLote(List<Empleado> empleados) throws SQLException {
+		guardarEmpleadosEnLote.increment();
+		return super.guardarEmpleadosEnLote(empleados);
+	}
+
+	@Override
+	public List<String> editarEnLote(List<EdicionEmpleado> ediciones) throws SQLException {
+		editarEnLote.increment();
+		return super.editarEnLote(ediciones);
+	}
+
+	@Override
+	public long exportarEmpleadosConNomina(ProcesadorFilaNomina procesador) throws SQLException, IOException {
+		exportarEmpleadosConNomina.increment();
+		return super.exportarEmpleadosConNomina(procesador);
+	}
+
+	@Override
+	public List<GrupoNomina> resumirNominas(String agrupacion) throws SQLException {
+		resumirNominas.increment();
+		return super.resumirNominas(agrupacion);
+	}
+}
@@ -0,0 +1,160 @@
+package aprende.dao;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import aprende.metricas.Histograma;
+import aprende.metricas.RegistroMetricas;
+import aprende.model.EdicionEmpleado;
+import aprende.model.Empleado;
+import aprende.model.FiltroEmpleados;
+import aprende.model.GrupoNomina;
+import aprende.model.ResultadoRecalculo;
+
+/**
+ * Decorador de {@link EmpleadoDAOInterface} que mide la duración de cada método y
+ * la registra en la métrica {@code nominas_dao_segundos} de {@link RegistroMetricas},
+ * con la etiqueta {@code metodo}. Se miden también las llamadas que terminan con una
+ * excepción.
+ *
+ * Los histogramas de cada método se obtienen al crear el decorador, así que medir
+ * una llamada solo cuesta dos lecturas del reloj y unos incrementos atómicos.
+ */
+public class EmpleadoDAOCronometrado extends EmpleadoDAODecorador {
+	private static final String METRICA = "nominas_dao_segundos";
+	private static final String AYUDA = "Duración de los métodos del DAO de empleados.";
+
+	private final Histograma obtenerTodosLosEmpleados;
+	private final Histograma obtenerEmpleadosPaginados;
+	private final Histograma obtenerNominaPorDni;
+	private final Histograma buscarEmpleadosPorAtributo;
+	private final Histograma buscarEmpleados;
+	private final Histograma buscarEmpleadosConSueldo;
+	private final Histograma guardarEmpleado;
+	private final Histograma editar;
+	private final Histograma eliminar;
+	private final Histograma recalcularNominas;
+	private final Histograma recalcularNominasCambiadas;
+	private final Histograma obtenerDnisExistentes;
+	private final Histograma guardarEmpleadosEnLote;
+	private final Histograma editarEnLote;
+	private final Histograma exportarEmpleadosConNomina;
+	private final Histograma resumirNominas;
+
+	/**
+	 * Constructor que envuelve el DAO indicado.
+	 *
+	 * @param dao El DAO cuyas llamadas se miden.
+	 */
+	public EmpleadoDAOCronometrado(EmpleadoDAOInterface dao) {
+		super(dao);
+		this.obtenerTodosLosEmpleados = histograma("obtenerTodosLosEmpleados");
+		this.obtenerEmpleadosPaginados = histograma("obtenerEmpleadosPaginados");
+		this.obtenerNominaPorDni = histograma("obtenerNominaPorDni");
+		this.buscarEmpleadosPorAtributo = histograma("buscarEmpleadosPorAtributo");
+		this.buscarEmpleados = histograma("buscarEmpleados");
+		this.buscarEmpleadosConSueldo = histograma("buscarEmpleadosConSueldo");
+		this.guardarEmpleado = histograma("guardarEmpleado");
+		this.editar = histograma("editar");
+		this.eliminar = histograma("eliminar");
+		this.recalcularNominas = histograma("recalcularNominas");
+		this.recalcularNominasCambiadas = histograma("recalcularNominasCambiadas");
+		this.obtenerDnisExistentes = histograma("obtenerDnisExistentes");
+		this.guardarEmpleadosEnLote = histograma("guardarEmpleadosEnLote");
+		this.editarEnLote = histograma("editarEnLote");
+		this.exportarEmpleadosConNomina = histograma("exportarEmpleadosConNomina");
+		this.resumirNominas = histograma("resumirNominas");
+	}
+
+	private static Histograma histograma(String metodo) {
+		return RegistroMetricas.getInstance().histograma(METRICA, AYUDA, "metodo", metodo);
+	}
+
+	@Override
+	public List<Empleado> obtenerTodosLosEmpleados() throws SQLException {
+		return cronometrar(() -> super.obtenerTodosLosEmpleados(), obtenerTodosLosEmpleados::registrar);
+	}
+
+	@Override
+	public List<Empleado> obtenerEmpleadosPaginados(String dniDesde, int tamanoPagina) throws SQLException {
+		return cronometrar(() -> super.obtenerEmpleadosPaginados(dniDesde, tamanoPagina),
+				obtenerEmpleadosPaginados::registrar);
+	}
+
+	@Override
+	public Double obtenerNominaPorDni(String dni) throws SQLException {
+		return cronometrar(() -> super.obtenerNominaPorDni(dni), obtenerNominaPorDni::registrar);
+	}
+
+	@Override
+	public List<Empleado> buscarEmpleadosPorAtributo(String atributo, String valor) throws SQLException {
+		return cronometrar(() -> super.buscarEmpleadosPorAtributo(atributo, valor),
+				buscarEmpleadosPorAtributo::registrar);
+	}
+
+	@Override
+	public List<Empleado> buscarEmpleados(FiltroEmpleados filtro) throws SQLException {
+		return cronometrar(() -> super.buscarEmpleados(filtro), buscarEmpleados::registrar);
+	}
+
+	@Override
+	public List<Empleado> buscarEmpleadosConSueldo(FiltroEmpleados filtro) throws SQLException {
+		return cronometrar(() -> super.buscarEmpleadosConSueldo(filtro), buscarEmpleadosConSueldo::registrar);
+	}
+
+	@Override
+	public boolean guardarEmpleado(Empleado empleado) throws SQLException {
+		return cronometrar(() -> super.guardarEmpleado(empleado), guardarEmpleado::registrar);
+	}
+
+	@Override
+	public String editar(Empleado empleado, String dniOriginal) throws SQLException {
+		return cronometrar(() -> super.editar(empleado, dniOriginal), editar::registrar);
+	}
+
+	@Override
+	public boolean eliminar(String dni) throws SQLException {
+		return cronometrar(() -> super.eliminar(dni), eliminar::registrar);
+	}
+
+	@Override
+	public ResultadoRecalculo recalcularNominas(int tamanoLote, int ventanaCommit) throws SQLException {
+		return cronometrar(() -> super.recalcularNominas(tamanoLote, ventanaCommit),
+				recalcularNominas::registrar);
+	}
+
+	@Override
+	public ResultadoRecalculo recalcularNominasCambiadas(int tamanoLote) throws SQLException {
+		return cronometrar(() -> super.recalcularNominasCambiadas(tamanoLote),
+				recalcularNominasCambiadas::registrar);
+	}
+
+	@Override
+	public Set<String> obtenerDnisExistentes(Collection<String> dnis) throws SQLException {
+		return cronometrar(() -> super.obtenerDnisExistentes(dnis), obtenerDnisExistentes::registrar);
+	}
+
+	@Override
+	public int guardarEmpleadosEnLote(List<Empleado> empleados) throws SQLException {
+		return cronometrar(() -> super.guardarEmpleadosEnLote(empleados), guardarEmpleadosEnLote::registrar);
+	}
+
+	@Override
+	public List<String> editarEnLote(List<EdicionEmpleado> ediciones) throws SQLException {
+		return cronometrar(() -> super.editarEnLote(ediciones), editarEnLote::registrar);
+	}
+
+	@Override
+	public long exportarEmpleadosConNomina(ProcesadorFilaNomina procesador) throws SQLException, IOException {
+		return cronometrar(() -> super.exportarEmpleadosConNomina(procesador),
+				exportarEmpleadosConNomina::registrar);
+	}
+
+	@Override
+	public List<GrupoNomina> resumirNominas(String agrupacion) throws SQLException {
+		return cronometrar(() -> super.resumirNominas(agrupacion), resumirNominas::registrar);
+	}
+}
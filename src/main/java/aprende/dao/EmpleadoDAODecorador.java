@@ -0,0 +1,162 @@
+package aprende.dao;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+import aprende.model.EdicionEmpleado;
+import aprende.model.Empleado;
+import aprende.model.FiltroEmpleados;
+import aprende.model.GrupoNomina;
+import aprende.model.ResultadoRecalculo;
+
+/**
+ * Base de los decoradores de {@link EmpleadoDAOInterface} (patrón Decorator). Todos
+ * los métodos delegan en el DAO envuelto, de modo que cada decorador solo sustituye
+ * los que necesita y llama a {@code super} para continuar la cadena.
+ *
+ * La fábrica {@link EmpleadoDAOFactoryImpl} compone los decoradores según la
+ * configuración.
+ */
+public abstract class EmpleadoDAODecorador implements EmpleadoDAOInterface {
+
+	private final EmpleadoDAOInterface dao;
+
+	/**
+	 * Constructor que envuelve el DAO indicado.
+	 *
+	 * @param dao El DAO al que se delegan las llamadas.
+	 */
+	protected EmpleadoDAODecorador(EmpleadoDAOInterface dao) {
+		if (dao == null) {
+			throw new IllegalArgumentException("El DAO decorado no puede ser nulo.");
+		}
+		this.dao = dao;
+	}
+
+	/**
+	 * @return El DAO envuelto por este decorador.
+	 */
+	public EmpleadoDAOInterface getDecorado() {
+		return dao;
+	}
+
+	/**
+	 * Llamada al DAO envuelto que se mide con
+	 * {@link EmpleadoDAODecorador#cronometrar(Llamada, LongConsumer)}.
+	 *
+	 * @param <T> El tipo del resultado.
+	 * @param <E> La excepción comprobada que puede lanzar, además de
+	 *            {@link SQLException}.
+	 */
+	@FunctionalInterface
+	protected interface Llamada<T, E extends Exception> {
+		T ejecutar() throws SQLException, E;
+	}
+
+	/**
+	 * Ejecuta una llamada y entrega su duración, en nanosegundos, al consumidor
+	 * indicado, también cuando la llamada termina con una excepción.
+	 *
+	 * @param <T>      El tipo del resultado.
+	 * @param <E>      La excepción comprobada que puede lanzar la llamada, además de
+	 *                 {@link SQLException}.
+	 * @param llamada  La llamada a medir.
+	 * @param duracion El consumidor de la duración de la llamada.
+	 * @return El resultado de la llamada.
+	 * @throws SQLException Si la llamada lanza la excepción.
+	 * @throws E            Si la llamada lanza la excepción.
+	 */
+	protected static <T, E extends Exception> T cronometrar(Llamada<T, E> llamada, LongConsumer duracion)
+			throws SQLException, E {
+		long inicio = System.nanoTime();
+		try {
+			return llamada.ejecutar();
+		} finally {
+			duracion.accept(System.nanoTime() - inicio);
+		}
+	}
+
+	@Override
+	public List<Empleado> obtenerTodosLosEmpleados() throws SQLException {
+		return dao.obtenerTodosLosEmpleados();
+	}
+
+	@Override
+	public List<Empleado> obtenerEmpleadosPaginados(String dniDesde, int tamanoPagina) throws SQLException {
+		return dao.obtenerEmpleadosPaginados(dniDesde, tamanoPagina);
+	}
+
+	@Override
+	public Double obtenerNominaPorDni(String dni) throws SQLException {
+		return dao.obtenerNominaPorDni(dni);
+	}
+
+	@Override
+	public List<Empleado> buscarEmpleadosPorAtributo(String atributo, String valor) throws SQLException {
+		return dao.buscarEmpleadosPorAtributo(atributo, valor);
+	}
+
+	@Override
+	public List<Empleado> buscarEmpleados(FiltroEmpleados filtro) throws SQLException {
+		return dao.buscarEmpleados(filtro);
+	}
+
+	@Override
+	public List<Empleado> buscarEmpleadosConSueldo(FiltroEmpleados filtro) throws SQLException {
+		return dao.buscarEmpleadosConSueldo(filtro);
+	}
+
+	@Override
+	public boolean guardarEmpleado(Empleado empleado) throws SQLException {
+		return dao.guardarEmpleado(empleado);
+	}
+
+	@Override
+	public String editar(Empleado empleado, String dniOriginal) throws SQLException {
+		return dao.editar(empleado, dniOriginal);
+	}
+
+	@Override
+	public boolean eliminar(String dni) throws SQLException {
+		return dao.eliminar(dni);
+	}
+
+	@Override
+	public ResultadoRecalculo recalcularNominas(int tamanoLote, int ventanaCommit) throws SQLException {
+		return dao.recalcularNominas(tamanoLote, ventanaCommit);
+	}
+
+	@Override
+	public ResultadoRecalculo recalcularNominasCambiadas(int tamanoLote) throws SQLException {
+		return dao.recalcularNominasCambiadas(tamanoLote);
+	}
+
+	@Override
+	public Set<String> obtenerDnisExistentes(Collection<String> dnis) throws SQLException {
+		return dao.obtenerDnisExistentes(dnis);
+	}
+
+	@Override
+	public int guardarEmpleadosEnLote(List<Empleado> empleados) throws SQLException {
+		return dao.guardarEmpleadosEnLote(empleados);
+	}
+
+	@Override
+	public List<String> editarEnLote(List<EdicionEmpleado> ediciones) throws SQLException {
+		return dao.editarEnLote(ediciones);
+	}
+
+	@Override
+	public long exportarEmpleadosConNomina(ProcesadorFilaNomina procesador) throws SQLException, IOException {
+		return dao.exportarEmpleadosConNomina(procesador);
+	}
+
+	@Override
+	public List<GrupoNomina> resumirNominas(String agrupacion) throws SQLException {
+		return dao.resumirNominas(agrupacion);
+	}
+}
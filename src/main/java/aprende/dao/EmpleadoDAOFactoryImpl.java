@@ -1,22 +1,137 @@
 package aprende.dao;
 
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import aprende.conexion.Conexion;
+import aprende.config.Configuracion;
+import aprende.model.Nomina;
+
 /**
  * Implementación concreta de la fábrica de DAOs de empleados.
  * Esta clase implementa la interfaz {@link EmpleadoDAOFactory} y es responsable de
- * crear una instancia de la clase {@link EmpleadoDAO}, que implementa la interfaz {@link EmpleadoDAOInterface}.
+ * crear una instancia de la clase {@link EmpleadoDAO}, que implementa la interfaz {@link EmpleadoDAOInterface},
+ * envuelta en los decoradores que activa la configuración.
+ * <p>
+ * La propiedad {@code nominas.dao.sueldo} elige cómo se guardan los sueldos: {@code copia} (por defecto)
+ * los guarda calculados en la tabla {@code nominas} ({@link EmpleadoDAO}) y {@code derivado} los calcula al
+ * leer a partir de las reglas vigentes de {@code reglas_sueldo} ({@link EmpleadoDAOSueldoDerivado}). El modo
+ * {@code derivado} exige {@code nominas.reglas.origen=bd}, para que los sueldos que calcula la aplicación
+ * salgan de las mismas reglas que los que calcula la base de datos.
+ * Con {@code copia}, {@code nominas.dao.resumenMaterializado} hace que las escrituras mantengan la tabla
+ * {@code resumen_nominas}, de la que se leen los totales por grupo. La tabla se reconstruye al crear el
+ * primer DAO con resumen materializado del proceso, porque mientras estuvo desactivado nadie la mantuvo.
+ * </p>
+ * <p>
+ * La propiedad {@code nominas.db.tipo} elige la base de datos: {@code mysql} (por defecto) o {@code h2},
+ * embebida en el proceso. Los dos modos de sueldo funcionan con las dos; lo único que cambia es el fetch size
+ * de las lecturas en streaming ({@link Conexion#getFetchSizeStreaming(Configuracion)}).
+ * </p>
+ * Decoradores:
+ * <ul>
+ * <li>{@code nominas.dao.consultasLentas.umbralMillis}: registra en el log las llamadas que
+ * tardan al menos ese tiempo ({@link EmpleadoDAOConsultasLentas}); negativo para desactivarlo.</li>
+ * <li>{@code nominas.dao.cronometrar}: mide la duración de cada método ({@link EmpleadoDAOCronometrado}).</li>
+ * <li>{@code nominas.dao.contarLlamadas}: cuenta las llamadas a cada método ({@link EmpleadoDAOContador}).</li>
+ * </ul>
+ * Si no hay ninguno activo se devuelve el {@link EmpleadoDAO} sin envolver, sin ningún coste añadido.
  */
 public class EmpleadoDAOFactoryImpl implements EmpleadoDAOFactory {
+    private static final Logger LOG = Logger.getLogger(EmpleadoDAOFactoryImpl.class.getName());
+
+    private final Configuracion config;
+
+    /**
+     * Constructor que usa la configuración de la aplicación.
+     */
+    public EmpleadoDAOFactoryImpl() {
+        this(Configuracion.getInstance());
+    }
+
+    /**
+     * Constructor que usa la configuración indicada.
+     *
+     * @param config La configuración con los decoradores que se activan.
+     */
+    public EmpleadoDAOFactoryImpl(Configuracion config) {
+        this.config = config;
+    }
 
     /**
      * Crea y devuelve una instancia de {@link EmpleadoDAO}.
      * Este método implementa la interfaz {@link EmpleadoDAOFactory} y se encarga de devolver una nueva
      * instancia de la clase {@link EmpleadoDAO}, que implementa las operaciones de acceso a datos para los empleados.
      * 
-     * @return Una nueva instancia de {@link EmpleadoDAO}, que implementa {@link EmpleadoDAOInterface}.
+     * @return Una nueva instancia de {@link EmpleadoDAO}, con los decoradores configurados,
+     *         que implementa {@link EmpleadoDAOInterface}.
      */
     @Override
     public EmpleadoDAOInterface crearEmpleadoDAO() {
-        // Devuelve una nueva instancia de EmpleadoDAO
-        return new EmpleadoDAO();
+        EmpleadoDAOInterface dao = crearDAOBase(modoSueldo(config),
+                config.getString("nominas.reglas.origen", Nomina.ORIGEN_INTERNO),
+                config.getBoolean("nominas.dao.resumenMaterializado", false));
+
+        // El registro de llamadas lentas va junto al DAO para medir solo el acceso a datos
+        long umbralLentas = config.getLong("nominas.dao.consultasLentas.umbralMillis", -1);
+        if (umbralLentas >= 0) {
+            dao = new EmpleadoDAOConsultasLentas(dao, umbralLentas);
+        }
+        if (config.getBoolean("nominas.dao.cronometrar", true)) {
+            dao = new EmpleadoDAOCronometrado(dao);
+        }
+        if (config.getBoolean("nominas.dao.contarLlamadas", false)) {
+            dao = new EmpleadoDAOContador(dao);
+        }
+        return dao;
+    }
+
+    /**
+     * Indica si la configuración elige el modo de sueldo {@code derivado}, en el que el
+     * sueldo de cada empleado solo es el de la base de datos si se lee de ella.
+     *
+     * @param config La configuración de la aplicación.
+     * @return true si {@code nominas.dao.sueldo=derivado}.
+     */
+    public static boolean esSueldoDerivado(Configuracion config) {
+        return "derivado".equals(modoSueldo(config));
+    }
+
+    private static String modoSueldo(Configuracion config) {
+        return config.getString("nominas.dao.sueldo", "copia");
+    }
+
+    // Si falla, el DAO lo vuelve a intentar antes de leer el resumen por primera vez
+    private static void reconstruirResumen() {
+        try {
+            DeltasResumenNominas.reconstruirAlActivar();
+        } catch (SQLException e) {
+            LOG.log(Level.WARNING, "No se pudo reconstruir el resumen materializado de nóminas", e);
+        }
+    }
+
+    // DAO sin decorar según el modo de guardar los sueldos
+    private static EmpleadoDAO crearDAOBase(String modoSueldo, String origenReglas, boolean resumenMaterializado) {
+        switch (modoSueldo) {
+            case "copia":
+                if (resumenMaterializado) {
+                    reconstruirResumen();
+                }
+                return new EmpleadoDAO(resumenMaterializado);
+            case "derivado":
+                // Los sueldos cambian con las reglas sin que se escriba nada: no hay resumen que mantener
+                if (resumenMaterializado) {
+                    throw new IllegalArgumentException(
+                            "nominas.dao.resumenMaterializado solo se admite con nominas.dao.sueldo=copia");
+                }
+                // Las reglas de la aplicación y las de la vista nominas_derivadas deben ser las mismas
+                if (!Nomina.ORIGEN_BD.equals(origenReglas)) {
+                    throw new IllegalArgumentException(
+                            "nominas.dao.sueldo=derivado solo se admite con nominas.reglas.origen=" + Nomina.ORIGEN_BD);
+                }
+                return new EmpleadoDAOSueldoDerivado();
+            default:
+                throw new IllegalArgumentException("Modo de sueldo desconocido en nominas.dao.sueldo: " + modoSueldo);
+        }
     }
 }
@@ -1,9 +1,16 @@
 package aprende.dao;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
+import aprende.model.EdicionEmpleado;
 import aprende.model.Empleado;
+import aprende.model.FiltroEmpleados;
+import aprende.model.GrupoNomina;
+import aprende.model.ResultadoRecalculo;
 
 /**
  * Interfaz que define las operaciones de acceso a datos para los empleados.
@@ -20,6 +27,18 @@ public interface EmpleadoDAOInterface {
      */
     List<Empleado> obtenerTodosLosEmpleados() throws SQLException;
 
+    /**
+     * Obtiene una página de empleados ordenados por DNI mediante paginación por clave
+     * (keyset): se devuelven los empleados cuyo DNI es posterior al cursor indicado,
+     * de modo que el coste de cada página no depende del tamaño de la tabla.
+     * 
+     * @param dniDesde El DNI del último empleado de la página anterior, o {@code null} para la primera página.
+     * @param tamanoPagina El número máximo de empleados a devolver.
+     * @return Una lista con los empleados de la página, ordenados por DNI.
+     * @throws SQLException Si ocurre un error al consultar la base de datos.
+     */
+    List<Empleado> obtenerEmpleadosPaginados(String dniDesde, int tamanoPagina) throws SQLException;
+
     /**
      * Obtiene la nómina (salario) de un empleado dado su DNI.
      * 
@@ -36,9 +55,32 @@ public interface EmpleadoDAOInterface {
      * @param valor El valor del atributo por el que se realiza la búsqueda.
      * @return Una lista de empleados que coinciden con el atributo y valor proporcionados.
      * @throws SQLException Si ocurre un error al consultar la base de datos.
+     * @throws IllegalArgumentException Si el atributo no está admitido o el valor no es válido.
      */
     List<Empleado> buscarEmpleadosPorAtributo(String atributo, String valor) throws SQLException;
 
+    /**
+     * Busca los empleados que cumplen todos los criterios del filtro (prefijo del
+     * nombre, DNI, sexo y rangos de categoría y años), ordenados por DNI.
+     * 
+     * @param filtro Los criterios de búsqueda.
+     * @return Una lista con los empleados encontrados, como máximo el límite del filtro.
+     * @throws SQLException Si ocurre un error al consultar la base de datos.
+     */
+    List<Empleado> buscarEmpleados(FiltroEmpleados filtro) throws SQLException;
+
+    /**
+     * Busca los empleados que cumplen todos los criterios del filtro, como
+     * {@link #buscarEmpleados(FiltroEmpleados)}, y asigna a cada uno el sueldo que
+     * tiene en la base de datos, leído en la misma consulta.
+     * 
+     * @param filtro Los criterios de búsqueda.
+     * @return Una lista con los empleados encontrados y su {@code sueldoTotal}, que es
+     *         {@link aprende.model.Nomina#SUELDO_INVALIDO} si el empleado no tiene sueldo.
+     * @throws SQLException Si ocurre un error al consultar la base de datos.
+     */
+    List<Empleado> buscarEmpleadosConSueldo(FiltroEmpleados filtro) throws SQLException;
+
     /**
      * Guarda un nuevo empleado en la base de datos.
      * 
@@ -66,4 +108,91 @@ public interface EmpleadoDAOInterface {
      * @throws SQLException Si ocurre un error al eliminar el empleado de la base de datos.
      */
     boolean eliminar(String dni) throws SQLException;
+
+    /**
+     * Recalcula la nómina de todos los empleados de la base de datos.
+     * 
+     * Los empleados se leen en streaming, el sueldo se calcula por lotes con
+     * {@link aprende.model.Nomina} y la tabla de nóminas se actualiza mediante
+     * actualizaciones por lotes de JDBC, confirmando la transacción cada vez que
+     * se completa una ventana de commit.
+     * 
+     * @param tamanoLote El número de filas que se envían en cada lote JDBC.
+     * @param ventanaCommit El número de filas tras el que se confirma la transacción.
+     * @return El resultado del recálculo con sus contadores y su rendimiento.
+     * @throws SQLException Si ocurre un error al leer o actualizar la base de datos.
+     */
+    ResultadoRecalculo recalcularNominas(int tamanoLote, int ventanaCommit) throws SQLException;
+
+    /**
+     * Recalcula la nómina solo de los empleados de las categorías cuyas reglas de
+     * sueldo han cambiado desde el último recálculo, según el registro de cambios que
+     * anota {@link aprende.model.Nomina} al recargar las reglas. Las altas y ediciones
+     * no se anotan: cada escritura ya guarda el sueldo calculado con las reglas
+     * vigentes. El coste depende del número de empleados de esas categorías, no del
+     * total.
+     * 
+     * @param tamanoLote El número de empleados que se procesan en cada lote y en cada transacción.
+     * @return El resultado del recálculo: las filas leídas son los empleados recalculados.
+     * @throws SQLException Si ocurre un error al leer o actualizar la base de datos.
+     */
+    ResultadoRecalculo recalcularNominasCambiadas(int tamanoLote) throws SQLException;
+
+    /**
+     * Comprueba en una sola consulta cuáles de los DNI indicados pertenecen ya a un empleado.
+     * 
+     * @param dnis Los DNI a comprobar.
+     * @return El subconjunto de DNI que ya existen en la base de datos.
+     * @throws SQLException Si ocurre un error al consultar la base de datos.
+     */
+    Set<String> obtenerDnisExistentes(Collection<String> dnis) throws SQLException;
+
+    /**
+     * Guarda un bloque de empleados nuevos, con sus nóminas, en una única transacción
+     * mediante inserciones por lotes de JDBC. Si alguna inserción falla, no se guarda
+     * ningún empleado del bloque.
+     * 
+     * @param empleados Los empleados a guardar, ya validados y sin DNI repetidos.
+     * @return El número de empleados guardados.
+     * @throws SQLException Si ocurre un error al guardar el bloque.
+     */
+    int guardarEmpleadosEnLote(List<Empleado> empleados) throws SQLException;
+
+    /**
+     * Aplica varias ediciones de empleados con lotes de JDBC y una sola confirmación
+     * (group commit). Las ediciones deben ser independientes entre sí: ningún DNI,
+     * original o nuevo, puede aparecer en más de una.
+     * 
+     * Si alguna edición del lote no puede aplicarse, se deshace el lote y cada edición
+     * se aplica por separado con {@link #editar(Empleado, String)}, de modo que cada
+     * una obtiene su propio resultado.
+     * 
+     * @param ediciones Las ediciones a aplicar.
+     * @return El mensaje de resultado de cada edición, en el mismo orden, con el formato de
+     *         {@link #editar(Empleado, String)}.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    List<String> editarEnLote(List<EdicionEmpleado> ediciones) throws SQLException;
+
+    /**
+     * Recorre en streaming todos los empleados con su nómina ({@code empleados JOIN nominas})
+     * y entrega cada fila al procesador indicado, sin construir ninguna lista intermedia.
+     * 
+     * @param procesador El procesador que recibe cada fila.
+     * @return El número de filas procesadas.
+     * @throws SQLException Si ocurre un error al consultar la base de datos.
+     * @throws IOException Si el procesador falla al escribir una fila.
+     */
+    long exportarEmpleadosConNomina(ProcesadorFilaNomina procesador) throws SQLException, IOException;
+
+    /**
+     * Obtiene el número de empleados y la suma de sus sueldos por categoría, por sexo o
+     * por tramo de antigüedad, agregados en la base de datos.
+     * 
+     * @param agrupacion {@code categoria}, {@code sexo} o {@code antiguedad} (ver {@link GrupoNomina}).
+     * @return Los grupos con al menos un empleado, ordenados por grupo.
+     * @throws SQLException Si ocurre un error al consultar la base de datos.
+     * @throws IllegalArgumentException Si la agrupación no está admitida.
+     */
+    List<GrupoNomina> resumirNominas(String agrupacion) throws SQLException;
 }
@@ -0,0 +1,222 @@
+package aprende.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import aprende.model.EdicionEmpleado;
+import aprende.model.Empleado;
+import aprende.model.ResultadoRecalculo;
+
+/**
+ * Implementación de {@link EmpleadoDAOInterface} en la que el sueldo no se guarda:
+ * se calcula al leer con la vista {@code nominas_derivadas}, que une cada empleado
+ * con la regla de sueldo vigente de su categoría (vista {@code categorias_sueldo}
+ * sobre la tabla versionada {@code reglas_sueldo}).
+ *
+ * Las escrituras solo tocan la tabla de empleados, en una única sentencia, y la
+ * tabla {@code nominas} no se usa. Cambiar el sueldo de una categoría es escribir una
+ * fila de {@code reglas_sueldo} en lugar de un recálculo de toda la tabla, por lo que
+ * {@link #recalcularNominas(int, int)} no tiene nada que hacer. La categoría de cada
+ * empleado se valida contra las reglas vigentes.
+ *
+ * Se activa con {@code nominas.dao.sueldo=derivado} (ver {@link EmpleadoDAOFactoryImpl}).
+ */
+public class EmpleadoDAOSueldoDerivado extends EmpleadoDAO {
+	private static final Logger LOG = Logger.getLogger(EmpleadoDAOSueldoDerivado.class.getName());
+
+	/**
+	 * Lee los sueldos de la vista que los calcula a partir de la categoría.
+	 *
+	 * @return {@code nominas_derivadas}.
+	 */
+	@Override
+	protected String getTablaNominas() {
+		return "nominas_derivadas";
+	}
+
+	/**
+	 * Guarda un nuevo empleado con una sola sentencia. No hay nómina que insertar.
+	 *
+	 * @param empleado El empleado a guardar.
+	 * @return true si se guarda correctamente, false si el DNI ya existe o si falla la operación.
+	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
+	 * @throws IllegalArgumentException Si la categoría no tiene una regla de sueldo vigente.
+	 */
+	@Override
+	public boolean guardarEmpleado(Empleado empleado) throws SQLException {
+		int insertados;
+		try (Connection connection = obtenerConexion();
+				PreparedStatement statement = connection.prepareStatement(ConsultasSql.INSERTAR_EMPLEADO_VALIDADO)) {
+			asignarEmpleadoValidado(statement, empleado, 6);
+			insertados = statement.executeUpdate();
+		} catch (SQLException e) {
+			if (esClaveDuplicada(e)) {
+				// El DNI no se registra: es un dato personal
+				LOG.fine("Alta rechazada: el DNI ya existe.");
+			} else {
+				LOG.log(Level.SEVERE, "No se pudo guardar el empleado.", e);
+			}
+			return false;
+		}
+
+		if (insertados == 0) {
+			throw new IllegalArgumentException("Categoría inválida: " + empleado.getCategoria());
+		}
+		return true;
+	}
+
+	/**
+	 * Edita la información de un empleado existente con una sola sentencia. El sueldo
+	 * cambia solo, al leerlo, si cambian la categoría o los años.
+	 *
+	 * @param empleado    El empleado con la información actualizada.
+	 * @param dniOriginal El DNI del empleado antes de la edición.
+	 * @return Un mensaje que empieza por "Éxito" si se actualiza correctamente, o el motivo del error.
+	 * @throws SQLException Si ocurre un error al obtener la conexión.
+	 */
+	@Override
+	public String editar(Empleado empleado, String dniOriginal) throws SQLException {
+		try (Connection connection = obtenerConexion();
+				PreparedStatement statement = connection.prepareStatement(ConsultasSql.ACTUALIZAR_EMPLEADO_VALIDADO)) {
+			asignarEdicionValidada(statement, empleado, dniOriginal);
+			if (statement.executeUpdate() > 0) {
+				return MENSAJE_EDICION_CORRECTA;
+			}
+			return "Error: No se pudo actualizar la información del empleado.";
+		} catch (SQLException e) {
+			if (esClaveDuplicada(e)) {
+				return "Error: El DNI ya está en uso por otro empleado.";
+			}
+			LOG.log(Level.SEVERE, "No se pudo editar el empleado.", e);
+			return e.getMessage();
+		}
+	}
+
+	/**
+	 * No hace nada: los sueldos se calculan al leerlos, así que nunca están desfasados.
+	 *
+	 * @param tamanoLote    No se usa.
+	 * @param ventanaCommit No se usa.
+	 * @return Un resultado sin filas leídas ni actualizadas.
+	 */
+	@Override
+	public ResultadoRecalculo recalcularNominas(int tamanoLote, int ventanaCommit) {
+		if (tamanoLote <= 0 || ventanaCommit <= 0) {
+			throw new IllegalArgumentException("El tamaño de lote y la ventana de commit deben ser mayores que 0.");
+		}
+		return new ResultadoRecalculo(0, 0, 0, 0);
+	}
+
+	/**
+	 * No hace nada: los sueldos se calculan al leerlos, así que nunca están desfasados.
+	 *
+	 * @param tamanoLote No se usa.
+	 * @return Un resultado sin filas leídas ni actualizadas.
+	 */
+	@Override
+	public ResultadoRecalculo recalcularNominasCambiadas(int tamanoLote) {
+		if (tamanoLote <= 0) {
+			throw new IllegalArgumentException("El tamaño de lote debe ser mayor que 0.");
+		}
+		return new ResultadoRecalculo(0, 0, 0, 0);
+	}
+
+	/**
+	 * Guarda un bloque de empleados nuevos en una única transacción con un lote de
+	 * JDBC. Si alguna inserción falla, no se guarda ningún empleado del bloque.
+	 *
+	 * @param empleados Los empleados a guardar, ya validados y sin DNI repetidos.
+	 * @return El número de empleados guardados.
+	 * @throws SQLException Si ocurre un error al guardar el bloque.
+	 * @throws IllegalArgumentException Si algún empleado tiene una categoría sin sueldo.
+	 */
+	@Override
+	public int guardarEmpleadosEnLote(List<Empleado> empleados) throws SQLException {
+		int total = empleados.size();
+		if (total == 0) {
+			return 0;
+		}
+
+		try (Connection connection = obtenerConexion()) {
+			connection.setAutoCommit(false);
+			try (PreparedStatement insertEmpleados = connection.prepareStatement(ConsultasSql.INSERTAR_EMPLEADO_VALIDADO)) {
+				for (Empleado empleado : empleados) {
+					asignarEmpleadoValidado(insertEmpleados, empleado, 6);
+					insertEmpleados.addBatch();
+				}
+				for (int insertados : insertEmpleados.executeBatch()) {
+					if (insertados == 0) {
+						connection.rollback();
+						throw new IllegalArgumentException("El bloque contiene empleados con una categoría no válida.");
+					}
+				}
+				connection.commit();
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
+		}
+
+		return total;
+	}
+
+	/**
+	 * Aplica varias ediciones independientes con un lote de JDBC y una única
+	 * confirmación. Si alguna falla, se deshace el lote y cada edición se aplica por
+	 * separado con {@link #editar(Empleado, String)}.
+	 *
+	 * @param ediciones Las ediciones a aplicar, sin DNI repetidos entre ellas.
+	 * @return El mensaje de resultado de cada edición, en el mismo orden.
+	 * @throws SQLException Si ocurre un error al obtener la conexión.
+	 */
+	@Override
+	public List<String> editarEnLote(List<EdicionEmpleado> ediciones) throws SQLException {
+		List<String> mensajes = new ArrayList<>(ediciones.size());
+		if (ediciones.isEmpty()) {
+			return mensajes;
+		}
+
+		boolean aplicado = false;
+		try (Connection connection = obtenerConexion()) {
+			connection.setAutoCommit(false);
+			try (PreparedStatement updateEmpleados = connection.prepareStatement(ConsultasSql.ACTUALIZAR_EMPLEADO_VALIDADO)) {
+				for (EdicionEmpleado edicion : ediciones) {
+					asignarEdicionValidada(updateEmpleados, edicion.getEmpleado(), edicion.getDniOriginal());
+					updateEmpleados.addBatch();
+				}
+				aplicado = todasAplicadas(updateEmpleados.executeBatch());
+				if (aplicado) {
+					connection.commit();
+				} else {
+					connection.rollback();
+				}
+			} catch (SQLException e) {
+				connection.rollback();
+			}
+		}
+
+		for (EdicionEmpleado edicion : ediciones) {
+			mensajes.add(aplicado ? MENSAJE_EDICION_CORRECTA : editar(edicion.getEmpleado(), edicion.getDniOriginal()));
+		}
+		return mensajes;
+	}
+
+	// Columnas del empleado y la categoría que se valida en la posición indicada
+	private static void asignarEmpleadoValidado(PreparedStatement statement, Empleado empleado, int posicionCategoria)
+			throws SQLException {
+		asignarEmpleado(statement, empleado);
+		statement.setInt(posicionCategoria, empleado.getCategoria());
+	}
+
+	// Columnas del empleado, DNI original del WHERE y categoría que se valida
+	private static void asignarEdicionValidada(PreparedStatement statement, Empleado empleado, String dniOriginal)
+			throws SQLException {
+		asignarEmpleadoValidado(statement, empleado, 7);
+		statement.setString(6, dniOriginal);
+	}
+}
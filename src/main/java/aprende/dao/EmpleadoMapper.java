@@ -0,0 +1,52 @@
+package aprende.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import aprende.model.Empleado;
+
+/**
+ * Convierte las filas de la tabla de empleados en objetos {@link Empleado}.
+ * 
+ * Las columnas se leen por posición, en el orden definido por {@link #COLUMNAS},
+ * y el empleado se construye sin volver a validar los datos: ya se validaron al
+ * escribirse y la tabla los restringe. La validación se mantiene en el camino de
+ * escritura.
+ */
+final class EmpleadoMapper {
+
+	/** Columnas que deben seleccionarse, en este orden, para poder convertir la fila. */
+	static final String COLUMNAS = "nombre, dni, sexo, categoria, anyos";
+
+	// Clase de utilidad: no se instancia
+	private EmpleadoMapper() {
+	}
+
+	/**
+	 * Convierte la fila actual del ResultSet en un empleado.
+	 * 
+	 * @param resultSet El ResultSet posicionado en la fila a convertir.
+	 * @return El empleado de la fila.
+	 * @throws SQLException Si ocurre un error al leer las columnas.
+	 */
+	static Empleado mapear(ResultSet resultSet) throws SQLException {
+		return Empleado.desdeDatosValidados(resultSet.getString(1), resultSet.getString(2),
+				resultSet.getString(3).charAt(0), resultSet.getInt(4), resultSet.getInt(5));
+	}
+
+	/**
+	 * Convierte todas las filas restantes del ResultSet y las añade a la lista indicada.
+	 * 
+	 * @param resultSet      El ResultSet con las filas a convertir.
+	 * @param listaEmpleados La lista a la que se añaden los empleados.
+	 * @return La misma lista recibida.
+	 * @throws SQLException Si ocurre un error al recorrer el ResultSet.
+	 */
+	static List<Empleado> mapearTodos(ResultSet resultSet, List<Empleado> listaEmpleados) throws SQLException {
+		while (resultSet.next()) {
+			listaEmpleados.add(mapear(resultSet));
+		}
+		return listaEmpleados;
+	}
+}
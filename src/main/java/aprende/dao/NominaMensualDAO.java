@@ -0,0 +1,265 @@
+package aprende.dao;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import aprende.conexion.Conexion;
+import aprende.model.Nomina;
+import aprende.model.ParticionNomina;
+
+/**
+ * Acceso a las tablas de la nómina mensual: {@code particiones_nomina}, con el rango
+ * de DNI y el punto de control de cada partición, y {@code recibos_nomina}, con un
+ * recibo por empleado y mes.
+ *
+ * Cada partición se procesa con una sola conexión del pool, por páginas de DNI
+ * consecutivos ({@code dni > ?}, como en la paginación del listado). Cada página se
+ * escribe con un lote JDBC y se confirma junto con el punto de control de la
+ * partición, así que tras un fallo basta con continuar desde el último DNI confirmado:
+ * no se repite ni se pierde ningún recibo.
+ */
+public class NominaMensualDAO {
+	private static final String SQL_PARTICIONES = "SELECT particion, dni_desde, dni_hasta, ultimo_dni, recibos,"
+			+ " omitidos, completada FROM particiones_nomina WHERE periodo = ? ORDER BY particion";
+	private static final String SQL_INSERTAR_PARTICION =
+			"INSERT INTO particiones_nomina (periodo, particion, dni_desde, dni_hasta) VALUES(?,?,?,?)";
+	private static final String SQL_PUNTO_CONTROL = "UPDATE particiones_nomina SET ultimo_dni=?, recibos=?,"
+			+ " omitidos=?, completada=? WHERE periodo=? AND particion=?";
+	private static final String SQL_INSERTAR_RECIBO = "INSERT INTO recibos_nomina"
+			+ " (periodo, empleado_dni, categoria, anyos, sueldo_anual, importe_mensual) VALUES(?,?,?,?,?,?)";
+	private static final String SQL_CONTAR_EMPLEADOS = "SELECT COUNT(*) FROM empleados";
+	// Límite de la siguiente partición: el DNI que está 'tamaño' posiciones después del anterior
+	private static final String SQL_LIMITE_PARTICION =
+			"SELECT dni FROM empleados WHERE dni > ? ORDER BY dni LIMIT 1 OFFSET ?";
+	private static final String SQL_PAGINA = "SELECT dni, categoria, anyos FROM empleados"
+			+ " WHERE dni > ? AND dni <= ? ORDER BY dni LIMIT ?";
+	private static final String SQL_PAGINA_SIN_LIMITE = "SELECT dni, categoria, anyos FROM empleados"
+			+ " WHERE dni > ? ORDER BY dni LIMIT ?";
+
+	private static final int MESES = 12;
+
+	/**
+	 * Obtiene las particiones de la nómina de un mes con su punto de control.
+	 *
+	 * @param periodo El mes de la nómina (AAAA-MM).
+	 * @return Las particiones ordenadas por número, o una lista vacía si la nómina de ese mes no se ha iniciado.
+	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
+	 */
+	public List<ParticionNomina> obtenerParticiones(String periodo) throws SQLException {
+		List<ParticionNomina> particiones = new ArrayList<>();
+		try (Connection connection = Conexion.getConnection();
+				PreparedStatement statement = connection.prepareStatement(SQL_PARTICIONES)) {
+			statement.setString(1, periodo);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					particiones.add(new ParticionNomina(periodo, resultSet.getInt(1), resultSet.getString(2),
+							resultSet.getString(3), resultSet.getString(4), resultSet.getLong(5), resultSet.getLong(6),
+							resultSet.getBoolean(7)));
+				}
+			}
+		}
+		return particiones;
+	}
+
+	/**
+	 * Divide los empleados en rangos de DNI con el mismo número de empleados y guarda
+	 * las particiones de la nómina de un mes. Los rangos cubren todos los DNI posibles,
+	 * de modo que los empleados dados de alta después también quedan en alguna partición.
+	 *
+	 * Si otro proceso ha creado ya las particiones de ese mes, se devuelven las suyas.
+	 *
+	 * @param periodo         El mes de la nómina (AAAA-MM).
+	 * @param numero          El número de particiones deseado.
+	 * @param minimoEmpleados El número mínimo de empleados de cada partición: con pocos
+	 *                        empleados se crean menos particiones.
+	 * @return Las particiones creadas, ordenadas por número.
+	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
+	 */
+	public List<ParticionNomina> crearParticiones(String periodo, int numero, int minimoEmpleados)
+			throws SQLException {
+		if (numero <= 0 || minimoEmpleados <= 0) {
+			throw new IllegalArgumentException(
+					"El número de particiones y el mínimo de empleados deben ser mayores que 0.");
+		}
+
+		List<String> limites = new ArrayList<>();
+		try (Connection connection = Conexion.getConnection()) {
+			long empleados;
+			try (PreparedStatement statement = connection.prepareStatement(SQL_CONTAR_EMPLEADOS);
+					ResultSet resultSet = statement.executeQuery()) {
+				resultSet.next();
+				empleados = resultSet.getLong(1);
+			}
+
+			// Cada límite se busca a partir del anterior, así que el índice se recorre una sola vez
+			long tamano = Math.max((empleados + numero - 1) / numero, minimoEmpleados);
+			String anterior = "";
+			try (PreparedStatement statement = connection.prepareStatement(SQL_LIMITE_PARTICION)) {
+				for (int i = 1; i < numero && i * tamano < empleados; i++) {
+					statement.setString(1, anterior);
+					statement.setLong(2, tamano - 1);
+					try (ResultSet resultSet = statement.executeQuery()) {
+						if (!resultSet.next()) {
+							break;
+						}
+						anterior = resultSet.getString(1);
+					}
+					limites.add(anterior);
+				}
+			}
+		}
+
+		List<ParticionNomina> particiones = new ArrayList<>(limites.size() + 1);
+		for (int i = 0; i <= limites.size(); i++) {
+			String desde = i == 0 ? null : limites.get(i - 1);
+			String hasta = i == limites.size() ? null : limites.get(i);
+			particiones.add(new ParticionNomina(periodo, i, desde, hasta, null, 0, 0, false));
+		}
+
+		try (Connection connection = Conexion.getConnection()) {
+			connection.setAutoCommit(false);
+			try (PreparedStatement statement = connection.prepareStatement(SQL_INSERTAR_PARTICION)) {
+				for (ParticionNomina particion : particiones) {
+					statement.setString(1, periodo);
+					statement.setInt(2, particion.getNumero());
+					statement.setString(3, particion.getDniDesde());
+					statement.setString(4, particion.getDniHasta());
+					statement.addBatch();
+				}
+				statement.executeBatch();
+				connection.commit();
+			} catch (SQLException e) {
+				connection.rollback();
+				if (!EmpleadoDAO.esClaveDuplicada(e)) {
+					throw e;
+				}
+				return obtenerParticiones(periodo);
+			}
+		}
+		return particiones;
+	}
+
+	/**
+	 * Escribe el recibo de cada empleado de la partición que aún no lo tiene, a partir
+	 * de su punto de control. El sueldo se calcula con {@link Nomina} con las reglas
+	 * vigentes en la fecha indicada; los empleados cuya categoría no tiene regla se
+	 * omiten.
+	 *
+	 * @param particion  La partición a procesar.
+	 * @param fecha      La fecha cuyas reglas de sueldo se aplican.
+	 * @param tamanoLote El número de empleados de cada página (y de cada transacción).
+	 * @return La partición con su punto de control final.
+	 * @throws SQLException Si ocurre un error al leer o escribir; lo confirmado hasta entonces se mantiene.
+	 */
+	public ParticionNomina procesarParticion(ParticionNomina particion, LocalDate fecha, int tamanoLote)
+			throws SQLException {
+		if (tamanoLote <= 0) {
+			throw new IllegalArgumentException("El tamaño de lote debe ser mayor que 0.");
+		}
+		if (particion.isCompletada()) {
+			return particion;
+		}
+
+		Nomina nomina = Nomina.getInstance();
+		String periodo = particion.getPeriodo();
+		String dniHasta = particion.getDniHasta();
+		String ultimoDni = particion.getUltimoDni() != null ? particion.getUltimoDni()
+				: particion.getDniDesde() != null ? particion.getDniDesde() : "";
+		long recibos = particion.getRecibos();
+		long omitidos = particion.getOmitidos();
+
+		String[] dnis = new String[tamanoLote];
+		int[] categorias = new int[tamanoLote];
+		int[] anyos = new int[tamanoLote];
+		int[] sueldos = new int[tamanoLote];
+
+		try (Connection connection = Conexion.getConnection()) {
+			connection.setAutoCommit(false);
+			try (PreparedStatement pagina = connection
+					.prepareStatement(dniHasta != null ? SQL_PAGINA : SQL_PAGINA_SIN_LIMITE);
+					PreparedStatement insert = connection.prepareStatement(SQL_INSERTAR_RECIBO);
+					PreparedStatement puntoControl = connection.prepareStatement(SQL_PUNTO_CONTROL)) {
+				boolean completada = false;
+				while (!completada) {
+					int leidos = leerPagina(pagina, ultimoDni, dniHasta, tamanoLote, dnis, categorias, anyos);
+					int omitidosPagina = nomina.sueldos(categorias, anyos, sueldos, leidos, fecha);
+					for (int i = 0; i < leidos; i++) {
+						if (sueldos[i] == Nomina.SUELDO_INVALIDO) {
+							continue;
+						}
+						insert.setString(1, periodo);
+						insert.setString(2, dnis[i]);
+						insert.setInt(3, categorias[i]);
+						insert.setInt(4, anyos[i]);
+						insert.setInt(5, sueldos[i]);
+						insert.setBigDecimal(6, importeMensual(sueldos[i]));
+						insert.addBatch();
+					}
+					if (leidos > omitidosPagina) {
+						insert.executeBatch();
+					}
+
+					if (leidos > 0) {
+						ultimoDni = dnis[leidos - 1];
+					}
+					recibos += leidos - omitidosPagina;
+					omitidos += omitidosPagina;
+					completada = leidos < tamanoLote;
+
+					if (ultimoDni.isEmpty()) {
+						puntoControl.setNull(1, Types.CHAR);
+					} else {
+						puntoControl.setString(1, ultimoDni);
+					}
+					puntoControl.setLong(2, recibos);
+					puntoControl.setLong(3, omitidos);
+					puntoControl.setBoolean(4, completada);
+					puntoControl.setString(5, periodo);
+					puntoControl.setInt(6, particion.getNumero());
+					puntoControl.executeUpdate();
+					connection.commit();
+				}
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
+		}
+
+		return new ParticionNomina(periodo, particion.getNumero(), particion.getDniDesde(), dniHasta,
+				ultimoDni.isEmpty() ? null : ultimoDni, recibos, omitidos, true);
+	}
+
+	// Lee la siguiente página de la partición en los arrays y devuelve el número de empleados leídos
+	private static int leerPagina(PreparedStatement pagina, String ultimoDni, String dniHasta, int tamanoLote,
+			String[] dnis, int[] categorias, int[] anyos) throws SQLException {
+		int posicion = 1;
+		pagina.setString(posicion++, ultimoDni);
+		if (dniHasta != null) {
+			pagina.setString(posicion++, dniHasta);
+		}
+		pagina.setInt(posicion, tamanoLote);
+
+		int leidos = 0;
+		try (ResultSet resultSet = pagina.executeQuery()) {
+			while (resultSet.next()) {
+				dnis[leidos] = resultSet.getString(1);
+				categorias[leidos] = resultSet.getInt(2);
+				anyos[leidos] = resultSet.getInt(3);
+				leidos++;
+			}
+		}
+		return leidos;
+	}
+
+	// Importe de cada mes del sueldo anual, redondeado al céntimo
+	private static BigDecimal importeMensual(int sueldoAnual) {
+		return BigDecimal.valueOf(Math.round(sueldoAnual * 100.0 / MESES), 2);
+	}
+}
@@ -0,0 +1,24 @@
+package aprende.dao;
+
+import java.io.IOException;
+
+/**
+ * Recibe, una a una, las filas de empleados con su nómina que se leen en streaming
+ * de la base de datos, sin crear objetos intermedios.
+ */
+@FunctionalInterface
+public interface ProcesadorFilaNomina {
+
+    /**
+     * Procesa una fila de empleado con su sueldo.
+     * 
+     * @param nombre El nombre del empleado.
+     * @param dni El DNI del empleado.
+     * @param sexo El sexo del empleado.
+     * @param categoria La categoría del empleado.
+     * @param anyos Los años trabajados en la empresa.
+     * @param sueldo El sueldo guardado en la tabla de nóminas.
+     * @throws IOException Si ocurre un error al escribir la fila en su destino.
+     */
+    void procesar(String nombre, String dni, char sexo, int categoria, int anyos, double sueldo) throws IOException;
+}
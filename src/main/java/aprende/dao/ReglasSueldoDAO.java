@@ -0,0 +1,67 @@
+package aprende.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import aprende.conexion.Conexion;
+import aprende.model.ReglaSueldo;
+
+/**
+ * Acceso a la tabla {@code reglas_sueldo}, con las reglas de sueldo de cada categoría
+ * y la fecha desde la que se aplican, y al registro de las categorías cuyas reglas
+ * vigentes han cambiado ({@code cambios_categorias}).
+ */
+public class ReglasSueldoDAO {
+	private static final String SQL_REGLAS =
+			"SELECT categoria, vigente_desde, sueldo_base, incremento_anyo, sueldo_maximo FROM reglas_sueldo";
+	private static final String SQL_REGISTRAR_CAMBIO = "INSERT INTO cambios_categorias (categoria) VALUES(?)";
+
+	/**
+	 * Obtiene todas las reglas de sueldo, incluidas las ya sustituidas y las futuras.
+	 *
+	 * @return Las reglas, sin un orden concreto.
+	 * @throws SQLException Si ocurre un error al acceder a la base de datos.
+	 * @throws IllegalArgumentException Si alguna fila tiene valores no válidos.
+	 */
+	public List<ReglaSueldo> obtenerReglas() throws SQLException {
+		List<ReglaSueldo> reglas = new ArrayList<>();
+		try (Connection connection = Conexion.getConnection();
+				PreparedStatement statement = connection.prepareStatement(SQL_REGLAS);
+				ResultSet resultSet = statement.executeQuery()) {
+			while (resultSet.next()) {
+				int sueldoMaximo = resultSet.getInt("sueldo_maximo");
+				if (resultSet.wasNull()) {
+					sueldoMaximo = ReglaSueldo.SIN_MAXIMO;
+				}
+				reglas.add(new ReglaSueldo(resultSet.getInt("categoria"),
+						resultSet.getDate("vigente_desde").toLocalDate(), resultSet.getInt("sueldo_base"),
+						resultSet.getInt("incremento_anyo"), sueldoMaximo));
+			}
+		}
+		return reglas;
+	}
+
+	/**
+	 * Anota en el registro de cambios las categorías cuyas reglas vigentes han cambiado,
+	 * para que el recálculo incremental de nóminas
+	 * ({@link EmpleadoDAOInterface#recalcularNominasCambiadas(int)}) recalcule sus empleados.
+	 *
+	 * @param categorias Las categorías cambiadas.
+	 * @throws SQLException Si ocurre un error al escribir el registro.
+	 */
+	public void registrarCambios(Collection<Integer> categorias) throws SQLException {
+		try (Connection connection = Conexion.getConnection();
+				PreparedStatement statement = connection.prepareStatement(SQL_REGISTRAR_CAMBIO)) {
+			for (int categoria : categorias) {
+				statement.setInt(1, categoria);
+				statement.addBatch();
+			}
+			statement.executeBatch();
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package aprende.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias con cubetas logarítmicas de precisión fija, al estilo de
+ * HdrHistogram.
+ *
+ * <p>
+ * Cada potencia de dos se divide en {@value #SUBCUBETAS} cubetas iguales, de modo
+ * que el error relativo de cualquier percentil es como mucho de 1/{@value #SUBCUBETAS}
+ * (6,25 %) y el número de cubetas es fijo, sea cual sea el rango de valores. Los
+ * valores se registran en nanosegundos hasta unos 18 minutos; los mayores se
+ * acumulan en la última cubeta.
+ * </p>
+ *
+ * <p>
+ * {@link #registrar(long)} no reserva memoria ni usa cerrojos: solo incrementa
+ * contadores atómicos, así que el histograma puede estar siempre activo en
+ * producción. Las lecturas (percentiles, total y suma) no son instantáneas
+ * atómicas, lo que es aceptable para un sistema de métricas.
+ * </p>
+ */
+public final class Histograma {
+
+    // Bits de precisión de cada potencia de dos: 2^4 = 16 subcubetas
+    private static final int BITS_PRECISION = 4;
+    private static final int SUBCUBETAS = 1 << BITS_PRECISION;
+    // Valor máximo registrable con precisión (2^40 ns, unos 18 minutos)
+    private static final long VALOR_MAXIMO = (1L << 40) - 1;
+    private static final int NUMERO_CUBETAS = indice(VALOR_MAXIMO) + 1;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(NUMERO_CUBETAS);
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra un valor (normalmente una duración en nanosegundos). Los valores
+     * negativos se registran como 0.
+     *
+     * @param valor El valor a registrar.
+     */
+    public void registrar(long valor) {
+        long acotado = valor < 0 ? 0 : valor;
+        cubetas.incrementAndGet(indice(Math.min(acotado, VALOR_MAXIMO)));
+        suma.add(acotado);
+        long actual = maximo.get();
+        while (acotado > actual && !maximo.compareAndSet(actual, acotado)) {
+            actual = maximo.get();
+        }
+    }
+
+    /**
+     * Registra el tiempo transcurrido desde el instante indicado.
+     *
+     * @param inicioNanos El instante inicial, obtenido con {@link System#nanoTime()}.
+     */
+    public void registrarDesde(long inicioNanos) {
+        registrar(System.nanoTime() - inicioNanos);
+    }
+
+    /**
+     * @return El número de valores registrados.
+     */
+    public long getTotal() {
+        long registrados = 0;
+        for (int i = 0; i < NUMERO_CUBETAS; i++) {
+            registrados += cubetas.get(i);
+        }
+        return registrados;
+    }
+
+    /**
+     * @return La suma de los valores registrados.
+     */
+    public long getSuma() {
+        return suma.sum();
+    }
+
+    /**
+     * @return El mayor valor registrado, o 0 si no hay ninguno.
+     */
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Calcula un percentil de los valores registrados. El resultado es el límite
+     * superior de la cubeta en la que cae el percentil, sin superar el máximo
+     * registrado.
+     *
+     * @param cuantil El cuantil, entre 0 y 1 (por ejemplo, 0.99 para el percentil 99).
+     * @return El valor del percentil, o 0 si no hay valores registrados.
+     */
+    public long getPercentil(double cuantil) {
+        if (cuantil < 0 || cuantil > 1) {
+            throw new IllegalArgumentException("El cuantil debe estar entre 0 y 1.");
+        }
+        long registrados = getTotal();
+        if (registrados == 0) {
+            return 0;
+        }
+
+        long posicion = Math.max(1, (long) Math.ceil(cuantil * registrados));
+        long acumulado = 0;
+        for (int i = 0; i < NUMERO_CUBETAS; i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= posicion) {
+                return Math.min(limiteSuperior(i), getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+
+    // Cubeta de un valor: exacta por debajo de SUBCUBETAS y logarítmica por encima
+    private static int indice(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int desplazamiento = 63 - Long.numberOfLeadingZeros(valor) - BITS_PRECISION;
+        int mantisa = (int) (valor >>> desplazamiento) & (SUBCUBETAS - 1);
+        return (desplazamiento + 1) * SUBCUBETAS + mantisa;
+    }
+
+    // Mayor valor que cae en la cubeta indicada
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int desplazamiento = indice / SUBCUBETAS - 1;
+        long base = (long) (SUBCUBETAS + indice % SUBCUBETAS) << desplazamiento;
+        return base + (1L << desplazamiento) - 1;
+    }
+}
@@ -0,0 +1,175 @@
+package aprende.metricas;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de los histogramas de latencia y los contadores de la aplicación, que se
+ * publican en formato de texto de Prometheus.
+ *
+ * <p>
+ * Cada métrica (por ejemplo, {@code nominas_dao_segundos}) tiene una serie por
+ * combinación de etiquetas ({@code metodo="guardarEmpleado"}), y cada serie es un
+ * {@link Histograma} (o un {@link LongAdder}, si la métrica es un contador). Las
+ * series se obtienen una sola vez, al crear el
+ * componente que los usa, y este guarda la referencia: así el camino de registro no
+ * construye claves ni consulta mapas. Las etiquetas deben tener pocos valores
+ * posibles (nombres de método u opción, nunca datos de usuario).
+ * </p>
+ *
+ * <p>
+ * Los tiempos se registran en nanosegundos y se publican en segundos, como resumen
+ * de Prometheus con los percentiles 50, 90, 99, 99,9 y el máximo.
+ * </p>
+ */
+public class RegistroMetricas {
+
+    private static final double[] CUANTILES = { 0.5, 0.9, 0.99, 0.999, 1.0 };
+    private static final double NANOS_POR_SEGUNDO = 1_000_000_000.0;
+
+    // Instancia única de la clase (Singleton)
+    private static volatile RegistroMetricas instance;
+
+    // Métricas por nombre, en orden alfabético
+    private final Map<String, Metrica> metricas = new ConcurrentSkipListMap<>();
+
+    /**
+     * Método estático para obtener el registro de métricas de la aplicación.
+     *
+     * @return El registro compartido.
+     */
+    public static RegistroMetricas getInstance() {
+        if (instance == null) {
+            synchronized (RegistroMetricas.class) {
+                if (instance == null) {
+                    instance = new RegistroMetricas();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Obtiene el histograma de una serie, creándolo si no existe. Las llamadas con el
+     * mismo nombre y las mismas etiquetas devuelven siempre el mismo histograma.
+     *
+     * @param nombre    El nombre de la métrica, con las reglas de Prometheus.
+     * @param ayuda     La descripción de la métrica.
+     * @param etiquetas Pares nombre/valor de las etiquetas de la serie.
+     * @return El histograma de la serie.
+     * @throws IllegalArgumentException Si las etiquetas no forman pares o si ya existe
+     *                                  un contador con ese nombre.
+     */
+    public Histograma histograma(String nombre, String ayuda, String... etiquetas) {
+        Metrica metrica = metrica(nombre, ayuda, false, etiquetas);
+        return metrica.series.computeIfAbsent(formatearEtiquetas(etiquetas), e -> new Histograma());
+    }
+
+    /**
+     * Obtiene el contador de una serie, creándolo si no existe. Las llamadas con el
+     * mismo nombre y las mismas etiquetas devuelven siempre el mismo contador.
+     *
+     * @param nombre    El nombre de la métrica, con las reglas de Prometheus (debe
+     *                  terminar en {@code _total}).
+     * @param ayuda     La descripción de la métrica.
+     * @param etiquetas Pares nombre/valor de las etiquetas de la serie.
+     * @return El contador de la serie.
+     * @throws IllegalArgumentException Si las etiquetas no forman pares o si ya existe
+     *                                  un histograma con ese nombre.
+     */
+    public LongAdder contador(String nombre, String ayuda, String... etiquetas) {
+        Metrica metrica = metrica(nombre, ayuda, true, etiquetas);
+        return metrica.contadores.computeIfAbsent(formatearEtiquetas(etiquetas), e -> new LongAdder());
+    }
+
+    private Metrica metrica(String nombre, String ayuda, boolean contador, String[] etiquetas) {
+        if (etiquetas.length % 2 != 0) {
+            throw new IllegalArgumentException("Las etiquetas deben indicarse como pares nombre/valor.");
+        }
+        Metrica metrica = metricas.computeIfAbsent(nombre, n -> new Metrica(ayuda, contador));
+        if (metrica.contador != contador) {
+            throw new IllegalArgumentException("La métrica " + nombre + " ya existe con otro tipo.");
+        }
+        return metrica;
+    }
+
+    /**
+     * Escribe todas las métricas en el formato de texto de Prometheus.
+     *
+     * @param out El destino de las métricas.
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    public void escribirPrometheus(Writer out) throws IOException {
+        for (Map.Entry<String, Metrica> entrada : metricas.entrySet()) {
+            String nombre = entrada.getKey();
+            Metrica metrica = entrada.getValue();
+            out.write("# HELP " + nombre + " " + metrica.ayuda + "\n");
+            out.write("# TYPE " + nombre + (metrica.contador ? " counter\n" : " summary\n"));
+
+            for (Map.Entry<String, LongAdder> serie : metrica.contadores.entrySet()) {
+                String etiquetas = serie.getKey();
+                String llaves = etiquetas.isEmpty() ? "" : "{" + etiquetas + "}";
+                out.write(nombre + llaves + " " + serie.getValue().sum() + "\n");
+            }
+            for (Map.Entry<String, Histograma> serie : metrica.series.entrySet()) {
+                String etiquetas = serie.getKey();
+                Histograma histograma = serie.getValue();
+                String separador = etiquetas.isEmpty() ? "" : ",";
+                for (double cuantil : CUANTILES) {
+                    out.write(nombre + "{" + etiquetas + separador + "quantile=\"" + cuantil + "\"} "
+                            + segundos(histograma.getPercentil(cuantil)) + "\n");
+                }
+                String llaves = etiquetas.isEmpty() ? "" : "{" + etiquetas + "}";
+                out.write(nombre + "_sum" + llaves + " " + segundos(histograma.getSuma()) + "\n");
+                out.write(nombre + "_count" + llaves + " " + histograma.getTotal() + "\n");
+            }
+        }
+    }
+
+    private static String segundos(long nanos) {
+        return Double.toString(nanos / NANOS_POR_SEGUNDO);
+    }
+
+    // metodo="guardar",opcion="listar", con los valores escapados según el formato de Prometheus
+    private static String formatearEtiquetas(String[] etiquetas) {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < etiquetas.length; i += 2) {
+            if (i > 0) {
+                texto.append(',');
+            }
+            texto.append(etiquetas[i]).append("=\"");
+            String valor = etiquetas[i + 1];
+            for (int j = 0; j < valor.length(); j++) {
+                char c = valor.charAt(j);
+                if (c == '\\' || c == '"') {
+                    texto.append('\\').append(c);
+                } else if (c == '\n') {
+                    texto.append("\\n");
+                } else {
+                    texto.append(c);
+                }
+            }
+            texto.append('"');
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Una métrica con su descripción y sus series, ordenadas por etiquetas. Según su
+     * tipo, solo se usa uno de los dos mapas de series.
+     */
+    private static final class Metrica {
+        private final String ayuda;
+        private final boolean contador;
+        private final Map<String, Histograma> series = new ConcurrentSkipListMap<>();
+        private final Map<String, LongAdder> contadores = new ConcurrentSkipListMap<>();
+
+        Metrica(String ayuda, boolean contador) {
+            this.ayuda = ayuda;
+            this.contador = contador;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package aprende.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché acotada de sueldos por DNI que se coloca delante de la consulta
+ * {@code obtenerNominaPorDni}.
+ *
+ * <p>
+ * Las entradas se expulsan cuando se supera la capacidad máxima (se descarta la
+ * usada hace más tiempo) o cuando caduca su tiempo de vida. La caché es única para
+ * toda la aplicación (Singleton), de modo que las escrituras realizadas desde
+ * cualquier {@link EmpleadoService} invalidan las mismas entradas que se leen.
+ * Expone contadores de aciertos, fallos, expulsiones y caducidades para poder
+ * dimensionarla.
+ * </p>
+ *
+ * <p>
+ * Para no guardar un sueldo leído antes de una escritura concurrente, cada
+ * invalidación recibe una versión y se recuerda la de los últimos DNI invalidados:
+ * una carga solo se descarta si su DNI se invalidó después de empezar, no por la
+ * invalidación de otros empleados.
+ * </p>
+ */
+public class CacheNominas {
+
+    /** Número máximo de sueldos que se guardan por defecto. */
+    public static final int CAPACIDAD_POR_DEFECTO = 10000;
+
+    /** Tiempo de vida por defecto de cada entrada, en milisegundos. */
+    public static final long TTL_POR_DEFECTO_MILLIS = 5 * 60 * 1000L;
+
+    // Número de DNI invalidados cuya versión se recuerda
+    private static final int MAX_INVALIDACIONES_RECORDADAS = 1024;
+
+    // Instancia única de la clase (Singleton)
+    private static volatile CacheNominas instance;
+
+    private final int capacidad;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entrada> entradas;
+
+    // Se incrementa en cada invalidación para descartar cargas que empezaron antes
+    private long version;
+    // Versión de la última invalidación de cada DNI, por orden de invalidación
+    private final LinkedHashMap<String, Long> invalidaciones;
+    // Se descartan las cargas que empezaron antes de esta versión: la del último vaciado
+    // o la de la invalidación más reciente que ya no se recuerda
+    private long versionMinima;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder expulsiones = new LongAdder();
+    private final LongAdder caducadas = new LongAdder();
+
+    /**
+     * Constructor que crea una caché con la capacidad y el tiempo de vida indicados.
+     *
+     * @param capacidad Número máximo de entradas (debe ser mayor que 0).
+     * @param ttlMillis Tiempo de vida de cada entrada en milisegundos (debe ser mayor que 0).
+     */
+    public CacheNominas(int capacidad, long ttlMillis) {
+        if (capacidad <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("La capacidad y el tiempo de vida deben ser mayores que 0.");
+        }
+        this.capacidad = capacidad;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        // Orden de acceso: la primera entrada es siempre la usada hace más tiempo
+        this.entradas = new LinkedHashMap<String, Entrada>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                if (size() > CacheNominas.this.capacidad) {
+                    expulsiones.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.invalidaciones = new LinkedHashMap<String, Long>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() > MAX_INVALIDACIONES_RECORDADAS) {
+                    versionMinima = Math.max(versionMinima, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Método estático para obtener la única instancia de la caché de la aplicación.
+     *
+     * @return La caché compartida.
+     */
+    public static CacheNominas getInstance() {
+        if (instance == null) {
+            synchronized (CacheNominas.class) {
+                if (instance == null) {
+                    instance = new CacheNominas(CAPACIDAD_POR_DEFECTO, TTL_POR_DEFECTO_MILLIS);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Busca el sueldo de un empleado en la caché.
+     *
+     * @param dni El DNI del empleado.
+     * @return El sueldo guardado, o {@code null} si no está o ha caducado.
+     */
+    public synchronized Double obtener(String dni) {
+        Entrada entrada = entradas.get(dni);
+        if (entrada == null) {
+            fallos.increment();
+            return null;
+        }
+        if (System.nanoTime() - entrada.creadaNanos >= ttlNanos) {
+            entradas.remove(dni);
+            caducadas.increment();
+            fallos.increment();
+            return null;
+        }
+        aciertos.increment();
+        return entrada.sueldo;
+    }
+
+    /**
+     * Obtiene la versión actual de la caché. Debe leerse antes de consultar la base
+     * de datos y pasarse a {@link #guardar(String, Double, long)}, para no guardar
+     * un valor que haya quedado obsoleto por una escritura concurrente.
+     *
+     * @return La versión actual.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Guarda el sueldo de un empleado si ese empleado no se ha invalidado, ni se ha
+     * vaciado la caché, desde que se leyó la versión indicada.
+     *
+     * @param dni     El DNI del empleado.
+     * @param sueldo  El sueldo leído de la base de datos.
+     * @param versionLectura La versión obtenida antes de la lectura.
+     */
+    public synchronized void guardar(String dni, Double sueldo, long versionLectura) {
+        if (dni == null || sueldo == null || versionLectura < versionMinima) {
+            return;
+        }
+        Long invalidacion = invalidaciones.get(dni);
+        if (invalidacion != null && invalidacion > versionLectura) {
+            return;
+        }
+        entradas.put(dni, new Entrada(sueldo, System.nanoTime()));
+    }
+
+    /**
+     * Elimina de la caché el sueldo de un empleado.
+     *
+     * @param dni El DNI del empleado.
+     */
+    public synchronized void invalidar(String dni) {
+        if (dni == null) {
+            return;
+        }
+        version++;
+        entradas.remove(dni);
+        // Se quita antes de volver a añadirlo para que quede el último en el orden
+        invalidaciones.remove(dni);
+        invalidaciones.put(dni, version);
+    }
+
+    /**
+     * Vacía la caché por completo, por ejemplo tras un recálculo masivo de nóminas.
+     */
+    public synchronized void invalidarTodo() {
+        version++;
+        versionMinima = version;
+        entradas.clear();
+        invalidaciones.clear();
+    }
+
+    /**
+     * Elimina las entradas caducadas. No es necesario llamarlo para que la caché sea
+     * correcta, pero permite liberar memoria en periodos de poca actividad.
+     */
+    public synchronized void purgarCaducadas() {
+        long ahora = System.nanoTime();
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            if (ahora - it.next().creadaNanos >= ttlNanos) {
+                it.remove();
+                caducadas.increment();
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número de entradas guardadas actualmente.
+     *
+     * @return El número de entradas.
+     */
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    /**
+     * Obtiene la capacidad máxima de la caché.
+     *
+     * @return La capacidad.
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Obtiene el número de consultas resueltas desde la caché.
+     *
+     * @return Los aciertos.
+     */
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    /**
+     * Obtiene el número de consultas que han tenido que ir a la base de datos.
+     *
+     * @return Los fallos.
+     */
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    /**
+     * Obtiene el número de entradas expulsadas por superar la capacidad.
+     *
+     * @return Las expulsiones.
+     */
+    public long getExpulsiones() {
+        return expulsiones.sum();
+    }
+
+    /**
+     * Obtiene el número de entradas descartadas por haber caducado.
+     *
+     * @return Las entradas caducadas.
+     */
+    public long getCaducadas() {
+        return caducadas.sum();
+    }
+
+    /**
+     * Retorna una representación en cadena de los contadores de la caché.
+     *
+     * @return Una cadena con el estado de la caché.
+     */
+    @Override
+    public String toString() {
+        return "CacheNominas [tamano=" + getTamano() + ", capacidad=" + capacidad + ", aciertos=" + getAciertos()
+                + ", fallos=" + getFallos() + ", expulsiones=" + getExpulsiones() + ", caducadas="
+                + getCaducadas() + "]";
+    }
+
+    // Sueldo guardado junto al instante en que se cargó
+    private static final class Entrada {
+        private final Double sueldo;
+        private final long creadaNanos;
+
+        private Entrada(Double sueldo, long creadaNanos) {
+            this.sueldo = sueldo;
+            this.creadaNanos = creadaNanos;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package aprende.model;
+
+/**
+ * Edición pendiente de un empleado: sus nuevos datos y el DNI que tenía antes de
+ * editarlo, que puede ser distinto del nuevo.
+ */
+public class EdicionEmpleado {
+    private final Empleado empleado;
+    private final String dniOriginal;
+
+    /**
+     * Constructor que inicializa la edición.
+     *
+     * @param empleado    El empleado con los nuevos datos.
+     * @param dniOriginal El DNI del empleado antes de la edición.
+     */
+    public EdicionEmpleado(Empleado empleado, String dniOriginal) {
+        this.empleado = empleado;
+        this.dniOriginal = dniOriginal;
+    }
+
+    /**
+     * Obtiene el empleado con los nuevos datos.
+     *
+     * @return El empleado editado.
+     */
+    public Empleado getEmpleado() {
+        return empleado;
+    }
+
+    /**
+     * Obtiene el DNI del empleado antes de la edición.
+     *
+     * @return El DNI original.
+     */
+    public String getDniOriginal() {
+        return dniOriginal;
+    }
+
+    @Override
+    public String toString() {
+        return "EdicionEmpleado [dniOriginal=" + dniOriginal + ", empleado=" + empleado + "]";
+    }
+}
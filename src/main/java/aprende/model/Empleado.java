@@ -41,6 +41,32 @@ public class Empleado {
         setAnyos(anyos);
     }
 
+    /**
+     * Crea un empleado a partir de datos que ya fueron validados al escribirse,
+     * como las filas leídas de la tabla de empleados, sin volver a validarlos.
+     * 
+     * <p>
+     * Solo debe usarse en la capa de acceso a datos; los datos introducidos por
+     * el usuario deben pasar siempre por el constructor o los setters.
+     * </p>
+     * 
+     * @param nombre    Nombre del empleado.
+     * @param dni       DNI del empleado.
+     * @param sexo      Sexo del empleado.
+     * @param categoria Categoría del empleado.
+     * @param anyos     Años de experiencia del empleado.
+     * @return El empleado con los datos indicados.
+     */
+    public static Empleado desdeDatosValidados(String nombre, String dni, char sexo, int categoria, int anyos) {
+        Empleado empleado = new Empleado();
+        empleado.nombre = nombre;
+        empleado.dni = dni;
+        empleado.sexo = sexo;
+        empleado.categoria = categoria;
+        empleado.anyos = anyos;
+        return empleado;
+    }
+
     // Getters y Setters con validaciones
 
     /**
@@ -98,13 +124,15 @@ public class Empleado {
 
     /**
      * Establece el DNI del empleado. Debe tener 8 dígitos seguidos de una letra
-     * mayúscula.
+     * mayúscula; la letra de control se comprueba al dar de alta un DNI, no aquí,
+     * porque los empleados existentes pueden tener una letra incorrecta (ver
+     * {@link ValidadorDni}).
      * 
      * @param dni El DNI a establecer.
      * @throws IllegalArgumentException Si el formato del DNI no es válido.
      */
     public void setDni(String dni) {
-        if (dni == null || !dni.matches("[0-9]{8}[A-Z]")) {
+        if (!ValidadorDni.tieneFormato(dni)) {
             throw new IllegalArgumentException("El DNI debe tener 8 dígitos seguidos de una letra mayúscula.");
         }
         this.dni = dni;
@@ -173,6 +201,16 @@ public class Empleado {
         this.sueldoTotal = sueldoTotal;
     }
 
+    /**
+     * Indica si el empleado tiene sueldo, es decir, si hay una regla de sueldo para su
+     * categoría y sus años.
+     * 
+     * @return {@code false} si el sueldo total es {@link Nomina#SUELDO_INVALIDO}.
+     */
+    public boolean isSueldoValido() {
+        return sueldoTotal != Nomina.SUELDO_INVALIDO;
+    }
+
     /**
      * Retorna una representación en cadena de los datos del empleado.
      * 
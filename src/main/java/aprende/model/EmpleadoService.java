@@ -1,9 +1,21 @@
 package aprende.model;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import aprende.config.Configuracion;
 import aprende.dao.EmpleadoDAOInterface;
+import aprende.dao.ProcesadorFilaNomina;
 import aprende.dao.EmpleadoDAOFactory;
 import aprende.dao.EmpleadoDAOFactoryImpl;
 
@@ -14,7 +26,25 @@ import aprende.dao.EmpleadoDAOFactoryImpl;
  */
 public class EmpleadoService {
 
+    /** Número de filas por lote JDBC que se usa por defecto en el recálculo masivo. */
+    public static final int TAMANO_LOTE_RECALCULO = 1000;
+
+    /** Número de filas tras el que se confirma la transacción por defecto en el recálculo masivo. */
+    public static final int VENTANA_COMMIT_RECALCULO = 10000;
+
+    /** Número de filas del fichero que se guardan en cada transacción al importar empleados. */
+    public static final int TAMANO_BLOQUE_IMPORTACION = 1000;
+
+    // Número de columnas de cada fila del fichero de importación
+    private static final int COLUMNAS_IMPORTACION = 5;
+
     private EmpleadoDAOInterface empleadoDAO;
+    private final CacheNominas cacheNominas;
+    private final IndiceEmpleados indiceEmpleados;
+    // null si las ediciones no se agrupan
+    private final EscrituraAgrupada escrituraAgrupada;
+    // Con sueldo derivado, los sueldos de las búsquedas se leen de la base de datos
+    private final boolean sueldoDerivado;
 
     /**
      * Constructor de la clase EmpleadoService.
@@ -25,6 +55,10 @@ public class EmpleadoService {
         // Usamos la fábrica para obtener la instancia del DAO
         EmpleadoDAOFactory factory = new EmpleadoDAOFactoryImpl();
         this.empleadoDAO = factory.crearEmpleadoDAO();
+        this.cacheNominas = CacheNominas.getInstance();
+        this.indiceEmpleados = IndiceEmpleados.getInstance();
+        this.escrituraAgrupada = EscrituraAgrupada.estaActivado() ? EscrituraAgrupada.getInstance() : null;
+        this.sueldoDerivado = EmpleadoDAOFactoryImpl.esSueldoDerivado(Configuracion.getInstance());
     }
 
     /**
@@ -37,27 +71,88 @@ public class EmpleadoService {
         return empleadoDAO.obtenerTodosLosEmpleados();
     }
 
+    /**
+     * Obtiene una página de empleados ordenados por DNI, a partir del DNI del
+     * último empleado de la página anterior.
+     * 
+     * @param dniDesde El cursor de la página, o {@code null} para la primera página.
+     * @param tamanoPagina El número máximo de empleados a devolver.
+     * @return Lista con los empleados de la página.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    public List<Empleado> obtenerEmpleadosPaginados(String dniDesde, int tamanoPagina) throws SQLException {
+        return empleadoDAO.obtenerEmpleadosPaginados(dniDesde, tamanoPagina);
+    }
+
     /**
      * Obtiene la nómina de un empleado dada su identificación (DNI).
+     * Primero se consulta la caché de nóminas y solo si no está se accede a la
+     * base de datos, guardando después el resultado en la caché.
      * 
      * @param dni El DNI del empleado.
      * @return El monto de la nómina del empleado.
      * @throws SQLException Si ocurre un error al acceder a la base de datos.
      */
     public Double obtenerNominaPorDni(String dni) throws SQLException {
-        return empleadoDAO.obtenerNominaPorDni(dni);
+        Double sueldo = cacheNominas.obtener(dni);
+        if (sueldo != null) {
+            return sueldo;
+        }
+
+        long version = cacheNominas.getVersion();
+        sueldo = empleadoDAO.obtenerNominaPorDni(dni);
+        cacheNominas.guardar(dni, sueldo, version);
+        return sueldo;
     }
 
     /**
-     * Busca empleados según un atributo específico y su valor.
+     * Busca empleados según un atributo específico y su valor. Si el índice en
+     * memoria está cargado, la búsqueda se resuelve en él sin acceder a la base de datos.
      * 
-     * @param atributo El nombre del atributo de búsqueda (por ejemplo, "nombre", "departamento").
+     * @param atributo El nombre del atributo de búsqueda (por ejemplo, "nombre" o "categoria").
      * @param valor El valor que se desea buscar para el atributo indicado.
      * @return Lista de empleados que coinciden con el atributo y valor dados.
      * @throws SQLException Si ocurre un error al acceder a la base de datos.
      */
     public List<Empleado> buscarEmpleadosPorAtributo(String atributo, String valor) throws SQLException {
-        return empleadoDAO.buscarEmpleadosPorAtributo(atributo, valor);
+        List<Empleado> encontrados = indiceEmpleados.buscar(FiltroEmpleados.desdeAtributo(atributo, valor));
+        return encontrados != null ? encontrados : empleadoDAO.buscarEmpleadosPorAtributo(atributo, valor);
+    }
+
+    /**
+     * Busca los empleados que cumplen todos los criterios del filtro. Si el índice
+     * en memoria está cargado, la búsqueda se resuelve en él sin acceder a la base de datos.
+     * 
+     * @param filtro Los criterios de búsqueda.
+     * @return Lista de empleados que cumplen el filtro, ordenados por DNI.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    public List<Empleado> buscarEmpleados(FiltroEmpleados filtro) throws SQLException {
+        List<Empleado> encontrados = indiceEmpleados.buscar(filtro);
+        return encontrados != null ? encontrados : empleadoDAO.buscarEmpleados(filtro);
+    }
+
+    /**
+     * Busca los empleados que cumplen todos los criterios del filtro y asigna a cada
+     * uno su sueldo en el campo {@code sueldoTotal}.
+     * 
+     * Con sueldo guardado ({@code nominas.dao.sueldo=copia}) la búsqueda se resuelve
+     * como {@link #buscarEmpleados(FiltroEmpleados)} y los sueldos se calculan con
+     * {@link #calcularSueldos(List)}. Con sueldo derivado el sueldo es el que calcula
+     * la base de datos con sus reglas vigentes, así que se lee de la vista
+     * {@code nominas_derivadas} en la misma consulta de búsqueda, sin pasar por el índice.
+     * 
+     * @param filtro Los criterios de búsqueda.
+     * @return Lista de empleados que cumplen el filtro con su sueldo, ordenados por DNI.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    public List<Empleado> buscarEmpleadosConSueldo(FiltroEmpleados filtro) throws SQLException {
+        if (sueldoDerivado) {
+            return empleadoDAO.buscarEmpleadosConSueldo(filtro);
+        }
+        List<Empleado> encontrados = buscarEmpleados(filtro);
+        calcularSueldos(encontrados);
+        return encontrados;
     }
 
     /**
@@ -68,11 +163,22 @@ public class EmpleadoService {
      * @throws SQLException Si ocurre un error al acceder a la base de datos.
      */
     public boolean guardarEmpleado(Empleado empleado) throws SQLException {
-        return empleadoDAO.guardarEmpleado(empleado);
+        try (IndiceEmpleados.Escritura escritura = indiceEmpleados.iniciarEscritura(List.of(empleado.getDni()))) {
+            boolean guardado = empleadoDAO.guardarEmpleado(empleado);
+            if (guardado) {
+                escritura.guardar(empleado);
+            }
+            return guardado;
+        } finally {
+            cacheNominas.invalidar(empleado.getDni());
+        }
     }
 
     /**
-     * Edita la información de un empleado en la base de datos.
+     * Edita la información de un empleado en la base de datos. Si la escritura
+     * agrupada está activada, la edición se aplica junto con las demás que lleguen a
+     * la vez (ver {@link #editarEmpleadoAgrupado(Empleado, String)}) y el método
+     * espera a que esté confirmada.
      * 
      * @param empleado El empleado con los nuevos datos a guardar.
      * @param dniOriginal El DNI del empleado antes de ser editado.
@@ -80,7 +186,92 @@ public class EmpleadoService {
      * @throws SQLException Si ocurre un error al acceder a la base de datos.
      */
     public String editarEmpleado(Empleado empleado, String dniOriginal) throws SQLException {
-        return empleadoDAO.editar(empleado, dniOriginal);
+        if (escrituraAgrupada != null) {
+            return esperarEdicion(editarEmpleadoAgrupado(empleado, dniOriginal));
+        }
+        try (IndiceEmpleados.Escritura escritura = indiceEmpleados
+                .iniciarEscritura(List.of(dniOriginal, empleado.getDni()))) {
+            String mensaje = empleadoDAO.editar(empleado, dniOriginal);
+            if (mensaje.startsWith("Éxito")) {
+                escritura.eliminar(dniOriginal);
+                escritura.guardar(empleado);
+            }
+            return mensaje;
+        } finally {
+            // Se invalidan tanto el DNI anterior como el nuevo, por si ha cambiado
+            cacheNominas.invalidar(dniOriginal);
+            cacheNominas.invalidar(empleado.getDni());
+        }
+    }
+
+    /**
+     * Deja la edición de un empleado en el canal de {@link EscrituraAgrupada}, que la
+     * aplica en lote con las demás ediciones pendientes. El índice y la caché de
+     * nóminas se actualizan al completarse la edición, y hasta entonces los dos DNI
+     * quedan bloqueados para las demás escrituras del servicio.
+     * 
+     * @param empleado El empleado con los nuevos datos a guardar.
+     * @param dniOriginal El DNI del empleado antes de ser editado.
+     * @return Un futuro que se completa con el mensaje de resultado cuando la edición está confirmada,
+     *         o con una {@link SQLException} si se agota la espera a otra escritura de los mismos DNI.
+     * @throws IllegalStateException Si la escritura agrupada no está activada.
+     * @throws IllegalArgumentException Si la categoría del empleado no tiene sueldo asignado.
+     */
+    public CompletableFuture<String> editarEmpleadoAgrupado(Empleado empleado, String dniOriginal) {
+        if (escrituraAgrupada == null) {
+            throw new IllegalStateException("La escritura agrupada no está activada.");
+        }
+        // Se valida antes de encolar para que un dato erróneo no haga fallar el lote de otros
+        Nomina.getInstance().sueldo(empleado);
+
+        IndiceEmpleados.Escritura escritura;
+        try {
+            escritura = indiceEmpleados.iniciarEscritura(List.of(dniOriginal, empleado.getDni()));
+        } catch (SQLException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<String> futuro;
+        try {
+            futuro = escrituraAgrupada.editar(empleado, dniOriginal);
+        } catch (RuntimeException e) {
+            escritura.close();
+            throw e;
+        }
+        return futuro.whenComplete((mensaje, error) -> {
+            try {
+                if (mensaje != null && mensaje.startsWith("Éxito")) {
+                    escritura.eliminar(dniOriginal);
+                    escritura.guardar(empleado);
+                }
+                cacheNominas.invalidar(dniOriginal);
+                cacheNominas.invalidar(empleado.getDni());
+            } finally {
+                escritura.close();
+            }
+        });
+    }
+
+    // Espera el resultado de una edición agrupada como mucho el tiempo configurado en el canal, con las
+    // excepciones de una edición directa
+    private String esperarEdicion(CompletableFuture<String> futuro) throws SQLException {
+        try {
+            return futuro.get(escrituraAgrupada.getEsperaResultadoMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Se ha interrumpido la espera de la edición.", e);
+        } catch (TimeoutException e) {
+            // La edición sigue en el canal y puede aplicarse más tarde
+            throw new SQLException("La edición no se ha confirmado a tiempo; compruebe más tarde si se ha aplicado.", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof SQLException) {
+                throw (SQLException) causa;
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new SQLException("No se pudo aplicar la edición.", causa);
+        }
     }
 
     /**
@@ -91,7 +282,313 @@ public class EmpleadoService {
      * @throws SQLException Si ocurre un error al acceder a la base de datos.
      */
     public boolean eliminarEmpleado(String dni) throws SQLException {
-        return empleadoDAO.eliminar(dni);
+        try (IndiceEmpleados.Escritura escritura = indiceEmpleados.iniciarEscritura(List.of(dni))) {
+            boolean eliminado = empleadoDAO.eliminar(dni);
+            if (eliminado) {
+                escritura.eliminar(dni);
+            }
+            return eliminado;
+        } finally {
+            cacheNominas.invalidar(dni);
+        }
+    }
+
+    /**
+     * Recalcula la nómina de todos los empleados con los valores por defecto
+     * de tamaño de lote y ventana de commit.
+     * 
+     * @return El resultado del recálculo con sus contadores y su rendimiento.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    public ResultadoRecalculo recalcularNominas() throws SQLException {
+        return recalcularNominas(TAMANO_LOTE_RECALCULO, VENTANA_COMMIT_RECALCULO);
+    }
+
+    /**
+     * Recalcula la nómina de todos los empleados, por ejemplo tras un cambio
+     * en los sueldos base de {@link Nomina}.
+     * 
+     * @param tamanoLote El número de filas que se envían en cada lote JDBC.
+     * @param ventanaCommit El número de filas tras el que se confirma la transacción.
+     * @return El resultado del recálculo con sus contadores y su rendimiento.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    public ResultadoRecalculo recalcularNominas(int tamanoLote, int ventanaCommit) throws SQLException {
+        try {
+            return empleadoDAO.recalcularNominas(tamanoLote, ventanaCommit);
+        } finally {
+            cacheNominas.invalidarTodo();
+        }
+    }
+
+    /**
+     * Recalcula la nómina de los empleados de las categorías cuyas reglas han cambiado
+     * desde el último recálculo, con el tamaño de lote por defecto.
+     * 
+     * @return El resultado del recálculo con sus contadores y su rendimiento.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    public ResultadoRecalculo recalcularNominasCambiadas() throws SQLException {
+        return recalcularNominasCambiadas(TAMANO_LOTE_RECALCULO);
+    }
+
+    /**
+     * Recalcula la nómina solo de los empleados de las categorías cuyas reglas de
+     * sueldo han cambiado desde el último recálculo (por ejemplo, en el proceso
+     * nocturno tras una recarga de las reglas).
+     * 
+     * @param tamanoLote El número de empleados que se procesan en cada lote y en cada transacción.
+     * @return El resultado del recálculo con sus contadores y su rendimiento.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    public ResultadoRecalculo recalcularNominasCambiadas(int tamanoLote) throws SQLException {
+        try {
+            return empleadoDAO.recalcularNominasCambiadas(tamanoLote);
+        } finally {
+            cacheNominas.invalidarTodo();
+        }
+    }
+
+    /**
+     * Ejecuta la nómina mensual de todos los empleados, o continúa la de ese mes si
+     * una ejecución anterior se interrumpió.
+     * 
+     * @param mes El mes de la nómina.
+     * @return El resultado de la ejecución.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     * @see NominaMensual
+     */
+    public ResultadoNominaMensual ejecutarNominaMensual(YearMonth mes) throws SQLException {
+        return NominaMensual.getInstance().ejecutar(mes);
+    }
+
+    /**
+     * Lanza en segundo plano la nómina mensual de todos los empleados (o continúa la
+     * de ese mes) y vuelve sin esperar a que termine.
+     * 
+     * @param mes El mes de la nómina.
+     * @return Un futuro que se completa con el resultado de la ejecución.
+     * @throws IllegalStateException Si la nómina de ese mes ya se está ejecutando.
+     * @see #obtenerProgresoNominaMensual(YearMonth)
+     */
+    public CompletableFuture<ResultadoNominaMensual> iniciarNominaMensual(YearMonth mes) {
+        return NominaMensual.getInstance().iniciar(mes);
+    }
+
+    /**
+     * Obtiene el progreso de la nómina mensual de un mes a partir de sus puntos de control.
+     * 
+     * @param mes El mes de la nómina.
+     * @return El progreso de la nómina de ese mes.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    public ProgresoNominaMensual obtenerProgresoNominaMensual(YearMonth mes) throws SQLException {
+        return NominaMensual.getInstance().progreso(mes);
+    }
+
+    /**
+     * Recorre en streaming todos los empleados con su nómina, entregando cada fila
+     * al procesador indicado (por ejemplo, para exportarlos sin cargarlos en memoria).
+     * 
+     * @param procesador El procesador que recibe cada fila.
+     * @return El número de filas procesadas.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     * @throws IOException Si el procesador falla al escribir una fila.
+     */
+    public long exportarEmpleadosConNomina(ProcesadorFilaNomina procesador) throws SQLException, IOException {
+        return empleadoDAO.exportarEmpleadosConNomina(procesador);
+    }
+
+    /**
+     * Obtiene el número de empleados, el sueldo total y el sueldo medio por
+     * categoría, por sexo o por tramo de antigüedad.
+     * 
+     * @param agrupacion {@code categoria}, {@code sexo} o {@code antiguedad}.
+     * @return Los grupos con al menos un empleado, ordenados por grupo.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     * @throws IllegalArgumentException Si la agrupación no está admitida.
+     * @see GrupoNomina
+     */
+    public List<GrupoNomina> resumirNominas(String agrupacion) throws SQLException {
+        return empleadoDAO.resumirNominas(agrupacion);
+    }
+
+    /**
+     * Importa empleados desde un fichero CSV con las columnas
+     * {@code nombre, dni, sexo, categoria, anyos} (la fila de cabecera es opcional).
+     * 
+     * <p>
+     * El fichero se lee fila a fila sin cargarlo en memoria. Cada fila se valida
+     * igual que en el alta individual; los DNI repetidos dentro del fichero se
+     * detectan con un conjunto en memoria y los que ya existen en la base de datos
+     * con una única consulta por bloque. Las filas válidas se guardan por bloques de
+     * {@link #TAMANO_BLOQUE_IMPORTACION}, cada uno en su propia transacción, de modo
+     * que un bloque fallido no impide importar los demás.
+     * </p>
+     * 
+     * @param reader El contenido del fichero CSV.
+     * @param separador El separador de campos del fichero.
+     * @return El resultado con el número de filas importadas y el error de cada fila rechazada.
+     * @throws IOException Si ocurre un error al leer el fichero.
+     * @throws SQLException Si ocurre un error al comprobar los DNI existentes.
+     */
+    public ResultadoImportacion importarEmpleados(Reader reader, char separador) throws IOException, SQLException {
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        Set<String> dnisVistos = new HashSet<>();
+        List<Empleado> bloque = new ArrayList<>(TAMANO_BLOQUE_IMPORTACION);
+        long[] lineas = new long[TAMANO_BLOQUE_IMPORTACION];
+        boolean primeraFila = true;
+
+        try (LectorCsv lector = new LectorCsv(reader, separador)) {
+            String[] fila;
+            while ((fila = lector.leerFila()) != null) {
+                if (primeraFila) {
+                    primeraFila = false;
+                    if (fila.length > 0 && "nombre".equalsIgnoreCase(fila[0].trim())) {
+                        continue; // Fila de cabecera
+                    }
+                }
+
+                resultado.sumarFilaLeida();
+                long linea = lector.getNumeroLinea();
+                Empleado empleado;
+                try {
+                    empleado = convertirFilaImportacion(fila);
+                } catch (IllegalArgumentException e) {
+                    resultado.rechazar(linea, fila.length > 1 ? fila[1].trim() : null, e.getMessage());
+                    continue;
+                }
+
+                if (!dnisVistos.add(empleado.getDni())) {
+                    resultado.rechazar(linea, empleado.getDni(), "El DNI está repetido en el fichero.");
+                    continue;
+                }
+
+                lineas[bloque.size()] = linea;
+                bloque.add(empleado);
+                if (bloque.size() == TAMANO_BLOQUE_IMPORTACION) {
+                    guardarBloqueImportacion(bloque, lineas, resultado);
+                    bloque.clear();
+                }
+            }
+        }
+
+        if (!bloque.isEmpty()) {
+            guardarBloqueImportacion(bloque, lineas, resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Convierte una fila del fichero de importación en un empleado validado.
+     * 
+     * @param fila Los campos de la fila.
+     * @return El empleado de la fila.
+     * @throws IllegalArgumentException Si la fila no tiene el formato esperado o algún dato no es válido.
+     */
+    private Empleado convertirFilaImportacion(String[] fila) {
+        if (fila.length != COLUMNAS_IMPORTACION) {
+            throw new IllegalArgumentException("Se esperaban " + COLUMNAS_IMPORTACION + " columnas y hay "
+                    + fila.length + ".");
+        }
+
+        String sexo = fila[2].trim();
+        if (sexo.length() != 1) {
+            throw new IllegalArgumentException("El sexo debe ser 'M' o 'F'.");
+        }
+        int categoria;
+        int anyos;
+        try {
+            categoria = Integer.parseInt(fila[3].trim());
+            anyos = Integer.parseInt(fila[4].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("La categoría y los años deben ser números enteros.");
+        }
+
+        String dni = fila[1].trim();
+        if (!ValidadorDni.esValido(dni)) {
+            throw new IllegalArgumentException(
+                    "El DNI debe tener 8 dígitos seguidos de su letra de control en mayúscula.");
+        }
+        Empleado empleado = new Empleado(fila[0].trim(), dni, sexo.charAt(0), categoria, anyos);
+        // Se comprueba que la categoría tenga sueldo asignado antes de llegar a la base de datos
+        Nomina.getInstance().sueldo(empleado);
+        return empleado;
+    }
+
+    /**
+     * Descarta los empleados del bloque que ya existen en la base de datos y guarda
+     * el resto en una única transacción, anotando el resultado de cada fila.
+     */
+    private void guardarBloqueImportacion(List<Empleado> bloque, long[] lineas, ResultadoImportacion resultado)
+            throws SQLException {
+        List<String> dnis = new ArrayList<>(bloque.size());
+        for (Empleado empleado : bloque) {
+            dnis.add(empleado.getDni());
+        }
+        Set<String> existentes = empleadoDAO.obtenerDnisExistentes(dnis);
+
+        List<Empleado> nuevos = new ArrayList<>(bloque.size());
+        long[] lineasNuevos = new long[bloque.size()];
+        for (int i = 0; i < bloque.size(); i++) {
+            Empleado empleado = bloque.get(i);
+            if (existentes.contains(empleado.getDni())) {
+                resultado.rechazar(lineas[i], empleado.getDni(), "Ya existe un empleado con ese DNI.");
+            } else {
+                lineasNuevos[nuevos.size()] = lineas[i];
+                nuevos.add(empleado);
+            }
+        }
+        if (nuevos.isEmpty()) {
+            return;
+        }
+
+        List<String> dnisNuevos = new ArrayList<>(nuevos.size());
+        for (Empleado empleado : nuevos) {
+            dnisNuevos.add(empleado.getDni());
+        }
+        try (IndiceEmpleados.Escritura escritura = indiceEmpleados.iniciarEscritura(dnisNuevos)) {
+            resultado.sumarFilasImportadas(empleadoDAO.guardarEmpleadosEnLote(nuevos));
+            for (Empleado empleado : nuevos) {
+                escritura.guardar(empleado);
+            }
+        } catch (SQLException e) {
+            for (int i = 0; i < nuevos.size(); i++) {
+                resultado.rechazar(lineasNuevos[i], nuevos.get(i).getDni(),
+                        "No se pudo guardar el bloque: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Obtiene la caché de nóminas utilizada por el servicio, para consultar sus
+     * contadores de aciertos, fallos y expulsiones.
+     * 
+     * @return La caché de nóminas.
+     */
+    public CacheNominas getCacheNominas() {
+        return cacheNominas;
+    }
+
+    /**
+     * Carga el índice de empleados en memoria con el contenido actual de la base de
+     * datos. A partir de entonces las búsquedas se resuelven en memoria y las
+     * escrituras de este servicio mantienen el índice al día.
+     * 
+     * @return El número de empleados cargados.
+     * @throws SQLException Si ocurre un error al leer los empleados.
+     */
+    public int cargarIndiceEmpleados() throws SQLException {
+        return indiceEmpleados.cargar(empleadoDAO);
+    }
+
+    /**
+     * Obtiene el índice de empleados en memoria utilizado por el servicio.
+     * 
+     * @return El índice de empleados.
+     */
+    public IndiceEmpleados getIndiceEmpleados() {
+        return indiceEmpleados;
     }
 
     /**
@@ -106,4 +603,30 @@ public class EmpleadoService {
         Nomina nomina = Nomina.getInstance();
         return nomina.sueldo(empleado);
     }
+
+    /**
+     * Calcula en bloque el sueldo de una lista de empleados y lo asigna a su
+     * campo {@code sueldoTotal}, usando la tabla precalculada de {@link Nomina}
+     * en un único recorrido.
+     * 
+     * @param empleados Los empleados cuyo sueldo se desea calcular.
+     */
+    public void calcularSueldos(List<Empleado> empleados) {
+        int total = empleados.size();
+        int[] categorias = new int[total];
+        int[] anyos = new int[total];
+        int[] sueldos = new int[total];
+
+        for (int i = 0; i < total; i++) {
+            Empleado empleado = empleados.get(i);
+            categorias[i] = empleado.getCategoria();
+            anyos[i] = empleado.getAnyos();
+        }
+
+        Nomina.getInstance().sueldos(categorias, anyos, sueldos);
+
+        for (int i = 0; i < total; i++) {
+            empleados.get(i).setSueldoTotal(sueldos[i]);
+        }
+    }
 }
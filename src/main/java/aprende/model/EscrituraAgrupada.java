@@ -0,0 +1,362 @@
+package aprende.model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import aprende.config.Configuracion;
+import aprende.dao.EmpleadoDAOFactoryImpl;
+import aprende.dao.EmpleadoDAOInterface;
+
+/**
+ * Canal de escritura que agrupa las ediciones concurrentes de empleados y las
+ * aplica por lotes, con una sola confirmación por lote (group commit).
+ *
+ * <p>
+ * Cada edición se deja en una cola acotada y el llamante recibe un
+ * {@link CompletableFuture} con el mensaje de resultado de
+ * {@link EmpleadoDAOInterface#editar(Empleado, String)}. Un único hilo de escritura
+ * vacía la cola: toma todas las ediciones pendientes (hasta el tamaño máximo de
+ * lote), las aplica con {@link EmpleadoDAOInterface#editarEnLote(List)} y completa
+ * cada futuro cuando su lote está confirmado en la base de datos. Con poca carga
+ * cada lote tiene una sola edición; cuantas más peticiones llegan a la vez, más
+ * ediciones comparten transacción.
+ * </p>
+ *
+ * <p>
+ * Un lote nunca contiene dos ediciones que afecten al mismo DNI (original o nuevo):
+ * si aparece una, el lote se corta ahí y la edición pasa al siguiente, así que el
+ * resultado es el mismo que si se hubieran aplicado una a una en orden de llegada.
+ * </p>
+ *
+ * <p>
+ * Cualquier error al aplicar un lote, incluidos los {@link Error}, completa de forma
+ * excepcional los futuros del lote, y el hilo de escritura sigue con el siguiente. Si
+ * aun así el hilo terminara, las ediciones pendientes y las nuevas fallan en lugar de
+ * quedarse esperando para siempre.
+ * </p>
+ *
+ * <p>
+ * Propiedades de configuración:
+ * </p>
+ * <ul>
+ * <li>{@code nominas.escritura.agrupada}: activa el canal (por defecto {@code false}).</li>
+ * <li>{@code nominas.escritura.capacidadCola}: ediciones pendientes como máximo.</li>
+ * <li>{@code nominas.escritura.maxLote}: ediciones por lote como máximo.</li>
+ * <li>{@code nominas.escritura.esperaColaMillis}: tiempo máximo de espera cuando la cola
+ * está llena; al superarlo la edición se rechaza.</li>
+ * <li>{@code nominas.escritura.esperaResultadoMillis}: tiempo máximo que el llamante
+ * espera el resultado de una edición ({@link #getEsperaResultadoMillis()}).</li>
+ * </ul>
+ */
+public class EscrituraAgrupada {
+
+    /** Propiedad de configuración que activa el canal de escritura agrupada. */
+    public static final String PROPIEDAD_ACTIVO = "nominas.escritura.agrupada";
+
+    /** Mensaje de las ediciones que no caben en la cola. */
+    public static final String MENSAJE_COLA_LLENA =
+            "Error: Hay demasiadas ediciones pendientes. Inténtelo de nuevo en unos segundos.";
+
+    /** Mensaje de las ediciones que llegan con el canal cerrado. */
+    public static final String MENSAJE_CERRADA = "Error: El servicio de escritura se está deteniendo.";
+
+    /** Tiempo máximo de espera del resultado de una edición que se usa por defecto. */
+    public static final long ESPERA_RESULTADO_POR_DEFECTO_MILLIS = 30000;
+
+    private static final Logger LOG = Logger.getLogger(EscrituraAgrupada.class.getName());
+
+    // Cada cuánto comprueba el hilo de escritura si debe terminar
+    private static final long ESPERA_SONDEO_MILLIS = 100;
+    private static final long ESPERA_CIERRE_MILLIS = 10000;
+
+    // Instancia única de la clase (Singleton)
+    private static volatile EscrituraAgrupada instance;
+
+    private final EmpleadoDAOInterface dao;
+    private final BlockingQueue<Pendiente> cola;
+    private final int maxLote;
+    private final long esperaColaMillis;
+    private final long esperaResultadoMillis;
+    private final Thread hiloEscritura;
+    private volatile boolean cerrada;
+
+    private final LongAdder lotes = new LongAdder();
+    private final LongAdder ediciones = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+
+    /**
+     * Método estático para obtener el canal de escritura de la aplicación, creado con
+     * la configuración y el DAO de {@link EmpleadoDAOFactoryImpl}.
+     *
+     * @return El canal compartido.
+     */
+    public static EscrituraAgrupada getInstance() {
+        if (instance == null) {
+            synchronized (EscrituraAgrupada.class) {
+                if (instance == null) {
+                    Configuracion config = Configuracion.getInstance();
+                    instance = new EscrituraAgrupada(new EmpleadoDAOFactoryImpl().crearEmpleadoDAO(),
+                            config.getInt("nominas.escritura.capacidadCola", 10000),
+                            config.getInt("nominas.escritura.maxLote", 500),
+                            config.getLong("nominas.escritura.esperaColaMillis", 1000),
+                            config.getLong("nominas.escritura.esperaResultadoMillis",
+                                    ESPERA_RESULTADO_POR_DEFECTO_MILLIS));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Indica si el canal de escritura agrupada está activado en la configuración.
+     *
+     * @return {@code true} si las ediciones deben pasar por el canal.
+     */
+    public static boolean estaActivado() {
+        return Configuracion.getInstance().getBoolean(PROPIEDAD_ACTIVO, false);
+    }
+
+    /**
+     * Cierra el canal de la aplicación, si se ha llegado a crear.
+     */
+    public static void cerrarInstancia() {
+        EscrituraAgrupada actual = instance;
+        if (actual != null) {
+            actual.cerrar();
+        }
+    }
+
+    /**
+     * Constructor que crea el canal y arranca su hilo de escritura, con la espera del
+     * resultado por defecto.
+     *
+     * @param dao              El DAO con el que se aplican los lotes.
+     * @param capacidadCola    El número máximo de ediciones pendientes.
+     * @param maxLote          El número máximo de ediciones por lote.
+     * @param esperaColaMillis El tiempo máximo de espera cuando la cola está llena.
+     */
+    public EscrituraAgrupada(EmpleadoDAOInterface dao, int capacidadCola, int maxLote, long esperaColaMillis) {
+        this(dao, capacidadCola, maxLote, esperaColaMillis, ESPERA_RESULTADO_POR_DEFECTO_MILLIS);
+    }
+
+    /**
+     * Constructor que crea el canal y arranca su hilo de escritura.
+     *
+     * @param dao                   El DAO con el que se aplican los lotes.
+     * @param capacidadCola         El número máximo de ediciones pendientes.
+     * @param maxLote               El número máximo de ediciones por lote.
+     * @param esperaColaMillis      El tiempo máximo de espera cuando la cola está llena.
+     * @param esperaResultadoMillis El tiempo máximo que se espera el resultado de una edición.
+     */
+    public EscrituraAgrupada(EmpleadoDAOInterface dao, int capacidadCola, int maxLote, long esperaColaMillis,
+            long esperaResultadoMillis) {
+        if (capacidadCola <= 0 || maxLote <= 0) {
+            throw new IllegalArgumentException("La capacidad de la cola y el tamaño de lote deben ser mayores que 0.");
+        }
+        if (esperaResultadoMillis <= 0) {
+            throw new IllegalArgumentException("La espera del resultado debe ser mayor que 0.");
+        }
+        this.dao = dao;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.maxLote = maxLote;
+        this.esperaColaMillis = esperaColaMillis;
+        this.esperaResultadoMillis = esperaResultadoMillis;
+        this.hiloEscritura = new Thread(this::escribir, "empleado-escritura");
+        this.hiloEscritura.setDaemon(true);
+        this.hiloEscritura.start();
+    }
+
+    /**
+     * Deja una edición en la cola. Si la cola está llena se espera como mucho el
+     * tiempo configurado; si sigue llena, el futuro se completa con
+     * {@link #MENSAJE_COLA_LLENA}.
+     *
+     * @param empleado    El empleado con los nuevos datos, ya validado.
+     * @param dniOriginal El DNI del empleado antes de la edición.
+     * @return Un futuro que se completa con el mensaje de resultado cuando la edición
+     *         está confirmada (o ha fallado), o de forma excepcional si no se ha podido
+     *         acceder a la base de datos o el hilo de escritura ha terminado.
+     */
+    public CompletableFuture<String> editar(Empleado empleado, String dniOriginal) {
+        Pendiente pendiente = new Pendiente(new EdicionEmpleado(empleado, dniOriginal));
+        if (cerrada) {
+            pendiente.futuro.complete(MENSAJE_CERRADA);
+            return pendiente.futuro;
+        }
+        if (!hiloEscritura.isAlive()) {
+            pendiente.futuro.completeExceptionally(hiloTerminado());
+            return pendiente.futuro;
+        }
+        try {
+            if (!cola.offer(pendiente, esperaColaMillis, TimeUnit.MILLISECONDS)) {
+                rechazadas.increment();
+                pendiente.futuro.complete(MENSAJE_COLA_LLENA);
+            } else if (cerrada && cola.remove(pendiente)) {
+                // El canal se ha cerrado mientras se encolaba y el hilo de escritura puede haber terminado
+                pendiente.futuro.complete(MENSAJE_CERRADA);
+            } else if (!hiloEscritura.isAlive() && cola.remove(pendiente)) {
+                pendiente.futuro.completeExceptionally(hiloTerminado());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendiente.futuro.completeExceptionally(e);
+        }
+        return pendiente.futuro;
+    }
+
+    /**
+     * Deja de aceptar ediciones y espera unos segundos a que se apliquen las pendientes.
+     */
+    public void cerrar() {
+        cerrada = true;
+        try {
+            hiloEscritura.join(ESPERA_CIERRE_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Lo que quede (si el hilo no ha terminado a tiempo) se rechaza
+        Pendiente pendiente;
+        while ((pendiente = cola.poll()) != null) {
+            pendiente.futuro.complete(MENSAJE_CERRADA);
+        }
+    }
+
+    /**
+     * @return El tiempo máximo, en milisegundos, que un llamante debería esperar el
+     *         resultado de una edición antes de darla por fallida.
+     */
+    public long getEsperaResultadoMillis() {
+        return esperaResultadoMillis;
+    }
+
+    /**
+     * @return El número de ediciones que esperan en la cola.
+     */
+    public int getPendientes() {
+        return cola.size();
+    }
+
+    /**
+     * @return El número de lotes aplicados.
+     */
+    public long getLotes() {
+        return lotes.sum();
+    }
+
+    /**
+     * @return El número de ediciones aplicadas (con éxito o no) en los lotes.
+     */
+    public long getEdiciones() {
+        return ediciones.sum();
+    }
+
+    /**
+     * @return El número de ediciones rechazadas por tener la cola llena.
+     */
+    public long getRechazadas() {
+        return rechazadas.sum();
+    }
+
+    // Bucle del hilo de escritura: vacía la cola por lotes hasta que se cierra el canal
+    private void escribir() {
+        List<Pendiente> tomadas = new ArrayList<>(maxLote);
+        try {
+            while (!cerrada || !cola.isEmpty()) {
+                try {
+                    Pendiente primera = cola.poll(ESPERA_SONDEO_MILLIS, TimeUnit.MILLISECONDS);
+                    if (primera == null) {
+                        continue;
+                    }
+                    tomadas.add(primera);
+                    cola.drainTo(tomadas, maxLote - 1);
+                    aplicarSinConflictos(tomadas);
+                } catch (InterruptedException e) {
+                    // Nadie interrumpe este hilo; si ocurre, se sigue vaciando la cola
+                } finally {
+                    tomadas.clear();
+                }
+            }
+        } finally {
+            // Si el hilo termina sin haberse cerrado el canal, nadie más va a vaciar la cola
+            if (!cerrada) {
+                LOG.severe("El hilo de escritura agrupada ha terminado; se rechazan las ediciones pendientes");
+                Pendiente pendiente;
+                while ((pendiente = cola.poll()) != null) {
+                    pendiente.futuro.completeExceptionally(hiloTerminado());
+                }
+            }
+        }
+    }
+
+    // Divide las ediciones tomadas en lotes sin DNI compartidos, respetando el orden de llegada
+    private void aplicarSinConflictos(List<Pendiente> tomadas) {
+        List<Pendiente> lote = new ArrayList<>(tomadas.size());
+        Set<String> dnis = new HashSet<>();
+        for (Pendiente pendiente : tomadas) {
+            String original = pendiente.edicion.getDniOriginal();
+            String nuevo = pendiente.edicion.getEmpleado().getDni();
+            if (dnis.contains(original) || dnis.contains(nuevo)) {
+                aplicar(lote);
+                lote.clear();
+                dnis.clear();
+            }
+            lote.add(pendiente);
+            dnis.add(original);
+            dnis.add(nuevo);
+        }
+        aplicar(lote);
+    }
+
+    private void aplicar(List<Pendiente> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        List<EdicionEmpleado> edicionesLote = new ArrayList<>(lote.size());
+        for (Pendiente pendiente : lote) {
+            edicionesLote.add(pendiente.edicion);
+        }
+
+        try {
+            List<String> mensajes = dao.editarEnLote(edicionesLote);
+            lotes.increment();
+            ediciones.add(lote.size());
+            for (int i = 0; i < lote.size(); i++) {
+                lote.get(i).futuro.complete(mensajes.get(i));
+            }
+        } catch (Throwable e) {
+            // También los Error: si no, los llamantes esperarían un futuro que nunca se completa
+            if (!(e instanceof SQLException)) {
+                LOG.log(Level.SEVERE, "Error inesperado al aplicar un lote de " + lote.size() + " ediciones", e);
+            }
+            for (Pendiente pendiente : lote) {
+                pendiente.futuro.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static SQLException hiloTerminado() {
+        return new SQLException("El hilo de escritura agrupada ha terminado.");
+    }
+
+    /**
+     * Una edición en la cola con el futuro de su llamante.
+     */
+    private static final class Pendiente {
+        private final EdicionEmpleado edicion;
+        private final CompletableFuture<String> futuro = new CompletableFuture<>();
+
+        Pendiente(EdicionEmpleado edicion) {
+            this.edicion = edicion;
+        }
+    }
+}
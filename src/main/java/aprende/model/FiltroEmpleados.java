@@ -0,0 +1,252 @@
+package aprende.model;
+
+/**
+ * Criterios de búsqueda de empleados.
+ *
+ * <p>
+ * Todos los criterios son opcionales y se combinan con AND: prefijo del nombre,
+ * DNI exacto, sexo y rangos (inclusivos) de categoría y de años trabajados. Un
+ * filtro sin criterios devuelve todos los empleados, hasta el límite indicado.
+ * </p>
+ */
+public class FiltroEmpleados {
+    private String prefijoNombre;
+    private String dni;
+    private Character sexo;
+    private Integer categoriaMinima;
+    private Integer categoriaMaxima;
+    private Integer anyosMinimos;
+    private Integer anyosMaximos;
+    private int limite;
+
+    /**
+     * Crea el filtro equivalente a la búsqueda clásica por un único atributo.
+     *
+     * <p>
+     * Los atributos admitidos son {@code nombre} (búsqueda por prefijo), {@code dni},
+     * {@code sexo}, {@code categoria} y {@code anyos}. Si el atributo está vacío, el
+     * filtro no tiene criterios.
+     * </p>
+     *
+     * @param atributo El nombre del atributo.
+     * @param valor    El valor buscado.
+     * @return El filtro correspondiente.
+     * @throws IllegalArgumentException Si el atributo no está admitido o el valor no es válido.
+     */
+    public static FiltroEmpleados desdeAtributo(String atributo, String valor) {
+        FiltroEmpleados filtro = new FiltroEmpleados();
+        if (atributo == null || atributo.isEmpty()) {
+            return filtro;
+        }
+        String texto = valor == null ? "" : valor.trim();
+
+        switch (atributo) {
+        case "nombre":
+            filtro.setPrefijoNombre(texto);
+            break;
+        case "dni":
+            filtro.setDni(texto);
+            break;
+        case "sexo":
+            if (texto.length() != 1) {
+                throw new IllegalArgumentException("El sexo debe ser 'M' o 'F'.");
+            }
+            filtro.setSexo(texto.charAt(0));
+            break;
+        case "categoria":
+            int categoria = parsearEntero(texto, "La categoría");
+            filtro.setCategoriaMinima(categoria);
+            filtro.setCategoriaMaxima(categoria);
+            break;
+        case "anyos":
+            int anyos = parsearEntero(texto, "Los años");
+            filtro.setAnyosMinimos(anyos);
+            filtro.setAnyosMaximos(anyos);
+            break;
+        default:
+            throw new IllegalArgumentException("No se puede buscar por el atributo " + atributo + ".");
+        }
+        return filtro;
+    }
+
+    /**
+     * Convierte un texto en un número entero para un criterio de búsqueda.
+     *
+     * @param texto  El texto a convertir.
+     * @param nombre El nombre del criterio, para el mensaje de error.
+     * @return El número.
+     * @throws IllegalArgumentException Si el texto no es un número entero.
+     */
+    public static int parsearEntero(String texto, String nombre) {
+        try {
+            return Integer.parseInt(texto.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(nombre + " debe ser un número entero.");
+        }
+    }
+
+    /**
+     * Indica si el filtro no tiene ningún criterio.
+     *
+     * @return {@code true} si el filtro devuelve todos los empleados.
+     */
+    public boolean estaVacio() {
+        return prefijoNombre == null && dni == null && sexo == null && categoriaMinima == null
+                && categoriaMaxima == null && anyosMinimos == null && anyosMaximos == null;
+    }
+
+    /**
+     * Comprueba si un empleado cumple todos los criterios del filtro.
+     *
+     * @param empleado El empleado a comprobar.
+     * @return {@code true} si el empleado cumple el filtro.
+     */
+    public boolean cumple(Empleado empleado) {
+        return (prefijoNombre == null
+                || empleado.getNombre().regionMatches(true, 0, prefijoNombre, 0, prefijoNombre.length()))
+                && (dni == null || dni.equals(empleado.getDni()))
+                && (sexo == null || sexo == empleado.getSexo())
+                && (categoriaMinima == null || empleado.getCategoria() >= categoriaMinima)
+                && (categoriaMaxima == null || empleado.getCategoria() <= categoriaMaxima)
+                && (anyosMinimos == null || empleado.getAnyos() >= anyosMinimos)
+                && (anyosMaximos == null || empleado.getAnyos() <= anyosMaximos);
+    }
+
+    /**
+     * @return El prefijo por el que debe empezar el nombre, o {@code null}.
+     */
+    public String getPrefijoNombre() {
+        return prefijoNombre;
+    }
+
+    /**
+     * Establece el prefijo por el que debe empezar el nombre, sin distinguir
+     * mayúsculas de minúsculas. Un prefijo vacío se ignora.
+     *
+     * @param prefijoNombre El prefijo del nombre.
+     */
+    public void setPrefijoNombre(String prefijoNombre) {
+        this.prefijoNombre = prefijoNombre == null || prefijoNombre.isEmpty() ? null : prefijoNombre;
+    }
+
+    /**
+     * @return El DNI exacto buscado, o {@code null}.
+     */
+    public String getDni() {
+        return dni;
+    }
+
+    /**
+     * Establece el DNI exacto buscado. Un DNI vacío se ignora.
+     *
+     * @param dni El DNI.
+     */
+    public void setDni(String dni) {
+        this.dni = dni == null || dni.isEmpty() ? null : dni;
+    }
+
+    /**
+     * @return El sexo buscado, o {@code null}.
+     */
+    public Character getSexo() {
+        return sexo;
+    }
+
+    /**
+     * Establece el sexo buscado.
+     *
+     * @param sexo El sexo ('M' o 'F'), o {@code null} para no filtrar por sexo.
+     * @throws IllegalArgumentException Si el sexo no es 'M' ni 'F'.
+     */
+    public void setSexo(Character sexo) {
+        if (sexo != null && sexo != 'M' && sexo != 'F') {
+            throw new IllegalArgumentException("El sexo debe ser 'M' o 'F'.");
+        }
+        this.sexo = sexo;
+    }
+
+    /**
+     * @return La categoría mínima (inclusiva), o {@code null}.
+     */
+    public Integer getCategoriaMinima() {
+        return categoriaMinima;
+    }
+
+    /**
+     * @param categoriaMinima La categoría mínima (inclusiva), o {@code null}.
+     */
+    public void setCategoriaMinima(Integer categoriaMinima) {
+        this.categoriaMinima = categoriaMinima;
+    }
+
+    /**
+     * @return La categoría máxima (inclusiva), o {@code null}.
+     */
+    public Integer getCategoriaMaxima() {
+        return categoriaMaxima;
+    }
+
+    /**
+     * @param categoriaMaxima La categoría máxima (inclusiva), o {@code null}.
+     */
+    public void setCategoriaMaxima(Integer categoriaMaxima) {
+        this.categoriaMaxima = categoriaMaxima;
+    }
+
+    /**
+     * @return Los años trabajados mínimos (inclusivos), o {@code null}.
+     */
+    public Integer getAnyosMinimos() {
+        return anyosMinimos;
+    }
+
+    /**
+     * @param anyosMinimos Los años trabajados mínimos (inclusivos), o {@code null}.
+     */
+    public void setAnyosMinimos(Integer anyosMinimos) {
+        this.anyosMinimos = anyosMinimos;
+    }
+
+    /**
+     * @return Los años trabajados máximos (inclusivos), o {@code null}.
+     */
+    public Integer getAnyosMaximos() {
+        return anyosMaximos;
+    }
+
+    /**
+     * @param anyosMaximos Los años trabajados máximos (inclusivos), o {@code null}.
+     */
+    public void setAnyosMaximos(Integer anyosMaximos) {
+        this.anyosMaximos = anyosMaximos;
+    }
+
+    /**
+     * @return El número máximo de resultados, o 0 si no hay límite.
+     */
+    public int getLimite() {
+        return limite;
+    }
+
+    /**
+     * @param limite El número máximo de resultados, o 0 para no limitarlos.
+     */
+    public void setLimite(int limite) {
+        if (limite < 0) {
+            throw new IllegalArgumentException("El límite no puede ser negativo.");
+        }
+        this.limite = limite;
+    }
+
+    /**
+     * Retorna una representación en cadena de los criterios del filtro.
+     *
+     * @return Una cadena con los criterios.
+     */
+    @Override
+    public String toString() {
+        return "FiltroEmpleados [prefijoNombre=" + prefijoNombre + ", dni=" + dni + ", sexo=" + sexo
+                + ", categoria=" + categoriaMinima + ".." + categoriaMaxima + ", anyos=" + anyosMinimos + ".."
+                + anyosMaximos + ", limite=" + limite + "]";
+    }
+}
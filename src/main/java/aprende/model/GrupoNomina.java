@@ -0,0 +1,117 @@
+package aprende.model;
+
+/**
+ * Totales de las nóminas de un grupo de empleados: los de una categoría, un sexo o
+ * un tramo de antigüedad.
+ *
+ * <p>
+ * Las agrupaciones admitidas son {@code categoria}, {@code sexo} y {@code antiguedad};
+ * en esta última cada grupo es un tramo de {@link #TRAMO_ANTIGUEDAD} años
+ * ({@code 0-4}, {@code 5-9}...).
+ * </p>
+ */
+public class GrupoNomina {
+
+    /** Agrupación por categoría. */
+    public static final String POR_CATEGORIA = "categoria";
+    /** Agrupación por sexo. */
+    public static final String POR_SEXO = "sexo";
+    /** Agrupación por tramo de antigüedad. */
+    public static final String POR_ANTIGUEDAD = "antiguedad";
+    /** Años de cada tramo de antigüedad. */
+    public static final int TRAMO_ANTIGUEDAD = 5;
+
+    private final String grupo;
+    private final long empleados;
+    private final long sueldoTotal;
+
+    /**
+     * Constructor que inicializa el grupo con sus totales.
+     *
+     * @param grupo       El valor que identifica el grupo (la categoría, el sexo o el tramo).
+     * @param empleados   El número de empleados del grupo.
+     * @param sueldoTotal La suma de los sueldos del grupo.
+     */
+    public GrupoNomina(String grupo, long empleados, long sueldoTotal) {
+        this.grupo = grupo;
+        this.empleados = empleados;
+        this.sueldoTotal = sueldoTotal;
+    }
+
+    /**
+     * Comprueba que una agrupación está admitida.
+     *
+     * @param agrupacion La agrupación.
+     * @return La misma agrupación.
+     * @throws IllegalArgumentException Si la agrupación no está admitida.
+     */
+    public static String validarAgrupacion(String agrupacion) {
+        if (!POR_CATEGORIA.equals(agrupacion) && !POR_SEXO.equals(agrupacion)
+                && !POR_ANTIGUEDAD.equals(agrupacion)) {
+            throw new IllegalArgumentException("No se puede agrupar por " + agrupacion + ".");
+        }
+        return agrupacion;
+    }
+
+    /**
+     * Calcula el tramo de antigüedad de unos años trabajados.
+     *
+     * @param anyos Los años trabajados.
+     * @return El número de tramo, desde 0.
+     */
+    public static int tramoAntiguedad(int anyos) {
+        return anyos / TRAMO_ANTIGUEDAD;
+    }
+
+    /**
+     * Obtiene el nombre de un tramo de antigüedad, con sus años inicial y final.
+     *
+     * @param tramo El número de tramo.
+     * @return El nombre del tramo, por ejemplo {@code 5-9}.
+     */
+    public static String nombreTramo(int tramo) {
+        int desde = tramo * TRAMO_ANTIGUEDAD;
+        return desde + "-" + (desde + TRAMO_ANTIGUEDAD - 1);
+    }
+
+    /**
+     * @return El valor que identifica el grupo.
+     */
+    public String getGrupo() {
+        return grupo;
+    }
+
+    /**
+     * @return El número de empleados del grupo.
+     */
+    public long getEmpleados() {
+        return empleados;
+    }
+
+    /**
+     * @return La suma de los sueldos del grupo.
+     */
+    public long getSueldoTotal() {
+        return sueldoTotal;
+    }
+
+    /**
+     * Calcula el sueldo medio del grupo.
+     *
+     * @return El sueldo medio, o 0 si el grupo no tiene empleados.
+     */
+    public double getSueldoMedio() {
+        return empleados == 0 ? 0 : (double) sueldoTotal / empleados;
+    }
+
+    /**
+     * Retorna una representación en cadena del grupo.
+     *
+     * @return Una cadena con el grupo y sus totales.
+     */
+    @Override
+    public String toString() {
+        return "GrupoNomina [grupo=" + grupo + ", empleados=" + empleados + ", sueldoTotal=" + sueldoTotal
+                + ", sueldoMedio=" + getSueldoMedio() + "]";
+    }
+}
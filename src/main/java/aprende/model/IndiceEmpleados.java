@@ -0,0 +1,605 @@
+package aprende.model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import aprende.config.Configuracion;
+import aprende.dao.EmpleadoDAOInterface;
+
+/**
+ * Copia en memoria de la tabla de empleados con índices secundarios, para resolver
+ * las búsquedas sin acceder a la base de datos.
+ *
+ * <p>
+ * Los datos se guardan por columnas en arrays, en los que cada empleado ocupa una
+ * posición. Los índices por categoría, años y sexo son conjuntos de bits con las
+ * posiciones de cada valor, de modo que los criterios de un {@link FiltroEmpleados}
+ * se combinan con operaciones AND/OR sobre bits. Los nombres se guardan ordenados,
+ * sin distinguir mayúsculas, para las búsquedas por prefijo, y los DNI ordenados,
+ * para devolver los resultados en el mismo orden que la base de datos.
+ * </p>
+ *
+ * <p>
+ * El índice es único para toda la aplicación (Singleton). Se carga al arrancar si
+ * la propiedad {@code nominas.indice.activo} vale {@code true} y
+ * {@link EmpleadoService} lo mantiene al día en cada alta, edición, eliminación e
+ * importación. Las escrituras que no pasan por el servicio no se reflejan hasta la
+ * siguiente carga.
+ * </p>
+ *
+ * <p>
+ * Cada escritura del servicio se hace dentro de una {@link Escritura}, que bloquea sus
+ * DNI desde antes de escribir en la base de datos hasta que actualiza el índice, así
+ * que los cambios de un mismo empleado llegan al índice en el orden de sus commits.
+ * La escritura lleva además una versión creciente que se guarda con cada empleado, y
+ * el índice descarta los cambios más antiguos que los datos que ya tiene. Los cambios
+ * que llegan mientras se carga el índice se guardan aparte y se aplican, por orden de
+ * versión, sobre los datos cargados antes de sustituir el contenido.
+ * </p>
+ */
+public class IndiceEmpleados {
+
+    /** Propiedad de configuración que activa el índice en memoria. */
+    public static final String PROPIEDAD_ACTIVO = "nominas.indice.activo";
+
+    /** Número de empleados que se leen en cada consulta durante la carga. */
+    public static final int TAMANO_PAGINA_CARGA = 10000;
+
+    /** Espera máxima por defecto de una escritura a las escrituras en curso de sus DNI. */
+    public static final long ESPERA_ESCRITURA_POR_DEFECTO_MILLIS = 30000;
+
+    private static final Comparator<Empleado> POR_DNI = Comparator.comparing(Empleado::getDni);
+
+    // Instancia única de la clase (Singleton)
+    private static volatile IndiceEmpleados instance;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // null mientras el índice no se ha cargado
+    private Columnas columnas;
+    // Cambios recibidos durante la carga en curso, o null si no se está cargando
+    private List<Cambio> cambiosDuranteCarga;
+    private final Object carga = new Object();
+
+    // Escrituras en curso de cada DNI: el latch se abre al terminar la escritura
+    private final Map<String, CountDownLatch> escriturasEnCurso = new ConcurrentHashMap<>();
+    private final AtomicLong ultimaVersion = new AtomicLong();
+    private final long esperaEscrituraMillis;
+
+    // Constructor privado para el Singleton
+    private IndiceEmpleados() {
+        this.esperaEscrituraMillis = Configuracion.getInstance().getLong("nominas.indice.esperaEscrituraMillis",
+                ESPERA_ESCRITURA_POR_DEFECTO_MILLIS);
+    }
+
+    /**
+     * Método estático para obtener la única instancia del índice de la aplicación.
+     *
+     * @return El índice compartido.
+     */
+    public static IndiceEmpleados getInstance() {
+        if (instance == null) {
+            synchronized (IndiceEmpleados.class) {
+                if (instance == null) {
+                    instance = new IndiceEmpleados();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Indica si el índice está activado en la configuración.
+     *
+     * @return {@code true} si debe cargarse el índice al arrancar.
+     */
+    public static boolean estaActivado() {
+        return Configuracion.getInstance().getBoolean(PROPIEDAD_ACTIVO, false);
+    }
+
+    /**
+     * Carga todos los empleados de la base de datos, por páginas ordenadas por DNI,
+     * y sustituye el contenido del índice. Las búsquedas se siguen resolviendo con
+     * los datos anteriores (o en la base de datos) hasta que termina la carga.
+     *
+     * <p>
+     * Una página leída antes de una escritura concurrente no la incluye, así que los
+     * cambios que llegan durante la carga se aplican después sobre los datos cargados.
+     * Los empleados cargados tienen la versión 0, la más antigua: cualquier cambio
+     * recibido durante la carga prevalece sobre ellos.
+     * </p>
+     *
+     * @param dao El DAO con el que se leen los empleados.
+     * @return El número de empleados cargados.
+     * @throws SQLException Si ocurre un error al leer los empleados.
+     */
+    public int cargar(EmpleadoDAOInterface dao) throws SQLException {
+        synchronized (carga) {
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteCarga = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Columnas nuevas = new Columnas();
+            try {
+                String desde = null;
+                List<Empleado> pagina;
+                do {
+                    pagina = dao.obtenerEmpleadosPaginados(desde, TAMANO_PAGINA_CARGA);
+                    for (Empleado empleado : pagina) {
+                        nuevas.anadir(empleado, 0);
+                    }
+                    if (!pagina.isEmpty()) {
+                        desde = pagina.get(pagina.size() - 1).getDni();
+                    }
+                } while (pagina.size() == TAMANO_PAGINA_CARGA);
+            } catch (SQLException | RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    cambiosDuranteCarga = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteCarga.sort(Comparator.comparingLong(cambio -> cambio.version));
+                for (Cambio cambio : cambiosDuranteCarga) {
+                    cambio.aplicar(nuevas);
+                }
+                cambiosDuranteCarga = null;
+                columnas = nuevas;
+                return nuevas.porDni.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Descarta el contenido del índice; las búsquedas vuelven a la base de datos.
+     */
+    public void descargar() {
+        lock.writeLock().lock();
+        try {
+            columnas = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si el índice está cargado y puede resolver búsquedas.
+     *
+     * @return {@code true} si el índice está cargado.
+     */
+    public boolean estaCargado() {
+        lock.readLock().lock();
+        try {
+            return columnas != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Empieza una escritura de los empleados con los DNI indicados: espera a que
+     * terminen las escrituras en curso de esos DNI y los bloquea hasta que se cierra
+     * la escritura. Hay que iniciarla antes de escribir en la base de datos y
+     * cerrarla después de actualizar el índice, aunque la escritura falle.
+     *
+     * <p>
+     * La espera dura como mucho {@code nominas.indice.esperaEscrituraMillis}: si una
+     * escritura anterior no se cierra (por ejemplo, una edición agrupada que no llega a
+     * confirmarse), las siguientes de sus DNI fallan en lugar de bloquear su hilo.
+     * </p>
+     *
+     * @param dnis Los DNI que se van a escribir (en una edición, el original y el nuevo).
+     * @return La escritura, con su versión.
+     * @throws SQLException Si se agota la espera a otra escritura de los mismos DNI.
+     */
+    public Escritura iniciarEscritura(Collection<String> dnis) throws SQLException {
+        // Se bloquean en orden para que dos escrituras con varios DNI no se esperen mutuamente
+        TreeSet<String> ordenados = new TreeSet<>(dnis);
+        CountDownLatch propio = new CountDownLatch(1);
+        List<String> bloqueados = new ArrayList<>(ordenados.size());
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaEscrituraMillis);
+        boolean interrumpido = false;
+        try {
+            for (String dni : ordenados) {
+                CountDownLatch enCurso;
+                while ((enCurso = escriturasEnCurso.putIfAbsent(dni, propio)) != null) {
+                    boolean terminada;
+                    try {
+                        terminada = enCurso.await(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    } catch (InterruptedException e) {
+                        interrumpido = true;
+                        continue;
+                    }
+                    if (!terminada) {
+                        for (String bloqueado : bloqueados) {
+                            escriturasEnCurso.remove(bloqueado, propio);
+                        }
+                        propio.countDown();
+                        throw new SQLException("Se han esperado más de " + esperaEscrituraMillis
+                                + " ms a otra escritura en curso del mismo empleado; inténtelo de nuevo más tarde.");
+                    }
+                }
+                bloqueados.add(dni);
+            }
+        } finally {
+            if (interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return new Escritura(ordenados, propio, ultimaVersion.incrementAndGet());
+    }
+
+    /**
+     * Busca los empleados que cumplen el filtro, ordenados por DNI y como máximo el
+     * límite del filtro. Comprueba si el índice está cargado en la misma operación
+     * que la búsqueda, de modo que no puede descargarse entre ambas.
+     *
+     * @param filtro Los criterios de búsqueda.
+     * @return Los empleados encontrados, o {@code null} si el índice no está cargado y
+     *         la búsqueda debe hacerse en la base de datos.
+     */
+    public List<Empleado> buscar(FiltroEmpleados filtro) {
+        lock.readLock().lock();
+        try {
+            return columnas == null ? null : columnas.buscar(filtro);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return El número de empleados del índice, o 0 si no está cargado.
+     */
+    public int getNumeroEmpleados() {
+        lock.readLock().lock();
+        try {
+            return columnas == null ? 0 : columnas.porDni.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Aplica un cambio al contenido actual y, si hay una carga en curso, lo guarda para repetirlo al terminar
+    private void aplicar(Cambio cambio) {
+        lock.writeLock().lock();
+        try {
+            if (columnas != null) {
+                cambio.aplicar(columnas);
+            }
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.add(cambio);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Escritura en curso de uno o varios empleados, iniciada con
+     * {@link IndiceEmpleados#iniciarEscritura(Collection)}. Mantiene bloqueados sus DNI
+     * hasta que se cierra, y aplica al índice los cambios con su versión.
+     */
+    public final class Escritura implements AutoCloseable {
+        private final Collection<String> dnis;
+        private final CountDownLatch latch;
+        private final long version;
+        private boolean cerrada;
+
+        private Escritura(Collection<String> dnis, CountDownLatch latch, long version) {
+            this.dnis = dnis;
+            this.latch = latch;
+            this.version = version;
+        }
+
+        /**
+         * Añade un empleado al índice o, si ya existe su DNI, sustituye sus datos. No
+         * hace nada si el índice no está cargado ni cargándose.
+         *
+         * @param empleado El empleado guardado en la base de datos.
+         */
+        public void guardar(Empleado empleado) {
+            aplicar(new Cambio(empleado.getDni(), empleado, version));
+        }
+
+        /**
+         * Elimina un empleado del índice. No hace nada si el índice no está cargado ni
+         * cargándose, o si el DNI no existe.
+         *
+         * @param dni El DNI del empleado eliminado.
+         */
+        public void eliminar(String dni) {
+            aplicar(new Cambio(dni, null, version));
+        }
+
+        /**
+         * Desbloquea los DNI de la escritura. Puede llamarse desde otro hilo distinto
+         * del que la inició, y más de una vez.
+         */
+        @Override
+        public synchronized void close() {
+            if (cerrada) {
+                return;
+            }
+            cerrada = true;
+            for (String dni : dnis) {
+                escriturasEnCurso.remove(dni, latch);
+            }
+            latch.countDown();
+        }
+    }
+
+    /**
+     * Alta o edición (con los datos del empleado) o baja (sin ellos) de un DNI, con la
+     * versión de la escritura que la ha hecho.
+     */
+    private static final class Cambio {
+        final String dni;
+        final Empleado empleado;
+        final long version;
+
+        Cambio(String dni, Empleado empleado, long version) {
+            this.dni = dni;
+            this.empleado = empleado;
+            this.version = version;
+        }
+
+        // No se aplica si el índice ya tiene datos del DNI de una escritura posterior
+        void aplicar(Columnas columnas) {
+            if (columnas.version(dni) > version) {
+                return;
+            }
+            columnas.eliminar(dni);
+            if (empleado != null) {
+                columnas.anadir(empleado, version);
+            }
+        }
+    }
+
+    /**
+     * Contenido del índice. Solo se accede a él con el cerrojo del índice.
+     */
+    private static final class Columnas {
+        private static final int CAPACIDAD_INICIAL = 1024;
+
+        // Datos de cada posición
+        private String[] nombres = new String[CAPACIDAD_INICIAL];
+        private String[] dnis = new String[CAPACIDAD_INICIAL];
+        private char[] sexos = new char[CAPACIDAD_INICIAL];
+        private int[] categorias = new int[CAPACIDAD_INICIAL];
+        private int[] anyos = new int[CAPACIDAD_INICIAL];
+        private long[] versiones = new long[CAPACIDAD_INICIAL];
+        // Posiciones utilizadas alguna vez y posiciones libres para reutilizar
+        private int usadas;
+        private int[] libres = new int[16];
+        private int numeroLibres;
+
+        // Índices
+        private final TreeMap<String, Integer> porDni = new TreeMap<>();
+        private final TreeMap<String, int[]> porNombre = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private final TreeMap<Integer, BitSet> porCategoria = new TreeMap<>();
+        private final TreeMap<Integer, BitSet> porAnyos = new TreeMap<>();
+        private final Map<Character, BitSet> porSexo = new HashMap<>();
+        private final BitSet ocupadas = new BitSet();
+
+        void anadir(Empleado empleado, long version) {
+            int posicion = reservarPosicion();
+            versiones[posicion] = version;
+            nombres[posicion] = empleado.getNombre();
+            dnis[posicion] = empleado.getDni();
+            sexos[posicion] = empleado.getSexo();
+            categorias[posicion] = empleado.getCategoria();
+            anyos[posicion] = empleado.getAnyos();
+
+            ocupadas.set(posicion);
+            porDni.put(empleado.getDni(), posicion);
+            porNombre.merge(empleado.getNombre(), new int[] { posicion }, Columnas::unir);
+            porCategoria.computeIfAbsent(empleado.getCategoria(), c -> new BitSet()).set(posicion);
+            porAnyos.computeIfAbsent(empleado.getAnyos(), a -> new BitSet()).set(posicion);
+            porSexo.computeIfAbsent(empleado.getSexo(), s -> new BitSet()).set(posicion);
+        }
+
+        // Versión de los datos del DNI, o -1 si no está en el índice
+        long version(String dni) {
+            Integer posicion = porDni.get(dni);
+            return posicion == null ? -1 : versiones[posicion];
+        }
+
+        void eliminar(String dni) {
+            Integer encontrada = porDni.remove(dni);
+            if (encontrada == null) {
+                return;
+            }
+            int posicion = encontrada;
+            ocupadas.clear(posicion);
+            porCategoria.get(categorias[posicion]).clear(posicion);
+            porAnyos.get(anyos[posicion]).clear(posicion);
+            porSexo.get(sexos[posicion]).clear(posicion);
+            int[] conNombre = quitar(porNombre.get(nombres[posicion]), posicion);
+            if (conNombre.length == 0) {
+                porNombre.remove(nombres[posicion]);
+            } else {
+                porNombre.put(nombres[posicion], conNombre);
+            }
+            nombres[posicion] = null;
+            dnis[posicion] = null;
+
+            if (numeroLibres == libres.length) {
+                libres = Arrays.copyOf(libres, libres.length * 2);
+            }
+            libres[numeroLibres++] = posicion;
+        }
+
+        List<Empleado> buscar(FiltroEmpleados filtro) {
+            BitSet candidatas = null;
+            if (filtro.getDni() != null) {
+                BitSet conDni = new BitSet();
+                Integer posicion = porDni.get(filtro.getDni());
+                if (posicion != null) {
+                    conDni.set(posicion);
+                }
+                candidatas = conDni;
+            }
+            if (filtro.getPrefijoNombre() != null) {
+                String prefijo = filtro.getPrefijoNombre();
+                BitSet conPrefijo = new BitSet();
+                for (int[] posiciones : porNombre.subMap(prefijo, true, prefijo + Character.MAX_VALUE, true)
+                        .values()) {
+                    for (int posicion : posiciones) {
+                        conPrefijo.set(posicion);
+                    }
+                }
+                candidatas = interseccion(candidatas, conPrefijo);
+            }
+            if (filtro.getSexo() != null) {
+                BitSet conSexo = porSexo.get(filtro.getSexo());
+                candidatas = interseccion(candidatas, conSexo != null ? conSexo : new BitSet());
+            }
+            if (filtro.getCategoriaMinima() != null || filtro.getCategoriaMaxima() != null) {
+                candidatas = interseccion(candidatas,
+                        union(porCategoria, filtro.getCategoriaMinima(), filtro.getCategoriaMaxima()));
+            }
+            if (filtro.getAnyosMinimos() != null || filtro.getAnyosMaximos() != null) {
+                candidatas = interseccion(candidatas,
+                        union(porAnyos, filtro.getAnyosMinimos(), filtro.getAnyosMaximos()));
+            }
+            if (candidatas == null) {
+                candidatas = ocupadas;
+            }
+
+            int total = candidatas.cardinality();
+            int limite = filtro.getLimite();
+            List<Empleado> resultado;
+            if (limite == 0 || total <= limite) {
+                // Pocos resultados: se ordenan por DNI
+                resultado = new ArrayList<>(total);
+                for (int i = candidatas.nextSetBit(0); i >= 0; i = candidatas.nextSetBit(i + 1)) {
+                    resultado.add(empleado(i));
+                }
+                resultado.sort(POR_DNI);
+            } else if ((long) limite * porDni.size() / total <= (long) total * log2(limite)) {
+                // Muchos resultados: al recorrer los DNI en orden se completa el límite enseguida
+                // (en promedio, tras limite * empleados / total posiciones)
+                resultado = new ArrayList<>(limite);
+                for (int posicion : porDni.values()) {
+                    if (candidatas.get(posicion)) {
+                        resultado.add(empleado(posicion));
+                        if (resultado.size() == limite) {
+                            break;
+                        }
+                    }
+                }
+            } else {
+                // Pocos resultados frente al total de empleados: se guardan los de menor DNI en un
+                // montículo del tamaño del límite, sin recorrer los DNI que no son candidatos
+                PriorityQueue<Integer> menores = new PriorityQueue<>(limite + 1,
+                        Comparator.comparing((Integer posicion) -> dnis[posicion]).reversed());
+                for (int i = candidatas.nextSetBit(0); i >= 0; i = candidatas.nextSetBit(i + 1)) {
+                    menores.add(i);
+                    if (menores.size() > limite) {
+                        menores.poll();
+                    }
+                }
+                resultado = new ArrayList<>(limite);
+                for (int posicion : menores) {
+                    resultado.add(empleado(posicion));
+                }
+                resultado.sort(POR_DNI);
+            }
+            return resultado;
+        }
+
+        private static int log2(int valor) {
+            return 32 - Integer.numberOfLeadingZeros(valor);
+        }
+
+        private Empleado empleado(int posicion) {
+            return Empleado.desdeDatosValidados(nombres[posicion], dnis[posicion], sexos[posicion],
+                    categorias[posicion], anyos[posicion]);
+        }
+
+        private int reservarPosicion() {
+            if (numeroLibres > 0) {
+                return libres[--numeroLibres];
+            }
+            if (usadas == dnis.length) {
+                int capacidad = dnis.length * 2;
+                nombres = Arrays.copyOf(nombres, capacidad);
+                dnis = Arrays.copyOf(dnis, capacidad);
+                sexos = Arrays.copyOf(sexos, capacidad);
+                categorias = Arrays.copyOf(categorias, capacidad);
+                anyos = Arrays.copyOf(anyos, capacidad);
+                versiones = Arrays.copyOf(versiones, capacidad);
+            }
+            return usadas++;
+        }
+
+        // Une los conjuntos de los valores comprendidos en el rango (extremos opcionales e inclusivos)
+        private static BitSet union(TreeMap<Integer, BitSet> indice, Integer minimo, Integer maximo) {
+            NavigableMap<Integer, BitSet> rango = indice;
+            if (minimo != null && maximo != null) {
+                rango = minimo <= maximo ? indice.subMap(minimo, true, maximo, true) : new TreeMap<>();
+            } else if (minimo != null) {
+                rango = indice.tailMap(minimo, true);
+            } else if (maximo != null) {
+                rango = indice.headMap(maximo, true);
+            }
+            BitSet union = new BitSet();
+            for (BitSet conValor : rango.values()) {
+                union.or(conValor);
+            }
+            return union;
+        }
+
+        // Los conjuntos de los índices no se modifican: la primera intersección trabaja sobre una copia
+        private static BitSet interseccion(BitSet actual, BitSet conjunto) {
+            if (actual == null) {
+                return (BitSet) conjunto.clone();
+            }
+            actual.and(conjunto);
+            return actual;
+        }
+
+        private static int[] unir(int[] a, int[] b) {
+            int[] union = Arrays.copyOf(a, a.length + b.length);
+            System.arraycopy(b, 0, union, a.length, b.length);
+            return union;
+        }
+
+        private static int[] quitar(int[] posiciones, int posicion) {
+            int[] resto = new int[posiciones.length - 1];
+            int j = 0;
+            for (int p : posiciones) {
+                if (p != posicion) {
+                    resto[j++] = p;
+                }
+            }
+            return resto;
+        }
+    }
+}
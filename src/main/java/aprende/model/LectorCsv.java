@@ -0,0 +1,121 @@
+package aprende.model;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector incremental de ficheros CSV.
+ *
+ * <p>
+ * Lee el fichero carácter a carácter y devuelve una fila cada vez, sin cargarlo
+ * en memoria. Admite campos entre comillas dobles (que pueden contener el
+ * separador, saltos de línea y comillas escapadas como {@code ""}) y finales de
+ * línea {@code \n} o {@code \r\n}. El separador puede ser la coma o el punto y coma.
+ * </p>
+ */
+public class LectorCsv implements Closeable {
+    private final BufferedReader reader;
+    private final char separador;
+    private final StringBuilder campo = new StringBuilder(64);
+    private long numeroLinea;
+    private long lineaSiguiente = 1;
+
+    /**
+     * Constructor que crea un lector sobre el flujo de caracteres indicado.
+     *
+     * @param reader    El flujo de caracteres del fichero CSV.
+     * @param separador El separador de campos (por ejemplo ',' o ';').
+     */
+    public LectorCsv(Reader reader, char separador) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.separador = separador;
+    }
+
+    /**
+     * Lee la siguiente fila del fichero. Las líneas vacías se ignoran.
+     *
+     * @return Los campos de la fila, o {@code null} si se ha llegado al final del fichero.
+     * @throws IOException Si ocurre un error de lectura o una comilla queda sin cerrar.
+     */
+    public String[] leerFila() throws IOException {
+        List<String> campos = new ArrayList<>(8);
+        campo.setLength(0);
+        boolean entreComillas = false;
+        boolean filaConContenido = false;
+        numeroLinea = lineaSiguiente;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            char caracter = (char) c;
+            if (entreComillas) {
+                if (caracter == '"') {
+                    reader.mark(1);
+                    int siguiente = reader.read();
+                    if (siguiente == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        if (siguiente != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (caracter == '\n') {
+                        lineaSiguiente++;
+                    }
+                    campo.append(caracter);
+                }
+            } else if (caracter == '"') {
+                entreComillas = true;
+                filaConContenido = true;
+            } else if (caracter == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+                filaConContenido = true;
+            } else if (caracter == '\n') {
+                lineaSiguiente++;
+                if (filaConContenido || campo.length() > 0) {
+                    campos.add(campo.toString());
+                    return campos.toArray(new String[0]);
+                }
+                // Línea vacía: se ignora
+                numeroLinea = lineaSiguiente;
+            } else if (caracter != '\r') {
+                campo.append(caracter);
+                filaConContenido = true;
+            }
+        }
+
+        if (entreComillas) {
+            throw new IOException("Comillas sin cerrar en la línea " + numeroLinea + ".");
+        }
+        if (filaConContenido || campo.length() > 0) {
+            campos.add(campo.toString());
+            return campos.toArray(new String[0]);
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene el número de línea (empezando en 1) en el que comienza la última fila leída.
+     *
+     * @return El número de línea.
+     */
+    public long getNumeroLinea() {
+        return numeroLinea;
+    }
+
+    /**
+     * Cierra el flujo de caracteres subyacente.
+     *
+     * @throws IOException Si ocurre un error al cerrarlo.
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -1,47 +1,434 @@
 package aprende.model;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import aprende.config.Configuracion;
+import aprende.dao.ReglasSueldoDAO;
+
+/**
+ * Cálculo del sueldo de los empleados con las reglas de sueldo de su categoría
+ * ({@link ReglasSueldo}).
+ *
+ * <p>
+ * Las reglas se guardan en un conjunto inmutable al que apunta un campo
+ * {@code volatile}. Recargarlas crea un conjunto nuevo y lo sustituye de una vez, así
+ * que el cálculo del sueldo no usa bloqueos y nunca ve una mezcla de reglas antiguas y
+ * nuevas. Cada cálculo en bloque usa el mismo conjunto para todos sus elementos.
+ * </p>
+ *
+ * <p>
+ * Las nóminas guardadas se calcularon con las reglas anteriores, así que, a partir de
+ * la primera carga, cada sustitución anota en el registro de cambios
+ * ({@link ReglasSueldoDAO#registrarCambios(java.util.Collection)}) las categorías cuya
+ * regla vigente ha cambiado, antes de empezar a usar las nuevas. El recálculo
+ * incremental de nóminas recalcula después solo los empleados de esas categorías.
+ * Tras anotarlas se vacía {@link CacheNominas} y se avisa a los oyentes registrados con
+ * {@link #anadirOyenteCambios(Consumer)}, que pueden lanzar ese recálculo.
+ * </p>
+ *
+ * <p>
+ * Propiedades de configuración:
+ * </p>
+ * <ul>
+ * <li>{@code nominas.reglas.origen}: de dónde se cargan las reglas: {@code interna} (la
+ * escala compilada en la aplicación, por defecto), {@code bd} (tabla
+ * {@code reglas_sueldo}) o {@code fichero} (CSV, ver
+ * {@link ReglasSueldo#leerCsv(Reader, char)}).</li>
+ * <li>{@code nominas.reglas.fichero}: ruta del fichero de reglas con el origen {@code fichero}.</li>
+ * <li>{@code nominas.reglas.recargaSegundos}: cada cuánto se vuelven a cargar las reglas
+ * en segundo plano (0 o negativo para no recargarlas). Las reglas con fecha futura
+ * entran en vigor en la primera recarga a partir de esa fecha.</li>
+ * </ul>
+ */
 public class Nomina {
-    
+    private static final Logger LOG = Logger.getLogger(Nomina.class.getName());
+
+    /** Origen de las reglas: la escala compilada en la aplicación. */
+    public static final String ORIGEN_INTERNO = "interna";
+
+    /** Origen de las reglas: la tabla {@code reglas_sueldo}. */
+    public static final String ORIGEN_BD = "bd";
+
+    /** Origen de las reglas: un fichero CSV. */
+    public static final String ORIGEN_FICHERO = "fichero";
+
     // Instancia única de la clase (Singleton)
-    private static Nomina instance;
-    
-    private static final int SUELDO_BASE[] = {
-        50000, 70000, 90000, 110000, 130000,
-        150000, 170000, 190000, 210000, 230000
-    };
+    private static volatile Nomina instance;
+
+    /** Años de antigüedad cubiertos por la tabla precalculada (de 0 a ANYOS_TABLA - 1). */
+    public static final int ANYOS_TABLA = 64;
 
-    // Constructor privado para evitar instanciación directa desde fuera
-    private Nomina() {}
+    /** Valor que se escribe en el cálculo masivo cuando la categoría no es válida. */
+    public static final int SUELDO_INVALIDO = -1;
+
+    private final String origen;
+    private final String fichero;
+    private volatile ReglasSueldo reglas;
+    // Si las reglas ya se han cargado de su origen: hasta entonces no se anotan los cambios
+    private boolean reglasCargadas;
+    private ScheduledExecutorService recarga;
+    private final List<Consumer<Set<Integer>>> oyentesCambios = new CopyOnWriteArrayList<>();
+
+    private final LongAdder recargas = new LongAdder();
+    private final LongAdder recargasFallidas = new LongAdder();
+
+    /**
+     * Constructor que crea el cálculo con las reglas por defecto. Con otro origen, las
+     * reglas se cargan con {@link #recargarReglas()}.
+     *
+     * @param origen  El origen de las reglas ({@link #ORIGEN_INTERNO}, {@link #ORIGEN_BD}
+     *                o {@link #ORIGEN_FICHERO}).
+     * @param fichero La ruta del fichero de reglas, si el origen es {@link #ORIGEN_FICHERO}.
+     */
+    public Nomina(String origen, String fichero) {
+        if (!ORIGEN_INTERNO.equals(origen) && !ORIGEN_BD.equals(origen) && !ORIGEN_FICHERO.equals(origen)) {
+            throw new IllegalArgumentException("Origen de reglas de sueldo desconocido: " + origen);
+        }
+        if (ORIGEN_FICHERO.equals(origen) && (fichero == null || fichero.isEmpty())) {
+            throw new IllegalArgumentException("Falta la ruta del fichero de reglas de sueldo.");
+        }
+        this.origen = origen;
+        this.fichero = fichero;
+        this.reglas = ReglasSueldo.porDefecto().conFechaReferencia(LocalDate.now());
+        this.reglasCargadas = ORIGEN_INTERNO.equals(origen);
+    }
 
     // Método estático para obtener la única instancia de Nomina
     public static Nomina getInstance() {
         if (instance == null) {
             synchronized (Nomina.class) {
                 if (instance == null) {
-                    instance = new Nomina();
+                    Configuracion config = Configuracion.getInstance();
+                    Nomina nomina = new Nomina(config.getString("nominas.reglas.origen", ORIGEN_INTERNO),
+                            config.getString("nominas.reglas.fichero", null));
+                    if (!ORIGEN_INTERNO.equals(nomina.origen)) {
+                        try {
+                            nomina.recargarReglas();
+                        } catch (IOException | SQLException | RuntimeException e) {
+                            // Se sigue con la escala por defecto; la recarga programada lo volverá a intentar
+                            nomina.recargasFallidas.increment();
+                            LOG.log(Level.SEVERE, "No se pudieron cargar las reglas de sueldo (origen "
+                                    + nomina.origen + "); se usan las reglas por defecto", e);
+                        }
+                    }
+                    nomina.programarRecarga(config.getLong("nominas.reglas.recargaSegundos", 300));
+                    instance = nomina;
                 }
             }
         }
         return instance;
     }
 
+    /**
+     * Detiene la recarga programada de la instancia de la aplicación, si se ha llegado
+     * a crear.
+     */
+    public static void detenerInstancia() {
+        Nomina actual = instance;
+        if (actual != null) {
+            actual.detenerRecarga();
+        }
+    }
+
     /**
      * Calcula el sueldo total de un empleado basado en su categoría y años trabajados.
-     * 
+     *
      * @param empleado El empleado cuyo sueldo se va a calcular.
      * @return El sueldo total del empleado.
      */
     public int sueldo(Empleado empleado) {
-        int categoriaEmpleado = empleado.getCategoria();
-        int anyosTrabajados = empleado.getAnyos();
+        return sueldo(empleado.getCategoria(), empleado.getAnyos());
+    }
+
+    /**
+     * Calcula el sueldo total a partir de la categoría y los años trabajados,
+     * sin necesidad de construir un {@link Empleado}. Lo usan los procesos
+     * masivos que leen directamente las columnas de la base de datos.
+     *
+     * @param categoriaEmpleado La categoría del empleado.
+     * @param anyosTrabajados Los años trabajados en la empresa.
+     * @return El sueldo total correspondiente.
+     */
+    public int sueldo(int categoriaEmpleado, int anyosTrabajados) {
+        return calcular(reglas.vigente(), categoriaEmpleado, anyosTrabajados);
+    }
+
+    /**
+     * Calcula el sueldo con las reglas que estaban vigentes en una fecha, para
+     * recalcular nóminas pasadas.
+     *
+     * @param categoriaEmpleado La categoría del empleado.
+     * @param anyosTrabajados Los años trabajados en la empresa.
+     * @param fecha La fecha de la nómina.
+     * @return El sueldo total correspondiente.
+     * @throws IllegalArgumentException Si la categoría no tenía regla en esa fecha.
+     */
+    public int sueldo(int categoriaEmpleado, int anyosTrabajados, LocalDate fecha) {
+        return calcular(tablaEnFecha(fecha), categoriaEmpleado, anyosTrabajados);
+    }
+
+    /**
+     * Calcula en bloque el sueldo de un conjunto de empleados a partir de sus
+     * categorías y años trabajados, consultando la tabla precalculada.
+     *
+     * <p>
+     * No reserva memoria ni lanza excepciones por elemento: las categorías no
+     * válidas se marcan con {@link #SUELDO_INVALIDO} y se cuentan en el valor
+     * devuelto. Las antigüedades que quedan fuera de la tabla se calculan con
+     * la regla de la categoría.
+     * </p>
+     *
+     * @param categorias Las categorías de los empleados.
+     * @param anyos Los años trabajados de los empleados.
+     * @param sueldos El array donde se escriben los sueldos calculados.
+     * @param longitud El número de elementos a calcular, desde la posición 0.
+     * @return El número de elementos con una categoría no válida.
+     * @throws IllegalArgumentException Si alguno de los arrays tiene menos de {@code longitud} elementos.
+     */
+    public int sueldos(int[] categorias, int[] anyos, int[] sueldos, int longitud) {
+        return calcular(reglas.vigente(), categorias, anyos, sueldos, longitud);
+    }
+
+    /**
+     * Calcula en bloque el sueldo de todos los elementos de los arrays.
+     *
+     * @param categorias Las categorías de los empleados.
+     * @param anyos Los años trabajados de los empleados.
+     * @param sueldos El array donde se escriben los sueldos calculados.
+     * @return El número de elementos con una categoría no válida.
+     * @see #sueldos(int[], int[], int[], int)
+     */
+    public int sueldos(int[] categorias, int[] anyos, int[] sueldos) {
+        return sueldos(categorias, anyos, sueldos, categorias.length);
+    }
+
+    /**
+     * Calcula en bloque los sueldos con las reglas que estaban vigentes en una fecha.
+     *
+     * @param categorias Las categorías de los empleados.
+     * @param anyos Los años trabajados de los empleados.
+     * @param sueldos El array donde se escriben los sueldos calculados.
+     * @param longitud El número de elementos a calcular, desde la posición 0.
+     * @param fecha La fecha de las nóminas.
+     * @return El número de elementos con una categoría sin regla en esa fecha.
+     * @see #sueldos(int[], int[], int[], int)
+     */
+    public int sueldos(int[] categorias, int[] anyos, int[] sueldos, int longitud, LocalDate fecha) {
+        return calcular(tablaEnFecha(fecha), categorias, anyos, sueldos, longitud);
+    }
 
-        // Validar que la categoría sea válida
-        if (categoriaEmpleado < 1 || categoriaEmpleado > SUELDO_BASE.length) {
+    /**
+     * Carga de nuevo las reglas desde su origen y las sustituye, anotando las
+     * categorías cambiadas. Si la carga o la anotación fallan se mantienen las reglas
+     * anteriores.
+     *
+     * @return Las reglas cargadas.
+     * @throws IOException Si no se puede leer el fichero de reglas o alguna fila no es válida.
+     * @throws SQLException Si ocurre un error al leer la tabla de reglas o al anotar los cambios.
+     * @throws IllegalArgumentException Si las reglas no son válidas.
+     */
+    public ReglasSueldo recargarReglas() throws IOException, SQLException {
+        ReglasSueldo nuevas = ReglasSueldo.crear(leerReglas(), LocalDate.now());
+        sustituir(nuevas);
+        recargas.increment();
+        return nuevas;
+    }
+
+    /**
+     * Sustituye las reglas por las indicadas, sin consultar su origen, anotando las
+     * categorías cambiadas.
+     *
+     * @param nuevas Las nuevas reglas.
+     * @throws SQLException Si ocurre un error al anotar los cambios; se mantienen las reglas anteriores.
+     */
+    public void actualizarReglas(ReglasSueldo nuevas) throws SQLException {
+        sustituir(nuevas);
+    }
+
+    /**
+     * Registra un oyente al que se avisa, con las categorías afectadas, cada vez que
+     * una sustitución de las reglas anota cambios. Se llama en el hilo que sustituye
+     * las reglas, así que no debería hacer trabajo largo en él.
+     *
+     * @param oyente El oyente de los cambios de reglas.
+     */
+    public void anadirOyenteCambios(Consumer<Set<Integer>> oyente) {
+        oyentesCambios.add(oyente);
+    }
+
+    /**
+     * Arranca la recarga de las reglas en segundo plano con un hilo propio. No hace
+     * nada si el periodo no es positivo, si el origen es la escala interna (que no
+     * cambia) o si la recarga ya está programada.
+     *
+     * @param periodoSegundos El tiempo entre el final de una recarga y el principio de la siguiente.
+     */
+    public synchronized void programarRecarga(long periodoSegundos) {
+        if (periodoSegundos <= 0 || ORIGEN_INTERNO.equals(origen) || recarga != null) {
+            return;
+        }
+        recarga = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "nomina-reglas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        recarga.scheduleWithFixedDelay(this::recargarProgramada, periodoSegundos, periodoSegundos, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Detiene la recarga en segundo plano, si está programada.
+     */
+    public synchronized void detenerRecarga() {
+        if (recarga != null) {
+            recarga.shutdownNow();
+            recarga = null;
+        }
+    }
+
+    /**
+     * @return Las reglas que se están usando.
+     */
+    public ReglasSueldo getReglas() {
+        return reglas;
+    }
+
+    /**
+     * @return El número de recargas de reglas correctas.
+     */
+    public long getRecargas() {
+        return recargas.sum();
+    }
+
+    /**
+     * @return El número de recargas de reglas fallidas.
+     */
+    public long getRecargasFallidas() {
+        return recargasFallidas.sum();
+    }
+
+    private void recargarProgramada() {
+        try {
+            recargarReglas();
+        } catch (IOException | SQLException | RuntimeException e) {
+            recargasFallidas.increment();
+            LOG.log(Level.WARNING, "No se pudieron recargar las reglas de sueldo (origen " + origen
+                    + "); se mantienen las anteriores", e);
+            // Se mantienen las reglas anteriores, pero con la versión vigente hoy
+            try {
+                sustituir(reglas.conFechaReferencia(LocalDate.now()));
+            } catch (SQLException | RuntimeException errorRegistro) {
+                LOG.log(Level.WARNING, "No se pudieron anotar las categorías con reglas cambiadas;"
+                        + " se volverá a intentar en la siguiente recarga", errorRegistro);
+            }
+        }
+    }
+
+    // Sustituye las reglas después de anotar las categorías cuya regla vigente cambia; si la
+    // anotación falla, las reglas no cambian y la siguiente sustitución vuelve a compararlas
+    private synchronized void sustituir(ReglasSueldo nuevas) throws SQLException {
+        Set<Integer> cambiadas = nuevas.categoriasCambiadas(reglas);
+        boolean anotadas = reglasCargadas && !cambiadas.isEmpty();
+        if (anotadas) {
+            new ReglasSueldoDAO().registrarCambios(cambiadas);
+            LOG.info("Reglas de sueldo cambiadas en las categorías " + cambiadas);
+        }
+        reglas = nuevas;
+        reglasCargadas = true;
+
+        if (anotadas) {
+            // Los sueldos guardados en la caché se calcularon con las reglas anteriores
+            CacheNominas.getInstance().invalidarTodo();
+            for (Consumer<Set<Integer>> oyente : oyentesCambios) {
+                try {
+                    oyente.accept(cambiadas);
+                } catch (RuntimeException e) {
+                    LOG.log(Level.WARNING, "Error en un oyente de cambios de las reglas de sueldo", e);
+                }
+            }
+        }
+    }
+
+    private List<ReglaSueldo> leerReglas() throws IOException, SQLException {
+        if (ORIGEN_BD.equals(origen)) {
+            return new ReglasSueldoDAO().obtenerReglas();
+        }
+        if (ORIGEN_FICHERO.equals(origen)) {
+            try (Reader reader = Files.newBufferedReader(Paths.get(fichero), StandardCharsets.UTF_8)) {
+                return ReglasSueldo.leerCsv(reader, ',');
+            }
+        }
+        return ReglasSueldo.porDefecto().getReglas();
+    }
+
+    private ReglasSueldo.Tabla tablaEnFecha(LocalDate fecha) {
+        ReglasSueldo.Tabla tabla = reglas.enFecha(fecha);
+        if (tabla == null) {
+            throw new IllegalArgumentException("No hay reglas de sueldo vigentes el " + fecha);
+        }
+        return tabla;
+    }
+
+    // Sueldo con una versión de las reglas; lanza IllegalArgumentException si la categoría no tiene regla
+    private static int calcular(ReglasSueldo.Tabla tabla, int categoriaEmpleado, int anyosTrabajados) {
+        // La categoría se acota antes de calcular la posición, para que no desborde
+        if (anyosTrabajados >= 0 && anyosTrabajados < ANYOS_TABLA && categoriaEmpleado >= 1
+                && categoriaEmpleado <= tabla.reglas.length) {
+            int sueldo = tabla.sueldos[(categoriaEmpleado - 1) * ANYOS_TABLA + anyosTrabajados];
+            if (sueldo != SUELDO_INVALIDO) {
+                return sueldo;
+            }
+        }
+        ReglaSueldo regla = tabla.regla(categoriaEmpleado);
+        if (regla == null) {
             throw new IllegalArgumentException("Categoría inválida: " + categoriaEmpleado);
         }
+        return regla.sueldo(anyosTrabajados);
+    }
+
+    // Cálculo en bloque con una versión de las reglas
+    private static int calcular(ReglasSueldo.Tabla tabla, int[] categorias, int[] anyos, int[] sueldos,
+            int longitud) {
+        if (longitud < 0 || categorias.length < longitud || anyos.length < longitud || sueldos.length < longitud) {
+            throw new IllegalArgumentException("Los arrays deben tener al menos " + longitud + " elementos.");
+        }
+
+        int[] tablaSueldos = tabla.sueldos;
+        int categoriasValidas = tabla.reglas.length;
+        int invalidos = 0;
+        for (int i = 0; i < longitud; i++) {
+            int indiceCategoria = categorias[i] - 1;
+            int anyosTrabajados = anyos[i];
 
-        int sueldoBase = SUELDO_BASE[categoriaEmpleado - 1];
-        int sueldoTotal = sueldoBase + (5000 * anyosTrabajados);
-        return sueldoTotal;
+            int sueldo;
+            if (indiceCategoria < 0 || indiceCategoria >= categoriasValidas) {
+                sueldo = SUELDO_INVALIDO;
+            } else if (anyosTrabajados >= 0 && anyosTrabajados < ANYOS_TABLA) {
+                sueldo = tablaSueldos[indiceCategoria * ANYOS_TABLA + anyosTrabajados];
+            } else {
+                ReglaSueldo regla = tabla.reglas[indiceCategoria];
+                sueldo = regla == null ? SUELDO_INVALIDO : regla.sueldo(anyosTrabajados);
+            }
+            if (sueldo == SUELDO_INVALIDO) {
+                invalidos++;
+            }
+            sueldos[i] = sueldo;
+        }
+        return invalidos;
     }
 }
@@ -0,0 +1,330 @@
+package aprende.model;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import aprende.config.Configuracion;
+import aprende.dao.NominaMensualDAO;
+
+/**
+ * Ejecución de la nómina mensual: escribe un recibo por empleado y mes en la tabla
+ * {@code recibos_nomina}.
+ *
+ * <p>
+ * Los empleados se dividen en particiones por rango de DNI (de al menos un lote
+ * cada una), que se procesan en paralelo en un {@link ForkJoinPool}. Cada partición
+ * usa su propia conexión del pool y escribe por lotes, confirmando cada lote junto con su punto de control (ver
+ * {@link NominaMensualDAO}). Las particiones y sus puntos de control se guardan en la
+ * base de datos, así que si la ejecución se interrumpe (o falla alguna partición),
+ * volver a ejecutar la nómina del mismo mes continúa donde se quedó cada partición, y
+ * ejecutarla una vez completada no escribe nada.
+ * </p>
+ *
+ * <p>
+ * {@link #iniciar(YearMonth)} lanza la ejecución en un hilo propio y vuelve enseguida;
+ * su avance se consulta con {@link #progreso(YearMonth)}, a partir de los puntos de
+ * control de las particiones.
+ * </p>
+ *
+ * <p>
+ * El sueldo de cada empleado se calcula con las reglas de {@link Nomina} vigentes el
+ * último día del mes, y el importe del recibo es la doceava parte del sueldo anual.
+ * </p>
+ *
+ * <p>
+ * Propiedades de configuración:
+ * </p>
+ * <ul>
+ * <li>{@code nominas.nominaMensual.particiones}: número de rangos de DNI.</li>
+ * <li>{@code nominas.nominaMensual.paralelismo}: particiones que se procesan a la vez
+ * (cada una ocupa una conexión del pool mientras dura).</li>
+ * <li>{@code nominas.nominaMensual.tamanoLote}: empleados de cada lote y de cada transacción.</li>
+ * </ul>
+ */
+public class NominaMensual {
+
+    private static final Logger LOG = Logger.getLogger(NominaMensual.class.getName());
+
+    // Espera máxima a que terminen los hilos de un pool de particiones ya vacío
+    private static final long ESPERA_POOL_SEGUNDOS = 10;
+
+    // Instancia única de la clase (Singleton)
+    private static volatile NominaMensual instance;
+
+    private final NominaMensualDAO dao;
+    private final int numeroParticiones;
+    private final int paralelismo;
+    private final int tamanoLote;
+    // Meses que se están ejecutando en este proceso
+    private final Set<String> enCurso = ConcurrentHashMap.newKeySet();
+    // Error de la última ejecución en segundo plano de cada mes, si falló
+    private final Map<String, String> ultimosErrores = new ConcurrentHashMap<>();
+    // Hilo de las ejecuciones en segundo plano, creado con la primera
+    private ExecutorService segundoPlano;
+
+    /**
+     * Método estático para obtener la nómina mensual de la aplicación, creada con la
+     * configuración.
+     *
+     * @return La instancia compartida.
+     */
+    public static NominaMensual getInstance() {
+        if (instance == null) {
+            synchronized (NominaMensual.class) {
+                if (instance == null) {
+                    Configuracion config = Configuracion.getInstance();
+                    instance = new NominaMensual(new NominaMensualDAO(),
+                            config.getInt("nominas.nominaMensual.particiones", 16),
+                            config.getInt("nominas.nominaMensual.paralelismo", 4),
+                            config.getInt("nominas.nominaMensual.tamanoLote", 1000));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Detiene el hilo de las ejecuciones en segundo plano de la instancia de la
+     * aplicación, si se ha llegado a crear. La ejecución en curso se interrumpe y la
+     * siguiente continúa desde los puntos de control.
+     */
+    public static void detenerInstancia() {
+        NominaMensual actual = instance;
+        if (actual != null) {
+            actual.detener();
+        }
+    }
+
+    /**
+     * Constructor que crea la nómina mensual con el DAO y los tamaños indicados.
+     *
+     * @param dao               El DAO de las tablas de la nómina mensual.
+     * @param numeroParticiones El número de rangos de DNI en que se dividen los empleados.
+     * @param paralelismo       El número de particiones que se procesan a la vez.
+     * @param tamanoLote        El número de empleados de cada lote y de cada transacción.
+     */
+    public NominaMensual(NominaMensualDAO dao, int numeroParticiones, int paralelismo, int tamanoLote) {
+        if (numeroParticiones <= 0 || paralelismo <= 0 || tamanoLote <= 0) {
+            throw new IllegalArgumentException(
+                    "El número de particiones, el paralelismo y el tamaño de lote deben ser mayores que 0.");
+        }
+        this.dao = dao;
+        this.numeroParticiones = numeroParticiones;
+        this.paralelismo = paralelismo;
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Ejecuta (o continúa) la nómina de un mes.
+     *
+     * @param mes El mes de la nómina.
+     * @return El resultado de la ejecución.
+     * @throws SQLException Si falla alguna partición; las demás terminan y todas conservan su punto de control.
+     * @throws IllegalStateException Si la nómina de ese mes ya se está ejecutando en este proceso.
+     */
+    public ResultadoNominaMensual ejecutar(YearMonth mes) throws SQLException {
+        reservar(mes.toString());
+        return ejecutarReservado(mes);
+    }
+
+    /**
+     * Lanza (o continúa) la nómina de un mes en segundo plano y vuelve sin esperar a
+     * que termine. Las ejecuciones se hacen de una en una, en orden de llegada.
+     *
+     * @param mes El mes de la nómina.
+     * @return Un futuro que se completa con el resultado de la ejecución, o de forma
+     *         excepcional si falla.
+     * @throws IllegalStateException Si la nómina de ese mes ya se está ejecutando en este proceso.
+     */
+    public CompletableFuture<ResultadoNominaMensual> iniciar(YearMonth mes) {
+        String periodo = mes.toString();
+        reservar(periodo);
+        ultimosErrores.remove(periodo);
+        CompletableFuture<ResultadoNominaMensual> futuro = new CompletableFuture<>();
+        try {
+            hiloSegundoPlano().execute(() -> {
+                try {
+                    ResultadoNominaMensual resultado = ejecutarReservado(mes);
+                    LOG.info("Nómina mensual terminada: " + resultado);
+                    futuro.complete(resultado);
+                } catch (SQLException | RuntimeException e) {
+                    LOG.log(Level.SEVERE, "La nómina de " + periodo + " ha fallado", e);
+                    ultimosErrores.put(periodo, String.valueOf(e.getMessage()));
+                    futuro.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            enCurso.remove(periodo);
+            throw new IllegalStateException("La nómina mensual se está deteniendo.", e);
+        }
+        return futuro;
+    }
+
+    /**
+     * Obtiene el progreso de la nómina de un mes a partir de los puntos de control
+     * guardados en la base de datos.
+     *
+     * @param mes El mes de la nómina.
+     * @return El progreso, sin particiones si la nómina de ese mes no se ha iniciado.
+     * @throws SQLException Si ocurre un error al leer las particiones.
+     */
+    public ProgresoNominaMensual progreso(YearMonth mes) throws SQLException {
+        String periodo = mes.toString();
+        List<ParticionNomina> particiones = dao.obtenerParticiones(periodo);
+        int completadas = 0;
+        long recibos = 0;
+        long omitidos = 0;
+        for (ParticionNomina particion : particiones) {
+            if (particion.isCompletada()) {
+                completadas++;
+            }
+            recibos += particion.getRecibos();
+            omitidos += particion.getOmitidos();
+        }
+        return new ProgresoNominaMensual(periodo, enCurso.contains(periodo), particiones.size(), completadas,
+                recibos, omitidos, ultimosErrores.get(periodo));
+    }
+
+    /**
+     * Detiene el hilo de las ejecuciones en segundo plano, si se ha creado.
+     */
+    public synchronized void detener() {
+        if (segundoPlano != null) {
+            segundoPlano.shutdownNow();
+        }
+    }
+
+    private void reservar(String periodo) {
+        if (!enCurso.add(periodo)) {
+            throw new IllegalStateException("La nómina de " + periodo + " ya se está ejecutando.");
+        }
+    }
+
+    private synchronized ExecutorService hiloSegundoPlano() {
+        if (segundoPlano == null) {
+            segundoPlano = Executors.newSingleThreadExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "nomina-mensual");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+        return segundoPlano;
+    }
+
+    // Ejecuta la nómina de un mes ya anotado en enCurso y lo quita al terminar
+    private ResultadoNominaMensual ejecutarReservado(YearMonth mes) throws SQLException {
+        String periodo = mes.toString();
+        long inicio = System.nanoTime();
+        try {
+            List<ParticionNomina> particiones = dao.obtenerParticiones(periodo);
+            if (particiones.isEmpty()) {
+                particiones = dao.crearParticiones(periodo, numeroParticiones, tamanoLote);
+            }
+            int reanudadas = 0;
+            for (ParticionNomina particion : particiones) {
+                if (particion.isIniciada() && !particion.isCompletada()) {
+                    reanudadas++;
+                }
+            }
+
+            ParticionNomina[] finales = particiones.toArray(new ParticionNomina[0]);
+            List<SQLException> errores = Collections.synchronizedList(new ArrayList<>());
+            // Los hilos del pool se bloquean en la base de datos: el paralelismo es el número de conexiones
+            ForkJoinPool pool = new ForkJoinPool(paralelismo);
+            try {
+                pool.invoke(new TareaParticiones(finales, 0, finales.length, mes.atEndOfMonth(), errores));
+            } finally {
+                pool.shutdown();
+                esperarPool(pool);
+            }
+            if (!errores.isEmpty()) {
+                SQLException error = errores.get(0);
+                for (int i = 1; i < errores.size(); i++) {
+                    error.addSuppressed(errores.get(i));
+                }
+                throw error;
+            }
+
+            long recibos = 0;
+            long omitidos = 0;
+            for (ParticionNomina particion : finales) {
+                recibos += particion.getRecibos();
+                omitidos += particion.getOmitidos();
+            }
+            return new ResultadoNominaMensual(periodo, finales.length, reanudadas, recibos, omitidos,
+                    System.nanoTime() - inicio);
+        } finally {
+            enCurso.remove(periodo);
+        }
+    }
+
+    // Las tareas ya han terminado: solo se espera a que sus hilos acaben de salir
+    private static void esperarPool(ForkJoinPool pool) {
+        try {
+            if (!pool.awaitTermination(ESPERA_POOL_SEGUNDOS, TimeUnit.SECONDS)) {
+                LOG.warning("Los hilos de la nómina mensual no han terminado en " + ESPERA_POOL_SEGUNDOS + " s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Procesa un tramo del array de particiones: si tiene más de una, lo divide en dos
+     * mitades que se procesan en paralelo. El resultado de cada partición sustituye a la
+     * partición en el array; sus errores, incluidos los inesperados, se guardan para que
+     * el resto termine.
+     */
+    private final class TareaParticiones extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ParticionNomina[] particiones;
+        private final int desde;
+        private final int hasta;
+        private final LocalDate fecha;
+        private final List<SQLException> errores;
+
+        TareaParticiones(ParticionNomina[] particiones, int desde, int hasta, LocalDate fecha,
+                List<SQLException> errores) {
+            this.particiones = particiones;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.fecha = fecha;
+            this.errores = errores;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > 1) {
+                int mitad = (desde + hasta) >>> 1;
+                invokeAll(new TareaParticiones(particiones, desde, mitad, fecha, errores),
+                        new TareaParticiones(particiones, mitad, hasta, fecha, errores));
+            } else if (hasta > desde) {
+                try {
+                    particiones[desde] = dao.procesarParticion(particiones[desde], fecha, tamanoLote);
+                } catch (SQLException e) {
+                    errores.add(e);
+                } catch (RuntimeException e) {
+                    errores.add(new SQLException("Error inesperado en la partición "
+                            + particiones[desde].getNumero() + " de la nómina mensual.", e));
+                }
+            }
+        }
+    }
+}
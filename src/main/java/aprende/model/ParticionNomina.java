@@ -0,0 +1,120 @@
+package aprende.model;
+
+/**
+ * Partición de una ejecución de la nómina mensual: un rango de DNI
+ * ({@code (dniDesde, dniHasta]}) con su punto de control.
+ *
+ * <p>
+ * El punto de control es el último DNI cuyo recibo está confirmado en la base de
+ * datos. Si la ejecución se interrumpe, la partición continúa a partir de él.
+ * </p>
+ */
+public class ParticionNomina {
+    private final String periodo;
+    private final int numero;
+    private final String dniDesde;
+    private final String dniHasta;
+    private final String ultimoDni;
+    private final long recibos;
+    private final long omitidos;
+    private final boolean completada;
+
+    /**
+     * Constructor que inicializa la partición con su rango y su punto de control.
+     *
+     * @param periodo    El mes de la nómina (AAAA-MM).
+     * @param numero     El número de la partición dentro de la ejecución, desde 0.
+     * @param dniDesde   El DNI que cierra el rango por abajo (excluido), o {@code null} si no hay límite.
+     * @param dniHasta   El DNI que cierra el rango por arriba (incluido), o {@code null} si no hay límite.
+     * @param ultimoDni  El último DNI procesado, o {@code null} si no se ha procesado ninguno.
+     * @param recibos    El número de recibos escritos.
+     * @param omitidos   El número de empleados omitidos por no tener regla de sueldo.
+     * @param completada Si se ha procesado todo el rango.
+     */
+    public ParticionNomina(String periodo, int numero, String dniDesde, String dniHasta, String ultimoDni,
+            long recibos, long omitidos, boolean completada) {
+        this.periodo = periodo;
+        this.numero = numero;
+        this.dniDesde = dniDesde;
+        this.dniHasta = dniHasta;
+        this.ultimoDni = ultimoDni;
+        this.recibos = recibos;
+        this.omitidos = omitidos;
+        this.completada = completada;
+    }
+
+    /**
+     * @return El mes de la nómina (AAAA-MM).
+     */
+    public String getPeriodo() {
+        return periodo;
+    }
+
+    /**
+     * @return El número de la partición dentro de la ejecución.
+     */
+    public int getNumero() {
+        return numero;
+    }
+
+    /**
+     * @return El DNI que cierra el rango por abajo (excluido), o {@code null}.
+     */
+    public String getDniDesde() {
+        return dniDesde;
+    }
+
+    /**
+     * @return El DNI que cierra el rango por arriba (incluido), o {@code null}.
+     */
+    public String getDniHasta() {
+        return dniHasta;
+    }
+
+    /**
+     * @return El último DNI procesado, o {@code null} si no se ha procesado ninguno.
+     */
+    public String getUltimoDni() {
+        return ultimoDni;
+    }
+
+    /**
+     * @return El número de recibos escritos.
+     */
+    public long getRecibos() {
+        return recibos;
+    }
+
+    /**
+     * @return El número de empleados omitidos por no tener regla de sueldo.
+     */
+    public long getOmitidos() {
+        return omitidos;
+    }
+
+    /**
+     * @return {@code true} si se ha procesado todo el rango.
+     */
+    public boolean isCompletada() {
+        return completada;
+    }
+
+    /**
+     * @return {@code true} si la partición tiene progreso de una ejecución anterior.
+     */
+    public boolean isIniciada() {
+        return ultimoDni != null || completada;
+    }
+
+    /**
+     * Retorna una representación en cadena de la partición.
+     *
+     * @return Una cadena con el rango y el punto de control.
+     */
+    @Override
+    public String toString() {
+        return "ParticionNomina [periodo=" + periodo + ", numero=" + numero + ", dniDesde=" + dniDesde
+                + ", dniHasta=" + dniHasta + ", ultimoDni=" + ultimoDni + ", recibos=" + recibos + ", omitidos="
+                + omitidos + ", completada=" + completada + "]";
+    }
+}
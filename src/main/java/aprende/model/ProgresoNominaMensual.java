@@ -0,0 +1,112 @@
+package aprende.model;
+
+/**
+ * Progreso de la nómina mensual de un mes, obtenido de los puntos de control de sus
+ * particiones ({@link ParticionNomina}).
+ *
+ * <p>
+ * Recoge si la nómina se está ejecutando en este proceso, cuántas particiones hay y
+ * cuántas están completadas, los recibos y los empleados omitidos hasta el último
+ * punto de control y el error de la última ejecución en segundo plano, si falló.
+ * </p>
+ */
+public class ProgresoNominaMensual {
+    private final String periodo;
+    private final boolean enCurso;
+    private final int particiones;
+    private final int particionesCompletadas;
+    private final long recibos;
+    private final long omitidos;
+    private final String error;
+
+    /**
+     * Constructor que inicializa el progreso con los contadores de las particiones.
+     *
+     * @param periodo                El mes de la nómina (AAAA-MM).
+     * @param enCurso                Si la nómina de ese mes se está ejecutando en este proceso.
+     * @param particiones            El número de particiones, 0 si la nómina no se ha iniciado.
+     * @param particionesCompletadas El número de particiones completadas.
+     * @param recibos                El número de recibos confirmados.
+     * @param omitidos               El número de empleados omitidos.
+     * @param error                  El mensaje de error de la última ejecución, o {@code null}.
+     */
+    public ProgresoNominaMensual(String periodo, boolean enCurso, int particiones, int particionesCompletadas,
+            long recibos, long omitidos, String error) {
+        this.periodo = periodo;
+        this.enCurso = enCurso;
+        this.particiones = particiones;
+        this.particionesCompletadas = particionesCompletadas;
+        this.recibos = recibos;
+        this.omitidos = omitidos;
+        this.error = error;
+    }
+
+    /**
+     * @return El mes de la nómina (AAAA-MM).
+     */
+    public String getPeriodo() {
+        return periodo;
+    }
+
+    /**
+     * @return {@code true} si la nómina de ese mes se está ejecutando en este proceso.
+     */
+    public boolean isEnCurso() {
+        return enCurso;
+    }
+
+    /**
+     * @return El número de particiones, 0 si la nómina no se ha iniciado.
+     */
+    public int getParticiones() {
+        return particiones;
+    }
+
+    /**
+     * @return El número de particiones completadas.
+     */
+    public int getParticionesCompletadas() {
+        return particionesCompletadas;
+    }
+
+    /**
+     * @return {@code true} si todas las particiones están completadas.
+     */
+    public boolean isCompletada() {
+        return particiones > 0 && particionesCompletadas == particiones;
+    }
+
+    /**
+     * @return El número de recibos confirmados hasta el último punto de control.
+     */
+    public long getRecibos() {
+        return recibos;
+    }
+
+    /**
+     * @return El número de empleados omitidos por no tener regla de sueldo.
+     */
+    public long getOmitidos() {
+        return omitidos;
+    }
+
+    /**
+     * @return El mensaje de error de la última ejecución en segundo plano, o {@code null}
+     *         si no falló.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Retorna una representación en cadena del progreso.
+     *
+     * @return Una cadena con los contadores del progreso.
+     */
+    @Override
+    public String toString() {
+        return "ProgresoNominaMensual [periodo=" + periodo + ", enCurso=" + enCurso + ", particiones=" + particiones
+                + ", particionesCompletadas=" + particionesCompletadas + ", recibos=" + recibos + ", omitidos="
+                + omitidos + ", error=" + error + "]";
+    }
+}
@@ -0,0 +1,113 @@
+package aprende.model;
+
+import java.time.LocalDate;
+
+/**
+ * Regla de cálculo del sueldo de una categoría a partir de una fecha: sueldo base,
+ * incremento por año trabajado y, opcionalmente, un sueldo máximo.
+ *
+ * <p>
+ * Cada fila de la tabla {@code reglas_sueldo} (o del fichero de reglas) es una regla.
+ * Una regla se aplica desde su fecha de vigencia hasta la siguiente regla de la misma
+ * categoría, de modo que las nóminas de cualquier fecha pasada pueden recalcularse
+ * con las reglas que estaban vigentes entonces.
+ * </p>
+ */
+public class ReglaSueldo {
+
+    /** Valor de {@link #getSueldoMaximo()} cuando la categoría no tiene sueldo máximo. */
+    public static final int SIN_MAXIMO = Integer.MAX_VALUE;
+
+    private final int categoria;
+    private final LocalDate vigenteDesde;
+    private final int sueldoBase;
+    private final int incrementoAnyo;
+    private final int sueldoMaximo;
+
+    /**
+     * Constructor que crea una regla validando sus valores.
+     *
+     * @param categoria      La categoría a la que se aplica (mayor que 0).
+     * @param vigenteDesde   La fecha desde la que se aplica.
+     * @param sueldoBase     El sueldo con 0 años trabajados.
+     * @param incrementoAnyo El incremento del sueldo por cada año trabajado.
+     * @param sueldoMaximo   El sueldo máximo de la categoría, o {@link #SIN_MAXIMO}.
+     * @throws IllegalArgumentException Si algún valor no es válido.
+     */
+    public ReglaSueldo(int categoria, LocalDate vigenteDesde, int sueldoBase, int incrementoAnyo, int sueldoMaximo) {
+        if (categoria < 1) {
+            throw new IllegalArgumentException("Categoría inválida: " + categoria);
+        }
+        if (vigenteDesde == null) {
+            throw new IllegalArgumentException("La regla de la categoría " + categoria + " no tiene fecha de vigencia.");
+        }
+        if (sueldoBase < 0 || incrementoAnyo < 0 || sueldoMaximo < sueldoBase) {
+            throw new IllegalArgumentException("Valores de sueldo inválidos para la categoría " + categoria
+                    + " desde " + vigenteDesde + ": base " + sueldoBase + ", incremento " + incrementoAnyo
+                    + ", máximo " + sueldoMaximo);
+        }
+        this.categoria = categoria;
+        this.vigenteDesde = vigenteDesde;
+        this.sueldoBase = sueldoBase;
+        this.incrementoAnyo = incrementoAnyo;
+        this.sueldoMaximo = sueldoMaximo;
+    }
+
+    /**
+     * Calcula el sueldo con esta regla, limitado al sueldo máximo.
+     *
+     * @param anyosTrabajados Los años trabajados en la empresa.
+     * @return El sueldo correspondiente.
+     */
+    public int sueldo(int anyosTrabajados) {
+        long sueldo = sueldoBase + (long) incrementoAnyo * anyosTrabajados;
+        return (int) Math.min(sueldo, sueldoMaximo);
+    }
+
+    /**
+     * @return La categoría a la que se aplica la regla.
+     */
+    public int getCategoria() {
+        return categoria;
+    }
+
+    /**
+     * @return La fecha desde la que se aplica la regla.
+     */
+    public LocalDate getVigenteDesde() {
+        return vigenteDesde;
+    }
+
+    /**
+     * @return El sueldo con 0 años trabajados.
+     */
+    public int getSueldoBase() {
+        return sueldoBase;
+    }
+
+    /**
+     * @return El incremento del sueldo por cada año trabajado.
+     */
+    public int getIncrementoAnyo() {
+        return incrementoAnyo;
+    }
+
+    /**
+     * @return El sueldo máximo de la categoría, o {@link #SIN_MAXIMO} si no tiene.
+     */
+    public int getSueldoMaximo() {
+        return sueldoMaximo;
+    }
+
+    /**
+     * Retorna una representación en cadena de la regla.
+     *
+     * @return Una cadena con la categoría, la vigencia y los importes.
+     */
+    @Override
+    public String toString() {
+        return "ReglaSueldo [categoria=" + categoria + ", vigenteDesde=" + vigenteDesde + ", sueldoBase="
+                + sueldoBase + ", incrementoAnyo=" + incrementoAnyo + ", sueldoMaximo="
+                + (sueldoMaximo == SIN_MAXIMO ? "-" : String.valueOf(sueldoMaximo)) + "]";
+    }
+}
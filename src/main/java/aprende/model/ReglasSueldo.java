@@ -0,0 +1,260 @@
+package aprende.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Conjunto inmutable de reglas de sueldo, con todas sus versiones por fecha.
+ *
+ * <p>
+ * Cada fecha en la que empieza alguna regla abre una versión, formada por la regla
+ * vigente de cada categoría en esa fecha. Para cada versión se precalcula la tabla
+ * categoría x antigüedad de {@link Nomina}, de modo que el sueldo de cualquier fecha
+ * se obtiene con una búsqueda de la versión y un acceso a su tabla. La versión
+ * vigente en la fecha de referencia (normalmente, la de carga) se guarda aparte para
+ * que el cálculo del sueldo actual no tenga que buscarla.
+ * </p>
+ *
+ * <p>
+ * Al ser inmutable, {@link Nomina} puede sustituir un conjunto por otro recién
+ * cargado sin bloquear a los hilos que están calculando sueldos.
+ * </p>
+ */
+public final class ReglasSueldo {
+
+    // Reglas de la escala que estaba compilada en la aplicación, vigentes desde siempre
+    private static final int SUELDO_BASE[] = {
+        50000, 70000, 90000, 110000, 130000,
+        150000, 170000, 190000, 210000, 230000
+    };
+    private static final int INCREMENTO_ANYO = 5000;
+
+    private final List<ReglaSueldo> reglas;
+    private final LocalDate[] inicios;
+    private final Tabla[] tablas;
+    private final Tabla vigente;
+    private final LocalDate fechaReferencia;
+
+    private ReglasSueldo(List<ReglaSueldo> reglas, LocalDate[] inicios, Tabla[] tablas, LocalDate fechaReferencia) {
+        this.reglas = reglas;
+        this.inicios = inicios;
+        this.tablas = tablas;
+        this.fechaReferencia = fechaReferencia;
+        Tabla tablaVigente = buscar(fechaReferencia);
+        this.vigente = tablaVigente != null ? tablaVigente : new Tabla(new ReglaSueldo[0]);
+    }
+
+    /**
+     * Crea el conjunto de reglas y precalcula sus versiones.
+     *
+     * @param reglas          Las reglas, en cualquier orden.
+     * @param fechaReferencia La fecha cuyas reglas se consideran vigentes.
+     * @return El conjunto de reglas.
+     * @throws IllegalArgumentException Si no hay reglas o hay dos para la misma categoría y fecha.
+     */
+    public static ReglasSueldo crear(List<ReglaSueldo> reglas, LocalDate fechaReferencia) {
+        if (reglas.isEmpty()) {
+            throw new IllegalArgumentException("No hay ninguna regla de sueldo.");
+        }
+        List<ReglaSueldo> ordenadas = new ArrayList<>(reglas);
+        ordenadas.sort(Comparator.comparing(ReglaSueldo::getVigenteDesde).thenComparingInt(ReglaSueldo::getCategoria));
+
+        int maxCategoria = 0;
+        TreeSet<LocalDate> fechas = new TreeSet<>();
+        for (int i = 0; i < ordenadas.size(); i++) {
+            ReglaSueldo regla = ordenadas.get(i);
+            if (i > 0 && regla.getCategoria() == ordenadas.get(i - 1).getCategoria()
+                    && regla.getVigenteDesde().equals(ordenadas.get(i - 1).getVigenteDesde())) {
+                throw new IllegalArgumentException("Hay dos reglas para la categoría " + regla.getCategoria()
+                        + " desde " + regla.getVigenteDesde());
+            }
+            maxCategoria = Math.max(maxCategoria, regla.getCategoria());
+            fechas.add(regla.getVigenteDesde());
+        }
+
+        // Cada versión parte de la anterior y sustituye las reglas que empiezan en su fecha
+        LocalDate[] inicios = fechas.toArray(new LocalDate[0]);
+        Tabla[] tablas = new Tabla[inicios.length];
+        ReglaSueldo[] porCategoria = new ReglaSueldo[maxCategoria];
+        int siguiente = 0;
+        for (int v = 0; v < inicios.length; v++) {
+            while (siguiente < ordenadas.size() && ordenadas.get(siguiente).getVigenteDesde().equals(inicios[v])) {
+                ReglaSueldo regla = ordenadas.get(siguiente++);
+                porCategoria[regla.getCategoria() - 1] = regla;
+            }
+            tablas[v] = new Tabla(porCategoria.clone());
+        }
+        return new ReglasSueldo(Collections.unmodifiableList(ordenadas), inicios, tablas, fechaReferencia);
+    }
+
+    /**
+     * Crea el conjunto con la escala que estaba compilada en la aplicación: sueldo base
+     * de 50000 a 230000 según la categoría (de 1 a 10), 5000 más por año trabajado y
+     * sin sueldo máximo, vigente desde siempre.
+     *
+     * @return Las reglas por defecto.
+     */
+    public static ReglasSueldo porDefecto() {
+        List<ReglaSueldo> reglas = new ArrayList<>(SUELDO_BASE.length);
+        for (int categoria = 1; categoria <= SUELDO_BASE.length; categoria++) {
+            reglas.add(new ReglaSueldo(categoria, LocalDate.MIN, SUELDO_BASE[categoria - 1], INCREMENTO_ANYO,
+                    ReglaSueldo.SIN_MAXIMO));
+        }
+        return crear(reglas, LocalDate.MIN);
+    }
+
+    /**
+     * Lee reglas de un fichero CSV con una cabecera y una regla por fila, con las
+     * columnas {@code categoria}, {@code vigente_desde} (AAAA-MM-DD), {@code sueldo_base},
+     * {@code incremento_anyo} y {@code sueldo_maximo} (vacía si no hay máximo), en ese
+     * orden.
+     *
+     * @param reader    El contenido del fichero.
+     * @param separador El separador de campos.
+     * @return Las reglas leídas, en el orden del fichero.
+     * @throws IOException Si ocurre un error de lectura o alguna fila no es válida.
+     */
+    public static List<ReglaSueldo> leerCsv(Reader reader, char separador) throws IOException {
+        List<ReglaSueldo> leidas = new ArrayList<>();
+        try (LectorCsv lector = new LectorCsv(reader, separador)) {
+            lector.leerFila(); // Cabecera
+            String[] campos;
+            while ((campos = lector.leerFila()) != null) {
+                if (campos.length < 4) {
+                    throw new IOException("Línea " + lector.getNumeroLinea() + ": faltan columnas.");
+                }
+                try {
+                    String maximo = campos.length > 4 ? campos[4].trim() : "";
+                    leidas.add(new ReglaSueldo(Integer.parseInt(campos[0].trim()), LocalDate.parse(campos[1].trim()),
+                            Integer.parseInt(campos[2].trim()), Integer.parseInt(campos[3].trim()),
+                            maximo.isEmpty() ? ReglaSueldo.SIN_MAXIMO : Integer.parseInt(maximo)));
+                } catch (RuntimeException e) {
+                    throw new IOException("Línea " + lector.getNumeroLinea() + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return leidas;
+    }
+
+    /**
+     * Obtiene el mismo conjunto de reglas con otra fecha de referencia, sin volver a
+     * calcular sus versiones.
+     *
+     * @param fecha La nueva fecha de referencia.
+     * @return Este conjunto si la fecha no cambia, o uno nuevo con la versión vigente en esa fecha.
+     */
+    public ReglasSueldo conFechaReferencia(LocalDate fecha) {
+        return fecha.equals(fechaReferencia) ? this : new ReglasSueldo(reglas, inicios, tablas, fecha);
+    }
+
+    /**
+     * @return Las reglas del conjunto, ordenadas por fecha de vigencia y categoría.
+     */
+    public List<ReglaSueldo> getReglas() {
+        return reglas;
+    }
+
+    /**
+     * @return El número de versiones (fechas distintas en las que empieza alguna regla).
+     */
+    public int getNumeroVersiones() {
+        return inicios.length;
+    }
+
+    /**
+     * @return La fecha cuyas reglas se consideran vigentes.
+     */
+    public LocalDate getFechaReferencia() {
+        return fechaReferencia;
+    }
+
+    /**
+     * Obtiene la primera fecha posterior a la de referencia en la que empieza alguna
+     * regla, es decir, cuándo dejará de ser correcta la versión vigente.
+     *
+     * @return La fecha del siguiente cambio, o {@code null} si no hay reglas futuras.
+     */
+    public LocalDate getSiguienteCambio() {
+        int posicion = Arrays.binarySearch(inicios, fechaReferencia);
+        int siguiente = posicion >= 0 ? posicion + 1 : -posicion - 1;
+        return siguiente < inicios.length ? inicios[siguiente] : null;
+    }
+
+    /**
+     * Compara la versión vigente de este conjunto con la de otro, para saber qué
+     * sueldos calculados con las reglas anteriores han dejado de ser correctos.
+     *
+     * @param anteriores Las reglas con las que se calcularon los sueldos.
+     * @return Las categorías, en orden, cuya regla vigente calcula otro sueldo o que solo
+     *         tienen regla en uno de los dos conjuntos.
+     */
+    public Set<Integer> categoriasCambiadas(ReglasSueldo anteriores) {
+        Set<Integer> cambiadas = new TreeSet<>();
+        int categorias = Math.max(vigente.reglas.length, anteriores.vigente.reglas.length);
+        for (int categoria = 1; categoria <= categorias; categoria++) {
+            if (!mismoSueldo(vigente.regla(categoria), anteriores.vigente.regla(categoria))) {
+                cambiadas.add(categoria);
+            }
+        }
+        return cambiadas;
+    }
+
+    // Las dos reglas (o la falta de regla) dan el mismo sueldo con cualquier antigüedad
+    private static boolean mismoSueldo(ReglaSueldo regla, ReglaSueldo otra) {
+        if (regla == null || otra == null) {
+            return regla == otra;
+        }
+        return regla.getSueldoBase() == otra.getSueldoBase() && regla.getIncrementoAnyo() == otra.getIncrementoAnyo()
+                && regla.getSueldoMaximo() == otra.getSueldoMaximo();
+    }
+
+    // Versión vigente en la fecha de referencia
+    Tabla vigente() {
+        return vigente;
+    }
+
+    // Versión vigente en la fecha indicada, o null si es anterior a todas las reglas
+    Tabla enFecha(LocalDate fecha) {
+        return fecha.equals(fechaReferencia) ? vigente : buscar(fecha);
+    }
+
+    private Tabla buscar(LocalDate fecha) {
+        int posicion = Arrays.binarySearch(inicios, fecha);
+        int version = posicion >= 0 ? posicion : -posicion - 2;
+        return version >= 0 ? tablas[version] : null;
+    }
+
+    /**
+     * Una versión de las reglas con la tabla categoría x antigüedad ya calculada:
+     * {@code [(categoria - 1) * Nomina.ANYOS_TABLA + anyos]}. Las categorías sin regla
+     * tienen {@link Nomina#SUELDO_INVALIDO} en toda su fila.
+     */
+    static final class Tabla {
+        final ReglaSueldo[] reglas;
+        final int[] sueldos;
+
+        Tabla(ReglaSueldo[] reglas) {
+            this.reglas = reglas;
+            this.sueldos = new int[reglas.length * Nomina.ANYOS_TABLA];
+            for (int i = 0; i < reglas.length; i++) {
+                for (int anyos = 0; anyos < Nomina.ANYOS_TABLA; anyos++) {
+                    sueldos[i * Nomina.ANYOS_TABLA + anyos] = reglas[i] == null ? Nomina.SUELDO_INVALIDO
+                            : reglas[i].sueldo(anyos);
+                }
+            }
+        }
+
+        // Regla de la categoría, o null si no tiene en esta versión
+        ReglaSueldo regla(int categoria) {
+            return categoria >= 1 && categoria <= reglas.length ? reglas[categoria - 1] : null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package aprende.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva de empleados desde un fichero CSV.
+ *
+ * <p>
+ * Recoge el número de filas leídas e importadas y un informe con el error de
+ * cada fila rechazada. Para no crecer sin límite con ficheros muy defectuosos,
+ * el detalle se guarda solo para los primeros {@link #MAXIMO_ERRORES_DETALLADOS}
+ * errores; el total de filas rechazadas se cuenta siempre.
+ * </p>
+ */
+public class ResultadoImportacion {
+
+    /** Número máximo de errores de los que se guarda el detalle. */
+    public static final int MAXIMO_ERRORES_DETALLADOS = 1000;
+
+    private long filasLeidas;
+    private long filasImportadas;
+    private long filasRechazadas;
+    private final List<ErrorFila> errores = new ArrayList<>();
+
+    /**
+     * Anota que se ha leído una fila de datos del fichero.
+     */
+    void sumarFilaLeida() {
+        filasLeidas++;
+    }
+
+    /**
+     * Anota las filas que se han guardado en la base de datos.
+     *
+     * @param filas El número de filas guardadas.
+     */
+    void sumarFilasImportadas(long filas) {
+        filasImportadas += filas;
+    }
+
+    /**
+     * Anota el rechazo de una fila.
+     *
+     * @param linea   La línea del fichero en la que empieza la fila.
+     * @param dni     El DNI de la fila, si se ha podido leer.
+     * @param mensaje El motivo del rechazo.
+     */
+    void rechazar(long linea, String dni, String mensaje) {
+        filasRechazadas++;
+        if (errores.size() < MAXIMO_ERRORES_DETALLADOS) {
+            errores.add(new ErrorFila(linea, dni, mensaje));
+        }
+    }
+
+    /**
+     * Obtiene el número de filas de datos leídas del fichero.
+     *
+     * @return Las filas leídas.
+     */
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    /**
+     * Obtiene el número de empleados guardados en la base de datos.
+     *
+     * @return Las filas importadas.
+     */
+    public long getFilasImportadas() {
+        return filasImportadas;
+    }
+
+    /**
+     * Obtiene el número total de filas rechazadas.
+     *
+     * @return Las filas rechazadas.
+     */
+    public long getFilasRechazadas() {
+        return filasRechazadas;
+    }
+
+    /**
+     * Obtiene el detalle de los errores por fila.
+     *
+     * @return Una lista de solo lectura con los errores.
+     */
+    public List<ErrorFila> getErrores() {
+        return Collections.unmodifiableList(errores);
+    }
+
+    /**
+     * Retorna una representación en cadena del resultado.
+     *
+     * @return Una cadena con los contadores de la importación.
+     */
+    @Override
+    public String toString() {
+        return "ResultadoImportacion [filasLeidas=" + filasLeidas + ", filasImportadas=" + filasImportadas
+                + ", filasRechazadas=" + filasRechazadas + "]";
+    }
+
+    /**
+     * Error producido al importar una fila del fichero.
+     */
+    public static class ErrorFila {
+        private final long linea;
+        private final String dni;
+        private final String mensaje;
+
+        /**
+         * Constructor que inicializa el error de una fila.
+         *
+         * @param linea   La línea del fichero.
+         * @param dni     El DNI de la fila, o {@code null} si no se ha podido leer.
+         * @param mensaje El motivo del error.
+         */
+        public ErrorFila(long linea, String dni, String mensaje) {
+            this.linea = linea;
+            this.dni = dni;
+            this.mensaje = mensaje;
+        }
+
+        /**
+         * @return La línea del fichero en la que empieza la fila.
+         */
+        public long getLinea() {
+            return linea;
+        }
+
+        /**
+         * @return El DNI de la fila, o {@code null} si no se ha podido leer.
+         */
+        public String getDni() {
+            return dni;
+        }
+
+        /**
+         * @return El motivo del error.
+         */
+        public String getMensaje() {
+            return mensaje;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package aprende.model;
+
+/**
+ * Resultado de una ejecución de la nómina mensual.
+ *
+ * <p>
+ * Recoge el número de particiones, cuántas continuaban una ejecución anterior
+ * interrumpida, los recibos escritos (contando los de ejecuciones anteriores del mismo
+ * mes), los empleados omitidos por no tener regla de sueldo y el tiempo empleado.
+ * </p>
+ */
+public class ResultadoNominaMensual {
+    private final String periodo;
+    private final int particiones;
+    private final int particionesReanudadas;
+    private final long recibos;
+    private final long omitidos;
+    private final long duracionNanos;
+
+    /**
+     * Constructor que inicializa el resultado con los contadores de la ejecución.
+     *
+     * @param periodo               El mes de la nómina (AAAA-MM).
+     * @param particiones           El número de particiones.
+     * @param particionesReanudadas El número de particiones con progreso de una ejecución anterior.
+     * @param recibos               El número de recibos del mes.
+     * @param omitidos              El número de empleados omitidos.
+     * @param duracionNanos         La duración de la ejecución en nanosegundos.
+     */
+    public ResultadoNominaMensual(String periodo, int particiones, int particionesReanudadas, long recibos,
+            long omitidos, long duracionNanos) {
+        this.periodo = periodo;
+        this.particiones = particiones;
+        this.particionesReanudadas = particionesReanudadas;
+        this.recibos = recibos;
+        this.omitidos = omitidos;
+        this.duracionNanos = duracionNanos;
+    }
+
+    /**
+     * @return El mes de la nómina (AAAA-MM).
+     */
+    public String getPeriodo() {
+        return periodo;
+    }
+
+    /**
+     * @return El número de particiones.
+     */
+    public int getParticiones() {
+        return particiones;
+    }
+
+    /**
+     * @return El número de particiones con progreso de una ejecución anterior.
+     */
+    public int getParticionesReanudadas() {
+        return particionesReanudadas;
+    }
+
+    /**
+     * @return El número de recibos del mes.
+     */
+    public long getRecibos() {
+        return recibos;
+    }
+
+    /**
+     * @return El número de empleados omitidos por no tener regla de sueldo.
+     */
+    public long getOmitidos() {
+        return omitidos;
+    }
+
+    /**
+     * Obtiene la duración de la ejecución en milisegundos.
+     *
+     * @return La duración en milisegundos.
+     */
+    public long getDuracionMillis() {
+        return duracionNanos / 1_000_000L;
+    }
+
+    /**
+     * Retorna una representación en cadena del resultado.
+     *
+     * @return Una cadena con los contadores de la ejecución.
+     */
+    @Override
+    public String toString() {
+        return "ResultadoNominaMensual [periodo=" + periodo + ", particiones=" + particiones
+                + ", particionesReanudadas=" + particionesReanudadas + ", recibos=" + recibos + ", omitidos="
+                + omitidos + ", duracionMillis=" + getDuracionMillis() + "]";
+    }
+}
@@ -0,0 +1,93 @@
+package aprende.model;
+
+/**
+ * Resultado de un recálculo masivo de nóminas.
+ *
+ * <p>
+ * Recoge cuántas filas se han leído de la tabla de empleados, cuántas nóminas
+ * se han actualizado, cuántas se han omitido por tener datos no válidos y el
+ * tiempo empleado, de forma que se pueda conocer el rendimiento del proceso
+ * en filas por segundo.
+ * </p>
+ */
+public class ResultadoRecalculo {
+    private final long filasLeidas;
+    private final long filasActualizadas;
+    private final long filasOmitidas;
+    private final long duracionNanos;
+
+    /**
+     * Constructor que inicializa el resultado con los contadores del proceso.
+     *
+     * @param filasLeidas       Número de empleados leídos.
+     * @param filasActualizadas Número de nóminas actualizadas.
+     * @param filasOmitidas     Número de empleados omitidos por datos no válidos.
+     * @param duracionNanos     Duración total del proceso en nanosegundos.
+     */
+    public ResultadoRecalculo(long filasLeidas, long filasActualizadas, long filasOmitidas, long duracionNanos) {
+        this.filasLeidas = filasLeidas;
+        this.filasActualizadas = filasActualizadas;
+        this.filasOmitidas = filasOmitidas;
+        this.duracionNanos = duracionNanos;
+    }
+
+    /**
+     * Obtiene el número de empleados leídos.
+     *
+     * @return Las filas leídas.
+     */
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    /**
+     * Obtiene el número de nóminas actualizadas.
+     *
+     * @return Las filas actualizadas.
+     */
+    public long getFilasActualizadas() {
+        return filasActualizadas;
+    }
+
+    /**
+     * Obtiene el número de empleados omitidos por tener una categoría no válida.
+     *
+     * @return Las filas omitidas.
+     */
+    public long getFilasOmitidas() {
+        return filasOmitidas;
+    }
+
+    /**
+     * Obtiene la duración del proceso en milisegundos.
+     *
+     * @return La duración en milisegundos.
+     */
+    public long getDuracionMillis() {
+        return duracionNanos / 1_000_000L;
+    }
+
+    /**
+     * Calcula el rendimiento del proceso en filas leídas por segundo.
+     *
+     * @return Las filas por segundo, o 0 si no se ha leído ninguna fila.
+     */
+    public double getFilasPorSegundo() {
+        if (filasLeidas == 0 || duracionNanos <= 0) {
+            return 0;
+        }
+        return filasLeidas * 1_000_000_000.0 / duracionNanos;
+    }
+
+    /**
+     * Retorna una representación en cadena del resultado.
+     *
+     * @return Una cadena con los contadores y el rendimiento.
+     */
+    @Override
+    public String toString() {
+        return "ResultadoRecalculo [filasLeidas=" + filasLeidas + ", filasActualizadas=" + filasActualizadas
+                + ", filasOmitidas=" + filasOmitidas + ", duracionMillis=" + getDuracionMillis()
+                + ", filasPorSegundo=" + Math.round(getFilasPorSegundo()) + "]";
+    }
+}
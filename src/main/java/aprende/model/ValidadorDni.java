@@ -0,0 +1,86 @@
+package aprende.model;
+
+/**
+ * Validador de DNI compartido por el modelo y el controlador.
+ *
+ * <p>
+ * Comprueba que el DNI tenga 8 dígitos seguidos de una letra mayúscula y, al dar de
+ * alta un DNI, que esa letra sea la letra de control oficial (el número módulo 23
+ * indexado en la tabla {@code TRWAGMYFPDXBNJZSQVHLCKE}). La comprobación se hace
+ * recorriendo los caracteres, sin expresiones regulares y sin reservar memoria.
+ * </p>
+ *
+ * <p>
+ * La letra de control no se exige para consultar o editar empleados existentes: los
+ * dados de alta antes de esta comprobación pueden tener una letra incorrecta. Las
+ * filas leídas de la base de datos tampoco se vuelven a validar (ver
+ * {@link Empleado#desdeDatosValidados(String, String, char, int, int)}).
+ * </p>
+ */
+public final class ValidadorDni {
+
+    /** Longitud de un DNI: 8 dígitos y la letra de control. */
+    public static final int LONGITUD = 9;
+
+    // Letra de control según el resto de dividir el número entre 23
+    private static final char[] LETRAS_CONTROL = "TRWAGMYFPDXBNJZSQVHLCKE".toCharArray();
+
+    // Clase de utilidad: no se instancia
+    private ValidadorDni() {
+    }
+
+    /**
+     * Comprueba si un DNI es válido para darlo de alta: formato correcto y letra de
+     * control correcta.
+     *
+     * @param dni El DNI a comprobar.
+     * @return {@code true} si el DNI es válido, {@code false} en caso contrario.
+     */
+    public static boolean esValido(CharSequence dni) {
+        if (!tieneFormato(dni)) {
+            return false;
+        }
+
+        int numero = 0;
+        for (int i = 0; i < LONGITUD - 1; i++) {
+            numero = numero * 10 + (dni.charAt(i) - '0');
+        }
+        return dni.charAt(LONGITUD - 1) == LETRAS_CONTROL[numero % LETRAS_CONTROL.length];
+    }
+
+    /**
+     * Comprueba solo el formato de un DNI: 8 dígitos seguidos de una letra mayúscula,
+     * sin comprobar la letra de control. Es la comprobación de los DNI que ya pueden
+     * existir, al consultarlos o editarlos.
+     *
+     * @param dni El DNI a comprobar.
+     * @return {@code true} si el DNI tiene el formato correcto.
+     */
+    public static boolean tieneFormato(CharSequence dni) {
+        if (dni == null || dni.length() != LONGITUD) {
+            return false;
+        }
+        for (int i = 0; i < LONGITUD - 1; i++) {
+            char c = dni.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        char letra = dni.charAt(LONGITUD - 1);
+        return letra >= 'A' && letra <= 'Z';
+    }
+
+    /**
+     * Calcula la letra de control que corresponde a un número de DNI.
+     *
+     * @param numero El número del DNI (de 0 a 99999999).
+     * @return La letra de control.
+     * @throws IllegalArgumentException Si el número está fuera de rango.
+     */
+    public static char letraControl(int numero) {
+        if (numero < 0 || numero > 99_999_999) {
+            throw new IllegalArgumentException("El número del DNI debe tener como máximo 8 dígitos.");
+        }
+        return LETRAS_CONTROL[numero % LETRAS_CONTROL.length];
+    }
+}
@@ -0,0 +1,14 @@
+-- Esquema inicial de la base de datos de nóminas
+CREATE TABLE IF NOT EXISTS empleados (
+    nombre VARCHAR(100) NOT NULL,
+    dni CHAR(9) NOT NULL PRIMARY KEY,
+    sexo CHAR(1) NOT NULL,
+    categoria INT NOT NULL,
+    anyos INT NOT NULL
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS nominas (
+    empleado_dni CHAR(9) NOT NULL PRIMARY KEY,
+    sueldo INT NOT NULL,
+    FOREIGN KEY (empleado_dni) REFERENCES empleados (dni) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB;
@@ -0,0 +1,7 @@
+-- Índices para la búsqueda de empleados (ver FiltroEmpleados)
+-- Búsqueda por prefijo del nombre: nombre LIKE 'prefijo%'
+CREATE INDEX idx_empleados_nombre ON empleados (nombre);
+-- Categoría exacta o en rango, sola o combinada con un rango de años
+CREATE INDEX idx_empleados_categoria_anyos ON empleados (categoria, anyos);
+-- Rango de años sin categoría
+CREATE INDEX idx_empleados_anyos ON empleados (anyos);
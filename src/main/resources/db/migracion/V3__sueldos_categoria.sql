@@ -0,0 +1,24 @@
+-- Sueldo base e incremento por año de antigüedad de cada categoría
+CREATE TABLE IF NOT EXISTS categorias_sueldo (
+    categoria INT NOT NULL PRIMARY KEY,
+    sueldo_base INT NOT NULL,
+    incremento_anyo INT NOT NULL
+) ENGINE=InnoDB;
+
+INSERT INTO categorias_sueldo (categoria, sueldo_base, incremento_anyo) VALUES
+    (1, 50000, 5000),
+    (2, 70000, 5000),
+    (3, 90000, 5000),
+    (4, 110000, 5000),
+    (5, 130000, 5000),
+    (6, 150000, 5000),
+    (7, 170000, 5000),
+    (8, 190000, 5000),
+    (9, 210000, 5000),
+    (10, 230000, 5000);
+
+-- Sueldo de cada empleado calculado al leer, para el modo de nómina derivada
+-- (nominas.dao.sueldo=derivado). Tiene las mismas columnas que la tabla nominas.
+CREATE OR REPLACE VIEW nominas_derivadas AS
+SELECT e.dni AS empleado_dni, c.sueldo_base + c.incremento_anyo * e.anyos AS sueldo
+FROM empleados e JOIN categorias_sueldo c ON c.categoria = e.categoria;
@@ -0,0 +1,30 @@
+-- Reglas de sueldo versionadas por fecha de vigencia, con sueldo máximo opcional.
+-- Sustituyen a la tabla categorias_sueldo, cuyas filas pasan a ser la primera versión.
+CREATE TABLE IF NOT EXISTS reglas_sueldo (
+    categoria INT NOT NULL,
+    vigente_desde DATE NOT NULL,
+    sueldo_base INT NOT NULL,
+    incremento_anyo INT NOT NULL,
+    sueldo_maximo INT NULL,
+    PRIMARY KEY (categoria, vigente_desde)
+) ENGINE=InnoDB;
+
+INSERT INTO reglas_sueldo (categoria, vigente_desde, sueldo_base, incremento_anyo, sueldo_maximo)
+SELECT categoria, '1970-01-01', sueldo_base, incremento_anyo, NULL FROM categorias_sueldo;
+
+DROP VIEW nominas_derivadas;
+DROP TABLE categorias_sueldo;
+
+-- Regla vigente hoy de cada categoría, con las mismas columnas que la antigua tabla
+-- (más el sueldo máximo), para el modo de nómina derivada
+CREATE VIEW categorias_sueldo AS
+SELECT r.categoria, r.sueldo_base, r.incremento_anyo, r.sueldo_maximo
+FROM reglas_sueldo r
+WHERE r.vigente_desde = (SELECT MAX(v.vigente_desde) FROM reglas_sueldo v
+                         WHERE v.categoria = r.categoria AND v.vigente_desde <= CURRENT_DATE);
+
+CREATE VIEW nominas_derivadas AS
+SELECT e.dni AS empleado_dni,
+       LEAST(c.sueldo_base + c.incremento_anyo * e.anyos,
+             COALESCE(c.sueldo_maximo, c.sueldo_base + c.incremento_anyo * e.anyos)) AS sueldo
+FROM empleados e JOIN categorias_sueldo c ON c.categoria = e.categoria;
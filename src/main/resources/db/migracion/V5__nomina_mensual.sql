@@ -0,0 +1,26 @@
+-- Recibos de la nómina mensual: uno por empleado y mes, con los datos con los que se calculó.
+-- No tiene clave ajena a empleados para que los recibos se conserven tras una baja.
+CREATE TABLE IF NOT EXISTS recibos_nomina (
+    periodo CHAR(7) NOT NULL,
+    empleado_dni CHAR(9) NOT NULL,
+    categoria INT NOT NULL,
+    anyos INT NOT NULL,
+    sueldo_anual INT NOT NULL,
+    importe_mensual DECIMAL(12,2) NOT NULL,
+    PRIMARY KEY (periodo, empleado_dni)
+) ENGINE=InnoDB;
+
+-- Particiones por rango de DNI de cada ejecución de la nómina mensual, con su punto de
+-- control: el último DNI procesado y los recibos escritos hasta él.
+-- El rango es (dni_desde, dni_hasta], y NULL indica que no tiene límite por ese lado.
+CREATE TABLE IF NOT EXISTS particiones_nomina (
+    periodo CHAR(7) NOT NULL,
+    particion INT NOT NULL,
+    dni_desde CHAR(9) NULL,
+    dni_hasta CHAR(9) NULL,
+    ultimo_dni CHAR(9) NULL,
+    recibos INT NOT NULL DEFAULT 0,
+    omitidos INT NOT NULL DEFAULT 0,
+    completada BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (periodo, particion)
+) ENGINE=InnoDB;
@@ -0,0 +1,16 @@
+-- Cada escritura del DAO ya guarda el sueldo calculado en la misma transacción, así que
+-- las nóminas solo quedan desfasadas cuando cambian las reglas de sueldo de una categoría.
+
+-- Registro de cambios de reglas: una fila por categoría cuya regla vigente ha cambiado
+-- en una recarga de las reglas de sueldo (ver Nomina).
+-- El recálculo incremental de nóminas recalcula los empleados de esas categorías y
+-- borra las filas que ha procesado, así que la tabla solo guarda los cambios pendientes.
+CREATE TABLE IF NOT EXISTS cambios_categorias (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    categoria INT NOT NULL,
+    fecha TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+-- Recorrido de los empleados de una categoría por orden de DNI, en páginas
+CREATE INDEX idx_empleados_categoria_dni ON empleados (categoria, dni);
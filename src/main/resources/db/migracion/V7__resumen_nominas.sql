@@ -0,0 +1,17 @@
+-- Resumen materializado de las nóminas: número de empleados y suma de sueldos por
+-- categoría, sexo y tramo de antigüedad (años / 5), el grano más fino de los informes.
+-- Cualquier agregación por una de las tres columnas lee solo estas filas.
+-- Lo mantiene el DAO en cada escritura cuando nominas.dao.resumenMaterializado=true.
+CREATE TABLE IF NOT EXISTS resumen_nominas (
+    categoria INT NOT NULL,
+    sexo CHAR(1) NOT NULL,
+    tramo_antiguedad INT NOT NULL,
+    empleados BIGINT NOT NULL,
+    sueldo_total BIGINT NOT NULL,
+    PRIMARY KEY (categoria, sexo, tramo_antiguedad)
+) ENGINE=InnoDB;
+
+INSERT INTO resumen_nominas (categoria, sexo, tramo_antiguedad, empleados, sueldo_total)
+SELECT e.categoria, e.sexo, FLOOR(e.anyos / 5), COUNT(*), SUM(n.sueldo)
+FROM empleados e JOIN nominas n ON n.empleado_dni = e.dni
+GROUP BY e.categoria, e.sexo, FLOOR(e.anyos / 5);
@@ -11,6 +11,9 @@
     <td><a href="empleado?opcion=listar"> Listar Empleados</a></td>
     <td><a href="empleado?opcion=salarios"> Consultar Salarios</a></td>
     <td><a href="empleado?opcion=mostrar"> Mostrar empleados</a></td>
+    <td><a href="empleado?opcion=importar"> Importar empleados</a></td>
+    <td><a href="exportar?formato=csv"> Exportar CSV</a></td>
+    <td><a href="exportar?formato=json"> Exportar JSON</a></td>
   </tr>
 </table>
 </body>
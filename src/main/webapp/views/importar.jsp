@@ -0,0 +1,71 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core"%>
+<!DOCTYPE html>
+<html>
+<head>
+    <title>Importar Empleados</title>
+    <link rel="stylesheet" type="text/css" href="styles/main.css">
+</head>
+<body>
+    <h1>Importar Empleados</h1>
+
+    <!-- Sección para mostrar mensajes -->
+    <c:if test="${not empty mensajeExito}">
+        <p class="success"><c:out value="${mensajeExito}" /></p>
+    </c:if>
+    <c:if test="${not empty mensajeError}">
+        <p class="error"><c:out value="${mensajeError}" /></p>
+    </c:if>
+
+    <!-- Formulario para subir el fichero CSV (nombre, dni, sexo, categoria, anyos) -->
+    <form name="importarForm" action="empleado" method="post" enctype="multipart/form-data">
+        <input type="hidden" name="opcion" value="importar">
+        <table border="1">
+            <tr>
+                <td>Fichero CSV (nombre, dni, sexo, categoria, anyos):</td>
+                <td><input type="file" name="archivo" accept=".csv,text/csv" required></td>
+            </tr>
+            <tr>
+                <td>Separador:</td>
+                <td>
+                    <select name="separador">
+                        <option value=",">Coma (,)</option>
+                        <option value=";">Punto y coma (;)</option>
+                    </select>
+                </td>
+            </tr>
+        </table>
+        <button type="submit">Importar</button>
+        <button type="button" onclick="window.location.href='index.jsp';">Volver</button>
+    </form>
+
+    <!-- Informe de la importación -->
+    <c:if test="${resultado != null}">
+        <h2>Resultado de la importación</h2>
+        <p>Filas leídas: ${resultado.filasLeidas}</p>
+        <p>Empleados importados: ${resultado.filasImportadas}</p>
+        <p>Filas rechazadas: ${resultado.filasRechazadas}</p>
+
+        <c:if test="${not empty resultado.errores}">
+            <table border="1">
+                <thead>
+                    <tr>
+                        <th>Línea</th>
+                        <th>DNI</th>
+                        <th>Error</th>
+                    </tr>
+                </thead>
+                <tbody>
+                    <c:forEach var="error" items="${resultado.errores}">
+                        <tr>
+                            <td>${error.linea}</td>
+                            <td><c:out value="${error.dni}" /></td>
+                            <td><c:out value="${error.mensaje}" /></td>
+                        </tr>
+                    </c:forEach>
+                </tbody>
+            </table>
+        </c:if>
+    </c:if>
+</body>
+</html>
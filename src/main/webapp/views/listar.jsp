@@ -56,11 +56,59 @@
         </c:forEach>
     </table>
 
+    <!-- Navegacin entre pginas (paginacin por DNI) -->
+    <div>
+        <c:if test="${not empty desde}">
+            <a href="empleado?opcion=listar&tamanoPagina=${tamanoPagina}">Primera pgina</a>
+        </c:if>
+        <c:if test="${not empty siguienteDni}">
+            <a href="empleado?opcion=listar&tamanoPagina=${tamanoPagina}&desde=${siguienteDni}">Pgina siguiente</a>
+        </c:if>
+    </div>
+
     <!-- Botn para volver a la pgina principal -->
     <button onclick="window.location.href='index.jsp';">Volver</button>
     
     <!-- Botn para ir a la pgina de crear empleados -->
     <button type="button" onclick="window.location.href='views/crear.jsp';">Crear Empleados</button>
 
+    <!-- Formulario para recalcular las nminas de todos los empleados -->
+    <form action="empleado" method="post" style="display:inline;">
+        <input type="hidden" name="opcion" value="recalcularNominas"/>
+        <button type="submit">Recalcular Nminas</button>
+    </form>
+
+    <!-- Formulario para recalcular solo las nminas de las categoras con reglas cambiadas -->
+    <form action="empleado" method="post" style="display:inline;">
+        <input type="hidden" name="opcion" value="recalcularNominas"/>
+        <input type="hidden" name="modo" value="cambios"/>
+        <button type="submit">Recalcular Cambios</button>
+    </form>
+
+    <!-- Formulario para ejecutar la nmina mensual (recibos de todos los empleados) -->
+    <form action="empleado" method="post" style="display:inline;">
+        <input type="hidden" name="opcion" value="nominaMensual"/>
+        <input type="month" name="mes"/>
+        <button type="submit">Ejecutar Nmina Mensual</button>
+    </form>
+
+    <!-- Formulario para consultar el progreso de la nmina mensual, que se ejecuta en segundo plano -->
+    <form action="empleado" method="get" style="display:inline;">
+        <input type="hidden" name="opcion" value="estadoNominaMensual"/>
+        <input type="month" name="mes"/>
+        <button type="submit">Progreso de la Nmina Mensual</button>
+    </form>
+
+    <!-- Formulario para descargar los totales de las nminas por grupo (CSV) -->
+    <form action="empleado" method="get" style="display:inline;">
+        <input type="hidden" name="opcion" value="resumenNominas"/>
+        <select name="agrupacion">
+            <option value="categoria">Por categora</option>
+            <option value="sexo">Por sexo</option>
+            <option value="antiguedad">Por antigedad</option>
+        </select>
+        <button type="submit">Resumen de Nminas</button>
+    </form>
+
 </body>
 </html>
@@ -21,7 +21,7 @@
   <form name="modificarForm" action="empleado" method="post">
     <input type="hidden" name="opcion" value="editar">
     <!-- Campo oculto para guardar el DNI original -->
-    <input type="hidden" name="dniOriginal" value="${param.dni}">
+    <input type="hidden" name="dniOriginal" value="${not empty param.dniOriginal ? param.dniOriginal : param.dni}">
     
     <table border="1">
         <tr>
@@ -47,12 +47,14 @@
         <tr>
             <td>Nómina:</td>
             <td>
+                <!-- Sin regla de sueldo para la categoría y los años no hay nómina que mostrar -->
+                <c:set var="sueldo" value="${not empty empleado ? (empleado.sueldoValido ? empleado.sueldoTotal : '') : param.sueldoTotal}" />
                 <c:choose>
-                    <c:when test="${not empty empleado.sueldoTotal}">
-                        <input type="text" name="sueldoTotal" value="${empleado.sueldoTotal}" readonly>
+                    <c:when test="${empty sueldo or sueldo == '-1'}">
+                        <span class="error">Sin sueldo: no hay regla para su categoría y años.</span>
                     </c:when>
                     <c:otherwise>
-                        <input type="text" name="sueldoTotal" value="${param.sueldoTotal}" readonly>
+                        <input type="text" name="sueldoTotal" value="${sueldo}" readonly>
                     </c:otherwise>
                 </c:choose>
             </td>
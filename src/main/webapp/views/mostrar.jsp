@@ -9,6 +9,10 @@
 </head>
 <body>
    <h1>Buscar Empleados</h1>
+<!-- Sección para mostrar mensajes -->
+<c:if test="${not empty mensajeError}">
+    <p class="error"><c:out value="${mensajeError}" /></p>
+</c:if>
 <form name="buscarForm" action="empleado" method="post">
     <input type="hidden" name="opcion" value="buscarPorAtributo">
     <!-- Parámetro 'busquedaIniciada' para saber si se ha realizado una búsqueda -->
@@ -57,6 +61,45 @@
     <button type="button" onclick="window.location.href='index.jsp';">Volver</button>
 </form>
 
+<!-- Búsqueda avanzada: los criterios indicados se combinan entre sí -->
+<h2>Búsqueda avanzada</h2>
+<form name="busquedaAvanzadaForm" action="empleado" method="post">
+    <input type="hidden" name="opcion" value="buscarPorAtributo">
+    <input type="hidden" name="busquedaIniciada" value="true">
+
+    <table border="1">
+        <tr>
+            <td>El nombre empieza por:</td>
+            <td><input type="text" name="prefijoNombre" value="<c:out value='${param.prefijoNombre}' />"></td>
+        </tr>
+        <tr>
+            <td>Sexo:</td>
+            <td>
+                <select name="sexoFiltro">
+                    <option value="">Cualquiera</option>
+                    <option value="M" ${param.sexoFiltro == 'M' ? 'selected' : ''}>M</option>
+                    <option value="F" ${param.sexoFiltro == 'F' ? 'selected' : ''}>F</option>
+                </select>
+            </td>
+        </tr>
+        <tr>
+            <td>Categoria:</td>
+            <td>
+                de <input type="number" name="categoriaMinima" min="1" max="10" value="<c:out value='${param.categoriaMinima}' />">
+                a <input type="number" name="categoriaMaxima" min="1" max="10" value="<c:out value='${param.categoriaMaxima}' />">
+            </td>
+        </tr>
+        <tr>
+            <td>Años en la empresa:</td>
+            <td>
+                de <input type="number" name="anyosMinimos" min="0" value="<c:out value='${param.anyosMinimos}' />">
+                a <input type="number" name="anyosMaximos" min="0" value="<c:out value='${param.anyosMaximos}' />">
+            </td>
+        </tr>
+    </table>
+    <button type="submit">Buscar</button>
+</form>
+
 <div>
     <h2>Resultados de la búsqueda</h2>
 
@@ -93,7 +136,7 @@
                                     <input type="hidden" name="sexo" value="${empleado.sexo}">
                                     <input type="hidden" name="categoria" value="${empleado.categoria}">
                                     <input type="hidden" name="anyos" value="${empleado.anyos}">
-                                    <input type="hidden" name="sueldoTotal" value="${empleado.sueldoTotal}">
+                                    <input type="hidden" name="sueldoTotal" value="${empleado.sueldoValido ? empleado.sueldoTotal : ''}">
                                     <button type="submit">Modificar</button>
                                 </form>
                             </td>